@@ -0,0 +1,88 @@
+package ma.fullstackclone.airbnb.broker;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An event about a property or a booking, sent on the {@code domain-events} topic and streamed to the SSE clients
+ * following it.
+ * <p>
+ * Events only carry ids, logins and the changed values: they are serialized as JSON with a short {@code type} name and
+ * without null fields. Clients follow routing keys, see {@link #routingKeys()}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes(
+    {
+        @JsonSubTypes.Type(value = DomainEvent.PropertyPriceChanged.class, name = "price"),
+        @JsonSubTypes.Type(value = DomainEvent.BookingConfirmed.class, name = "booking"),
+        @JsonSubTypes.Type(value = DomainEvent.ReviewCreated.class, name = "review"),
+    }
+)
+public sealed interface DomainEvent {
+    String PROPERTY_KEY_PREFIX = "property:";
+
+    String HOST_KEY_PREFIX = "host:";
+
+    static String propertyKey(Long propertyId) {
+        return PROPERTY_KEY_PREFIX + propertyId;
+    }
+
+    static String hostKey(String hostLogin) {
+        return HOST_KEY_PREFIX + hostLogin;
+    }
+
+    Long propertyId();
+
+    String hostLogin();
+
+    /**
+     * The keys of the subscriptions which receive this event: the property it is about, and its host.
+     */
+    default List<String> routingKeys() {
+        List<String> keys = new ArrayList<>(2);
+        if (propertyId() != null) {
+            keys.add(propertyKey(propertyId()));
+        }
+        if (hostLogin() != null) {
+            keys.add(hostKey(hostLogin()));
+        }
+        return keys;
+    }
+
+    /**
+     * The nightly price of a property changed.
+     */
+    record PropertyPriceChanged(Long propertyId, String hostLogin, BigDecimal previousPrice, BigDecimal price, Instant date)
+        implements DomainEvent {}
+
+    /**
+     * A booking was confirmed. Its guest and dates are private to the host, so it is only routed to the host.
+     */
+    record BookingConfirmed(
+        Long bookingId,
+        Long propertyId,
+        String hostLogin,
+        String guestLogin,
+        Instant checkInDate,
+        Instant checkOutDate,
+        Instant date
+    )
+        implements DomainEvent {
+        @Override
+        public List<String> routingKeys() {
+            return hostLogin != null ? List.of(DomainEvent.hostKey(hostLogin)) : List.of();
+        }
+    }
+
+    /**
+     * A review was posted on a property.
+     */
+    record ReviewCreated(Long reviewId, Long propertyId, String hostLogin, String authorLogin, Integer rating, Instant date)
+        implements DomainEvent {}
+}
@@ -0,0 +1,110 @@
+package ma.fullstackclone.airbnb.broker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.broker.SseDispatcher.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams the {@link DomainEvent}s of the {@code domain-events} topic to the SSE clients following them.
+ * <p>
+ * Subscriptions are indexed by routing key ({@code property:<id>}, {@code host:<login>}), so an event only costs a
+ * lookup per key of the event and a queue offer per interested subscriber, however many clients are connected. Every
+ * instance receives every event and serves the clients connected to it.
+ */
+@Component
+public class DomainEventConsumer implements Consumer<String> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DomainEventConsumer.class);
+
+    private final Map<String, Set<Subscription>> subscriptionsByKey = new ConcurrentHashMap<>();
+
+    private final Map<Subscription, Set<String>> keysBySubscription = new ConcurrentHashMap<>();
+
+    private final SseDispatcher sseDispatcher;
+
+    private final ObjectMapper objectMapper;
+
+    public DomainEventConsumer(SseDispatcher sseDispatcher, ObjectMapper objectMapper) {
+        this.sseDispatcher = sseDispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Open a subscription to the events of some routing keys.
+     *
+     * @param user the login of the subscriber.
+     * @param keys the routing keys followed, see {@link DomainEvent#propertyKey(Long)} and {@link DomainEvent#hostKey(String)}.
+     * @return the emitter of the subscription.
+     */
+    public SseEmitter register(String user, Set<String> keys) {
+        LOG.debug("Registering domain events sse client for {} on {}", user, keys);
+        Subscription subscription = sseDispatcher.open(user, this::remove);
+        keysBySubscription.put(subscription, Set.copyOf(keys));
+        keys.forEach(key ->
+            subscriptionsByKey.compute(key, (k, subscriptions) -> {
+                Set<Subscription> result = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+                result.add(subscription);
+                return result;
+            })
+        );
+        if (!subscription.isActive()) {
+            // closed while being indexed
+            keysBySubscription.remove(subscription);
+            unindex(subscription, keys);
+        }
+        return subscription.getEmitter();
+    }
+
+    @Override
+    public void accept(String input) {
+        DomainEvent event;
+        try {
+            event = objectMapper.readValue(input, DomainEvent.class);
+        } catch (JsonProcessingException e) {
+            LOG.warn("Ignoring unreadable domain event {}: {}", input, e.getMessage());
+            return;
+        }
+        LOG.debug("Got domain event: {}", event);
+        // a subscriber following both the property and its host receives the event once
+        Set<Subscription> recipients = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (String key : event.routingKeys()) {
+            Collection<Subscription> subscriptions = subscriptionsByKey.get(key);
+            if (subscriptions != null) {
+                recipients.addAll(subscriptions);
+            }
+        }
+        recipients.forEach(subscription -> sseDispatcher.send(subscription, input));
+    }
+
+    int getSubscriptionCount(String key) {
+        Set<Subscription> subscriptions = subscriptionsByKey.get(key);
+        return subscriptions != null ? subscriptions.size() : 0;
+    }
+
+    private void remove(Subscription subscription) {
+        Set<String> keys = keysBySubscription.remove(subscription);
+        if (keys != null) {
+            unindex(subscription, keys);
+        }
+    }
+
+    private void unindex(Subscription subscription, Set<String> keys) {
+        keys.forEach(key ->
+            subscriptionsByKey.computeIfPresent(key, (k, subscriptions) -> {
+                subscriptions.remove(subscription);
+                return subscriptions.isEmpty() ? null : subscriptions;
+            })
+        );
+    }
+}
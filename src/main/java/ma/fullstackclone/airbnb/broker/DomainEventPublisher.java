@@ -0,0 +1,51 @@
+package ma.fullstackclone.airbnb.broker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the {@link DomainEvent}s to the {@code domain-events} topic, keyed by property so the events of a property
+ * stay in order.
+ * <p>
+ * Events are notifications: one which cannot be sent is logged and lost.
+ */
+@Component
+public class DomainEventPublisher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DomainEventPublisher.class);
+
+    public static final String BINDING_NAME = "domainEvent-out-0";
+
+    private final StreamBridge streamBridge;
+
+    private final ObjectMapper objectMapper;
+
+    public DomainEventPublisher(StreamBridge streamBridge, ObjectMapper objectMapper) {
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+    }
+
+    public void publish(DomainEvent event) {
+        LOG.debug("Publishing domain event : {}", event);
+        try {
+            String payload = objectMapper.writeValueAsString(event);
+            String key = DomainEvent.propertyKey(event.propertyId());
+            boolean sent = streamBridge.send(
+                BINDING_NAME,
+                MessageBuilder.withPayload(payload).setHeader(KafkaHeaders.KEY, key.getBytes(StandardCharsets.UTF_8)).build()
+            );
+            if (!sent) {
+                LOG.warn("Domain event {} was not sent", event);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            LOG.warn("Could not publish domain event {}: {}", event, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package ma.fullstackclone.airbnb.broker;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes messages to Kafka without waiting for each one.
+ * <p>
+ * All the requests share one idempotent producer: the messages sent within {@code application.publisher.linger} of
+ * each other are grouped in compressed batches, up to {@code application.publisher.batch-size} bytes per partition,
+ * whatever request they come from. {@link #publish(List)} only queues the messages in the producer and returns a
+ * future completed once the broker has acknowledged all of them. Queuing blocks for at most
+ * {@code application.publisher.max-block}, when the buffer is full or the brokers are unreachable, and the future then
+ * fails.
+ */
+@Component
+public class KafkaBatchPublisher implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaBatchPublisher.class);
+
+    public static final String ACK_METER_NAME = "kafka.publish.acknowledgement";
+    public static final String MESSAGES_METER_NAME = "kafka.publish.messages";
+
+    private final ApplicationProperties.Publisher publisherProperties;
+
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter acknowledgedCounter;
+
+    private final Counter failedCounter;
+
+    public KafkaBatchPublisher(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.publisherProperties = applicationProperties.getPublisher();
+        this.producerFactory = new DefaultKafkaProducerFactory<>(producerConfiguration(publisherProperties));
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.meterRegistry = meterRegistry;
+        this.acknowledgedCounter = Counter.builder(MESSAGES_METER_NAME)
+            .description("Number of messages published through the batch publisher")
+            .tag("outcome", "acknowledged")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder(MESSAGES_METER_NAME)
+            .description("Number of messages published through the batch publisher")
+            .tag("outcome", "failed")
+            .register(meterRegistry);
+    }
+
+    static Map<String, Object> producerConfiguration(ApplicationProperties.Publisher publisherProperties) {
+        int linger = (int) publisherProperties.getLinger().toMillis();
+        int ackTimeout = (int) publisherProperties.getAckTimeout().toMillis();
+        Map<String, Object> configuration = new HashMap<>();
+        configuration.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, publisherProperties.getBootstrapServers());
+        configuration.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configuration.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configuration.put(ProducerConfig.LINGER_MS_CONFIG, linger);
+        configuration.put(ProducerConfig.BATCH_SIZE_CONFIG, publisherProperties.getBatchSize());
+        configuration.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, publisherProperties.getCompressionType());
+        configuration.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, publisherProperties.isIdempotence());
+        // idempotence requires the acknowledgement of all the in-sync replicas
+        configuration.put(ProducerConfig.ACKS_CONFIG, publisherProperties.isIdempotence() ? "all" : "1");
+        // a full buffer or unknown metadata blocks the servlet thread queuing the messages: fail fast instead
+        configuration.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, publisherProperties.getMaxBlock().toMillis());
+        // the producer rejects a delivery timeout shorter than the linger plus the request timeout
+        int requestTimeout = Math.max(1, ackTimeout - linger);
+        configuration.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeout);
+        configuration.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, Math.max(ackTimeout, linger + requestTimeout));
+        return configuration;
+    }
+
+    public int getMaxBatchMessages() {
+        return publisherProperties.getMaxBatchMessages();
+    }
+
+    /**
+     * Publish messages to the {@code application.publisher.topic} topic.
+     *
+     * @param messages the messages, sent in this order.
+     * @return a future completed with the number of messages once they are all acknowledged, or exceptionally with the
+     * first failure.
+     */
+    public CompletableFuture<Integer> publish(List<String> messages) {
+        LOG.debug("Publishing {} messages to {}", messages.size(), publisherProperties.getTopic());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<?>[] acknowledgements = new CompletableFuture<?>[messages.size()];
+        try {
+            for (int i = 0; i < messages.size(); i++) {
+                acknowledgements[i] = kafkaTemplate.send(publisherProperties.getTopic(), messages.get(i));
+            }
+        } catch (RuntimeException e) {
+            failedCounter.increment(messages.size());
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.allOf(acknowledgements)
+            .orTimeout(publisherProperties.getAckTimeout().toMillis(), TimeUnit.MILLISECONDS)
+            .handle((result, failure) -> {
+                sample.stop(
+                    Timer.builder(ACK_METER_NAME)
+                        .description("Time from the publication of a batch to the acknowledgement of all its messages")
+                        .tag("outcome", failure == null ? "acknowledged" : "failed")
+                        .register(meterRegistry)
+                );
+                if (failure != null) {
+                    failedCounter.increment(messages.size());
+                    throw failure instanceof RuntimeException runtimeException
+                        ? runtimeException
+                        : new IllegalStateException(failure);
+                }
+                acknowledgedCounter.increment(messages.size());
+                return messages.size();
+            });
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
@@ -1,51 +1,76 @@
 package ma.fullstackclone.airbnb.broker;
 
-import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
-
-import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.broker.SseDispatcher.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+/**
+ * Broadcasts the messages of {@code sse-topic} to all the SSE subscribers.
+ * <p>
+ * The Kafka listener thread only queues each message for each subscriber, the {@link SseDispatcher} sends them.
+ */
 @Component
 public class KafkaConsumer implements Consumer<String> {
 
     private static final Logger LOG = LoggerFactory.getLogger(KafkaConsumer.class);
 
-    private Map<String, SseEmitter> emitters = new HashMap<>();
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final SseDispatcher sseDispatcher;
+
+    public KafkaConsumer(SseDispatcher sseDispatcher) {
+        this.sseDispatcher = sseDispatcher;
+    }
 
+    /**
+     * Open a new subscription for a user, who may have several at the same time.
+     */
     public SseEmitter register(String key) {
         LOG.debug("Registering sse client for {}", key);
-        SseEmitter emitter = new SseEmitter();
-        emitter.onCompletion(() -> emitters.remove(key));
-        emitters.put(key, emitter);
-        return emitter;
+        Subscription subscription = sseDispatcher.open(key, this::remove);
+        subscriptions.compute(key, (k, userSubscriptions) -> {
+            Set<Subscription> result = userSubscriptions != null ? userSubscriptions : ConcurrentHashMap.newKeySet();
+            result.add(subscription);
+            return result;
+        });
+        if (!subscription.isActive()) {
+            // closed while being added
+            remove(subscription);
+        }
+        return subscription.getEmitter();
     }
 
+    /**
+     * Close all the subscriptions of a user.
+     */
     public void unregister(String key) {
         LOG.debug("Unregistering sse emitter for: {}", key);
-        Optional.ofNullable(emitters.get(key)).ifPresent(SseEmitter::complete);
+        Set<Subscription> userSubscriptions = subscriptions.get(key);
+        if (userSubscriptions != null) {
+            userSubscriptions.forEach(sseDispatcher::close);
+        }
     }
 
     @Override
     public void accept(String input) {
         LOG.debug("Got message from kafka stream: {}", input);
-        emitters
-            .entrySet()
-            .stream()
-            .map(Map.Entry::getValue)
-            .forEach((SseEmitter emitter) -> {
-                try {
-                    emitter.send(event().data(input, MediaType.TEXT_PLAIN));
-                } catch (IOException e) {
-                    LOG.debug("error sending sse message, {}", input);
-                }
-            });
+        subscriptions.values().forEach(userSubscriptions -> userSubscriptions.forEach(subscription -> sseDispatcher.send(subscription, input)));
+    }
+
+    int getSubscriberCount() {
+        return subscriptions.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void remove(Subscription subscription) {
+        subscriptions.computeIfPresent(subscription.getUser(), (key, userSubscriptions) -> {
+            userSubscriptions.remove(subscription);
+            return userSubscriptions.isEmpty() ? null : userSubscriptions;
+        });
     }
 }
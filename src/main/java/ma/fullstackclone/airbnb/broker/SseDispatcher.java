@@ -0,0 +1,195 @@
+package ma.fullstackclone.airbnb.broker;
+
+import static org.springframework.web.servlet.mvc.method.annotation.SseEmitter.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Sends messages to SSE subscriptions without blocking the caller.
+ * <p>
+ * Messages are queued in a bounded queue per subscription, and a pool of dispatch threads sends them, each subscription
+ * being drained by at most one thread at a time so its messages stay in order. A slow subscriber only fills its own
+ * queue, and then loses messages or is disconnected according to {@code application.sse.overflow-policy}. A subscription
+ * whose emitter fails, completes or times out is closed.
+ */
+@Component
+public class SseDispatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SseDispatcher.class);
+
+    public static final String SUBSCRIBERS_METER_NAME = "sse.subscribers";
+    public static final String DROPPED_METER_NAME = "sse.messages.dropped";
+    public static final String DISCONNECTED_METER_NAME = "sse.subscribers.disconnected";
+
+    private final Executor dispatchExecutor;
+
+    private final ApplicationProperties.Sse sseProperties;
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final Counter droppedCounter;
+
+    private final Counter disconnectedCounter;
+
+    public SseDispatcher(
+        @Qualifier("sseDispatchExecutor") Executor dispatchExecutor,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.dispatchExecutor = dispatchExecutor;
+        this.sseProperties = applicationProperties.getSse();
+        Gauge.builder(SUBSCRIBERS_METER_NAME, subscriberCount, AtomicInteger::get)
+            .description("Number of open SSE subscriptions")
+            .register(meterRegistry);
+        this.droppedCounter = Counter.builder(DROPPED_METER_NAME)
+            .description("Number of messages not sent to a subscriber whose queue was full")
+            .baseUnit("messages")
+            .register(meterRegistry);
+        this.disconnectedCounter = Counter.builder(DISCONNECTED_METER_NAME)
+            .description("Number of subscribers disconnected because their queue was full")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Open a subscription.
+     *
+     * @param user the login of the subscriber.
+     * @param onClose called once when the subscription is closed, whatever the cause.
+     * @return the subscription, whose emitter is to be returned to the client.
+     */
+    public Subscription open(String user, Consumer<Subscription> onClose) {
+        Subscription subscription = new Subscription(
+            user,
+            new SseEmitter(),
+            new ArrayBlockingQueue<>(Math.max(1, sseProperties.getQueueCapacity())),
+            onClose
+        );
+        subscription.emitter.onCompletion(() -> closed(subscription));
+        subscription.emitter.onTimeout(() -> closed(subscription));
+        subscription.emitter.onError(e -> closed(subscription));
+        subscriberCount.incrementAndGet();
+        return subscription;
+    }
+
+    /**
+     * Complete the emitter of a subscription and close it.
+     */
+    public void close(Subscription subscription) {
+        closed(subscription);
+        subscription.emitter.complete();
+    }
+
+    /**
+     * Queue a message for a subscription.
+     */
+    public void send(Subscription subscription, String message) {
+        if (!subscription.active.get()) {
+            return;
+        }
+        if (!subscription.queue.offer(message)) {
+            switch (sseProperties.getOverflowPolicy()) {
+                case DROP_OLDEST -> {
+                    subscription.queue.poll();
+                    droppedCounter.increment();
+                    if (!subscription.queue.offer(message)) {
+                        droppedCounter.increment();
+                    }
+                }
+                case DROP_NEWEST -> droppedCounter.increment();
+                case DISCONNECT -> {
+                    LOG.debug("Disconnecting slow sse client {}", subscription.user);
+                    droppedCounter.increment(1 + subscription.queue.size());
+                    disconnectedCounter.increment();
+                    subscription.queue.clear();
+                    close(subscription);
+                    return;
+                }
+            }
+        }
+        schedule(subscription);
+    }
+
+    int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private void schedule(Subscription subscription) {
+        if (subscription.draining.compareAndSet(false, true)) {
+            dispatchExecutor.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        String message;
+        while (subscription.active.get() && (message = subscription.queue.poll()) != null) {
+            try {
+                subscription.emitter.send(event().data(message, MediaType.TEXT_PLAIN));
+            } catch (IOException | IllegalStateException e) {
+                LOG.debug("error sending sse message to {}, closing the subscription: {}", subscription.user, e.getMessage());
+                closed(subscription);
+                subscription.emitter.completeWithError(e);
+                return;
+            }
+        }
+        subscription.draining.set(false);
+        // A message queued after the last poll but before the flag was reset would wait for the next one
+        if (subscription.active.get() && !subscription.queue.isEmpty()) {
+            schedule(subscription);
+        }
+    }
+
+    private void closed(Subscription subscription) {
+        if (subscription.active.compareAndSet(true, false)) {
+            subscriberCount.decrementAndGet();
+            subscription.onClose.accept(subscription);
+        }
+    }
+
+    /**
+     * An SSE stream opened by a user.
+     */
+    public static final class Subscription {
+
+        private final String user;
+        private final SseEmitter emitter;
+        private final Queue<String> queue;
+        private final Consumer<Subscription> onClose;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean active = new AtomicBoolean(true);
+
+        private Subscription(String user, SseEmitter emitter, Queue<String> queue, Consumer<Subscription> onClose) {
+            this.user = user;
+            this.emitter = emitter;
+            this.queue = queue;
+            this.onClose = onClose;
+        }
+
+        public String getUser() {
+            return user;
+        }
+
+        public SseEmitter getEmitter() {
+            return emitter;
+        }
+
+        public boolean isActive() {
+            return active.get();
+        }
+    }
+}
@@ -1,6 +1,16 @@
 package ma.fullstackclone.airbnb.config;
 
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to JHipster.
@@ -13,12 +23,72 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Search search = new Search();
+
+    private final Pagination pagination = new Pagination();
+
+    private final Rating rating = new Rating();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Sse sse = new Sse();
+
+    private final Publisher publisher = new Publisher();
+
+    private final Tracker tracker = new Tracker();
+
+    private final Pricing pricing = new Pricing();
+
+    private final Cache cache = new Cache();
+
+    private final ReferenceData referenceData = new ReferenceData();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Search getSearch() {
+        return search;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Rating getRating() {
+        return rating;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Sse getSse() {
+        return sse;
+    }
+
+    public Publisher getPublisher() {
+        return publisher;
+    }
+
+    public Tracker getTracker() {
+        return tracker;
+    }
+
+    public Pricing getPricing() {
+        return pricing;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public ReferenceData getReferenceData() {
+        return referenceData;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +103,932 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Search {
+
+        /**
+         * Engine answering the map searches on properties.
+         */
+        private GeoEngine geoEngine = GeoEngine.ELASTICSEARCH;
+
+        /**
+         * Side of the cells of the in-memory geo grid, in degrees.
+         */
+        private double geoGridCellDegrees = 0.1;
+
+        /**
+         * Engine counting the facets of the property searches.
+         */
+        private FacetEngine facetEngine = FacetEngine.ELASTICSEARCH;
+
+        /**
+         * Maximum number of values returned per facet, the most frequent first.
+         */
+        private int facetSize = 50;
+
+        /**
+         * Width of the buckets of the price facet.
+         */
+        private double facetPriceInterval = 50;
+
+        /**
+         * Number of rows read and sent per {@code _bulk} request when rebuilding an index.
+         */
+        private int reindexBatchSize = 500;
+
+        /**
+         * Number of {@code _bulk} requests of a rebuild running at the same time.
+         */
+        private int reindexParallelism = 2;
+
+        private final Indexing indexing = new Indexing();
+
+        public GeoEngine getGeoEngine() {
+            return geoEngine;
+        }
+
+        public void setGeoEngine(GeoEngine geoEngine) {
+            this.geoEngine = geoEngine;
+        }
+
+        public double getGeoGridCellDegrees() {
+            return geoGridCellDegrees;
+        }
+
+        public void setGeoGridCellDegrees(double geoGridCellDegrees) {
+            this.geoGridCellDegrees = geoGridCellDegrees;
+        }
+
+        public FacetEngine getFacetEngine() {
+            return facetEngine;
+        }
+
+        public void setFacetEngine(FacetEngine facetEngine) {
+            this.facetEngine = facetEngine;
+        }
+
+        public int getFacetSize() {
+            return facetSize;
+        }
+
+        public void setFacetSize(int facetSize) {
+            this.facetSize = facetSize;
+        }
+
+        public double getFacetPriceInterval() {
+            return facetPriceInterval;
+        }
+
+        public void setFacetPriceInterval(double facetPriceInterval) {
+            this.facetPriceInterval = facetPriceInterval;
+        }
+
+        public int getReindexBatchSize() {
+            return reindexBatchSize;
+        }
+
+        public void setReindexBatchSize(int reindexBatchSize) {
+            this.reindexBatchSize = reindexBatchSize;
+        }
+
+        public int getReindexParallelism() {
+            return reindexParallelism;
+        }
+
+        public void setReindexParallelism(int reindexParallelism) {
+            this.reindexParallelism = reindexParallelism;
+        }
+
+        public Indexing getIndexing() {
+            return indexing;
+        }
+
+        public static class Indexing {
+
+            /**
+             * Maximum number of documents per {@code _bulk} request; a flush starts as soon as this many are queued.
+             */
+            private int batchSize = 200;
+
+            /**
+             * Maximum time a queued document waits before being flushed.
+             */
+            private Duration flushInterval = Duration.ofMillis(500);
+
+            /**
+             * Maximum number of queued documents: the outbox relay stops claiming events while the queue is full.
+             */
+            private int capacity = 10_000;
+
+            public int getBatchSize() {
+                return batchSize;
+            }
+
+            public void setBatchSize(int batchSize) {
+                this.batchSize = batchSize;
+            }
+
+            public Duration getFlushInterval() {
+                return flushInterval;
+            }
+
+            public void setFlushInterval(Duration flushInterval) {
+                this.flushInterval = flushInterval;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+        }
+
+        public enum GeoEngine {
+            /**
+             * {@code geo_point} queries on the {@code property} index.
+             */
+            ELASTICSEARCH,
+            /**
+             * In-process grid index loaded from the database.
+             */
+            MEMORY,
+        }
+
+        public enum FacetEngine {
+            /**
+             * Aggregations on the {@code property} index.
+             */
+            ELASTICSEARCH,
+            /**
+             * In-process bitmaps loaded from the database.
+             */
+            MEMORY,
+        }
+    }
+
+    public static class Pagination {
+
+        /**
+         * How the {@code X-Total-Count} header of the list endpoints is computed.
+         */
+        private CountStrategy countStrategy = CountStrategy.EXACT;
+
+        /**
+         * Overrides of {@code count-strategy} for some list endpoints, keyed by their path below {@code /api} (e.g. {@code properties}).
+         */
+        private final Map<String, CountStrategy> countStrategies = new HashMap<>();
+
+        /**
+         * How long an estimated count is reused.
+         */
+        private Duration estimatedCountTimeToLive = Duration.ofMinutes(1);
+
+        /**
+         * Maximum number of estimated counts kept in memory.
+         */
+        private long estimatedCountMaxEntries = 1000;
+
+        public CountStrategy getCountStrategy() {
+            return countStrategy;
+        }
+
+        public void setCountStrategy(CountStrategy countStrategy) {
+            this.countStrategy = countStrategy;
+        }
+
+        public Map<String, CountStrategy> getCountStrategies() {
+            return countStrategies;
+        }
+
+        public Duration getEstimatedCountTimeToLive() {
+            return estimatedCountTimeToLive;
+        }
+
+        public void setEstimatedCountTimeToLive(Duration estimatedCountTimeToLive) {
+            this.estimatedCountTimeToLive = estimatedCountTimeToLive;
+        }
+
+        public long getEstimatedCountMaxEntries() {
+            return estimatedCountMaxEntries;
+        }
+
+        public void setEstimatedCountMaxEntries(long estimatedCountMaxEntries) {
+            this.estimatedCountMaxEntries = estimatedCountMaxEntries;
+        }
+
+        public enum CountStrategy {
+            /**
+             * A {@code count} query with the filters of the page.
+             */
+            EXACT,
+            /**
+             * The PostgreSQL planner statistics when there is no filter, else an exact count cached for a while.
+             */
+            ESTIMATED,
+            /**
+             * No count: the {@code Link} header only tells whether there is a next page.
+             */
+            NONE,
+        }
+    }
+
+    public static class Rating {
+
+        /**
+         * Cron of the rebuild of the property rating aggregates from the reviews, {@code -} to disable it.
+         */
+        private String rebuildCron = "-";
+
+        /**
+         * Number of consecutive property ids recomputed per transaction by the rebuild.
+         */
+        private int rebuildBatchSize = 1000;
+
+        /**
+         * Number of batches of the rebuild running at the same time.
+         */
+        private int rebuildParallelism = 4;
+
+        public String getRebuildCron() {
+            return rebuildCron;
+        }
+
+        public void setRebuildCron(String rebuildCron) {
+            this.rebuildCron = rebuildCron;
+        }
+
+        public int getRebuildBatchSize() {
+            return rebuildBatchSize;
+        }
+
+        public void setRebuildBatchSize(int rebuildBatchSize) {
+            this.rebuildBatchSize = rebuildBatchSize;
+        }
+
+        public int getRebuildParallelism() {
+            return rebuildParallelism;
+        }
+
+        public void setRebuildParallelism(int rebuildParallelism) {
+            this.rebuildParallelism = rebuildParallelism;
+        }
+    }
+
+    public static class Outbox {
+
+        /**
+         * Write the entity changes to the outbox table and relay them once committed; when {@code false}, search documents
+         * are written right away in the calling thread and no change events are published.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of events claimed per relay transaction.
+         */
+        private int batchSize = 200;
+
+        /**
+         * Delay between two polls of the outbox table.
+         */
+        private Duration pollInterval = Duration.ofMillis(500);
+
+        /**
+         * Number of attempts to relay an event before it is dropped.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry of a failed event, doubled at each attempt.
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+
+        /**
+         * How long claimed events are hidden from the other relays: the events of a relay which stops before relaying
+         * them are relayed again after it.
+         */
+        private Duration claimTimeout = Duration.ofMinutes(1);
+
+        /**
+         * Spring Cloud Stream binding the change events are published to.
+         */
+        private String binding = "outboxEvent-out-0";
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getRetryBackoff() {
+            return retryBackoff;
+        }
+
+        public void setRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+        }
+
+        public Duration getClaimTimeout() {
+            return claimTimeout;
+        }
+
+        public void setClaimTimeout(Duration claimTimeout) {
+            this.claimTimeout = claimTimeout;
+        }
+
+        public String getBinding() {
+            return binding;
+        }
+
+        public void setBinding(String binding) {
+            this.binding = binding;
+        }
+    }
+
+    public static class Sse {
+
+        /**
+         * Number of messages waiting to be sent to a subscriber before the overflow policy applies.
+         */
+        private int queueCapacity = 256;
+
+        /**
+         * What happens to a message for a subscriber whose queue is full.
+         */
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST;
+
+        /**
+         * Number of threads sending the messages to the subscribers.
+         */
+        private int dispatchThreads = 8;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getDispatchThreads() {
+            return dispatchThreads;
+        }
+
+        public void setDispatchThreads(int dispatchThreads) {
+            this.dispatchThreads = dispatchThreads;
+        }
+
+        public enum OverflowPolicy {
+            /**
+             * Drop the oldest queued message to make room for the new one.
+             */
+            DROP_OLDEST,
+            /**
+             * Drop the new message.
+             */
+            DROP_NEWEST,
+            /**
+             * Disconnect the subscriber, which has to register again.
+             */
+            DISCONNECT,
+        }
+    }
+
+    public static class Publisher {
+
+        /**
+         * Kafka brokers the batch publish endpoint sends to.
+         */
+        private String bootstrapServers = "localhost:9092";
+
+        /**
+         * Topic the batch publish endpoint sends to.
+         */
+        private String topic = "binding-out-0";
+
+        /**
+         * How long the producer waits for more messages before sending a partial batch.
+         */
+        private Duration linger = Duration.ofMillis(5);
+
+        /**
+         * Maximum size of a batch of messages to one partition, in bytes.
+         */
+        private int batchSize = 64 * 1024;
+
+        /**
+         * Compression of the batches: none, gzip, snappy, lz4 or zstd.
+         */
+        private String compressionType = "lz4";
+
+        /**
+         * Whether the producer is idempotent, so retries neither duplicate nor reorder messages.
+         */
+        private boolean idempotence = true;
+
+        /**
+         * Maximum number of messages of one publish request.
+         */
+        private int maxBatchMessages = 1000;
+
+        /**
+         * How long a publish request waits for the acknowledgement of its messages.
+         */
+        private Duration ackTimeout = Duration.ofSeconds(30);
+
+        /**
+         * How long a publish request may block on a full producer buffer or on unknown topic metadata before it fails.
+         */
+        private Duration maxBlock = Duration.ofSeconds(1);
+
+        public String getBootstrapServers() {
+            return bootstrapServers;
+        }
+
+        public void setBootstrapServers(String bootstrapServers) {
+            this.bootstrapServers = bootstrapServers;
+        }
+
+        public String getTopic() {
+            return topic;
+        }
+
+        public void setTopic(String topic) {
+            this.topic = topic;
+        }
+
+        public Duration getLinger() {
+            return linger;
+        }
+
+        public void setLinger(Duration linger) {
+            this.linger = linger;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        public boolean isIdempotence() {
+            return idempotence;
+        }
+
+        public void setIdempotence(boolean idempotence) {
+            this.idempotence = idempotence;
+        }
+
+        public int getMaxBatchMessages() {
+            return maxBatchMessages;
+        }
+
+        public void setMaxBatchMessages(int maxBatchMessages) {
+            this.maxBatchMessages = maxBatchMessages;
+        }
+
+        public Duration getAckTimeout() {
+            return ackTimeout;
+        }
+
+        public void setAckTimeout(Duration ackTimeout) {
+            this.ackTimeout = ackTimeout;
+        }
+
+        public Duration getMaxBlock() {
+            return maxBlock;
+        }
+
+        public void setMaxBlock(Duration maxBlock) {
+            this.maxBlock = maxBlock;
+        }
+    }
+
+    public static class Tracker {
+
+        /**
+         * How the activity snapshots reach the administrators.
+         */
+        private Mode mode = Mode.SIMPLE;
+
+        /**
+         * Interval between two activity snapshots.
+         */
+        private Duration snapshotInterval = Duration.ofSeconds(1);
+
+        /**
+         * Maximum number of sessions listed in a snapshot, the most recently active first. Pages count all the sessions.
+         */
+        private int maxSessions = 200;
+
+        /**
+         * Thread pool handling the messages received from the websocket clients.
+         */
+        private final Pool inbound = new Pool();
+
+        /**
+         * Thread pool sending the messages to the websocket clients.
+         */
+        private final Pool outbound = new Pool();
+
+        public Mode getMode() {
+            return mode;
+        }
+
+        public void setMode(Mode mode) {
+            this.mode = mode;
+        }
+
+        public Duration getSnapshotInterval() {
+            return snapshotInterval;
+        }
+
+        public void setSnapshotInterval(Duration snapshotInterval) {
+            this.snapshotInterval = snapshotInterval;
+        }
+
+        public int getMaxSessions() {
+            return maxSessions;
+        }
+
+        public void setMaxSessions(int maxSessions) {
+            this.maxSessions = maxSessions;
+        }
+
+        public Pool getInbound() {
+            return inbound;
+        }
+
+        public Pool getOutbound() {
+            return outbound;
+        }
+
+        public enum Mode {
+            /**
+             * Each node only tracks the sessions connected to it.
+             */
+            SIMPLE,
+            /**
+             * Nodes exchange their sessions through Kafka, and each node sends the activity of all of them.
+             */
+            KAFKA,
+        }
+
+        public static class Pool {
+
+            private int corePoolSize = 4;
+
+            private int maxPoolSize = 16;
+
+            /**
+             * Number of messages waiting for a thread; messages beyond it are rejected.
+             */
+            private int queueCapacity = 10000;
+
+            public int getCorePoolSize() {
+                return corePoolSize;
+            }
+
+            public void setCorePoolSize(int corePoolSize) {
+                this.corePoolSize = corePoolSize;
+            }
+
+            public int getMaxPoolSize() {
+                return maxPoolSize;
+            }
+
+            public void setMaxPoolSize(int maxPoolSize) {
+                this.maxPoolSize = maxPoolSize;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+    }
+
+    public static class Pricing {
+
+        /**
+         * Nights priced as weekend nights.
+         */
+        private List<DayOfWeek> weekendNights = new ArrayList<>(List.of(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY));
+
+        /**
+         * Multiplier of the price of the weekend nights.
+         */
+        private BigDecimal weekendMultiplier = new BigDecimal("1.15");
+
+        /**
+         * Periods of the year with a multiplied price; the first matching season applies.
+         */
+        private List<Season> seasons = new ArrayList<>();
+
+        /**
+         * Discount, in percent, by minimum number of nights; the longest applicable stay applies.
+         */
+        private Map<Integer, BigDecimal> lengthOfStayDiscounts = new TreeMap<>(
+            Map.of(7, BigDecimal.TEN, 28, BigDecimal.valueOf(20))
+        );
+
+        /**
+         * Number of nights, from today, of the cached price calendar of a property, and maximum length of a quoted stay.
+         */
+        private int calendarDays = 365;
+
+        /**
+         * Maximum number of cached price calendars.
+         */
+        private long calendarMaxEntries = 10000;
+
+        /**
+         * Time to live of a cached price calendar; calendars are also evicted when their property changes.
+         */
+        private Duration calendarTimeToLive = Duration.ofHours(1);
+
+        public List<DayOfWeek> getWeekendNights() {
+            return weekendNights;
+        }
+
+        public void setWeekendNights(List<DayOfWeek> weekendNights) {
+            this.weekendNights = weekendNights;
+        }
+
+        public BigDecimal getWeekendMultiplier() {
+            return weekendMultiplier;
+        }
+
+        public void setWeekendMultiplier(BigDecimal weekendMultiplier) {
+            this.weekendMultiplier = weekendMultiplier;
+        }
+
+        public List<Season> getSeasons() {
+            return seasons;
+        }
+
+        public void setSeasons(List<Season> seasons) {
+            this.seasons = seasons;
+        }
+
+        public Map<Integer, BigDecimal> getLengthOfStayDiscounts() {
+            return lengthOfStayDiscounts;
+        }
+
+        public void setLengthOfStayDiscounts(Map<Integer, BigDecimal> lengthOfStayDiscounts) {
+            this.lengthOfStayDiscounts = lengthOfStayDiscounts;
+        }
+
+        public int getCalendarDays() {
+            return calendarDays;
+        }
+
+        public void setCalendarDays(int calendarDays) {
+            this.calendarDays = calendarDays;
+        }
+
+        public long getCalendarMaxEntries() {
+            return calendarMaxEntries;
+        }
+
+        public void setCalendarMaxEntries(long calendarMaxEntries) {
+            this.calendarMaxEntries = calendarMaxEntries;
+        }
+
+        public Duration getCalendarTimeToLive() {
+            return calendarTimeToLive;
+        }
+
+        public void setCalendarTimeToLive(Duration calendarTimeToLive) {
+            this.calendarTimeToLive = calendarTimeToLive;
+        }
+
+        public static class Season {
+
+            /**
+             * First night of the season, as {@code MM-dd}.
+             */
+            private String from;
+
+            /**
+             * Last night of the season, as {@code MM-dd}; before {@code from} for a season spanning the new year.
+             */
+            private String until;
+
+            /**
+             * Multiplier of the price of the nights of the season.
+             */
+            private BigDecimal multiplier = BigDecimal.ONE;
+
+            public String getFrom() {
+                return from;
+            }
+
+            public void setFrom(String from) {
+                this.from = from;
+            }
+
+            public String getUntil() {
+                return until;
+            }
+
+            public void setUntil(String until) {
+                this.until = until;
+            }
+
+            public BigDecimal getMultiplier() {
+                return multiplier;
+            }
+
+            public void setMultiplier(BigDecimal multiplier) {
+                this.multiplier = multiplier;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        /**
+         * Whether the caches keep the hit, miss and eviction statistics exposed as {@code cache.*} metrics.
+         */
+        private boolean statistics = true;
+
+        /**
+         * Sizing and expiry by cache name, overriding {@code jhipster.cache.ehcache}. Entity caches can be named without
+         * the {@code ma.fullstackclone.airbnb.domain.} package, e.g. {@code "[Property.amenities]"}.
+         */
+        private Map<String, Region> regions = new LinkedHashMap<>();
+
+        /**
+         * Invalidation of the entries written on a node in the caches of the other nodes.
+         */
+        private final Invalidation invalidation = new Invalidation();
+
+        public boolean isStatistics() {
+            return statistics;
+        }
+
+        public void setStatistics(boolean statistics) {
+            this.statistics = statistics;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        public Invalidation getInvalidation() {
+            return invalidation;
+        }
+
+        public static class Region {
+
+            /**
+             * Maximum number of entries on the heap.
+             */
+            private Long heapEntries;
+
+            /**
+             * Size of the off-heap tier, behind the heap; entries must then be serializable.
+             */
+            private DataSize offHeap;
+
+            /**
+             * Time to live of the entries.
+             */
+            private Duration timeToLive;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public DataSize getOffHeap() {
+                return offHeap;
+            }
+
+            public void setOffHeap(DataSize offHeap) {
+                this.offHeap = offHeap;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+
+        public static class Invalidation {
+
+            /**
+             * How the invalidations reach the other nodes.
+             */
+            private Mode mode = Mode.LOCAL;
+
+            /**
+             * Number of invalidation messages remembered per node, to ignore those delivered more than once.
+             */
+            private int deduplicationWindow = 1000;
+
+            public Mode getMode() {
+                return mode;
+            }
+
+            public void setMode(Mode mode) {
+                this.mode = mode;
+            }
+
+            public int getDeduplicationWindow() {
+                return deduplicationWindow;
+            }
+
+            public void setDeduplicationWindow(int deduplicationWindow) {
+                this.deduplicationWindow = deduplicationWindow;
+            }
+
+            public enum Mode {
+                /**
+                 * A single node: writes only invalidate the caches of this node.
+                 */
+                LOCAL,
+                /**
+                 * Nodes send the invalidations of their committed writes to each other through Kafka.
+                 */
+                KAFKA,
+            }
+        }
+    }
+
+    public static class ReferenceData {
+
+        /**
+         * Maximum age of the in-memory copy of a reference table; writes reload it right away.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
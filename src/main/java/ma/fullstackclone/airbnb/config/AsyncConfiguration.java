@@ -41,6 +41,17 @@ public class AsyncConfiguration implements AsyncConfigurer {
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    @Bean(name = "sseDispatchExecutor")
+    public Executor sseDispatchExecutor(ApplicationProperties applicationProperties) {
+        LOG.debug("Creating SSE Dispatch Executor");
+        int threads = Math.max(1, applicationProperties.getSse().getDispatchThreads());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("sse-dispatch-");
+        return executor;
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
@@ -1,9 +1,12 @@
 package ma.fullstackclone.airbnb.config;
 
 import java.time.Duration;
+import java.util.Map;
 import org.ehcache.config.builders.*;
+import org.ehcache.config.units.MemoryUnit;
 import org.ehcache.jsr107.Eh107Configuration;
 import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
 import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
@@ -11,6 +14,7 @@ import org.springframework.boot.info.BuildProperties;
 import org.springframework.boot.info.GitProperties;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cloud.stream.function.StreamBridge;
 import org.springframework.context.annotation.*;
 import tech.jhipster.config.JHipsterProperties;
 import tech.jhipster.config.cache.PrefixedKeyGenerator;
@@ -19,22 +23,16 @@ import tech.jhipster.config.cache.PrefixedKeyGenerator;
 @EnableCaching
 public class CacheConfiguration {
 
+    private static final String DOMAIN_PACKAGE = "ma.fullstackclone.airbnb.domain.";
+
     private GitProperties gitProperties;
     private BuildProperties buildProperties;
-    private final javax.cache.configuration.Configuration<Object, Object> jcacheConfiguration;
-
-    public CacheConfiguration(JHipsterProperties jHipsterProperties) {
-        JHipsterProperties.Cache.Ehcache ehcache = jHipsterProperties.getCache().getEhcache();
+    private final JHipsterProperties.Cache.Ehcache ehcache;
+    private final ApplicationProperties applicationProperties;
 
-        jcacheConfiguration = Eh107Configuration.fromEhcacheCacheConfiguration(
-            CacheConfigurationBuilder.newCacheConfigurationBuilder(
-                Object.class,
-                Object.class,
-                ResourcePoolsBuilder.heap(ehcache.getMaxEntries())
-            )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ehcache.getTimeToLiveSeconds())))
-                .build()
-        );
+    public CacheConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.ehcache = jHipsterProperties.getCache().getEhcache();
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -42,11 +40,21 @@ public class CacheConfiguration {
         return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
     }
 
+    @Bean
+    public ma.fullstackclone.airbnb.service.CacheInvalidationChannel cacheInvalidationChannel(ObjectProvider<StreamBridge> streamBridge) {
+        return switch (applicationProperties.getCache().getInvalidation().getMode()) {
+            case KAFKA -> new ma.fullstackclone.airbnb.service.KafkaCacheInvalidationChannel(streamBridge.getObject());
+            case LOCAL -> new ma.fullstackclone.airbnb.service.LocalCacheInvalidationChannel();
+        };
+    }
+
     @Bean
     public JCacheManagerCustomizer cacheManagerCustomizer() {
         return cm -> {
             createCache(cm, ma.fullstackclone.airbnb.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, ma.fullstackclone.airbnb.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, ma.fullstackclone.airbnb.repository.PromotionRepository.PROMOTIONS_BY_CODE_CACHE);
+            createCache(cm, ma.fullstackclone.airbnb.web.rest.util.SerializedResponseCache.SERIALIZED_RESPONSES_CACHE);
             createCache(cm, ma.fullstackclone.airbnb.domain.User.class.getName());
             createCache(cm, ma.fullstackclone.airbnb.domain.Authority.class.getName());
             createCache(cm, ma.fullstackclone.airbnb.domain.User.class.getName() + ".authorities");
@@ -63,17 +71,70 @@ public class CacheConfiguration {
             createCache(cm, ma.fullstackclone.airbnb.domain.Booking.class.getName());
             createCache(cm, ma.fullstackclone.airbnb.domain.Review.class.getName());
             createCache(cm, ma.fullstackclone.airbnb.domain.Promotion.class.getName());
+            createCache(cm, ma.fullstackclone.airbnb.domain.PropertyCalendar.class.getName());
             // jhipster-needle-ehcache-add-entry
+            ApplicationProperties.Pagination pagination = applicationProperties.getPagination();
+            createCache(
+                cm,
+                ma.fullstackclone.airbnb.service.PaginationService.ESTIMATED_COUNTS_CACHE,
+                pagination.getEstimatedCountMaxEntries(),
+                pagination.getEstimatedCountTimeToLive()
+            );
+            ApplicationProperties.Pricing pricing = applicationProperties.getPricing();
+            createCache(
+                cm,
+                ma.fullstackclone.airbnb.service.PriceQuoteService.PRICE_CALENDARS_CACHE,
+                pricing.getCalendarMaxEntries(),
+                pricing.getCalendarTimeToLive()
+            );
         };
     }
 
     private void createCache(javax.cache.CacheManager cm, String cacheName) {
+        createCache(cm, cacheName, ehcache.getMaxEntries(), Duration.ofSeconds(ehcache.getTimeToLiveSeconds()));
+    }
+
+    private void createCache(javax.cache.CacheManager cm, String cacheName, long maxEntries, Duration timeToLive) {
         javax.cache.Cache<Object, Object> cache = cm.getCache(cacheName);
         if (cache != null) {
             cache.clear();
         } else {
-            cm.createCache(cacheName, jcacheConfiguration);
+            cm.createCache(cacheName, cacheConfiguration(cacheName, maxEntries, timeToLive));
+        }
+        if (applicationProperties.getCache().isStatistics()) {
+            cm.enableStatistics(cacheName, true);
+        }
+    }
+
+    /**
+     * The configuration of a cache: its {@code application.cache.regions} entry, if any, over the given defaults.
+     */
+    javax.cache.configuration.Configuration<Object, Object> cacheConfiguration(String cacheName, long maxEntries, Duration timeToLive) {
+        ApplicationProperties.Cache.Region region = region(cacheName);
+        if (region != null && region.getHeapEntries() != null) {
+            maxEntries = region.getHeapEntries();
+        }
+        if (region != null && region.getTimeToLive() != null) {
+            timeToLive = region.getTimeToLive();
+        }
+        ResourcePoolsBuilder resourcePools = ResourcePoolsBuilder.heap(maxEntries);
+        if (region != null && region.getOffHeap() != null && region.getOffHeap().toBytes() > 0) {
+            resourcePools = resourcePools.offheap(Math.max(1, region.getOffHeap().toMegabytes()), MemoryUnit.MB);
+        }
+        return Eh107Configuration.fromEhcacheCacheConfiguration(
+            CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class, resourcePools)
+                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(timeToLive))
+                .build()
+        );
+    }
+
+    private ApplicationProperties.Cache.Region region(String cacheName) {
+        Map<String, ApplicationProperties.Cache.Region> regions = applicationProperties.getCache().getRegions();
+        ApplicationProperties.Cache.Region region = regions.get(cacheName);
+        if (region == null && cacheName.startsWith(DOMAIN_PACKAGE)) {
+            region = regions.get(cacheName.substring(DOMAIN_PACKAGE.length()));
         }
+        return region;
     }
 
     @Autowired(required = false)
@@ -6,6 +6,7 @@ import ma.fullstackclone.airbnb.security.AuthoritiesConstants;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.server.*;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -23,8 +24,11 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebsocketConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebsocketConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -32,6 +36,25 @@ public class WebsocketConfiguration implements WebSocketMessageBrokerConfigurer
         config.enableSimpleBroker("/topic");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        configurePool(registration, applicationProperties.getTracker().getInbound());
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        configurePool(registration, applicationProperties.getTracker().getOutbound());
+    }
+
+    private static void configurePool(ChannelRegistration registration, ApplicationProperties.Tracker.Pool pool) {
+        // the default pools have an unbounded queue and no maximum size
+        registration
+            .taskExecutor()
+            .corePoolSize(pool.getCorePoolSize())
+            .maxPoolSize(Math.max(pool.getCorePoolSize(), pool.getMaxPoolSize()))
+            .queueCapacity(pool.getQueueCapacity());
+    }
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         String[] allowedOrigins = Optional.ofNullable(jHipsterProperties.getCors().getAllowedOrigins())
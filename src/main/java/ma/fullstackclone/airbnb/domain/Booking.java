@@ -56,6 +56,21 @@ public class Booking implements Serializable {
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
     private String specialRequests;
 
+    /**
+     * Promotion code redeemed when the booking was created, which its updates cannot change.
+     */
+    @Column(name = "promotion_code", updatable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Keyword)
+    private String promotionCode;
+
+    /**
+     * Optimistic locking version, incremented by each write: an update carrying an older one is rejected.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @org.springframework.data.annotation.Transient
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private User guest;
 
@@ -156,6 +171,32 @@ public class Booking implements Serializable {
         this.specialRequests = specialRequests;
     }
 
+    public String getPromotionCode() {
+        return this.promotionCode;
+    }
+
+    public Booking promotionCode(String promotionCode) {
+        this.setPromotionCode(promotionCode);
+        return this;
+    }
+
+    public void setPromotionCode(String promotionCode) {
+        this.promotionCode = promotionCode;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Booking version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getGuest() {
         return this.guest;
     }
@@ -212,6 +253,8 @@ public class Booking implements Serializable {
             ", bookingDate='" + getBookingDate() + "'" +
             ", status='" + getStatus() + "'" +
             ", specialRequests='" + getSpecialRequests() + "'" +
+            ", promotionCode='" + getPromotionCode() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -60,6 +60,13 @@ public class Promotion implements Serializable {
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Boolean)
     private Boolean isActive;
 
+    /**
+     * Number of redemptions, maintained by the promotion service with atomic updates: never written from the entity.
+     */
+    @Column(name = "uses", nullable = false, insertable = false, updatable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Integer)
+    private Integer uses = 0;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
 
     public Long getId() {
@@ -166,6 +173,19 @@ public class Promotion implements Serializable {
         this.isActive = isActive;
     }
 
+    public Integer getUses() {
+        return this.uses;
+    }
+
+    public Promotion uses(Integer uses) {
+        this.setUses(uses);
+        return this;
+    }
+
+    public void setUses(Integer uses) {
+        this.uses = uses;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -197,6 +217,7 @@ public class Promotion implements Serializable {
             ", validUntil='" + getValidUntil() + "'" +
             ", maxUses=" + getMaxUses() +
             ", isActive='" + getIsActive() + "'" +
+            ", uses=" + getUses() +
             "}";
     }
 }
@@ -1,15 +1,21 @@
 package ma.fullstackclone.airbnb.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Function;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.annotation.AccessType;
+import org.springframework.data.elasticsearch.annotations.GeoPointField;
+import org.springframework.data.elasticsearch.core.geo.GeoPoint;
 
 /**
  * A Property.
@@ -17,12 +23,40 @@ import org.hibernate.annotations.CacheConcurrencyStrategy;
 @Entity
 @Table(name = "property")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SqlResultSetMapping(
+    name = Property.BAG_RELATIONSHIPS_MAPPING,
+    entities = {
+        @EntityResult(
+            entityClass = Amenity.class,
+            fields = {
+                @FieldResult(name = "id", column = "amenity_id"),
+                @FieldResult(name = "name", column = "amenity_name"),
+                @FieldResult(name = "iconClass", column = "amenity_icon_class"),
+            }
+        ),
+        @EntityResult(
+            entityClass = PropertyCategory.class,
+            fields = {
+                @FieldResult(name = "id", column = "category_id"),
+                @FieldResult(name = "name", column = "category_name"),
+                @FieldResult(name = "description", column = "category_description"),
+            }
+        ),
+    },
+    columns = @ColumnResult(name = "property_id", type = Long.class)
+)
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "property")
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class Property implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Result mapping of the rows loading the amenities and categories of properties, see
+     * {@code PropertyRepositoryWithBagRelationshipsImpl}.
+     */
+    public static final String BAG_RELATIONSHIPS_MAPPING = "PropertyBagRelationships";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
     @SequenceGenerator(name = "sequenceGenerator")
@@ -43,6 +77,7 @@ public class Property implements Serializable {
     @NotNull
     @DecimalMin(value = "0")
     @Column(name = "price_per_night", precision = 21, scale = 2, nullable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Double)
     private BigDecimal pricePerNight;
 
     @NotNull
@@ -51,12 +86,50 @@ public class Property implements Serializable {
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Text)
     private String address;
 
-    @Column(name = "latitude", precision = 21, scale = 2)
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    @Column(name = "latitude", precision = 10, scale = 7)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Double)
     private BigDecimal latitude;
 
-    @Column(name = "longitude", precision = 21, scale = 2)
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    @Column(name = "longitude", precision = 10, scale = 7)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Double)
     private BigDecimal longitude;
 
+    /**
+     * Elasticsearch only: {@code geo_point} derived from {@link #latitude} and {@link #longitude}.
+     */
+    @Transient
+    @GeoPointField
+    @AccessType(AccessType.Type.PROPERTY)
+    private GeoPoint location;
+
+    /**
+     * Elasticsearch only: ids of the {@link #amenities}, as keywords for the search filters and facets.
+     */
+    @Transient
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Keyword)
+    @AccessType(AccessType.Type.PROPERTY)
+    private Set<String> amenityIds;
+
+    /**
+     * Elasticsearch only: ids of the {@link #categories}, as keywords for the search filters and facets.
+     */
+    @Transient
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Keyword)
+    @AccessType(AccessType.Type.PROPERTY)
+    private Set<String> categoryIds;
+
+    /**
+     * Elasticsearch only: id of the {@link #city}, as a keyword for the search filters and facets.
+     */
+    @Transient
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Keyword)
+    @AccessType(AccessType.Type.PROPERTY)
+    private String cityId;
+
     @NotNull
     @Min(value = 1)
     @Column(name = "number_of_rooms", nullable = false)
@@ -109,6 +182,48 @@ public class Property implements Serializable {
     @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Boolean)
     private Boolean isActive;
 
+    /**
+     * Rating aggregates, maintained by the review service with atomic updates: never written from the entity.
+     */
+    @Column(name = "review_count", nullable = false, insertable = false, updatable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Integer)
+    private Integer reviewCount = 0;
+
+    @JsonIgnore
+    @Column(name = "rating_total", nullable = false, insertable = false, updatable = false)
+    @org.springframework.data.annotation.Transient
+    private Long ratingTotal = 0L;
+
+    @Column(name = "average_rating", precision = 3, scale = 2, insertable = false, updatable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Double)
+    private BigDecimal averageRating;
+
+    /**
+     * Time of the last write of the property, its amenities, categories or rating aggregates: the validator of its
+     * cached representations.
+     */
+    @JsonIgnore
+    @Column(name = "last_modified_date", nullable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Date)
+    private Instant lastModifiedDate;
+
+    /**
+     * Time of the last edit of the listing, its amenities or categories, which its rating aggregates do not update: the
+     * recency of the listing search ranking.
+     */
+    @JsonIgnore
+    @Column(name = "listing_updated_date", nullable = false)
+    @org.springframework.data.elasticsearch.annotations.Field(type = org.springframework.data.elasticsearch.annotations.FieldType.Date)
+    private Instant listingUpdatedDate;
+
+    /**
+     * Optimistic locking version, incremented by each write: an update carrying an older one is rejected.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @org.springframework.data.annotation.Transient
+    private Long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private User host;
 
@@ -229,6 +344,54 @@ public class Property implements Serializable {
         this.longitude = longitude;
     }
 
+    public GeoPoint getLocation() {
+        if (this.latitude == null || this.longitude == null) {
+            return null;
+        }
+        return new GeoPoint(this.latitude.doubleValue(), this.longitude.doubleValue());
+    }
+
+    public void setLocation(GeoPoint location) {
+        if (location != null) {
+            this.latitude = BigDecimal.valueOf(location.getLat());
+            this.longitude = BigDecimal.valueOf(location.getLon());
+        }
+    }
+
+    public Set<String> getAmenityIds() {
+        return idsOf(this.amenities, Amenity::getId);
+    }
+
+    public void setAmenityIds(Set<String> amenityIds) {
+        // derived from the amenities
+    }
+
+    public Set<String> getCategoryIds() {
+        return idsOf(this.categories, PropertyCategory::getId);
+    }
+
+    public void setCategoryIds(Set<String> categoryIds) {
+        // derived from the categories
+    }
+
+    public String getCityId() {
+        return this.city != null && this.city.getId() != null ? String.valueOf(this.city.getId()) : null;
+    }
+
+    public void setCityId(String cityId) {
+        // derived from the city
+    }
+
+    private static <T> Set<String> idsOf(Set<T> entities, Function<T, Long> id) {
+        Set<String> ids = new HashSet<>();
+        for (T entity : entities) {
+            if (id.apply(entity) != null) {
+                ids.add(String.valueOf(id.apply(entity)));
+            }
+        }
+        return ids;
+    }
+
     public Integer getNumberOfRooms() {
         return this.numberOfRooms;
     }
@@ -372,6 +535,94 @@ public class Property implements Serializable {
         this.isActive = isActive;
     }
 
+    public Integer getReviewCount() {
+        return this.reviewCount;
+    }
+
+    public Property reviewCount(Integer reviewCount) {
+        this.setReviewCount(reviewCount);
+        return this;
+    }
+
+    public void setReviewCount(Integer reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Long getRatingTotal() {
+        return this.ratingTotal;
+    }
+
+    public Property ratingTotal(Long ratingTotal) {
+        this.setRatingTotal(ratingTotal);
+        return this;
+    }
+
+    public void setRatingTotal(Long ratingTotal) {
+        this.ratingTotal = ratingTotal;
+    }
+
+    public BigDecimal getAverageRating() {
+        return this.averageRating;
+    }
+
+    public Property averageRating(BigDecimal averageRating) {
+        this.setAverageRating(averageRating);
+        return this;
+    }
+
+    public void setAverageRating(BigDecimal averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public Instant getLastModifiedDate() {
+        return this.lastModifiedDate;
+    }
+
+    public Property lastModifiedDate(Instant lastModifiedDate) {
+        this.setLastModifiedDate(lastModifiedDate);
+        return this;
+    }
+
+    public void setLastModifiedDate(Instant lastModifiedDate) {
+        this.lastModifiedDate = lastModifiedDate;
+    }
+
+    public Instant getListingUpdatedDate() {
+        return this.listingUpdatedDate;
+    }
+
+    public Property listingUpdatedDate(Instant listingUpdatedDate) {
+        this.setListingUpdatedDate(listingUpdatedDate);
+        return this;
+    }
+
+    public void setListingUpdatedDate(Instant listingUpdatedDate) {
+        this.listingUpdatedDate = listingUpdatedDate;
+    }
+
+    /**
+     * Stamp an edit of the listing, the rating aggregates being only written in bulk.
+     */
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.lastModifiedDate = Instant.now();
+        this.listingUpdatedDate = this.lastModifiedDate;
+    }
+
+    public Long getVersion() {
+        return this.version;
+    }
+
+    public Property version(Long version) {
+        this.setVersion(version);
+        return this;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public User getHost() {
         return this.host;
     }
@@ -485,6 +736,11 @@ public class Property implements Serializable {
             ", cancellationPolicy='" + getCancellationPolicy() + "'" +
             ", houseRules='" + getHouseRules() + "'" +
             ", isActive='" + getIsActive() + "'" +
+            ", reviewCount=" + getReviewCount() +
+            ", averageRating=" + getAverageRating() +
+            ", lastModifiedDate='" + getLastModifiedDate() + "'" +
+            ", listingUpdatedDate='" + getListingUpdatedDate() + "'" +
+            ", version=" + getVersion() +
             "}";
     }
 }
@@ -0,0 +1,104 @@
+package ma.fullstackclone.airbnb.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+/**
+ * The booked nights of a {@link Property}, kept up to date by the writes of its bookings, so that its calendar is read
+ * by key instead of being rebuilt from its bookings.
+ */
+@Entity
+@Table(name = "property_calendar")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class PropertyCalendar implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The id of the property.
+     */
+    @Id
+    @Column(name = "property_id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "first_year", nullable = false)
+    private Integer firstYear;
+
+    /**
+     * One bit per day of each year from {@code firstYear}, see {@link ma.fullstackclone.airbnb.service.BookedDays}.
+     */
+    @NotNull
+    @Column(name = "booked_days", nullable = false)
+    private byte[] bookedDays;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public PropertyCalendar id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getFirstYear() {
+        return this.firstYear;
+    }
+
+    public PropertyCalendar firstYear(Integer firstYear) {
+        this.setFirstYear(firstYear);
+        return this;
+    }
+
+    public void setFirstYear(Integer firstYear) {
+        this.firstYear = firstYear;
+    }
+
+    public byte[] getBookedDays() {
+        return this.bookedDays;
+    }
+
+    public PropertyCalendar bookedDays(byte[] bookedDays) {
+        this.setBookedDays(bookedDays);
+        return this;
+    }
+
+    public void setBookedDays(byte[] bookedDays) {
+        this.bookedDays = bookedDays;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PropertyCalendar)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((PropertyCalendar) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PropertyCalendar{" +
+            "id=" + getId() +
+            ", firstYear=" + getFirstYear() +
+            ", bookedDays=" + (getBookedDays() != null ? getBookedDays().length : 0) + " bytes" +
+            "}";
+    }
+}
@@ -0,0 +1,9 @@
+package ma.fullstackclone.airbnb.domain.enumeration;
+
+/**
+ * The OutboxOperation enumeration.
+ */
+public enum OutboxOperation {
+    SAVE,
+    DELETE,
+}
@@ -0,0 +1,89 @@
+package ma.fullstackclone.airbnb.management;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SearchReindexMetersService {
+
+    public static final String DOCUMENTS_METER_NAME = "search.reindex.documents";
+    public static final String DOCUMENTS_METER_DESCRIPTION = "Number of documents sent to the new indices by the search reindex.";
+    public static final String DOCUMENTS_METER_BASE_UNIT = "documents";
+    public static final String PROGRESS_METER_NAME = "search.reindex.progress";
+    public static final String PROGRESS_METER_DESCRIPTION = "Ratio of the rows of the current search reindex already indexed.";
+    public static final String DURATION_METER_NAME = "search.reindex.duration";
+    public static final String DURATION_METER_DESCRIPTION = "Duration of the search reindex of an index, alias swap included.";
+    public static final String INDEX_DIMENSION = "index";
+    public static final String OUTCOME_DIMENSION = "outcome";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Progress> progressByIndex = new ConcurrentHashMap<>();
+
+    public SearchReindexMetersService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public void trackStarted(String index, long total) {
+        Progress progress = progress(index);
+        progress.total.set(total);
+        progress.indexed.set(0);
+    }
+
+    public void trackIndexed(String index, int documents) {
+        Progress progress = progress(index);
+        progress.indexed.addAndGet(documents);
+        progress.documents.increment(documents);
+    }
+
+    public void trackFinished(String index, Duration duration, boolean success) {
+        Timer.builder(DURATION_METER_NAME)
+            .description(DURATION_METER_DESCRIPTION)
+            .tag(INDEX_DIMENSION, index)
+            .tag(OUTCOME_DIMENSION, success ? "success" : "failure")
+            .register(registry)
+            .record(duration);
+    }
+
+    private Progress progress(String index) {
+        return progressByIndex.computeIfAbsent(index, this::registerProgress);
+    }
+
+    private Progress registerProgress(String index) {
+        Progress progress = new Progress(
+            Counter.builder(DOCUMENTS_METER_NAME)
+                .baseUnit(DOCUMENTS_METER_BASE_UNIT)
+                .description(DOCUMENTS_METER_DESCRIPTION)
+                .tag(INDEX_DIMENSION, index)
+                .register(registry)
+        );
+        Gauge.builder(PROGRESS_METER_NAME, progress, Progress::ratio)
+            .description(PROGRESS_METER_DESCRIPTION)
+            .tag(INDEX_DIMENSION, index)
+            .register(registry);
+        return progress;
+    }
+
+    private static final class Progress {
+
+        private final Counter documents;
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong indexed = new AtomicLong();
+
+        private Progress(Counter documents) {
+            this.documents = documents;
+        }
+
+        private double ratio() {
+            long expected = total.get();
+            return expected > 0 ? Math.min(1.0, (double) indexed.get() / expected) : 1.0;
+        }
+    }
+}
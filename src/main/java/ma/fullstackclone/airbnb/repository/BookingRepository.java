@@ -1,8 +1,12 @@
 package ma.fullstackclone.airbnb.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,4 +17,26 @@ import org.springframework.stereotype.Repository;
 public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
     @Query("select booking from Booking booking where booking.guest.login = ?#{authentication.name}")
     List<Booking> findByGuestIsCurrentUser();
+
+    /**
+     * Check whether a booking of the property in one of the given statuses overlaps {@code [checkIn, checkOut)}.
+     * Served by the {@code idx_booking__property_dates} index.
+     */
+    @Query(
+        "select count(booking) > 0 from Booking booking where booking.property.id = :propertyId and booking.status in :statuses " +
+        "and booking.checkInDate < :checkOut and booking.checkOutDate > :checkIn and (:excludedId is null or booking.id <> :excludedId)"
+    )
+    boolean existsOverlapping(
+        @Param("propertyId") Long propertyId,
+        @Param("checkIn") Instant checkIn,
+        @Param("checkOut") Instant checkOut,
+        @Param("statuses") Collection<BookingStatus> statuses,
+        @Param("excludedId") Long excludedId
+    );
+
+    @Query("select booking from Booking booking where booking.property.id = :propertyId and booking.status in :statuses")
+    List<Booking> findAllByPropertyIdAndStatusIn(
+        @Param("propertyId") Long propertyId,
+        @Param("statuses") Collection<BookingStatus> statuses
+    );
 }
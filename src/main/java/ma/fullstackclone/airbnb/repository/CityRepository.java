@@ -1,7 +1,9 @@
 package ma.fullstackclone.airbnb.repository;
 
+import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.City;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CityRepository extends JpaRepository<City, Long>, JpaSpecificationExecutor<City> {}
+public interface CityRepository extends JpaRepository<City, Long>, JpaSpecificationExecutor<City> {
+    /**
+     * The name of a city, read from the database rather than the second-level cache.
+     */
+    @Query("select city.name from City city where city.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+}
@@ -1,7 +1,9 @@
 package ma.fullstackclone.airbnb.repository;
 
+import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Country;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +11,10 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CountryRepository extends JpaRepository<Country, Long>, JpaSpecificationExecutor<Country> {}
+public interface CountryRepository extends JpaRepository<Country, Long>, JpaSpecificationExecutor<Country> {
+    /**
+     * The name of a country, read from the database rather than the second-level cache.
+     */
+    @Query("select country.name from Country country where country.id = :id")
+    Optional<String> findNameById(@Param("id") Long id);
+}
@@ -0,0 +1,37 @@
+package ma.fullstackclone.airbnb.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import ma.fullstackclone.airbnb.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Lock the oldest available events, skipping the events already locked by another relay.
+     * <p>
+     * Must be called in a transaction: the events stay locked until it ends.
+     */
+    @Query(
+        value = "select * from outbox_event where available_at <= :now order by id limit :limit for update skip locked",
+        nativeQuery = true
+    )
+    List<OutboxEvent> lockAvailable(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Make events unavailable until a time, to hide the events claimed by a relay from the others once its claim is
+     * committed.
+     */
+    @Modifying
+    @Query("update OutboxEvent outboxEvent set outboxEvent.availableAt = :until where outboxEvent.id in :ids")
+    int postpone(@Param("ids") Collection<Long> ids, @Param("until") Instant until);
+
+    @Query("select min(outboxEvent.createdDate) from OutboxEvent outboxEvent")
+    Instant findOldestCreatedDate();
+}
@@ -1,7 +1,11 @@
 package ma.fullstackclone.airbnb.repository;
 
+import java.time.Instant;
+import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Promotion;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -9,4 +13,31 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface PromotionRepository extends JpaRepository<Promotion, Long>, JpaSpecificationExecutor<Promotion> {}
+public interface PromotionRepository extends JpaRepository<Promotion, Long>, JpaSpecificationExecutor<Promotion> {
+    String PROMOTIONS_BY_CODE_CACHE = "promotionsByCode";
+
+    /**
+     * The promotion of a code, cached until the promotion changes: its {@code uses} may be behind the database.
+     */
+    @Cacheable(cacheNames = PROMOTIONS_BY_CODE_CACHE)
+    Optional<Promotion> findOneByCode(String code);
+
+    @Query("select promotion.code from Promotion promotion where promotion.id = :id")
+    Optional<String> findCodeById(@Param("id") Long id);
+
+    /**
+     * Count one redemption of a promotion, if it is active, valid at {@code now} and below its {@code maxUses}.
+     * <p>
+     * The condition and the increment are one statement, so concurrent redemptions cannot exceed {@code maxUses}.
+     *
+     * @return 1 if the promotion was redeemed, 0 otherwise.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update Promotion promotion set promotion.uses = promotion.uses + 1 " +
+        "where promotion.id = :id and promotion.isActive = true " +
+        "and promotion.validFrom <= :now and promotion.validUntil >= :now " +
+        "and (promotion.maxUses is null or promotion.uses < promotion.maxUses)"
+    )
+    int redeem(@Param("id") Long id, @Param("now") Instant now);
+}
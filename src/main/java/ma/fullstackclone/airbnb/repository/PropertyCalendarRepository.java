@@ -0,0 +1,20 @@
+package ma.fullstackclone.airbnb.repository;
+
+import java.util.Optional;
+import ma.fullstackclone.airbnb.domain.PropertyCalendar;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the PropertyCalendar entity.
+ */
+@Repository
+public interface PropertyCalendarRepository extends JpaRepository<PropertyCalendar, Long> {
+    /**
+     * Load a calendar from the database rather than from the second-level cache, which may be behind on other nodes. To
+     * be called while holding the row lock of its property.
+     */
+    @Query("select calendar from PropertyCalendar calendar where calendar.id = :id")
+    Optional<PropertyCalendar> findOneForUpdate(@Param("id") Long id);
+}
@@ -1,11 +1,17 @@
 package ma.fullstackclone.airbnb.repository;
 
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import ma.fullstackclone.airbnb.domain.Property;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -20,6 +26,130 @@ public interface PropertyRepository
     @Query("select property from Property property where property.host.login = ?#{authentication.name}")
     List<Property> findByHostIsCurrentUser();
 
+    /**
+     * Load a property and take a row lock on it, so that bookings of the same property are serialized across nodes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select property from Property property where property.id = :id")
+    Optional<Property> findOneForUpdate(@Param("id") Long id);
+
+    @Query(
+        "select property.id as id, property.latitude as latitude, property.longitude as longitude from Property property " +
+        "where property.latitude is not null and property.longitude is not null"
+    )
+    List<Coordinates> findAllCoordinates();
+
+    @Query(
+        "select property.id as id, property.latitude as latitude, property.longitude as longitude from Property property " +
+        "where property.id = :id and property.latitude is not null and property.longitude is not null"
+    )
+    Optional<Coordinates> findCoordinatesById(@Param("id") Long id);
+
+    @Query(
+        "select property.id as id, property.city.id as cityId, property.pricePerNight as pricePerNight, " +
+        "property.instantBook as instantBook from Property property where property.isActive = true"
+    )
+    List<FacetValues> findAllActiveFacetValues();
+
+    @Query(
+        "select property.id as id, property.city.id as cityId, property.pricePerNight as pricePerNight, " +
+        "property.instantBook as instantBook from Property property where property.id = :id and property.isActive = true"
+    )
+    Optional<FacetValues> findActiveFacetValuesById(@Param("id") Long id);
+
+    @Query("select amenity.id from Property property join property.amenities amenity where property.id = :id")
+    Set<Long> findAmenityIdsById(@Param("id") Long id);
+
+    @Query("select category.id from Property property join property.categories category where property.id = :id")
+    Set<Long> findCategoryIdsById(@Param("id") Long id);
+
+    @Query(
+        "select property.id as propertyId, amenity.id as relatedId from Property property join property.amenities amenity " +
+        "where property.isActive = true"
+    )
+    List<Relation> findAllActiveAmenityRelations();
+
+    @Query(
+        "select property.id as propertyId, category.id as relatedId from Property property join property.categories category " +
+        "where property.isActive = true"
+    )
+    List<Relation> findAllActiveCategoryRelations();
+
+    @Query("select property.id as id, property.title as title from Property property where property.isActive = true")
+    List<Title> findAllActiveTitles();
+
+    @Query("select property.title from Property property where property.id = :id and property.isActive = true")
+    Optional<String> findActiveTitleById(@Param("id") Long id);
+
+    /**
+     * Apply a change of reviews to the rating aggregates of a property, as a single atomic update of its row. The new
+     * modification date tells the clients holding the old representation that it changed, while its version, which is
+     * the one of the host edits, is kept: a review does not make an edit of the host conflict.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update Property property set property.reviewCount = property.reviewCount + :countDelta, " +
+        "property.ratingTotal = property.ratingTotal + :ratingDelta, " +
+        "property.averageRating = case when property.reviewCount + :countDelta > 0 " +
+        "then cast(property.ratingTotal + :ratingDelta as BigDecimal) / (property.reviewCount + :countDelta) end, " +
+        "property.lastModifiedDate = instant " +
+        "where property.id = :id"
+    )
+    int updateRatings(@Param("id") Long id, @Param("countDelta") int countDelta, @Param("ratingDelta") long ratingDelta);
+
+    /**
+     * Find the properties of an id range whose rating aggregates no longer match their reviews.
+     */
+    @Query(
+        "select property.id from Property property where property.id between :fromId and :toId and (" +
+        "property.reviewCount <> (select count(review) from Review review where review.property.id = property.id) or " +
+        "property.ratingTotal <> (select coalesce(sum(review.rating), 0) from Review review where review.property.id = property.id))"
+    )
+    List<Long> findIdsWithStaleRatings(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * Recompute the rating aggregates of properties from their reviews, keeping their versions. Only the properties whose
+     * aggregates are still stale are written.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update Property property set " +
+        "property.reviewCount = (select count(review) from Review review where review.property.id = property.id), " +
+        "property.ratingTotal = (select coalesce(sum(review.rating), 0) from Review review where review.property.id = property.id), " +
+        "property.averageRating = (select avg(review.rating) from Review review where review.property.id = property.id), " +
+        "property.lastModifiedDate = instant " +
+        "where property.id in :ids and (" +
+        "property.reviewCount <> (select count(review) from Review review where review.property.id = property.id) or " +
+        "property.ratingTotal <> (select coalesce(sum(review.rating), 0) from Review review where review.property.id = property.id))"
+    )
+    int rebuildRatings(@Param("ids") Collection<Long> ids);
+
+    @Query("select property.host.login from Property property where property.id = :id")
+    Optional<String> findHostLoginById(@Param("id") Long id);
+
+    @Query(
+        "select property.pricePerNight as pricePerNight, property.minimumStay as minimumStay from Property property where property.id = :id"
+    )
+    Optional<NightlyPricing> findNightlyPricingById(@Param("id") Long id);
+
+    @Query("select min(property.id) as minId, max(property.id) as maxId from Property property")
+    IdRange findIdRange();
+
+    @Query("select property.version from Property property where property.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(
+        "select property.version as version, property.lastModifiedDate as lastModifiedDate from Property property where property.id = :id"
+    )
+    Optional<RepresentationStamp> findRepresentationStampById(@Param("id") Long id);
+
+    /**
+     * Read the number of committed transactions which wrote or deleted properties or their relationships, counted by a
+     * trigger of the database.
+     */
+    @Query(value = "select modification_count from property_modification where id = 1", nativeQuery = true)
+    long findModificationCount();
+
     default Optional<Property> findOneWithEagerRelationships(Long id) {
         return this.fetchBagRelationships(this.findById(id));
     }
@@ -31,4 +161,74 @@ public interface PropertyRepository
     default Page<Property> findAllWithEagerRelationships(Pageable pageable) {
         return this.fetchBagRelationships(this.findAll(pageable));
     }
+
+    /**
+     * Projection of the smallest and largest ids, both {@code null} without properties.
+     */
+    interface IdRange {
+        Long getMinId();
+
+        Long getMaxId();
+    }
+
+    /**
+     * Projection of the version of a property, which its host edits increment, and of the time of its last write, which
+     * its rating changes update as well.
+     */
+    interface RepresentationStamp {
+        Long getVersion();
+
+        Instant getLastModifiedDate();
+    }
+
+    /**
+     * Projection of the pricing of a property.
+     */
+    interface NightlyPricing {
+        BigDecimal getPricePerNight();
+
+        Integer getMinimumStay();
+    }
+
+    /**
+     * Projection of the single-valued facets of a property.
+     */
+    interface FacetValues {
+        Long getId();
+
+        Long getCityId();
+
+        BigDecimal getPricePerNight();
+
+        Boolean getInstantBook();
+    }
+
+    /**
+     * Projection of a row of a many-to-many relationship of properties.
+     */
+    interface Relation {
+        Long getPropertyId();
+
+        Long getRelatedId();
+    }
+
+    /**
+     * Projection of the title of a property.
+     */
+    interface Title {
+        Long getId();
+
+        String getTitle();
+    }
+
+    /**
+     * Projection of the coordinates of a property.
+     */
+    interface Coordinates {
+        Long getId();
+
+        BigDecimal getLatitude();
+
+        BigDecimal getLongitude();
+    }
 }
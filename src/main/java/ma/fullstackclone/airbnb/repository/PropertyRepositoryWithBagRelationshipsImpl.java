@@ -2,86 +2,153 @@ package ma.fullstackclone.airbnb.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.IntStream;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import ma.fullstackclone.airbnb.domain.Amenity;
 import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.PropertyCategory;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 
 /**
- * Utility repository to load bag relationships based on https://vladmihalcea.com/hibernate-multiplebagfetchexception/
+ * Utility repository to load bag relationships.
+ * <p>
+ * Loading both collections with fetch joins would either multiply the rows (amenities x categories) or need one query
+ * per collection, each reloading the {@link Property} rows. Instead, a single native query unions the rows of both join
+ * tables, joined to their targets, and the sets are filled in place on the given properties: one round trip per batch,
+ * and no {@link Property} is read again. Rows are matched to their property through a sorted {@code long[]} of ids.
+ * <p>
+ * Only collections which are not initialized yet are loaded. Their lazy sets are replaced by plain ones, which flushing
+ * would take for new collections, rewriting their join rows and incrementing the version of the properties. So this is
+ * only done for properties which are never flushed: those of a read-only session, or not attached. In a writable session
+ * the managed properties get their lazy sets initialized in place by two fetch joins instead, one per collection.
  */
 public class PropertyRepositoryWithBagRelationshipsImpl implements PropertyRepositoryWithBagRelationships {
 
-    private static final String ID_PARAMETER = "id";
-    private static final String PROPERTIES_PARAMETER = "properties";
+    private static final String IDS_PARAMETER = "ids";
+
+    private static final String BAG_RELATIONSHIPS_QUERY =
+        "select r.property_id as property_id, a.id as amenity_id, a.name as amenity_name, a.icon_class as amenity_icon_class, " +
+        "null as category_id, null as category_name, null as category_description " +
+        "from rel_property__amenities r join amenity a on a.id = r.amenities_id where r.property_id in (:ids) " +
+        "union all " +
+        "select r.property_id, null, null, null, c.id, c.name, c.description " +
+        "from rel_property__categories r join property_category c on c.id = r.categories_id where r.property_id in (:ids)";
 
     @PersistenceContext
     private EntityManager entityManager;
 
     @Override
     public Optional<Property> fetchBagRelationships(Optional<Property> property) {
-        return property.map(this::fetchAmenities).map(this::fetchCategories);
+        property.ifPresent(result -> fetchBagRelationships(List.of(result)));
+        return property;
     }
 
     @Override
     public Page<Property> fetchBagRelationships(Page<Property> properties) {
-        return new PageImpl<>(fetchBagRelationships(properties.getContent()), properties.getPageable(), properties.getTotalElements());
+        fetchBagRelationships(properties.getContent());
+        return properties;
     }
 
     @Override
     public List<Property> fetchBagRelationships(List<Property> properties) {
-        return Optional.of(properties).map(this::fetchAmenities).map(this::fetchCategories).orElse(Collections.emptyList());
+        Session session = entityManager.unwrap(Session.class);
+        if (session.isDefaultReadOnly()) {
+            fillBags(properties);
+            return properties;
+        }
+        List<Property> managed = new ArrayList<>();
+        List<Property> detached = new ArrayList<>();
+        for (Property property : properties) {
+            (session.contains(property) ? managed : detached).add(property);
+        }
+        fetchJoin(managed, Property::getAmenities, "amenities");
+        fetchJoin(managed, Property::getCategories, "categories");
+        fillBags(detached);
+        return properties;
     }
 
-    Property fetchAmenities(Property result) {
-        return entityManager
+    /**
+     * Initialize a lazy collection of managed properties in place, with a fetch join.
+     */
+    private void fetchJoin(List<Property> properties, Function<Property, Set<?>> collection, String attribute) {
+        List<Property> lazy = properties.stream().filter(property -> !Hibernate.isInitialized(collection.apply(property))).toList();
+        if (lazy.isEmpty()) {
+            return;
+        }
+        entityManager
             .createQuery(
-                "select property from Property property left join fetch property.amenities where property.id = :id",
+                "select property from Property property left join fetch property." + attribute + " where property in :properties",
                 Property.class
             )
-            .setParameter(ID_PARAMETER, result.getId())
-            .getSingleResult();
+            .setParameter("properties", lazy)
+            .getResultList();
     }
 
-    List<Property> fetchAmenities(List<Property> properties) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, properties.size()).forEach(index -> order.put(properties.get(index).getId(), index));
-        List<Property> result = entityManager
-            .createQuery(
-                "select property from Property property left join fetch property.amenities where property in :properties",
-                Property.class
-            )
-            .setParameter(PROPERTIES_PARAMETER, properties)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+    /**
+     * Fill the lazy collections of properties which are never flushed, with one native query for both.
+     */
+    private void fillBags(List<Property> properties) {
+        long[] ids = properties
+            .stream()
+            .filter(property -> property.getId() != null && !isLoaded(property))
+            .mapToLong(Property::getId)
+            .sorted()
+            .distinct()
+            .toArray();
+        if (ids.length == 0) {
+            return;
+        }
+
+        List<Set<Amenity>> amenities = new ArrayList<>(ids.length);
+        List<Set<PropertyCategory>> categories = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            amenities.add(new HashSet<>());
+            categories.add(new HashSet<>());
+        }
+        for (Object[] row : fetchBagRows(ids)) {
+            int index = Arrays.binarySearch(ids, ((Number) row[2]).longValue());
+            if (row[0] instanceof Amenity amenity) {
+                amenities.get(index).add(amenity);
+            } else if (row[1] instanceof PropertyCategory category) {
+                categories.get(index).add(category);
+            }
+        }
+
+        for (Property property : properties) {
+            int index = property.getId() != null ? Arrays.binarySearch(ids, property.getId()) : -1;
+            if (index < 0) {
+                continue;
+            }
+            if (!Hibernate.isInitialized(property.getAmenities())) {
+                property.setAmenities(amenities.get(index));
+            }
+            if (!Hibernate.isInitialized(property.getCategories())) {
+                property.setCategories(categories.get(index));
+            }
+        }
     }
 
-    Property fetchCategories(Property result) {
+    /**
+     * Each row holds an {@link Amenity} or a {@link PropertyCategory} (the other one being {@code null}), then the id of
+     * the property it belongs to, see {@link Property#BAG_RELATIONSHIPS_MAPPING}.
+     */
+    @SuppressWarnings("unchecked")
+    List<Object[]> fetchBagRows(long[] ids) {
         return entityManager
-            .createQuery(
-                "select property from Property property left join fetch property.categories where property.id = :id",
-                Property.class
-            )
-            .setParameter(ID_PARAMETER, result.getId())
-            .getSingleResult();
+            .createNativeQuery(BAG_RELATIONSHIPS_QUERY, Property.BAG_RELATIONSHIPS_MAPPING)
+            .setParameter(IDS_PARAMETER, LongStream.of(ids).boxed().toList())
+            .getResultList();
     }
 
-    List<Property> fetchCategories(List<Property> properties) {
-        HashMap<Object, Integer> order = new HashMap<>();
-        IntStream.range(0, properties.size()).forEach(index -> order.put(properties.get(index).getId(), index));
-        List<Property> result = entityManager
-            .createQuery(
-                "select property from Property property left join fetch property.categories where property in :properties",
-                Property.class
-            )
-            .setParameter(PROPERTIES_PARAMETER, properties)
-            .getResultList();
-        Collections.sort(result, (o1, o2) -> Integer.compare(order.get(o1.getId()), order.get(o2.getId())));
-        return result;
+    private static boolean isLoaded(Property property) {
+        return Hibernate.isInitialized(property.getAmenities()) && Hibernate.isInitialized(property.getCategories());
     }
 }
@@ -1,8 +1,10 @@
 package ma.fullstackclone.airbnb.repository;
 
 import java.util.List;
+import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Review;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -13,4 +15,19 @@ import org.springframework.stereotype.Repository;
 public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
     @Query("select review from Review review where review.author.login = ?#{authentication.name}")
     List<Review> findByAuthorIsCurrentUser();
+
+    @Query(
+        "select property.id as propertyId, review.rating as rating from Review review left join review.property property " +
+        "where review.id = :id"
+    )
+    Optional<PropertyRating> findPropertyRatingById(@Param("id") Long id);
+
+    /**
+     * Projection of the rating a review gives to its property.
+     */
+    interface PropertyRating {
+        Long getPropertyId();
+
+        Integer getRating();
+    }
 }
@@ -0,0 +1,38 @@
+package ma.fullstackclone.airbnb.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Table;
+import java.util.List;
+import java.util.OptionalLong;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository reading the PostgreSQL planner statistics of the entity tables.
+ */
+@Repository
+public class TableStatisticsRepository {
+
+    private static final String ESTIMATED_ROW_COUNT_QUERY = "select reltuples from pg_class where oid = to_regclass(:table)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Estimate the number of rows of the table of an entity, as last computed by {@code ANALYZE} or {@code VACUUM}.
+     *
+     * @param domainClass the entity.
+     * @return the estimated number of rows, or empty if the table was never analyzed.
+     */
+    public OptionalLong estimateRowCount(Class<?> domainClass) {
+        Table table = domainClass.getAnnotation(Table.class);
+        if (table == null) {
+            return OptionalLong.empty();
+        }
+        List<?> result = entityManager.createNativeQuery(ESTIMATED_ROW_COUNT_QUERY).setParameter("table", table.name()).getResultList();
+        if (result.isEmpty() || !(result.get(0) instanceof Number reltuples) || reltuples.doubleValue() < 0) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Math.round(reltuples.doubleValue()));
+    }
+}
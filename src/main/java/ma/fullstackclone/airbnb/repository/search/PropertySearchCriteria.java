@@ -0,0 +1,40 @@
+package ma.fullstackclone.airbnb.repository.search;
+
+import java.math.BigDecimal;
+
+/**
+ * Criteria of a listing search of {@link ma.fullstackclone.airbnb.domain.Property} entities; {@code null} criteria are
+ * not applied.
+ *
+ * @param text the free text, matched against the title, address and description.
+ * @param minPrice the minimum price per night (inclusive).
+ * @param maxPrice the maximum price per night (inclusive).
+ * @param guests the number of guests the property must host.
+ * @param rooms the minimum number of rooms.
+ * @param cityId the id of the city.
+ * @param latitude the latitude of the center of the search area.
+ * @param longitude the longitude of the center of the search area.
+ * @param radiusKm the radius of the search area, in kilometers.
+ */
+public record PropertySearchCriteria(
+    String text,
+    BigDecimal minPrice,
+    BigDecimal maxPrice,
+    Integer guests,
+    Integer rooms,
+    Long cityId,
+    Double latitude,
+    Double longitude,
+    Double radiusKm
+) {
+    public PropertySearchCriteria {
+        text = text != null && !text.isBlank() ? text.strip() : null;
+    }
+
+    /**
+     * Whether the search is restricted to an area: only when its center and radius are all given.
+     */
+    public boolean hasArea() {
+        return latitude != null && longitude != null && radiusKm != null;
+    }
+}
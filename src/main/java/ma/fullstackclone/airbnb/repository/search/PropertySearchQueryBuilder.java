@@ -0,0 +1,130 @@
+package ma.fullstackclone.airbnb.repository.search;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScore;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.GeoDistanceQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.MatchAllQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.json.JsonData;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the Elasticsearch query of a listing search of properties.
+ * <p>
+ * The free text is a {@code multi_match} on the title, address and description, the title weighing most; it is never
+ * parsed, so special characters are searched for as such. The other criteria are non-scoring filters, and only active
+ * properties are returned. The text score is then multiplied by the sum of a rating factor, the logarithm of the
+ * average rating (so an unrated property is not ruled out), and of a recency bonus decaying with the time since the last
+ * edit of the listing, which reviews do not change (so old listings fall behind recent ones of the same rating, but are
+ * never ruled out either).
+ */
+public final class PropertySearchQueryBuilder {
+
+    static final String TITLE_FIELD = "title^3";
+
+    static final String ADDRESS_FIELD = "address^2";
+
+    static final String DESCRIPTION_FIELD = "description";
+
+    static final String RATING_FIELD = "averageRating";
+
+    static final String RECENCY_FIELD = "listingUpdatedDate";
+
+    /**
+     * Time since the last edit at which the recency bonus of a property falls to {@link #RECENCY_DECAY}.
+     */
+    static final String RECENCY_SCALE = "30d";
+
+    static final double RECENCY_DECAY = 0.5;
+
+    private PropertySearchQueryBuilder() {}
+
+    /**
+     * Build the query of a listing search.
+     *
+     * @param criteria the criteria of the search.
+     * @return the function-scored query.
+     */
+    public static Query build(PropertySearchCriteria criteria) {
+        Query text = criteria.text() == null
+            ? MatchAllQuery.of(m -> m)._toQuery()
+            : MultiMatchQuery.of(m ->
+                m
+                    .query(criteria.text())
+                    .fields(TITLE_FIELD, ADDRESS_FIELD, DESCRIPTION_FIELD)
+                    .type(TextQueryType.BestFields)
+                    .tieBreaker(0.3)
+                    .fuzziness("AUTO")
+                    .prefixLength(1)
+            )._toQuery();
+        Query filtered = BoolQuery.of(b -> b.must(text).filter(filters(criteria)))._toQuery();
+
+        return FunctionScoreQuery.of(f ->
+            f
+                .query(filtered)
+                .functions(
+                    FunctionScore.of(fs ->
+                        fs.fieldValueFactor(v -> v.field(RATING_FIELD).modifier(FieldValueFactorModifier.Ln2p).missing(0.0))
+                    ),
+                    FunctionScore.of(fs ->
+                        fs.gauss(g ->
+                            g
+                                .field(RECENCY_FIELD)
+                                .placement(p -> p.origin(JsonData.of("now")).scale(JsonData.of(RECENCY_SCALE)).decay(RECENCY_DECAY))
+                        )
+                    )
+                )
+                .scoreMode(FunctionScoreMode.Sum)
+                .boostMode(FunctionBoostMode.Multiply)
+        )._toQuery();
+    }
+
+    private static List<Query> filters(PropertySearchCriteria criteria) {
+        List<Query> filters = new ArrayList<>();
+        filters.add(TermQuery.of(t -> t.field("isActive").value(FieldValue.TRUE))._toQuery());
+        if (criteria.minPrice() != null || criteria.maxPrice() != null) {
+            filters.add(
+                RangeQuery.of(r -> {
+                    r.field("pricePerNight");
+                    if (criteria.minPrice() != null) {
+                        r.gte(JsonData.of(criteria.minPrice().doubleValue()));
+                    }
+                    if (criteria.maxPrice() != null) {
+                        r.lte(JsonData.of(criteria.maxPrice().doubleValue()));
+                    }
+                    return r;
+                })._toQuery()
+            );
+        }
+        if (criteria.guests() != null) {
+            filters.add(RangeQuery.of(r -> r.field("maxGuests").gte(JsonData.of(criteria.guests())))._toQuery());
+        }
+        if (criteria.rooms() != null) {
+            filters.add(RangeQuery.of(r -> r.field("numberOfRooms").gte(JsonData.of(criteria.rooms())))._toQuery());
+        }
+        if (criteria.cityId() != null) {
+            filters.add(TermQuery.of(t -> t.field("cityId").value(String.valueOf(criteria.cityId())))._toQuery());
+        }
+        if (criteria.hasArea()) {
+            filters.add(
+                GeoDistanceQuery.of(g ->
+                    g
+                        .field("location")
+                        .location(l -> l.latlon(ll -> ll.lat(criteria.latitude()).lon(criteria.longitude())))
+                        .distance(criteria.radiusKm() + "km")
+                )._toQuery()
+            );
+        }
+        return filters;
+    }
+}
@@ -1,11 +1,18 @@
 package ma.fullstackclone.airbnb.repository.search;
 
+import co.elastic.clients.elasticsearch._types.DistanceUnit;
+import co.elastic.clients.elasticsearch._types.GeoLocation;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.GeoBoundingBoxQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.GeoDistanceQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.QueryStringQuery;
 import java.util.List;
 import ma.fullstackclone.airbnb.domain.Property;
 import ma.fullstackclone.airbnb.repository.PropertyRepository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
@@ -25,6 +32,23 @@ interface PropertySearchRepositoryInternal {
 
     Page<Property> search(Query query);
 
+    /**
+     * Listing search of the active properties matching the criteria, the most relevant first.
+     *
+     * @see PropertySearchQueryBuilder
+     */
+    Page<Property> searchListings(PropertySearchCriteria criteria, Pageable pageable);
+
+    /**
+     * Search the properties located within {@code radiusKm} of a point, nearest first.
+     */
+    Page<Property> searchWithinDistance(double latitude, double longitude, double radiusKm, Pageable pageable);
+
+    /**
+     * Search the properties located inside a bounding box, nearest to its center first.
+     */
+    Page<Property> searchWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, Pageable pageable);
+
     @Async
     void index(Property entity);
 
@@ -34,6 +58,8 @@ interface PropertySearchRepositoryInternal {
 
 class PropertySearchRepositoryInternalImpl implements PropertySearchRepositoryInternal {
 
+    private static final String LOCATION_FIELD = "location";
+
     private final ElasticsearchTemplate elasticsearchTemplate;
     private final PropertyRepository repository;
 
@@ -44,10 +70,23 @@ class PropertySearchRepositoryInternalImpl implements PropertySearchRepositoryIn
 
     @Override
     public Page<Property> search(String query, Pageable pageable) {
-        NativeQuery nativeQuery = new NativeQuery(QueryStringQuery.of(qs -> qs.query(query))._toQuery());
+        // leading wildcards scan the whole terms dictionary; lenient ignores values of the wrong type for a field
+        NativeQuery nativeQuery = new NativeQuery(
+            QueryStringQuery.of(qs -> qs.query(query).allowLeadingWildcard(false).lenient(true))._toQuery()
+        );
         return search(nativeQuery.setPageable(pageable));
     }
 
+    @Override
+    public Page<Property> searchListings(PropertySearchCriteria criteria, Pageable pageable) {
+        // sorted by score only: a sort of the pageable would override the ranking
+        NativeQuery nativeQuery = NativeQuery.builder()
+            .withQuery(PropertySearchQueryBuilder.build(criteria))
+            .withPageable(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+            .build();
+        return search(nativeQuery);
+    }
+
     @Override
     public Page<Property> search(Query query) {
         SearchHits<Property> searchHits = elasticsearchTemplate.search(query, Property.class);
@@ -55,6 +94,54 @@ class PropertySearchRepositoryInternalImpl implements PropertySearchRepositoryIn
         return new PageImpl<>(hits, query.getPageable(), searchHits.getTotalHits());
     }
 
+    @Override
+    public Page<Property> searchWithinDistance(double latitude, double longitude, double radiusKm, Pageable pageable) {
+        GeoLocation center = GeoLocation.of(l -> l.latlon(ll -> ll.lat(latitude).lon(longitude)));
+        NativeQuery nativeQuery = NativeQuery.builder()
+            .withQuery(GeoDistanceQuery.of(g -> g.field(LOCATION_FIELD).location(center).distance(radiusKm + "km"))._toQuery())
+            .withSort(distanceSort(center))
+            .withPageable(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+            .build();
+        return search(nativeQuery);
+    }
+
+    @Override
+    public Page<Property> searchWithinBox(
+        double minLatitude,
+        double minLongitude,
+        double maxLatitude,
+        double maxLongitude,
+        Pageable pageable
+    ) {
+        GeoLocation center = GeoLocation.of(l ->
+            l.latlon(ll -> ll.lat((minLatitude + maxLatitude) / 2).lon((minLongitude + maxLongitude) / 2))
+        );
+        NativeQuery nativeQuery = NativeQuery.builder()
+            .withQuery(
+                GeoBoundingBoxQuery.of(g ->
+                    g
+                        .field(LOCATION_FIELD)
+                        .boundingBox(b ->
+                            b.tlbr(t ->
+                                t
+                                    .topLeft(l -> l.latlon(ll -> ll.lat(maxLatitude).lon(minLongitude)))
+                                    .bottomRight(l -> l.latlon(ll -> ll.lat(minLatitude).lon(maxLongitude)))
+                            )
+                        )
+                )._toQuery()
+            )
+            .withSort(distanceSort(center))
+            .withPageable(PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
+            .build();
+        return search(nativeQuery);
+    }
+
+    private static SortOptions distanceSort(GeoLocation center) {
+        return SortOptions.of(so ->
+            so.geoDistance(gd -> gd.field(LOCATION_FIELD).location(center).order(SortOrder.Asc).unit(DistanceUnit.Kilometers))
+        );
+    }
+
     @Override
     public void index(Property entity) {
         repository.findOneWithEagerRelationships(entity.getId()).ifPresent(elasticsearchTemplate::save);
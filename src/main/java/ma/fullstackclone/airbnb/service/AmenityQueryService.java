@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,33 +32,64 @@ public class AmenityQueryService extends QueryService<Amenity> {
 
     private static final Logger LOG = LoggerFactory.getLogger(AmenityQueryService.class);
 
+    private static final String ENDPOINT = "amenities";
+
     private final AmenityRepository amenityRepository;
 
     private final AmenityMapper amenityMapper;
 
     private final AmenitySearchRepository amenitySearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public AmenityQueryService(
         AmenityRepository amenityRepository,
         AmenityMapper amenityMapper,
-        AmenitySearchRepository amenitySearchRepository
+        AmenitySearchRepository amenitySearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.amenityRepository = amenityRepository;
         this.amenityMapper = amenityMapper;
         this.amenitySearchRepository = amenitySearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link AmenityDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link AmenityDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<AmenityDTO> findByCriteria(AmenityCriteria criteria, Pageable page) {
+    public Slice<AmenityDTO> findByCriteria(AmenityCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Amenity> specification = createSpecification(criteria);
-        return amenityRepository.findAll(specification, page).map(amenityMapper::toDto);
+        return paginationService
+            .findAll(ENDPOINT, Amenity.class, amenityRepository, specification, criteria, page)
+            .map(amenityMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link AmenityDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<AmenityDTO> findByCriteria(AmenityCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Amenity> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(Amenity.class, page.getSort(), after);
+        return amenityRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(amenityMapper::toDto);
     }
 
     /**
@@ -0,0 +1,107 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * The booked nights of a property, one bit per day of each year from {@code firstYear}, packed as stored in
+ * {@link ma.fullstackclone.airbnb.domain.PropertyCalendar#getBookedDays()}.
+ * <p>
+ * Each year takes {@value #BYTES_PER_YEAR} bytes, the bit of a day being its day of year minus one; years are appended
+ * as bookings reach them. Not thread-safe: an instance is used by one transaction, then packed back.
+ */
+public final class BookedDays {
+
+    static final int BYTES_PER_YEAR = 46;
+
+    private int firstYear;
+
+    private byte[] days;
+
+    public BookedDays(int firstYear) {
+        this(firstYear, new byte[0]);
+    }
+
+    public BookedDays(int firstYear, byte[] packed) {
+        if (packed.length % BYTES_PER_YEAR != 0) {
+            throw new IllegalArgumentException("Packed days must be whole years of " + BYTES_PER_YEAR + " bytes");
+        }
+        this.firstYear = firstYear;
+        this.days = packed.clone();
+    }
+
+    public int getFirstYear() {
+        return firstYear;
+    }
+
+    /**
+     * The years from {@code firstYear}, packed.
+     */
+    public byte[] toBytes() {
+        return days.clone();
+    }
+
+    /**
+     * Whether the night of a day is booked.
+     */
+    public boolean isBooked(LocalDate day) {
+        int bit = bit(day);
+        return bit >= 0 && bit < days.length * 8 && (days[bit >> 3] & (1 << (bit & 7))) != 0;
+    }
+
+    /**
+     * Mark the nights from {@code checkIn} (inclusive) to {@code checkOut} (exclusive) as booked; those before
+     * {@code firstYear} are ignored.
+     */
+    public void book(LocalDate checkIn, LocalDate checkOut) {
+        set(checkIn, checkOut, true);
+    }
+
+    /**
+     * Mark the nights from {@code checkIn} (inclusive) to {@code checkOut} (exclusive) as free.
+     */
+    public void release(LocalDate checkIn, LocalDate checkOut) {
+        set(checkIn, checkOut, false);
+    }
+
+    /**
+     * Forget the years before {@code year}.
+     */
+    public void dropYearsBefore(int year) {
+        if (year <= firstYear) {
+            return;
+        }
+        int dropped = Math.min(days.length, (year - firstYear) * BYTES_PER_YEAR);
+        days = Arrays.copyOfRange(days, dropped, days.length);
+        firstYear = year;
+    }
+
+    private void set(LocalDate checkIn, LocalDate checkOut, boolean booked) {
+        LocalDate first = LocalDate.of(firstYear, 1, 1);
+        LocalDate day = checkIn.isBefore(first) ? first : checkIn;
+        if (!day.isBefore(checkOut)) {
+            return;
+        }
+        if (booked) {
+            int years = checkOut.minusDays(1).getYear() - firstYear + 1;
+            if (years * BYTES_PER_YEAR > days.length) {
+                days = Arrays.copyOf(days, years * BYTES_PER_YEAR);
+            }
+        }
+        for (; day.isBefore(checkOut); day = day.plusDays(1)) {
+            int bit = bit(day);
+            if (bit >= days.length * 8) {
+                return;
+            }
+            if (booked) {
+                days[bit >> 3] |= (byte) (1 << (bit & 7));
+            } else {
+                days[bit >> 3] &= (byte) ~(1 << (bit & 7));
+            }
+        }
+    }
+
+    private int bit(LocalDate day) {
+        return (day.getYear() - firstYear) * BYTES_PER_YEAR * 8 + day.getDayOfYear() - 1;
+    }
+}
@@ -0,0 +1,217 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
+import ma.fullstackclone.airbnb.repository.BookingRepository;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service answering "is property X free for {@code [checkIn, checkOut)}" and rejecting double bookings.
+ * <p>
+ * Reads are served from a per-property {@link BookingIntervalIndex} kept in memory and lazily loaded from the database.
+ * Writes are checked against the database while holding a row lock on the booked property, so concurrent requests
+ * (on this node or on another one) for the same property are serialized and the overlap check stays authoritative.
+ * The in-memory index is only updated once the surrounding transaction has committed; the other nodes, told by the
+ * {@link CacheInvalidationService}, drop the index of the property and reload it on next access.
+ */
+@Service
+@Transactional(readOnly = true)
+public class BookingAvailabilityService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookingAvailabilityService.class);
+
+    /**
+     * Statuses for which a booking blocks its dates.
+     */
+    public static final Set<BookingStatus> BLOCKING_STATUSES = EnumSet.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+
+    /**
+     * The name of the availability indexes for the {@link CacheInvalidationService}, keyed by {@code bookingId:propertyId},
+     * the property being empty when the booking no longer blocks any dates.
+     */
+    public static final String AVAILABILITY_CACHE = "bookingAvailability";
+
+    private final BookingRepository bookingRepository;
+
+    private final PropertyRepository propertyRepository;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final Map<Long, BookingIntervalIndex> indexByPropertyId = new ConcurrentHashMap<>();
+
+    private final Map<Long, Long> propertyIdByBookingId = new ConcurrentHashMap<>();
+
+    /**
+     * Incremented by each booking written, so that an index loaded meanwhile, which may miss it, is not kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public BookingAvailabilityService(
+        BookingRepository bookingRepository,
+        PropertyRepository propertyRepository,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        this.bookingRepository = bookingRepository;
+        this.propertyRepository = propertyRepository;
+        this.cacheInvalidationService = cacheInvalidationService;
+        cacheInvalidationService.register(AVAILABILITY_CACHE, this::evictOnThisNode);
+    }
+
+    /**
+     * Check whether a property has no blocking booking overlapping {@code [checkIn, checkOut)}.
+     *
+     * @param propertyId the id of the property.
+     * @param checkIn the requested check-in (inclusive).
+     * @param checkOut the requested check-out (exclusive).
+     * @return {@code true} if the property is free for the whole range.
+     */
+    public boolean isAvailable(Long propertyId, Instant checkIn, Instant checkOut) {
+        BookingIntervalIndex index = indexByPropertyId.get(propertyId);
+        if (index == null) {
+            index = loadIndex(propertyId);
+        }
+        synchronized (index) {
+            return index.isFree(checkIn, checkOut);
+        }
+    }
+
+    /**
+     * Ensure that a booking about to be saved does not overlap another blocking booking of the same property.
+     * Must be called inside the write transaction, before the booking is flushed.
+     *
+     * @param booking the booking about to be saved.
+     * @throws BookingConflictException if the dates are already taken.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void checkAndReserve(Booking booking) {
+        if (booking.getProperty() == null || booking.getProperty().getId() == null || !BLOCKING_STATUSES.contains(booking.getStatus())) {
+            return;
+        }
+        Long propertyId = booking.getProperty().getId();
+        propertyRepository.findOneForUpdate(propertyId);
+        if (
+            bookingRepository.existsOverlapping(
+                propertyId,
+                booking.getCheckInDate(),
+                booking.getCheckOutDate(),
+                BLOCKING_STATUSES,
+                booking.getId()
+            )
+        ) {
+            LOG.debug("Rejecting Booking {} overlapping another booking of Property {}", booking.getId(), propertyId);
+            throw new BookingConflictException();
+        }
+    }
+
+    /**
+     * Reflect a saved booking in the in-memory index once the current transaction commits, on every node.
+     *
+     * @param booking the saved booking.
+     */
+    public void onBookingSaved(Booking booking) {
+        Long bookingId = booking.getId();
+        Long propertyId = booking.getProperty() != null ? booking.getProperty().getId() : null;
+        boolean blocking = propertyId != null && BLOCKING_STATUSES.contains(booking.getStatus());
+        Instant checkIn = booking.getCheckInDate();
+        Instant checkOut = booking.getCheckOutDate();
+        TransactionHooks.afterCommit(() -> {
+            BookingIntervalIndex index = written(bookingId, blocking ? propertyId : null);
+            if (index != null) {
+                synchronized (index) {
+                    index.put(bookingId, checkIn, checkOut);
+                }
+                propertyIdByBookingId.put(bookingId, propertyId);
+            }
+        });
+        cacheInvalidationService.evictOnOtherNodes(AVAILABILITY_CACHE, bookingId + ":" + (blocking ? propertyId : ""));
+    }
+
+    /**
+     * Remove a deleted booking from the in-memory index once the current transaction commits, on every node.
+     *
+     * @param bookingId the id of the deleted booking.
+     */
+    public void onBookingDeleted(Long bookingId) {
+        TransactionHooks.afterCommit(() -> written(bookingId, null));
+        cacheInvalidationService.evictOnOtherNodes(AVAILABILITY_CACHE, bookingId + ":");
+    }
+
+    /**
+     * Drop the in-memory index of a property, it will be reloaded on next access.
+     *
+     * @param propertyId the id of the property.
+     */
+    public void evictProperty(Long propertyId) {
+        synchronized (indexByPropertyId) {
+            generation.incrementAndGet();
+            indexByPropertyId.remove(propertyId);
+        }
+    }
+
+    /**
+     * Record a committed write of a booking: remove it from the index holding it, and return the loaded index of the
+     * property it now blocks, if any.
+     */
+    private BookingIntervalIndex written(Long bookingId, Long propertyId) {
+        evictBooking(bookingId);
+        synchronized (indexByPropertyId) {
+            generation.incrementAndGet();
+            return propertyId != null ? indexByPropertyId.get(propertyId) : null;
+        }
+    }
+
+    /**
+     * Apply a booking written by another node: its dates are reloaded with the index of the property it blocks.
+     *
+     * @param key the booking, as {@code bookingId:propertyId}.
+     */
+    private void evictOnThisNode(String key) {
+        int separator = key.indexOf(':');
+        written(Long.valueOf(key.substring(0, separator)), null);
+        if (separator < key.length() - 1) {
+            evictProperty(Long.valueOf(key.substring(separator + 1)));
+        }
+    }
+
+    private void evictBooking(Long bookingId) {
+        Long propertyId = propertyIdByBookingId.remove(bookingId);
+        if (propertyId == null) {
+            return;
+        }
+        BookingIntervalIndex index = indexByPropertyId.get(propertyId);
+        if (index != null) {
+            synchronized (index) {
+                index.remove(bookingId);
+            }
+        }
+    }
+
+    private BookingIntervalIndex loadIndex(Long propertyId) {
+        LOG.debug("Loading availability index of Property : {}", propertyId);
+        long loadGeneration = generation.get();
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        for (Booking booking : bookingRepository.findAllByPropertyIdAndStatusIn(propertyId, BLOCKING_STATUSES)) {
+            index.put(booking.getId(), booking.getCheckInDate(), booking.getCheckOutDate());
+            propertyIdByBookingId.put(booking.getId(), propertyId);
+        }
+        synchronized (indexByPropertyId) {
+            // a booking written while loading may be missing: serve the bookings read, but reload on the next access
+            if (generation.get() == loadGeneration) {
+                BookingIntervalIndex current = indexByPropertyId.putIfAbsent(propertyId, index);
+                return current != null ? current : index;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,10 @@
+package ma.fullstackclone.airbnb.service;
+
+public class BookingConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingConflictException() {
+        super("The property is already booked for these dates!");
+    }
+}
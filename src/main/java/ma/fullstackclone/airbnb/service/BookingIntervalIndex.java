@@ -0,0 +1,96 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of the booked {@code [checkIn, checkOut)} intervals of a single property.
+ * <p>
+ * Intervals are kept ordered by their start, so an overlap lookup only has to visit the intervals
+ * starting in {@code (from - longestStay, to)}: an {@code O(log n)} seek followed by a scan of the
+ * (usually zero or one) candidates. The longest stay is never shrunk on removal, which keeps the
+ * lookup window conservative but always correct.
+ * <p>
+ * This class is not thread-safe, callers must synchronize on the instance.
+ */
+public final class BookingIntervalIndex {
+
+    private final NavigableMap<IntervalKey, Long> intervalsByStart = new TreeMap<>();
+
+    private final Map<Long, IntervalKey> keysByBookingId = new HashMap<>();
+
+    private long longestStaySeconds;
+
+    /**
+     * Add or move the interval of a booking.
+     *
+     * @param bookingId the id of the booking.
+     * @param checkIn the first booked instant (inclusive).
+     * @param checkOut the end of the stay (exclusive).
+     */
+    public void put(Long bookingId, Instant checkIn, Instant checkOut) {
+        remove(bookingId);
+        long start = checkIn.getEpochSecond();
+        long end = checkOut.getEpochSecond();
+        if (end <= start) {
+            return;
+        }
+        IntervalKey key = new IntervalKey(start, bookingId);
+        intervalsByStart.put(key, end);
+        keysByBookingId.put(bookingId, key);
+        longestStaySeconds = Math.max(longestStaySeconds, end - start);
+    }
+
+    /**
+     * Remove the interval of a booking, if present.
+     *
+     * @param bookingId the id of the booking.
+     * @return {@code true} if the booking was indexed.
+     */
+    public boolean remove(Long bookingId) {
+        IntervalKey key = keysByBookingId.remove(bookingId);
+        if (key == null) {
+            return false;
+        }
+        intervalsByStart.remove(key);
+        return true;
+    }
+
+    /**
+     * Check whether {@code [from, to)} does not overlap any indexed interval.
+     *
+     * @param from the requested check-in (inclusive).
+     * @param to the requested check-out (exclusive).
+     * @return {@code true} if no indexed booking overlaps the range.
+     */
+    public boolean isFree(Instant from, Instant to) {
+        long start = from.getEpochSecond();
+        long end = to.getEpochSecond();
+        if (end <= start || intervalsByStart.isEmpty()) {
+            return true;
+        }
+        IntervalKey lower = new IntervalKey(start - longestStaySeconds, Long.MIN_VALUE);
+        IntervalKey upper = new IntervalKey(end, Long.MIN_VALUE);
+        for (Map.Entry<IntervalKey, Long> candidate : intervalsByStart.subMap(lower, false, upper, false).entrySet()) {
+            if (candidate.getValue() > start) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return keysByBookingId.size();
+    }
+
+    private record IntervalKey(long start, long bookingId) implements Comparable<IntervalKey> {
+        @Override
+        public int compareTo(IntervalKey other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Long.compare(bookingId, other.bookingId);
+        }
+    }
+}
@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,33 +32,64 @@ public class BookingQueryService extends QueryService<Booking> {
 
     private static final Logger LOG = LoggerFactory.getLogger(BookingQueryService.class);
 
+    private static final String ENDPOINT = "bookings";
+
     private final BookingRepository bookingRepository;
 
     private final BookingMapper bookingMapper;
 
     private final BookingSearchRepository bookingSearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public BookingQueryService(
         BookingRepository bookingRepository,
         BookingMapper bookingMapper,
-        BookingSearchRepository bookingSearchRepository
+        BookingSearchRepository bookingSearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.bookingRepository = bookingRepository;
         this.bookingMapper = bookingMapper;
         this.bookingSearchRepository = bookingSearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link BookingDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link BookingDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<BookingDTO> findByCriteria(BookingCriteria criteria, Pageable page) {
+    public Slice<BookingDTO> findByCriteria(BookingCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Booking> specification = createSpecification(criteria);
-        return bookingRepository.findAll(specification, page).map(bookingMapper::toDto);
+        return paginationService
+            .findAll(ENDPOINT, Booking.class, bookingRepository, specification, criteria, page)
+            .map(bookingMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link BookingDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<BookingDTO> findByCriteria(BookingCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Booking> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(Booking.class, page.getSort(), after);
+        return bookingRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(bookingMapper::toDto);
     }
 
     /**
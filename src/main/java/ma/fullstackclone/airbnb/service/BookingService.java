@@ -18,18 +18,20 @@ public interface BookingService {
     BookingDTO save(BookingDTO bookingDTO);
 
     /**
-     * Updates a booking.
+     * Updates a booking, if it is still at the version of the DTO when it has one.
      *
      * @param bookingDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version, or empty if it does not exist.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the booking was updated since.
      */
-    BookingDTO update(BookingDTO bookingDTO);
+    Optional<BookingDTO> update(BookingDTO bookingDTO);
 
     /**
-     * Partially updates a booking.
+     * Partially updates a booking, if it is still at the version of the DTO when it has one.
      *
      * @param bookingDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version, or empty if it does not exist.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the booking was updated since.
      */
     Optional<BookingDTO> partialUpdate(BookingDTO bookingDTO);
 
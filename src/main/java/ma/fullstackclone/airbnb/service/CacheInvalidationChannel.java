@@ -0,0 +1,16 @@
+package ma.fullstackclone.airbnb.service;
+
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+
+/**
+ * Carries the cache invalidations of a node to the other nodes, which hand them to
+ * {@link CacheInvalidationService#receive(CacheInvalidationDTO)}.
+ */
+public interface CacheInvalidationChannel {
+    /**
+     * Send the invalidations of a committed transaction to the other nodes, without waiting for them.
+     *
+     * @param invalidation the invalidations.
+     */
+    void publish(CacheInvalidationDTO invalidation);
+}
@@ -0,0 +1,23 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives the cache invalidations of the other nodes from the {@code cache-invalidations} topic.
+ */
+@Component
+public class CacheInvalidationConsumer implements Consumer<CacheInvalidationDTO> {
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    public CacheInvalidationConsumer(CacheInvalidationService cacheInvalidationService) {
+        this.cacheInvalidationService = cacheInvalidationService;
+    }
+
+    @Override
+    public void accept(CacheInvalidationDTO invalidation) {
+        cacheInvalidationService.receive(invalidation);
+    }
+}
@@ -0,0 +1,319 @@
+package ma.fullstackclone.airbnb.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO.Eviction;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO.Kind;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Service keeping the caches of the nodes consistent: the entries a node writes are evicted from the caches of the other
+ * nodes once the write commits.
+ * <p>
+ * The entities and collections of the Hibernate second-level cache are tracked by Hibernate event listeners. The
+ * application caches (users by login, promotions by code...) and the bulk updates, which Hibernate does not report, are
+ * declared by the services writing them. The evictions of a transaction are sent in one {@link CacheInvalidationDTO}
+ * through the {@link CacheInvalidationChannel} once it commits, each entry once however many times it was written.
+ * Nodes ignore their own messages and those already received.
+ */
+@Service
+public class CacheInvalidationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationService.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, Consumer<String>> evictors = new ConcurrentHashMap<>();
+
+    private final Map<String, Boolean> received;
+
+    private final CacheInvalidationChannel channel;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheInvalidationService(
+        CacheInvalidationChannel channel,
+        EntityManagerFactory entityManagerFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        this.channel = channel;
+        this.entityManagerFactory = entityManagerFactory;
+        int window = Math.max(1, applicationProperties.getCache().getInvalidation().getDeduplicationWindow());
+        this.received = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > window;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = sessionFactory().getServiceRegistry().getService(EventListenerRegistry.class);
+        SecondLevelCacheListener listener = new SecondLevelCacheListener();
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Declare how this node evicts an entry of an application cache when another node wrote it.
+     *
+     * @param cacheName the name of the cache.
+     * @param evictor evicts the entry of a key, as sent by {@link #evictOnOtherNodes(String, Object)}.
+     */
+    public void register(String cacheName, Consumer<String> evictor) {
+        evictors.put(cacheName, evictor);
+    }
+
+    /**
+     * Have the other nodes evict an entry of an application cache once the current transaction commits; the caller
+     * evicts its own.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key of the entry, sent as a string.
+     */
+    public void evictOnOtherNodes(String cacheName, Object key) {
+        if (key != null) {
+            enqueue(new Eviction(Kind.CACHE, cacheName, String.valueOf(key)));
+        }
+    }
+
+    /**
+     * Have the other nodes evict an entity updated by a bulk query once the current transaction commits; Hibernate only
+     * evicts it on this node.
+     *
+     * @param entityClass the class of the entity.
+     * @param id the id of the entity.
+     */
+    public void bulkUpdated(Class<?> entityClass, Object id) {
+        enqueue(new Eviction(Kind.ENTITY, entityClass.getName(), String.valueOf(id)));
+    }
+
+    /**
+     * Have the other nodes evict all the entities of a type once the current transaction commits, after a bulk query
+     * updating an unknown set of them.
+     *
+     * @param entityClass the class of the entities.
+     */
+    public void bulkUpdated(Class<?> entityClass) {
+        enqueue(new Eviction(Kind.ENTITY_REGION, entityClass.getName(), null));
+    }
+
+    /**
+     * Evict the entries written by another node.
+     *
+     * @param invalidation the evictions of a transaction of another node.
+     */
+    public void receive(CacheInvalidationDTO invalidation) {
+        if (nodeId.equals(invalidation.getNodeId()) || invalidation.getEvictions() == null) {
+            return;
+        }
+        synchronized (received) {
+            if (received.put(invalidation.getNodeId() + ":" + invalidation.getSequence(), Boolean.TRUE) != null) {
+                LOG.debug("Ignoring the cache invalidation {} of node {}, already received", invalidation.getSequence(), invalidation.getNodeId());
+                return;
+            }
+        }
+        LOG.debug("Evicting the entries written by node {}: {}", invalidation.getNodeId(), invalidation.getEvictions());
+        // the second-level cache first, so that the evictors reloading an application cache read the new entities
+        List<Eviction> evictions = invalidation
+            .getEvictions()
+            .stream()
+            .sorted(Comparator.comparing(Eviction::getKind, Comparator.nullsLast(Comparator.naturalOrder())))
+            .toList();
+        for (Eviction eviction : evictions) {
+            try {
+                evict(eviction);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not evict {} written by node {}: {}", eviction, invalidation.getNodeId(), e.getMessage());
+            }
+        }
+    }
+
+    private void evict(Eviction eviction) {
+        switch (eviction.getKind()) {
+            case ENTITY -> {
+                EntityPersister persister = sessionFactory().getMappingMetamodel().getEntityDescriptor(eviction.getName());
+                Object id = persister.getIdentifierMapping().getJavaType().fromString(eviction.getKey());
+                sessionFactory().getCache().evictEntityData(persister.getEntityName(), id);
+            }
+            case COLLECTION -> {
+                CollectionPersister persister = sessionFactory().getMappingMetamodel().getCollectionDescriptor(eviction.getName());
+                Object ownerId = persister.getOwnerEntityPersister().getIdentifierMapping().getJavaType().fromString(eviction.getKey());
+                sessionFactory().getCache().evictCollectionData(persister.getRole(), ownerId);
+            }
+            case ENTITY_REGION -> sessionFactory().getCache().evictEntityData(eviction.getName());
+            case CACHE -> {
+                Consumer<String> evictor = evictors.get(eviction.getName());
+                if (evictor != null) {
+                    evictor.accept(eviction.getKey());
+                } else {
+                    LOG.debug("No evictor for the cache {}", eviction.getName());
+                }
+            }
+        }
+    }
+
+    private void enqueue(Eviction eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(Set.of(eviction));
+            return;
+        }
+        Batch batch = (Batch) TransactionSynchronizationManager.getResource(this);
+        if (batch == null) {
+            batch = new Batch();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(batch);
+        }
+        batch.add(eviction);
+    }
+
+    private void publish(Set<Eviction> evictions) {
+        CacheInvalidationDTO invalidation = new CacheInvalidationDTO();
+        invalidation.setNodeId(nodeId);
+        invalidation.setSequence(sequence.incrementAndGet());
+        invalidation.setEvictions(new ArrayList<>(evictions));
+        try {
+            channel.publish(invalidation);
+        } catch (RuntimeException e) {
+            LOG.warn("Could not send the cache invalidation {}: {}", invalidation, e.getMessage());
+        }
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+
+    /**
+     * The evictions of a transaction, sent once it commits. Those declared from another after-commit callback are sent
+     * right away, as the batch is gone.
+     */
+    private final class Batch implements TransactionSynchronization {
+
+        private final Set<Eviction> evictions = new LinkedHashSet<>();
+
+        private boolean sent;
+
+        void add(Eviction eviction) {
+            if (sent) {
+                publish(Set.of(eviction));
+            } else {
+                evictions.add(eviction);
+            }
+        }
+
+        @Override
+        public void afterCommit() {
+            sent = true;
+            if (!evictions.isEmpty()) {
+                publish(evictions);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidationService.this);
+        }
+    }
+
+    /**
+     * Records the entities and collections of the second-level cache written by the current transaction.
+     */
+    private final class SecondLevelCacheListener
+        implements
+            PostUpdateEventListener,
+            PostDeleteEventListener,
+            PostCollectionRecreateEventListener,
+            PostCollectionUpdateEventListener,
+            PostCollectionRemoveEventListener {
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            entity(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            entity(event.getPersister(), event.getId());
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            collection(event);
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            collection(event);
+        }
+
+        @Override
+        public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+            collection(event);
+        }
+
+        private void entity(EntityPersister persister, Object id) {
+            if (persister.canWriteToCache() && id != null) {
+                enqueue(new Eviction(Kind.ENTITY, persister.getEntityName(), String.valueOf(id)));
+            }
+        }
+
+        private void collection(AbstractCollectionEvent event) {
+            Object ownerId = event.getAffectedOwnerIdOrNull();
+            String role = event.getCollection().getRole();
+            if (ownerId == null || role == null) {
+                return;
+            }
+            if (event.getSession().getFactory().getMappingMetamodel().getCollectionDescriptor(role).hasCache()) {
+                enqueue(new Eviction(Kind.COLLECTION, role, String.valueOf(ownerId)));
+            }
+        }
+    }
+}
@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,29 +32,62 @@ public class CityQueryService extends QueryService<City> {
 
     private static final Logger LOG = LoggerFactory.getLogger(CityQueryService.class);
 
+    private static final String ENDPOINT = "cities";
+
     private final CityRepository cityRepository;
 
     private final CityMapper cityMapper;
 
     private final CitySearchRepository citySearchRepository;
 
-    public CityQueryService(CityRepository cityRepository, CityMapper cityMapper, CitySearchRepository citySearchRepository) {
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
+    public CityQueryService(
+        CityRepository cityRepository,
+        CityMapper cityMapper,
+        CitySearchRepository citySearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
+    ) {
         this.cityRepository = cityRepository;
         this.cityMapper = cityMapper;
         this.citySearchRepository = citySearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link CityDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link CityDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<CityDTO> findByCriteria(CityCriteria criteria, Pageable page) {
+    public Slice<CityDTO> findByCriteria(CityCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<City> specification = createSpecification(criteria);
-        return cityRepository.findAll(specification, page).map(cityMapper::toDto);
+        return paginationService.findAll(ENDPOINT, City.class, cityRepository, specification, criteria, page).map(cityMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link CityDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<CityDTO> findByCriteria(CityCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<City> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(City.class, page.getSort(), after);
+        return cityRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(cityMapper::toDto);
     }
 
     /**
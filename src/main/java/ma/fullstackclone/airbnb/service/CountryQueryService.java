@@ -11,6 +11,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,33 +31,64 @@ public class CountryQueryService extends QueryService<Country> {
 
     private static final Logger LOG = LoggerFactory.getLogger(CountryQueryService.class);
 
+    private static final String ENDPOINT = "countries";
+
     private final CountryRepository countryRepository;
 
     private final CountryMapper countryMapper;
 
     private final CountrySearchRepository countrySearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public CountryQueryService(
         CountryRepository countryRepository,
         CountryMapper countryMapper,
-        CountrySearchRepository countrySearchRepository
+        CountrySearchRepository countrySearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.countryRepository = countryRepository;
         this.countryMapper = countryMapper;
         this.countrySearchRepository = countrySearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link CountryDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link CountryDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<CountryDTO> findByCriteria(CountryCriteria criteria, Pageable page) {
+    public Slice<CountryDTO> findByCriteria(CountryCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Country> specification = createSpecification(criteria);
-        return countryRepository.findAll(specification, page).map(countryMapper::toDto);
+        return paginationService
+            .findAll(ENDPOINT, Country.class, countryRepository, specification, criteria, page)
+            .map(countryMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link CountryDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<CountryDTO> findByCriteria(CountryCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Country> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(Country.class, page.getSort(), after);
+        return countryRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(countryMapper::toDto);
     }
 
     /**
@@ -0,0 +1,116 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import ma.fullstackclone.airbnb.broker.DomainEvent;
+import ma.fullstackclone.airbnb.broker.DomainEventPublisher;
+import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.Review;
+import ma.fullstackclone.airbnb.domain.User;
+import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.repository.UserRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service raising the {@link DomainEvent}s streamed to the clients: property price changes, booking confirmations and
+ * new reviews.
+ * <p>
+ * Events are built in the calling transaction, as the entities given may only carry the ids of their relationships,
+ * and published once it has committed.
+ */
+@Service
+@Transactional
+public class DomainEventService {
+
+    private final PropertyRepository propertyRepository;
+
+    private final UserRepository userRepository;
+
+    private final DomainEventPublisher domainEventPublisher;
+
+    public DomainEventService(
+        PropertyRepository propertyRepository,
+        UserRepository userRepository,
+        DomainEventPublisher domainEventPublisher
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.userRepository = userRepository;
+        this.domainEventPublisher = domainEventPublisher;
+    }
+
+    /**
+     * Called when a property was saved.
+     *
+     * @param property the saved property.
+     * @param previousPrice the price before the save, {@code null} for a new property.
+     */
+    public void propertySaved(Property property, BigDecimal previousPrice) {
+        BigDecimal price = property.getPricePerNight();
+        if (previousPrice == null || price == null || previousPrice.compareTo(price) == 0) {
+            return;
+        }
+        publish(
+            new DomainEvent.PropertyPriceChanged(property.getId(), hostLogin(property.getId()), previousPrice, price, Instant.now())
+        );
+    }
+
+    /**
+     * Called when a booking was saved.
+     *
+     * @param booking the saved booking.
+     * @param previousStatus the status before the save, {@code null} for a new booking.
+     */
+    public void bookingSaved(Booking booking, BookingStatus previousStatus) {
+        if (booking.getStatus() != BookingStatus.CONFIRMED || previousStatus == BookingStatus.CONFIRMED) {
+            return;
+        }
+        Long propertyId = id(booking.getProperty());
+        publish(
+            new DomainEvent.BookingConfirmed(
+                booking.getId(),
+                propertyId,
+                hostLogin(propertyId),
+                login(booking.getGuest()),
+                booking.getCheckInDate(),
+                booking.getCheckOutDate(),
+                Instant.now()
+            )
+        );
+    }
+
+    /**
+     * Called when a review was created.
+     */
+    public void reviewCreated(Review review) {
+        Long propertyId = id(review.getProperty());
+        publish(
+            new DomainEvent.ReviewCreated(
+                review.getId(),
+                propertyId,
+                hostLogin(propertyId),
+                login(review.getAuthor()),
+                review.getRating(),
+                Instant.now()
+            )
+        );
+    }
+
+    private void publish(DomainEvent event) {
+        TransactionHooks.afterCommit(() -> domainEventPublisher.publish(event));
+    }
+
+    private String hostLogin(Long propertyId) {
+        return propertyId != null ? propertyRepository.findHostLoginById(propertyId).orElse(null) : null;
+    }
+
+    private String login(User user) {
+        return user != null && user.getId() != null ? userRepository.findLoginById(user.getId()).orElse(null) : null;
+    }
+
+    private static Long id(Property property) {
+        return property != null ? property.getId() : null;
+    }
+}
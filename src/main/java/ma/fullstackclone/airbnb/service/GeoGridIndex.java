@@ -0,0 +1,189 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index of points bucketed into a fixed latitude/longitude grid.
+ * <p>
+ * A radius or bounding-box lookup only visits the grid cells intersecting the searched area, then filters the points
+ * of those cells exactly. When the searched area covers more cells than there are points, all the points are scanned
+ * instead. Lookups do not wrap around the antimeridian.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class GeoGridIndex {
+
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellSizeDegrees;
+
+    private final Map<Long, Set<Long>> idsByCell = new HashMap<>();
+
+    private final Map<Long, double[]> pointsById = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param cellSizeDegrees the side of a grid cell, in degrees.
+     */
+    public GeoGridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0) {
+            throw new IllegalArgumentException("The cell size must be positive");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+    }
+
+    /**
+     * A point found by a lookup, with its distance to the reference point.
+     */
+    public record Hit(Long id, double latitude, double longitude, double distanceKm) {}
+
+    public void put(Long id, double latitude, double longitude) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+            pointsById.put(id, new double[] { latitude, longitude });
+            idsByCell.computeIfAbsent(cellKey(latitude, longitude), key -> new HashSet<>()).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return pointsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Find the points within {@code radiusKm} of a reference point, nearest first.
+     */
+    public List<Hit> withinDistance(double latitude, double longitude, double radiusKm) {
+        double latitudeDelta = radiusKm / KM_PER_DEGREE;
+        double cosLatitude = Math.cos(Math.toRadians(Math.min(89.9, Math.abs(latitude) + latitudeDelta)));
+        double longitudeDelta = Math.min(180, radiusKm / (KM_PER_DEGREE * Math.max(cosLatitude, 1e-6)));
+        List<Hit> hits = new ArrayList<>();
+        scan(latitude - latitudeDelta, longitude - longitudeDelta, latitude + latitudeDelta, longitude + longitudeDelta, (id, point) -> {
+            double distance = haversineKm(latitude, longitude, point[0], point[1]);
+            if (distance <= radiusKm) {
+                hits.add(new Hit(id, point[0], point[1], distance));
+            }
+        });
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::id));
+        return hits;
+    }
+
+    /**
+     * Find the points inside a bounding box, nearest to the center of the box first.
+     */
+    public List<Hit> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        double centerLatitude = (minLatitude + maxLatitude) / 2;
+        double centerLongitude = (minLongitude + maxLongitude) / 2;
+        List<Hit> hits = new ArrayList<>();
+        scan(minLatitude, minLongitude, maxLatitude, maxLongitude, (id, point) ->
+            hits.add(new Hit(id, point[0], point[1], haversineKm(centerLatitude, centerLongitude, point[0], point[1])))
+        );
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm).thenComparing(Hit::id));
+        return hits;
+    }
+
+    /**
+     * Great-circle distance between two points, in kilometers.
+     */
+    public static double haversineKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a =
+            Math.pow(Math.sin(dLatitude / 2), 2) +
+            Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(dLongitude / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private interface PointVisitor {
+        void visit(Long id, double[] point);
+    }
+
+    private void scan(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, PointVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            long minLatitudeCell = cell(Math.max(-90, minLatitude), 90);
+            long maxLatitudeCell = cell(Math.min(90, maxLatitude), 90);
+            long minLongitudeCell = cell(Math.max(-180, minLongitude), 180);
+            long maxLongitudeCell = cell(Math.min(180, maxLongitude), 180);
+            long cellCount = (maxLatitudeCell - minLatitudeCell + 1) * (maxLongitudeCell - minLongitudeCell + 1);
+            if (cellCount > pointsById.size()) {
+                pointsById.forEach((id, point) -> {
+                    if (contains(point, minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+                        visitor.visit(id, point);
+                    }
+                });
+                return;
+            }
+            for (long latitudeCell = minLatitudeCell; latitudeCell <= maxLatitudeCell; latitudeCell++) {
+                for (long longitudeCell = minLongitudeCell; longitudeCell <= maxLongitudeCell; longitudeCell++) {
+                    Set<Long> ids = idsByCell.get(cellKey(latitudeCell, longitudeCell));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        double[] point = pointsById.get(id);
+                        if (contains(point, minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+                            visitor.visit(id, point);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean contains(double[] point, double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        return point[0] >= minLatitude && point[0] <= maxLatitude && point[1] >= minLongitude && point[1] <= maxLongitude;
+    }
+
+    private void removeUnlocked(Long id) {
+        double[] previous = pointsById.remove(id);
+        if (previous != null) {
+            long key = cellKey(previous[0], previous[1]);
+            Set<Long> ids = idsByCell.get(key);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                idsByCell.remove(key);
+            }
+        }
+    }
+
+    private long cell(double degrees, double offset) {
+        return (long) Math.floor((degrees + offset) / cellSizeDegrees);
+    }
+
+    private long cellKey(double latitude, double longitude) {
+        return cellKey(cell(latitude, 90), cell(longitude, 180));
+    }
+
+    private static long cellKey(long latitudeCell, long longitudeCell) {
+        return (latitudeCell << 32) | (longitudeCell & 0xffffffffL);
+    }
+}
@@ -0,0 +1,10 @@
+package ma.fullstackclone.airbnb.service;
+
+public class InvalidPromotionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPromotionException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package ma.fullstackclone.airbnb.service;
+
+public class InvalidStayException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidStayException(String message) {
+        super(message);
+    }
+}
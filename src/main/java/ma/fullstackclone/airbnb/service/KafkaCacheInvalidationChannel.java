@@ -0,0 +1,29 @@
+package ma.fullstackclone.airbnb.service;
+
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+
+/**
+ * Sends the cache invalidations to the {@code cache-invalidations} topic, read by every node without a consumer group.
+ */
+public class KafkaCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KafkaCacheInvalidationChannel.class);
+
+    public static final String BINDING_NAME = "cacheInvalidation-out-0";
+
+    private final StreamBridge streamBridge;
+
+    public KafkaCacheInvalidationChannel(StreamBridge streamBridge) {
+        this.streamBridge = streamBridge;
+    }
+
+    @Override
+    public void publish(CacheInvalidationDTO invalidation) {
+        if (!streamBridge.send(BINDING_NAME, invalidation)) {
+            LOG.warn("Cache invalidation {} of node {} was not sent", invalidation.getSequence(), invalidation.getNodeId());
+        }
+    }
+}
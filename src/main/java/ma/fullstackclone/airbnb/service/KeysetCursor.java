@@ -0,0 +1,92 @@
+package ma.fullstackclone.airbnb.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.JsonNodeFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+/**
+ * Opaque {@code after=} cursors of keyset pagination.
+ * <p>
+ * A cursor holds the sort keys (sort properties and id) of the last row of a page, as URL-safe Base64 of a JSON object.
+ * Decoding converts each key back to the type of its attribute, so the cursor must match the sort it is used with.
+ */
+public final class KeysetCursor {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+        .addModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+        .disable(JsonNodeFeature.STRIP_TRAILING_BIGDECIMAL_ZEROES)
+        .build();
+
+    private KeysetCursor() {}
+
+    /**
+     * Encode the cursor of the page following a window.
+     *
+     * @param window a window read from a keyset position.
+     * @return the cursor of the next page, or {@code null} if the window is the last one.
+     */
+    public static String next(Window<?> window) {
+        if (!window.hasNext() || window.isEmpty()) {
+            return null;
+        }
+        ScrollPosition position = window.positionAt(window.size() - 1);
+        if (!(position instanceof KeysetScrollPosition keysetPosition)) {
+            throw new IllegalArgumentException("The window was not read from a keyset position");
+        }
+        return encode(keysetPosition.getKeys());
+    }
+
+    static String encode(Map<String, ?> keys) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(keys));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot encode the cursor keys " + keys.keySet(), e);
+        }
+    }
+
+    /**
+     * Decode a cursor.
+     *
+     * @param cursor the cursor.
+     * @param keyTypes the expected keys of the cursor, with their types.
+     * @return the keys of the cursor, in the order of {@code keyTypes}.
+     * @throws InvalidCursorException if the cursor is malformed or does not hold exactly the expected keys.
+     */
+    public static Map<String, Object> decode(String cursor, Map<String, Class<?>> keyTypes) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (node == null || !node.isObject() || node.size() != keyTypes.size()) {
+            throw new InvalidCursorException("The cursor does not match the sort");
+        }
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, Class<?>> keyType : keyTypes.entrySet()) {
+            JsonNode value = node.get(keyType.getKey());
+            if (value == null || value.isNull()) {
+                throw new InvalidCursorException("The cursor does not match the sort");
+            }
+            try {
+                keys.put(keyType.getKey(), MAPPER.treeToValue(value, keyType.getValue()));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                throw new InvalidCursorException("The cursor does not match the sort");
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,70 @@
+package ma.fullstackclone.airbnb.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.SingularAttribute;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service resolving the {@code after=} cursors of keyset pagination into {@link ScrollPosition}s.
+ * <p>
+ * In keyset mode a page is read with {@code where (sort keys) > (keys of the last row) order by sort keys, id limit n}:
+ * there is no offset to skip and no count query, so every page costs the same. This needs a total order on non-null
+ * values, so only sorts on non-null basic attributes of the entity itself are accepted; the id is always appended as
+ * the last sort key.
+ */
+@Service
+public class KeysetPaginationService {
+
+    private final EntityManager entityManager;
+
+    public KeysetPaginationService(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Resolve the position to read a page from.
+     *
+     * @param domainClass the queried entity.
+     * @param sort the requested sort.
+     * @param after the cursor returned with the previous page, or an empty string for the first page.
+     * @return the keyset position following the cursor.
+     * @throws InvalidCursorException if the sort cannot be used for keyset pagination, or does not match the cursor.
+     */
+    public ScrollPosition positionAfter(Class<?> domainClass, Sort sort, String after) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(domainClass);
+        Map<String, Class<?>> keyTypes = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            keyTypes.put(order.getProperty(), keyType(entityType, order));
+        }
+        SingularAttribute<?, ?> id = entityType.getId(entityType.getIdType().getJavaType());
+        keyTypes.putIfAbsent(id.getName(), id.getJavaType());
+        if (after == null || after.isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(KeysetCursor.decode(after, keyTypes));
+    }
+
+    private static Class<?> keyType(EntityType<?> entityType, Sort.Order order) {
+        Attribute<?, ?> attribute;
+        try {
+            attribute = entityType.getAttribute(order.getProperty());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cannot sort on " + order.getProperty() + " with a cursor");
+        }
+        if (
+            order.isIgnoreCase() ||
+            !(attribute instanceof SingularAttribute<?, ?> singularAttribute) ||
+            singularAttribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC ||
+            (singularAttribute.isOptional() && !singularAttribute.isId())
+        ) {
+            throw new InvalidCursorException("Cannot sort on " + order.getProperty() + " with a cursor");
+        }
+        return singularAttribute.getJavaType();
+    }
+}
@@ -0,0 +1,24 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+
+/**
+ * Hands the cache invalidations to the subscribers of this JVM: nobody on a single node, or the services standing for
+ * several nodes in a test.
+ */
+public class LocalCacheInvalidationChannel implements CacheInvalidationChannel {
+
+    private final List<Consumer<CacheInvalidationDTO>> subscribers = new CopyOnWriteArrayList<>();
+
+    public void subscribe(Consumer<CacheInvalidationDTO> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    @Override
+    public void publish(CacheInvalidationDTO invalidation) {
+        subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+}
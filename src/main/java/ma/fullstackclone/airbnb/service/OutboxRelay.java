@@ -0,0 +1,274 @@
+package ma.fullstackclone.airbnb.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.OutboxEvent;
+import ma.fullstackclone.airbnb.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service relaying the outbox events to the search indices and to Kafka.
+ * <p>
+ * Every {@code poll-interval}, events are claimed by batches with {@code FOR UPDATE SKIP LOCKED}, so the relays of
+ * several nodes drain the outbox at the same time without relaying an event twice. The claim only postpones the events
+ * by {@code claim-timeout} and is committed right away: no row stays locked while each event is published to the
+ * {@code binding} and its change is handed to the {@link SearchIndexQueue}, and the events of a relay which stops are
+ * relayed again once their claim expires. The events of a batch are deleted once the queue has written all their
+ * entities. A failed batch is retried with an exponential backoff, and an event is dropped after {@code max-attempts}.
+ * The relay stops claiming while the queue is full.
+ * <p>
+ * Batches relayed by different nodes may be written to the indices in any order: documents are versioned with the time
+ * their rows were read at (see {@link SearchIndexWriter}), so an older read never replaces a newer one.
+ * <p>
+ * Delivery is at least once: an event is published again when its batch fails after being partly sent.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    public static final String DEPTH_METER_NAME = "outbox.depth";
+    public static final String LAG_METER_NAME = "outbox.lag";
+    public static final String DELAY_METER_NAME = "outbox.relay.delay";
+    public static final String EVENTS_METER_NAME = "outbox.events";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final SearchDocuments searchDocuments;
+
+    private final SearchIndexQueue searchIndexQueue;
+
+    private final StreamBridge streamBridge;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Search.Indexing indexingProperties;
+
+    private final ApplicationProperties.Outbox outboxProperties;
+
+    private final AtomicLong depth = new AtomicLong();
+
+    private final AtomicLong oldestCreatedMillis = new AtomicLong();
+
+    private final Timer relayDelayTimer;
+
+    private final Counter relayedCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter droppedCounter;
+
+    private ScheduledExecutorService scheduler;
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        SearchDocuments searchDocuments,
+        SearchIndexQueue searchIndexQueue,
+        StreamBridge streamBridge,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.searchDocuments = searchDocuments;
+        this.searchIndexQueue = searchIndexQueue;
+        this.streamBridge = streamBridge;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxProperties = applicationProperties.getOutbox();
+        this.indexingProperties = applicationProperties.getSearch().getIndexing();
+
+        Gauge.builder(DEPTH_METER_NAME, depth, AtomicLong::get)
+            .description("Number of events waiting in the outbox, as of the last poll")
+            .register(meterRegistry);
+        Gauge.builder(LAG_METER_NAME, this, OutboxRelay::lagSeconds)
+            .description("Age of the oldest event waiting in the outbox, as of the last poll")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.relayDelayTimer = Timer.builder(DELAY_METER_NAME)
+            .description("Time between the write of an event and its relay")
+            .register(meterRegistry);
+        this.relayedCounter = eventsCounter(meterRegistry, "relayed");
+        this.retriedCounter = eventsCounter(meterRegistry, "retried");
+        this.droppedCounter = eventsCounter(meterRegistry, "dropped");
+    }
+
+    private static Counter eventsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder(EVENTS_METER_NAME)
+            .description("Number of outbox events by outcome of their relay")
+            .baseUnit("events")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!outboxProperties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, outboxProperties.getPollInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::relayAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Relay the available events, batch after batch, until the outbox is drained, a batch fails, or the indexing queue
+     * is full.
+     */
+    void relayAll() {
+        try {
+            int batchSize = Math.max(1, outboxProperties.getBatchSize());
+            int relayed;
+            do {
+                relayed = relayBatch(batchSize);
+            } while (relayed == batchSize && searchIndexQueue.size() < indexingProperties.getCapacity());
+            depth.set(outboxEventRepository.count());
+            Instant oldest = outboxEventRepository.findOldestCreatedDate();
+            oldestCreatedMillis.set(oldest != null ? oldest.toEpochMilli() : 0);
+        } catch (RuntimeException e) {
+            LOG.error("Outbox relay failed", e);
+        }
+    }
+
+    /**
+     * Relay one batch of events: publish them, and queue their changes, the events being deleted once written.
+     *
+     * @return the number of relayed events, 0 if the batch failed.
+     */
+    private int relayBatch(int batchSize) {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claim(batchSize));
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        List<Long> claimedIds = events.stream().map(OutboxEvent::getId).toList();
+        try {
+            events.forEach(this::publish);
+        } catch (RuntimeException e) {
+            failed(claimedIds, e);
+            return 0;
+        }
+        CompletableFuture.allOf(index(events)).whenComplete((result, failure) -> {
+            if (failure == null) {
+                relayed(claimedIds);
+            } else {
+                failed(claimedIds, failure);
+            }
+        });
+        return events.size();
+    }
+
+    /**
+     * Claim the oldest available events, postponed by {@code claim-timeout} for the other relays.
+     */
+    private List<OutboxEvent> claim(int batchSize) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = outboxEventRepository.lockAvailable(now, batchSize);
+        if (!events.isEmpty()) {
+            List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+            outboxEventRepository.postpone(ids, now.plus(outboxProperties.getClaimTimeout()));
+        }
+        return events;
+    }
+
+    private CompletableFuture<?>[] index(List<OutboxEvent> events) {
+        // Events are in id order: the last operation of an entity wins
+        List<CompletableFuture<Void>> written = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            searchDocuments
+                .findDomainClass(event.getAggregateType())
+                .ifPresent(domainClass -> {
+                    Object id = searchDocuments.parseId(domainClass, event.getAggregateId());
+                    written.add(searchIndexQueue.enqueue(domainClass, id, event.getOperation()));
+                });
+        }
+        return written.toArray(CompletableFuture[]::new);
+    }
+
+    private void publish(OutboxEvent event) {
+        ObjectNode message = objectMapper
+            .createObjectNode()
+            .put("type", event.getAggregateType())
+            .put("id", event.getAggregateId())
+            .put("operation", event.getOperation().name())
+            .put("createdDate", event.getCreatedDate().toString());
+        if (!streamBridge.send(outboxProperties.getBinding(), message.toString())) {
+            throw new IllegalStateException("Event " + event.getId() + " was not sent to " + outboxProperties.getBinding());
+        }
+        relayDelayTimer.record(Duration.between(event.getCreatedDate(), Instant.now()));
+    }
+
+    private void relayed(List<Long> ids) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+            relayedCounter.increment(ids.size());
+        } catch (RuntimeException e) {
+            LOG.error("Cannot delete {} relayed outbox events", ids.size(), e);
+        }
+    }
+
+    private void failed(List<Long> ids, Throwable cause) {
+        LOG.warn("Cannot relay {} outbox events: {}", ids.size(), cause.getMessage());
+        try {
+            transactionTemplate.executeWithoutResult(status -> retry(ids));
+        } catch (RuntimeException e) {
+            LOG.error("Cannot retry {} outbox events", ids.size(), e);
+        }
+    }
+
+    private void retry(List<Long> ids) {
+        Instant now = Instant.now();
+        for (OutboxEvent event : outboxEventRepository.findAllById(ids)) {
+            int attempts = event.getAttempts() + 1;
+            if (attempts >= outboxProperties.getMaxAttempts()) {
+                LOG.error("Dropping outbox event {} after {} attempts", event, attempts);
+                outboxEventRepository.delete(event);
+                droppedCounter.increment();
+                continue;
+            }
+            long backoff = outboxProperties.getRetryBackoff().toMillis() << Math.min(attempts - 1, 20);
+            event.attempts(attempts).availableAt(now.plusMillis(backoff));
+            retriedCounter.increment();
+        }
+    }
+
+    private double lagSeconds() {
+        long oldest = oldestCreatedMillis.get();
+        return oldest == 0 ? 0 : (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+}
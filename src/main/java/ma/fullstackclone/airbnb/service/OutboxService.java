@@ -0,0 +1,87 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.time.Instant;
+import java.util.Map;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.OutboxEvent;
+import ma.fullstackclone.airbnb.domain.enumeration.OutboxOperation;
+import ma.fullstackclone.airbnb.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service recording the changes of entities, to be relayed to the search indices and to Kafka by {@link OutboxRelay}.
+ * <p>
+ * Changes are written to the outbox table in the transaction of the change: they are relayed only once committed, and
+ * are not lost if the node stops before relaying them.
+ * <p>
+ * When {@code application.outbox.enabled} is {@code false}, the search document is written right away in the calling
+ * thread and transaction instead, and no change event is published.
+ */
+@Service
+@Transactional
+public class OutboxService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxService.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final SearchIndexWriter searchIndexWriter;
+
+    private final ApplicationProperties.Outbox outboxProperties;
+
+    public OutboxService(
+        OutboxEventRepository outboxEventRepository,
+        SearchIndexWriter searchIndexWriter,
+        ApplicationProperties applicationProperties
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.searchIndexWriter = searchIndexWriter;
+        this.outboxProperties = applicationProperties.getOutbox();
+    }
+
+    /**
+     * Record that an entity was created or updated.
+     *
+     * @param domainClass the class of the entity.
+     * @param id the id of the entity.
+     */
+    public void saved(Class<?> domainClass, Object id) {
+        record(domainClass, id, OutboxOperation.SAVE);
+    }
+
+    /**
+     * Record that an entity was deleted.
+     *
+     * @param domainClass the class of the entity.
+     * @param id the id of the entity.
+     */
+    public void deleted(Class<?> domainClass, Object id) {
+        record(domainClass, id, OutboxOperation.DELETE);
+    }
+
+    private void record(Class<?> domainClass, Object id, OutboxOperation operation) {
+        if (id == null) {
+            return;
+        }
+        if (!outboxProperties.isEnabled()) {
+            try {
+                searchIndexWriter.write(domainClass, Map.of(id, operation));
+            } catch (RuntimeException e) {
+                LOG.error("Cannot index {} {}", domainClass.getSimpleName(), id, e);
+            }
+            return;
+        }
+        Instant now = Instant.now();
+        outboxEventRepository.save(
+            new OutboxEvent()
+                .aggregateType(domainClass.getSimpleName())
+                .aggregateId(String.valueOf(id))
+                .operation(operation)
+                .createdDate(now)
+                .availableAt(now)
+        );
+    }
+}
@@ -0,0 +1,137 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.config.ApplicationProperties.Pagination.CountStrategy;
+import ma.fullstackclone.airbnb.repository.TableStatisticsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service reading the pages of the list endpoints with the {@code X-Total-Count} strategy configured for each of them
+ * in {@code application.pagination}.
+ * <p>
+ * {@link CountStrategy#EXACT} returns a {@link Page} counted with the filters of the page, {@link CountStrategy#ESTIMATED}
+ * a {@link Page} whose total comes from the planner statistics (no filter) or from a count cached by criteria, and
+ * {@link CountStrategy#NONE} a {@link Slice} read with one extra row to know whether there is a next page.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PaginationService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaginationService.class);
+
+    public static final String ESTIMATED_COUNTS_CACHE = "estimatedCountsByCriteria";
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final CacheManager cacheManager;
+
+    private final ApplicationProperties.Pagination paginationProperties;
+
+    public PaginationService(
+        TableStatisticsRepository tableStatisticsRepository,
+        CacheManager cacheManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.cacheManager = cacheManager;
+        this.paginationProperties = applicationProperties.getPagination();
+    }
+
+    /**
+     * Get the count strategy of a list endpoint.
+     *
+     * @param endpoint the path of the endpoint below {@code /api}.
+     * @return the strategy.
+     */
+    public CountStrategy getCountStrategy(String endpoint) {
+        return paginationProperties.getCountStrategies().getOrDefault(endpoint, paginationProperties.getCountStrategy());
+    }
+
+    /**
+     * Read a page of entities matching a specification.
+     *
+     * @param endpoint the path of the list endpoint below {@code /api}, selecting the count strategy.
+     * @param domainClass the queried entity.
+     * @param repository the repository of the entity.
+     * @param specification the filters of the page.
+     * @param criteria the criteria the specification was built from, identifying the filters in estimated counts.
+     * @param pageable the pagination information.
+     * @param <T> the type of the entity.
+     * @return a {@link Page}, or only a {@link Slice} if the strategy of the endpoint is {@link CountStrategy#NONE}.
+     */
+    public <T> Slice<T> findAll(
+        String endpoint,
+        Class<T> domainClass,
+        JpaSpecificationExecutor<T> repository,
+        Specification<T> specification,
+        Object criteria,
+        Pageable pageable
+    ) {
+        CountStrategy countStrategy = getCountStrategy(endpoint);
+        if (countStrategy == CountStrategy.EXACT || pageable.isUnpaged()) {
+            return repository.findAll(specification, pageable);
+        }
+
+        ScrollPosition position = pageable.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(pageable.getOffset() - 1);
+        Window<T> window = repository.findBy(specification, query ->
+            query.sortBy(pageable.getSort()).limit(pageable.getPageSize()).scroll(position)
+        );
+        List<T> content = window.getContent();
+        if (countStrategy == CountStrategy.NONE) {
+            return new SliceImpl<>(content, pageable, window.hasNext());
+        }
+
+        long loaded = pageable.getOffset() + content.size();
+        long total = window.hasNext()
+            ? Math.max(loaded + 1, estimateCount(endpoint, domainClass, criteria, () -> repository.count(specification)))
+            : loaded;
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    private long estimateCount(String endpoint, Class<?> domainClass, Object criteria, LongSupplier count) {
+        if (isUnfiltered(criteria)) {
+            OptionalLong estimate = tableStatisticsRepository.estimateRowCount(domainClass);
+            if (estimate.isPresent()) {
+                return estimate.getAsLong();
+            }
+        }
+        Cache cache = cacheManager.getCache(ESTIMATED_COUNTS_CACHE);
+        if (cache == null) {
+            return count.getAsLong();
+        }
+        Long cached = cache.get(endpoint + ":" + criteria, count::getAsLong);
+        return cached != null ? cached : count.getAsLong();
+    }
+
+    /**
+     * Criteria classes bind every filter to a field, so criteria equal to a new instance filter nothing.
+     */
+    private static boolean isUnfiltered(Object criteria) {
+        if (criteria == null) {
+            return true;
+        }
+        try {
+            return criteria.equals(criteria.getClass().getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            LOG.debug("Cannot instantiate empty {}", criteria.getClass().getSimpleName(), e);
+            return false;
+        }
+    }
+}
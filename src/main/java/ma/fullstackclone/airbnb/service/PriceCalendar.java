@@ -0,0 +1,65 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The price of each night of a property over a range of days, in cents, with the pricing rules already applied.
+ * <p>
+ * Calendars are immutable, so a cached calendar is shared by all the quotes of its property.
+ */
+public final class PriceCalendar implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BigDecimal pricePerNight;
+
+    private final int minimumStay;
+
+    private final long startDay;
+
+    private final long[] nightCents;
+
+    PriceCalendar(BigDecimal pricePerNight, int minimumStay, LocalDate start, long[] nightCents) {
+        this.pricePerNight = pricePerNight;
+        this.minimumStay = minimumStay;
+        this.startDay = start.toEpochDay();
+        this.nightCents = nightCents;
+    }
+
+    /**
+     * The price per night of the property, before the pricing rules.
+     */
+    public BigDecimal getPricePerNight() {
+        return pricePerNight;
+    }
+
+    public int getMinimumStay() {
+        return minimumStay;
+    }
+
+    public LocalDate getStart() {
+        return LocalDate.ofEpochDay(startDay);
+    }
+
+    public int getDays() {
+        return nightCents.length;
+    }
+
+    /**
+     * Whether the calendar has the prices of the nights from {@code checkIn} (inclusive) to {@code checkOut} (exclusive).
+     */
+    public boolean covers(LocalDate checkIn, LocalDate checkOut) {
+        return checkIn.toEpochDay() >= startDay && checkOut.toEpochDay() <= startDay + nightCents.length;
+    }
+
+    /**
+     * The price of a night, in cents.
+     *
+     * @throws IndexOutOfBoundsException if the night is not in the calendar.
+     */
+    public long nightCents(LocalDate night) {
+        return nightCents[Math.toIntExact(night.toEpochDay() - startDay)];
+    }
+}
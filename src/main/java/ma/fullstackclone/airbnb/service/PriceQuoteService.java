@@ -0,0 +1,222 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Promotion;
+import ma.fullstackclone.airbnb.domain.enumeration.DiscountType;
+import ma.fullstackclone.airbnb.repository.PromotionRepository;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.service.dto.BookingQuoteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service pricing the stays in a {@link ma.fullstackclone.airbnb.domain.Property}, night by night.
+ * <p>
+ * The nights of each property are priced once with the rules of {@code application.pricing}, for the
+ * {@code calendar-days} days from the day the calendar is built, and the {@link PriceCalendar} is cached until the
+ * property changes; a quote only adds up the nights of the stay, then applies the length-of-stay discount and the
+ * promotion code.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PriceQuoteService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PriceQuoteService.class);
+
+    public static final String PRICE_CALENDARS_CACHE = "priceCalendarsByProperty";
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final PropertyRepository propertyRepository;
+
+    private final PromotionRepository promotionRepository;
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final PricingRules pricingRules;
+
+    private final int calendarDays;
+
+    public PriceQuoteService(
+        PropertyRepository propertyRepository,
+        PromotionRepository promotionRepository,
+        CacheManager cacheManager,
+        CacheInvalidationService cacheInvalidationService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.promotionRepository = promotionRepository;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.pricingRules = new PricingRules(applicationProperties.getPricing());
+        this.calendarDays = applicationProperties.getPricing().getCalendarDays();
+        cacheInvalidationService.register(PRICE_CALENDARS_CACHE, propertyId -> evictCalendar(Long.valueOf(propertyId)));
+    }
+
+    /**
+     * Price a stay.
+     *
+     * @param propertyId the id of the property.
+     * @param checkInDate the check-in date.
+     * @param checkOutDate the check-out date.
+     * @param promotionCode the promotion code to apply, if any.
+     * @return the quote, or empty if the property does not exist.
+     * @throws InvalidStayException if the stay is in the past, too short or too long.
+     * @throws InvalidPromotionException if the promotion code is unknown, inactive, out of its validity period or used up.
+     */
+    public Optional<BookingQuoteDTO> quote(Long propertyId, Instant checkInDate, Instant checkOutDate, String promotionCode) {
+        LOG.debug("Request to quote Property {} from {} to {}", propertyId, checkInDate, checkOutDate);
+        LocalDate checkIn = LocalDate.ofInstant(checkInDate, ZoneOffset.UTC);
+        LocalDate checkOut = LocalDate.ofInstant(checkOutDate, ZoneOffset.UTC);
+        int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
+        if (nights < 1) {
+            throw new InvalidStayException("Check-out must be at least one night after check-in");
+        }
+        if (nights > calendarDays) {
+            throw new InvalidStayException("A stay cannot be longer than " + calendarDays + " nights");
+        }
+        if (checkIn.isBefore(LocalDate.now(ZoneOffset.UTC))) {
+            throw new InvalidStayException("Check-in cannot be in the past");
+        }
+
+        Optional<PriceCalendar> found = findCalendar(propertyId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        PriceCalendar calendar = found.orElseThrow();
+        if (nights < calendar.getMinimumStay()) {
+            throw new InvalidStayException("The minimum stay is " + calendar.getMinimumStay() + " nights");
+        }
+        if (!calendar.covers(checkIn, checkOut)) {
+            // beyond the cached days: price the stay on its own
+            calendar = pricingRules.calendar(calendar.getPricePerNight(), calendar.getMinimumStay(), checkIn, nights);
+        }
+
+        List<BookingQuoteDTO.NightPrice> nightPrices = new ArrayList<>(nights);
+        long subtotalCents = 0;
+        for (LocalDate night = checkIn; night.isBefore(checkOut); night = night.plusDays(1)) {
+            long cents = calendar.nightCents(night);
+            subtotalCents += cents;
+            nightPrices.add(new BookingQuoteDTO.NightPrice(night, BigDecimal.valueOf(cents, 2)));
+        }
+        BigDecimal subtotal = BigDecimal.valueOf(subtotalCents, 2);
+        BigDecimal lengthOfStayDiscount = percentOf(subtotal, pricingRules.lengthOfStayDiscount(nights));
+        BigDecimal promotionDiscount = BigDecimal.ZERO.setScale(2);
+        if (promotionCode != null && !promotionCode.isBlank()) {
+            promotionDiscount = promotionDiscount(promotionCode, subtotal.subtract(lengthOfStayDiscount));
+        }
+
+        BookingQuoteDTO quote = new BookingQuoteDTO();
+        quote.setPropertyId(propertyId);
+        quote.setCheckInDate(checkInDate);
+        quote.setCheckOutDate(checkOutDate);
+        quote.setNights(nights);
+        quote.setNightPrices(nightPrices);
+        quote.setSubtotal(subtotal);
+        quote.setLengthOfStayDiscount(lengthOfStayDiscount);
+        quote.setPromotionCode(promotionCode);
+        quote.setPromotionDiscount(promotionDiscount);
+        quote.setTotalPrice(subtotal.subtract(lengthOfStayDiscount).subtract(promotionDiscount));
+        return Optional.of(quote);
+    }
+
+    /**
+     * Get the prices of the nights of a property over a range of days.
+     *
+     * @param propertyId the id of the property.
+     * @param start the first night.
+     * @param days the number of nights.
+     * @return the cached calendar if it covers the range, a calendar of the range otherwise, or empty if the property does
+     * not exist.
+     */
+    public Optional<PriceCalendar> findCalendar(Long propertyId, LocalDate start, int days) {
+        return findCalendar(propertyId).map(calendar ->
+            calendar.covers(start, start.plusDays(days))
+                ? calendar
+                : pricingRules.calendar(calendar.getPricePerNight(), calendar.getMinimumStay(), start, days)
+        );
+    }
+
+    /**
+     * Drop the cached calendar of a property on every node once the current transaction commits, as its price or minimum
+     * stay may have changed.
+     *
+     * @param propertyId the id of the property.
+     */
+    public void evictCalendarAfterCommit(Long propertyId) {
+        TransactionHooks.afterCommit(() -> evictCalendar(propertyId));
+        cacheInvalidationService.evictOnOtherNodes(PRICE_CALENDARS_CACHE, propertyId);
+    }
+
+    /**
+     * Drop the cached calendar of a property on this node.
+     *
+     * @param propertyId the id of the property.
+     */
+    public void evictCalendar(Long propertyId) {
+        Cache cache = cacheManager.getCache(PRICE_CALENDARS_CACHE);
+        if (cache != null) {
+            cache.evict(propertyId);
+        }
+    }
+
+    private Optional<PriceCalendar> findCalendar(Long propertyId) {
+        Cache cache = cacheManager.getCache(PRICE_CALENDARS_CACHE);
+        PriceCalendar calendar = cache != null ? cache.get(propertyId, PriceCalendar.class) : null;
+        if (calendar != null && !calendar.getStart().isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(1))) {
+            return Optional.of(calendar);
+        }
+        Optional<PriceCalendar> loaded = propertyRepository
+            .findNightlyPricingById(propertyId)
+            .map(pricing ->
+                pricingRules.calendar(
+                    pricing.getPricePerNight(),
+                    pricing.getMinimumStay() != null ? pricing.getMinimumStay() : 1,
+                    LocalDate.now(ZoneOffset.UTC),
+                    calendarDays
+                )
+            );
+        if (cache != null) {
+            loaded.ifPresent(priceCalendar -> cache.put(propertyId, priceCalendar));
+        }
+        return loaded;
+    }
+
+    private BigDecimal promotionDiscount(String code, BigDecimal amount) {
+        Promotion promotion = promotionRepository
+            .findOneByCode(code)
+            .orElseThrow(() -> new InvalidPromotionException("Unknown promotion code " + code));
+        Instant now = Instant.now();
+        if (
+            !Boolean.TRUE.equals(promotion.getIsActive()) ||
+            (promotion.getValidFrom() != null && now.isBefore(promotion.getValidFrom())) ||
+            (promotion.getValidUntil() != null && now.isAfter(promotion.getValidUntil())) ||
+            (promotion.getMaxUses() != null && promotion.getUses() != null && promotion.getUses() >= promotion.getMaxUses())
+        ) {
+            throw new InvalidPromotionException("Promotion code " + code + " is not valid");
+        }
+        if (promotion.getDiscountType() == DiscountType.PERCENTAGE) {
+            return percentOf(amount, promotion.getDiscountValue());
+        }
+        return promotion.getDiscountValue().min(amount).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal percentOf(BigDecimal amount, BigDecimal percent) {
+        return amount.multiply(percent).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+}
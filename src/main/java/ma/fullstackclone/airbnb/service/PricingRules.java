@@ -0,0 +1,105 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+
+/**
+ * The pricing rules of {@code application.pricing}, parsed once: weekend and seasonal multipliers of the nightly price,
+ * and length-of-stay discounts.
+ */
+final class PricingRules {
+
+    private static final DateTimeFormatter MONTH_DAY_FORMAT = DateTimeFormatter.ofPattern("MM-dd");
+
+    private static final BigDecimal CENTS = BigDecimal.valueOf(100);
+
+    private final boolean[] weekendNights = new boolean[DayOfWeek.values().length];
+
+    private final BigDecimal weekendMultiplier;
+
+    private final List<Season> seasons;
+
+    private final TreeMap<Integer, BigDecimal> lengthOfStayDiscounts;
+
+    PricingRules(ApplicationProperties.Pricing pricing) {
+        pricing.getWeekendNights().forEach(day -> weekendNights[day.ordinal()] = true);
+        this.weekendMultiplier = pricing.getWeekendMultiplier();
+        this.seasons = pricing
+            .getSeasons()
+            .stream()
+            .map(season -> new Season(parse(season.getFrom()), parse(season.getUntil()), season.getMultiplier()))
+            .toList();
+        this.lengthOfStayDiscounts = new TreeMap<>(pricing.getLengthOfStayDiscounts());
+    }
+
+    private static MonthDay parse(String monthDay) {
+        try {
+            return MonthDay.parse(monthDay, MONTH_DAY_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid season date, expected MM-dd: " + monthDay, e);
+        }
+    }
+
+    /**
+     * Price the nights of a property.
+     *
+     * @param pricePerNight the price per night of the property.
+     * @param minimumStay the minimum number of nights of a stay.
+     * @param start the first night.
+     * @param days the number of nights.
+     * @return the calendar of the nights.
+     */
+    PriceCalendar calendar(BigDecimal pricePerNight, int minimumStay, LocalDate start, int days) {
+        long[] nightCents = new long[days];
+        for (int i = 0; i < days; i++) {
+            nightCents[i] = pricePerNight
+                .multiply(multiplier(start.plusDays(i)))
+                .multiply(CENTS)
+                .setScale(0, RoundingMode.HALF_UP)
+                .longValueExact();
+        }
+        return new PriceCalendar(pricePerNight, minimumStay, start, nightCents);
+    }
+
+    private BigDecimal multiplier(LocalDate night) {
+        BigDecimal multiplier = BigDecimal.ONE;
+        MonthDay monthDay = MonthDay.from(night);
+        for (Season season : seasons) {
+            if (season.contains(monthDay)) {
+                multiplier = season.multiplier();
+                break;
+            }
+        }
+        if (weekendNights[night.getDayOfWeek().ordinal()]) {
+            multiplier = multiplier.multiply(weekendMultiplier);
+        }
+        return multiplier;
+    }
+
+    /**
+     * The discount of a stay, in percent.
+     */
+    BigDecimal lengthOfStayDiscount(int nights) {
+        Map.Entry<Integer, BigDecimal> discount = lengthOfStayDiscounts.floorEntry(nights);
+        return discount != null ? discount.getValue() : BigDecimal.ZERO;
+    }
+
+    private record Season(MonthDay from, MonthDay until, BigDecimal multiplier) {
+        boolean contains(MonthDay monthDay) {
+            if (!from.isAfter(until)) {
+                return !monthDay.isBefore(from) && !monthDay.isAfter(until);
+            }
+            // spans the new year
+            return !monthDay.isBefore(from) || !monthDay.isAfter(until);
+        }
+    }
+}
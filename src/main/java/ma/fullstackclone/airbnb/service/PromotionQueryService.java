@@ -11,6 +11,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -28,33 +31,64 @@ public class PromotionQueryService extends QueryService<Promotion> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PromotionQueryService.class);
 
+    private static final String ENDPOINT = "promotions";
+
     private final PromotionRepository promotionRepository;
 
     private final PromotionMapper promotionMapper;
 
     private final PromotionSearchRepository promotionSearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public PromotionQueryService(
         PromotionRepository promotionRepository,
         PromotionMapper promotionMapper,
-        PromotionSearchRepository promotionSearchRepository
+        PromotionSearchRepository promotionSearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.promotionRepository = promotionRepository;
         this.promotionMapper = promotionMapper;
         this.promotionSearchRepository = promotionSearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link PromotionDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link PromotionDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<PromotionDTO> findByCriteria(PromotionCriteria criteria, Pageable page) {
+    public Slice<PromotionDTO> findByCriteria(PromotionCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Promotion> specification = createSpecification(criteria);
-        return promotionRepository.findAll(specification, page).map(promotionMapper::toDto);
+        return paginationService
+            .findAll(ENDPOINT, Promotion.class, promotionRepository, specification, criteria, page)
+            .map(promotionMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link PromotionDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<PromotionDTO> findByCriteria(PromotionCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Promotion> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(Promotion.class, page.getSort(), after);
+        return promotionRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(promotionMapper::toDto);
     }
 
     /**
@@ -48,6 +48,15 @@ public interface PromotionService {
      */
     void delete(Long id);
 
+    /**
+     * Redeem a promotion code once, in the transaction of the booking it is applied to.
+     *
+     * @param code the code of the promotion.
+     * @throws ma.fullstackclone.airbnb.service.InvalidPromotionException if the code is unknown, inactive, out of its
+     * validity period or used {@code maxUses} times.
+     */
+    void redeem(String code);
+
     /**
      * Search for the promotion corresponding to the query.
      *
@@ -0,0 +1,188 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.PropertyCalendar;
+import ma.fullstackclone.airbnb.repository.BookingRepository;
+import ma.fullstackclone.airbnb.repository.PropertyCalendarRepository;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.service.dto.PropertyCalendarDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for the day by day calendar of a {@link Property}: its availability window, its booked nights and their prices.
+ * <p>
+ * The booked nights are stored per property in a {@link PropertyCalendar}, updated in the transaction of each booking
+ * write while holding the row lock of the property, so reading a calendar never scans the bookings. A calendar is built
+ * from the bookings only once, when its property has none yet. The availability window and the prices come from the
+ * property and its {@link PriceCalendar}, both cached by key.
+ */
+@Service
+@Transactional
+public class PropertyCalendarService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyCalendarService.class);
+
+    private final PropertyCalendarRepository propertyCalendarRepository;
+
+    private final PropertyRepository propertyRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final PriceQuoteService priceQuoteService;
+
+    public PropertyCalendarService(
+        PropertyCalendarRepository propertyCalendarRepository,
+        PropertyRepository propertyRepository,
+        BookingRepository bookingRepository,
+        PriceQuoteService priceQuoteService
+    ) {
+        this.propertyCalendarRepository = propertyCalendarRepository;
+        this.propertyRepository = propertyRepository;
+        this.bookingRepository = bookingRepository;
+        this.priceQuoteService = priceQuoteService;
+    }
+
+    /**
+     * The nights a booking blocks in the calendar of its property.
+     *
+     * @param propertyId the id of the property.
+     * @param checkIn the first night.
+     * @param checkOut the day after the last night.
+     */
+    public record Stay(Long propertyId, LocalDate checkIn, LocalDate checkOut) {
+        /**
+         * The stay of a booking, or {@code null} if it blocks no night.
+         */
+        public static Stay of(Booking booking) {
+            if (
+                booking.getProperty() == null ||
+                booking.getProperty().getId() == null ||
+                booking.getCheckInDate() == null ||
+                booking.getCheckOutDate() == null ||
+                !BookingAvailabilityService.BLOCKING_STATUSES.contains(booking.getStatus())
+            ) {
+                return null;
+            }
+            return new Stay(
+                booking.getProperty().getId(),
+                LocalDate.ofInstant(booking.getCheckInDate(), ZoneOffset.UTC),
+                LocalDate.ofInstant(booking.getCheckOutDate(), ZoneOffset.UTC)
+            );
+        }
+    }
+
+    /**
+     * Update the calendars of the properties of a booking that was written. Must be called inside the write transaction,
+     * after the booking was saved or deleted.
+     *
+     * @param before the stay of the booking before the write, or {@code null} if it did not exist or did not block.
+     * @param after the stay of the booking after the write, or {@code null} if it was deleted or does not block.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onBookingChanged(Stay before, Stay after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            update(before.propertyId(), days -> days.release(before.checkIn(), before.checkOut()));
+        }
+        if (after != null) {
+            update(after.propertyId(), days -> days.book(after.checkIn(), after.checkOut()));
+        }
+    }
+
+    /**
+     * Get the calendar of a property over the next 12 months.
+     *
+     * @param propertyId the id of the property.
+     * @return the calendar, or empty if the property does not exist.
+     */
+    public Optional<PropertyCalendarDTO> findCalendar(Long propertyId) {
+        LOG.debug("Request to get the calendar of Property : {}", propertyId);
+        Optional<Property> property = propertyRepository.findById(propertyId);
+        if (property.isEmpty()) {
+            return Optional.empty();
+        }
+        PropertyCalendar calendar = propertyCalendarRepository
+            .findById(propertyId)
+            .orElseGet(() -> {
+                propertyRepository.findOneForUpdate(propertyId);
+                return propertyCalendarRepository.findOneForUpdate(propertyId).orElseGet(() -> build(propertyId));
+            });
+        BookedDays bookedDays = new BookedDays(calendar.getFirstYear(), calendar.getBookedDays());
+
+        LocalDate start = LocalDate.now(ZoneOffset.UTC);
+        LocalDate end = start.plusYears(1);
+        int nights = (int) ChronoUnit.DAYS.between(start, end);
+        Optional<PriceCalendar> prices = priceQuoteService.findCalendar(propertyId, start, nights);
+        Instant availableFrom = toInstant(property.orElseThrow().getAvailabilityStart());
+        Instant availableUntil = toInstant(property.orElseThrow().getAvailabilityEnd());
+
+        List<PropertyCalendarDTO.CalendarDay> days = new ArrayList<>(nights);
+        for (int i = 0; i < nights; i++) {
+            LocalDate day = start.plusDays(i);
+            boolean booked = bookedDays.isBooked(day);
+            Instant nightStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant nightEnd = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            boolean open =
+                (availableFrom == null || !availableFrom.isAfter(nightStart)) &&
+                (availableUntil == null || !availableUntil.isBefore(nightEnd));
+            BigDecimal price = prices.map(priceCalendar -> BigDecimal.valueOf(priceCalendar.nightCents(day), 2)).orElse(null);
+            days.add(new PropertyCalendarDTO.CalendarDay(day, open && !booked, booked, price));
+        }
+
+        PropertyCalendarDTO calendarDTO = new PropertyCalendarDTO();
+        calendarDTO.setPropertyId(propertyId);
+        calendarDTO.setStart(start);
+        calendarDTO.setEnd(end);
+        calendarDTO.setDays(days);
+        return Optional.of(calendarDTO);
+    }
+
+    private void update(Long propertyId, Consumer<BookedDays> change) {
+        propertyRepository.findOneForUpdate(propertyId);
+        Optional<PropertyCalendar> existing = propertyCalendarRepository.findOneForUpdate(propertyId);
+        if (existing.isEmpty()) {
+            // built from the bookings as written so far, this one included
+            build(propertyId);
+            return;
+        }
+        PropertyCalendar calendar = existing.orElseThrow();
+        BookedDays bookedDays = new BookedDays(calendar.getFirstYear(), calendar.getBookedDays());
+        change.accept(bookedDays);
+        bookedDays.dropYearsBefore(LocalDate.now(ZoneOffset.UTC).getYear());
+        calendar.firstYear(bookedDays.getFirstYear()).bookedDays(bookedDays.toBytes());
+    }
+
+    private PropertyCalendar build(Long propertyId) {
+        LOG.debug("Building the calendar of Property : {}", propertyId);
+        BookedDays bookedDays = new BookedDays(LocalDate.now(ZoneOffset.UTC).getYear());
+        for (Booking booking : bookingRepository.findAllByPropertyIdAndStatusIn(propertyId, BookingAvailabilityService.BLOCKING_STATUSES)) {
+            Stay stay = Stay.of(booking);
+            bookedDays.book(stay.checkIn(), stay.checkOut());
+        }
+        return propertyCalendarRepository.save(
+            new PropertyCalendar().id(propertyId).firstYear(bookedDays.getFirstYear()).bookedDays(bookedDays.toBytes())
+        );
+    }
+
+    private static Instant toInstant(ZonedDateTime dateTime) {
+        return dateTime != null ? dateTime.toInstant() : null;
+    }
+}
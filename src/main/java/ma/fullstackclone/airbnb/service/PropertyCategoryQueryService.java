@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,33 +32,64 @@ public class PropertyCategoryQueryService extends QueryService<PropertyCategory>
 
     private static final Logger LOG = LoggerFactory.getLogger(PropertyCategoryQueryService.class);
 
+    private static final String ENDPOINT = "property-categories";
+
     private final PropertyCategoryRepository propertyCategoryRepository;
 
     private final PropertyCategoryMapper propertyCategoryMapper;
 
     private final PropertyCategorySearchRepository propertyCategorySearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public PropertyCategoryQueryService(
         PropertyCategoryRepository propertyCategoryRepository,
         PropertyCategoryMapper propertyCategoryMapper,
-        PropertyCategorySearchRepository propertyCategorySearchRepository
+        PropertyCategorySearchRepository propertyCategorySearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.propertyCategoryRepository = propertyCategoryRepository;
         this.propertyCategoryMapper = propertyCategoryMapper;
         this.propertyCategorySearchRepository = propertyCategorySearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link PropertyCategoryDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link PropertyCategoryDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<PropertyCategoryDTO> findByCriteria(PropertyCategoryCriteria criteria, Pageable page) {
+    public Slice<PropertyCategoryDTO> findByCriteria(PropertyCategoryCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<PropertyCategory> specification = createSpecification(criteria);
-        return propertyCategoryRepository.findAll(specification, page).map(propertyCategoryMapper::toDto);
+        return paginationService
+            .findAll(ENDPOINT, PropertyCategory.class, propertyCategoryRepository, specification, criteria, page)
+            .map(propertyCategoryMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link PropertyCategoryDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<PropertyCategoryDTO> findByCriteria(PropertyCategoryCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<PropertyCategory> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(PropertyCategory.class, page.getSort(), after);
+        return propertyCategoryRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(propertyCategoryMapper::toDto);
     }
 
     /**
@@ -0,0 +1,233 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO.FacetCount;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO.PriceBucket;
+
+/**
+ * In-memory facet index of properties: one bitmap of the properties per amenity, category, city and instant booking.
+ * <p>
+ * Each property gets a slot, reused once it is removed. A filter is the intersection of the bitmaps of its values, and
+ * the count of a facet value the cardinality of the intersection of its bitmap with the filter, so counting costs a few
+ * word-wise {@code AND}s per facet value instead of a query. Prices are bucketed by scanning the matching slots.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class PropertyFacetIndex {
+
+    private final double priceInterval;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    private final List<Entry> entryBySlot = new ArrayList<>();
+
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+
+    private final Map<Long, BitSet> amenitySlots = new HashMap<>();
+
+    private final Map<Long, BitSet> categorySlots = new HashMap<>();
+
+    private final Map<Long, BitSet> citySlots = new HashMap<>();
+
+    private final BitSet instantBookSlots = new BitSet();
+
+    private double[] priceBySlot = new double[64];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * @param priceInterval the width of the price buckets.
+     */
+    public PropertyFacetIndex(double priceInterval) {
+        if (priceInterval <= 0) {
+            throw new IllegalArgumentException("The price interval must be positive");
+        }
+        this.priceInterval = priceInterval;
+    }
+
+    /**
+     * The facet values of a property.
+     */
+    public record Entry(Long id, Set<Long> amenityIds, Set<Long> categoryIds, Long cityId, BigDecimal pricePerNight, boolean instantBook) {}
+
+    public void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(entry.id());
+            int slot = freeSlots.isEmpty() ? entryBySlot.size() : freeSlots.pop();
+            if (slot == entryBySlot.size()) {
+                entryBySlot.add(entry);
+            } else {
+                entryBySlot.set(slot, entry);
+            }
+            slotById.put(entry.id(), slot);
+            live.set(slot);
+            entry.amenityIds().forEach(id -> amenitySlots.computeIfAbsent(id, key -> new BitSet()).set(slot));
+            entry.categoryIds().forEach(id -> categorySlots.computeIfAbsent(id, key -> new BitSet()).set(slot));
+            if (entry.cityId() != null) {
+                citySlots.computeIfAbsent(entry.cityId(), key -> new BitSet()).set(slot);
+            }
+            instantBookSlots.set(slot, entry.instantBook());
+            if (slot >= priceBySlot.length) {
+                priceBySlot = Arrays.copyOf(priceBySlot, Math.max(slot + 1, priceBySlot.length * 2));
+            }
+            priceBySlot[slot] = entry.pricePerNight() != null ? entry.pricePerNight().doubleValue() : Double.NaN;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count the properties matching a filter, in total and per facet value.
+     *
+     * @param filter the filter.
+     * @param facetSize the maximum number of values returned per facet, the most frequent first.
+     * @return the counts.
+     */
+    public PropertyFacetsDTO count(PropertyFacetService.Filter filter, int facetSize) {
+        lock.readLock().lock();
+        try {
+            BitSet matching = (BitSet) live.clone();
+            filter.amenityIds().forEach(id -> and(matching, amenitySlots.get(id)));
+            filter.categoryIds().forEach(id -> and(matching, categorySlots.get(id)));
+            if (filter.cityId() != null) {
+                and(matching, citySlots.get(filter.cityId()));
+            }
+            if (Boolean.TRUE.equals(filter.instantBook())) {
+                matching.and(instantBookSlots);
+            } else if (Boolean.FALSE.equals(filter.instantBook())) {
+                matching.andNot(instantBookSlots);
+            }
+            if (filter.minPrice() != null || filter.maxPrice() != null) {
+                double min = filter.minPrice() != null ? filter.minPrice().doubleValue() : Double.NEGATIVE_INFINITY;
+                double max = filter.maxPrice() != null ? filter.maxPrice().doubleValue() : Double.POSITIVE_INFINITY;
+                for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                    // NaN, a missing price, is never in range
+                    if (!(priceBySlot[slot] >= min && priceBySlot[slot] <= max)) {
+                        matching.clear(slot);
+                    }
+                }
+            }
+
+            PropertyFacetsDTO facets = new PropertyFacetsDTO();
+            long total = matching.cardinality();
+            facets.setTotal(total);
+            facets.setAmenities(counts(amenitySlots, matching, facetSize));
+            facets.setCategories(counts(categorySlots, matching, facetSize));
+            facets.setCities(counts(citySlots, matching, facetSize));
+            facets.setPrices(priceBuckets(matching));
+            long instantBook = intersectionCount(instantBookSlots, matching);
+            List<FacetCount> instantBookCounts = new ArrayList<>(2);
+            instantBookCounts.add(new FacetCount("true", instantBook));
+            instantBookCounts.add(new FacetCount("false", total - instantBook));
+            instantBookCounts.removeIf(count -> count.getCount() == 0);
+            instantBookCounts.sort(Comparator.comparingLong(FacetCount::getCount).reversed());
+            facets.setInstantBook(instantBookCounts);
+            return facets;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        Entry entry = entryBySlot.get(slot);
+        entry.amenityIds().forEach(amenityId -> clear(amenitySlots, amenityId, slot));
+        entry.categoryIds().forEach(categoryId -> clear(categorySlots, categoryId, slot));
+        if (entry.cityId() != null) {
+            clear(citySlots, entry.cityId(), slot);
+        }
+        instantBookSlots.clear(slot);
+        live.clear(slot);
+        entryBySlot.set(slot, null);
+        freeSlots.push(slot);
+    }
+
+    private static void clear(Map<Long, BitSet> slotsByValue, Long value, int slot) {
+        BitSet slots = slotsByValue.get(value);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                slotsByValue.remove(value);
+            }
+        }
+    }
+
+    private static void and(BitSet matching, BitSet slots) {
+        if (slots == null) {
+            matching.clear();
+        } else {
+            matching.and(slots);
+        }
+    }
+
+    private static long intersectionCount(BitSet slots, BitSet matching) {
+        BitSet intersection = (BitSet) slots.clone();
+        intersection.and(matching);
+        return intersection.cardinality();
+    }
+
+    private static List<FacetCount> counts(Map<Long, BitSet> slotsByValue, BitSet matching, int facetSize) {
+        List<FacetCount> counts = new ArrayList<>();
+        slotsByValue.forEach((value, slots) -> {
+            long count = intersectionCount(slots, matching);
+            if (count > 0) {
+                counts.add(new FacetCount(String.valueOf(value), count));
+            }
+        });
+        // the order of the terms aggregations: most frequent first, then by value
+        counts.sort(Comparator.comparingLong(FacetCount::getCount).reversed().thenComparing(FacetCount::getValue));
+        return counts.size() > facetSize ? new ArrayList<>(counts.subList(0, facetSize)) : counts;
+    }
+
+    private List<PriceBucket> priceBuckets(BitSet matching) {
+        Map<Long, Long> countByBucket = new TreeMap<>();
+        for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+            if (!Double.isNaN(priceBySlot[slot])) {
+                countByBucket.merge((long) Math.floor(priceBySlot[slot] / priceInterval), 1L, Long::sum);
+            }
+        }
+        List<PriceBucket> buckets = new ArrayList<>(countByBucket.size());
+        countByBucket.forEach((bucket, count) ->
+            buckets.add(new PriceBucket(BigDecimal.valueOf(bucket * priceInterval), BigDecimal.valueOf((bucket + 1) * priceInterval), count))
+        );
+        return buckets;
+    }
+}
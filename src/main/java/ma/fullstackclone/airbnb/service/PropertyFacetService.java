@@ -0,0 +1,365 @@
+package ma.fullstackclone.airbnb.service;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.RangeQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.json.JsonData;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.config.ApplicationProperties.Search.FacetEngine;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.PropertyCategory;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO.FacetCount;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO.PriceBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service counting the facets of a search of {@link Property} entities: the number of matching properties per amenity,
+ * category, city, price bucket and instant booking. As for the listing search, only active properties are counted.
+ * <p>
+ * Counts are aggregations on the keyword and numeric fields of the {@code property} Elasticsearch index, all computed by
+ * one request, or, when {@code application.search.facet-engine} is {@code memory}, intersections of the bitmaps of a
+ * {@link PropertyFacetIndex} loaded from the database on first use and kept up to date by the {@link Property} writes:
+ * right away for those of this node, and from the database for those of the other nodes, told by the
+ * {@link CacheInvalidationService}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PropertyFacetService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyFacetService.class);
+
+    /**
+     * The name of the in-memory facet index for the {@link CacheInvalidationService}, keyed by property id.
+     */
+    public static final String FACETS_CACHE = "propertyFacets";
+
+    private static final String AMENITIES = "amenities";
+
+    private static final String CATEGORIES = "categories";
+
+    private static final String CITIES = "cities";
+
+    private static final String PRICES = "prices";
+
+    private static final String INSTANT_BOOK = "instantBook";
+
+    private final PropertyRepository propertyRepository;
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final ApplicationProperties.Search searchProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private volatile PropertyFacetIndex facetIndex;
+
+    /**
+     * Incremented by each property written, so that an index loaded meanwhile, which may miss it, is not kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public PropertyFacetService(
+        PropertyRepository propertyRepository,
+        ElasticsearchTemplate elasticsearchTemplate,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.searchProperties = applicationProperties.getSearch();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheInvalidationService = cacheInvalidationService;
+        cacheInvalidationService.register(FACETS_CACHE, id -> reload(Long.valueOf(id)));
+    }
+
+    /**
+     * The selected facet values: a property matches if it has all the amenities and categories, the city, the instant
+     * booking and a price per night in the range, when given.
+     *
+     * @param amenityIds the ids of the amenities.
+     * @param categoryIds the ids of the categories.
+     * @param cityId the id of the city.
+     * @param instantBook the instant booking.
+     * @param minPrice the minimum price per night (inclusive).
+     * @param maxPrice the maximum price per night (inclusive).
+     */
+    public record Filter(Set<Long> amenityIds, Set<Long> categoryIds, Long cityId, Boolean instantBook, BigDecimal minPrice, BigDecimal maxPrice) {
+        public Filter {
+            amenityIds = amenityIds != null ? Set.copyOf(amenityIds) : Set.of();
+            categoryIds = categoryIds != null ? Set.copyOf(categoryIds) : Set.of();
+        }
+    }
+
+    /**
+     * Count the properties matching a filter, in total and per facet value.
+     *
+     * @param filter the filter.
+     * @return the counts.
+     */
+    public PropertyFacetsDTO countFacets(Filter filter) {
+        LOG.debug("Request to count the facets of Properties for {}", filter);
+        if (searchProperties.getFacetEngine() == FacetEngine.MEMORY) {
+            return getFacetIndex().count(filter, searchProperties.getFacetSize());
+        }
+        return aggregate(filter);
+    }
+
+    /**
+     * Reflect a saved property in the in-memory facet index once the current transaction commits, on every node: only
+     * active properties are indexed.
+     *
+     * @param property the saved property.
+     */
+    public void onPropertySaved(Property property) {
+        Long id = property.getId();
+        boolean active = Boolean.TRUE.equals(property.getIsActive());
+        PropertyFacetIndex.Entry entry = new PropertyFacetIndex.Entry(
+            property.getId(),
+            idsOf(property.getAmenities().stream().map(Amenity::getId).toList()),
+            idsOf(property.getCategories().stream().map(PropertyCategory::getId).toList()),
+            property.getCity() != null ? property.getCity().getId() : null,
+            property.getPricePerNight(),
+            Boolean.TRUE.equals(property.getInstantBook())
+        );
+        TransactionHooks.afterCommit(() -> {
+            PropertyFacetIndex index = written();
+            if (index != null && active) {
+                index.put(entry);
+            } else if (index != null) {
+                index.remove(id);
+            }
+        });
+        cacheInvalidationService.evictOnOtherNodes(FACETS_CACHE, id);
+    }
+
+    /**
+     * Remove a deleted property from the in-memory facet index once the current transaction commits, on every node.
+     *
+     * @param id the id of the deleted property.
+     */
+    public void onPropertyDeleted(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            PropertyFacetIndex index = written();
+            if (index != null) {
+                index.remove(id);
+            }
+        });
+        cacheInvalidationService.evictOnOtherNodes(FACETS_CACHE, id);
+    }
+
+    /**
+     * Reload the facet values of a property written by another node from the database.
+     *
+     * @param id the id of the property.
+     */
+    private void reload(Long id) {
+        PropertyFacetIndex index = written();
+        if (index == null) {
+            return;
+        }
+        PropertyFacetIndex.Entry entry = transactionTemplate.execute(status ->
+            propertyRepository
+                .findActiveFacetValuesById(id)
+                .map(values ->
+                    new PropertyFacetIndex.Entry(
+                        id,
+                        propertyRepository.findAmenityIdsById(id),
+                        propertyRepository.findCategoryIdsById(id),
+                        values.getCityId(),
+                        values.getPricePerNight(),
+                        Boolean.TRUE.equals(values.getInstantBook())
+                    )
+                )
+                .orElse(null)
+        );
+        if (entry != null) {
+            index.put(entry);
+        } else {
+            index.remove(id);
+        }
+    }
+
+    /**
+     * Record a committed write of a property, before reading the index to update: either the write sees the index being
+     * loaded, or the load sees the write.
+     */
+    private PropertyFacetIndex written() {
+        generation.incrementAndGet();
+        return facetIndex;
+    }
+
+    private PropertyFacetsDTO aggregate(Filter filter) {
+        int size = searchProperties.getFacetSize();
+        double priceInterval = searchProperties.getFacetPriceInterval();
+        NativeQuery query = NativeQuery.builder()
+            .withQuery(filterQuery(filter))
+            .withAggregation(AMENITIES, Aggregation.of(a -> a.terms(t -> t.field("amenityIds").size(size))))
+            .withAggregation(CATEGORIES, Aggregation.of(a -> a.terms(t -> t.field("categoryIds").size(size))))
+            .withAggregation(CITIES, Aggregation.of(a -> a.terms(t -> t.field("cityId").size(size))))
+            .withAggregation(PRICES, Aggregation.of(a -> a.histogram(h -> h.field("pricePerNight").interval(priceInterval).minDocCount(1))))
+            .withAggregation(INSTANT_BOOK, Aggregation.of(a -> a.terms(t -> t.field("instantBook"))))
+            .withMaxResults(0)
+            .withTrackTotalHits(true)
+            .build();
+        SearchHits<Property> searchHits = elasticsearchTemplate.search(query, Property.class);
+        Map<String, Aggregate> aggregates = new HashMap<>();
+        if (searchHits.getAggregations() instanceof ElasticsearchAggregations aggregations) {
+            aggregations.aggregationsAsMap().forEach((name, aggregation) -> aggregates.put(name, aggregation.aggregation().getAggregate()));
+        }
+
+        PropertyFacetsDTO facets = new PropertyFacetsDTO();
+        facets.setTotal(searchHits.getTotalHits());
+        facets.setAmenities(termCounts(aggregates.get(AMENITIES)));
+        facets.setCategories(termCounts(aggregates.get(CATEGORIES)));
+        facets.setCities(termCounts(aggregates.get(CITIES)));
+        facets.setInstantBook(termCounts(aggregates.get(INSTANT_BOOK)));
+        List<PriceBucket> prices = new ArrayList<>();
+        Aggregate priceAggregate = aggregates.get(PRICES);
+        if (priceAggregate != null && priceAggregate.isHistogram()) {
+            priceAggregate
+                .histogram()
+                .buckets()
+                .array()
+                .forEach(bucket ->
+                    prices.add(
+                        new PriceBucket(BigDecimal.valueOf(bucket.key()), BigDecimal.valueOf(bucket.key() + priceInterval), bucket.docCount())
+                    )
+                );
+        }
+        facets.setPrices(prices);
+        return facets;
+    }
+
+    private static Query filterQuery(Filter filter) {
+        List<Query> filters = new ArrayList<>();
+        filters.add(term("isActive", FieldValue.TRUE));
+        filter.amenityIds().forEach(id -> filters.add(term("amenityIds", FieldValue.of(String.valueOf(id)))));
+        filter.categoryIds().forEach(id -> filters.add(term("categoryIds", FieldValue.of(String.valueOf(id)))));
+        if (filter.cityId() != null) {
+            filters.add(term("cityId", FieldValue.of(String.valueOf(filter.cityId()))));
+        }
+        if (filter.instantBook() != null) {
+            filters.add(term("instantBook", FieldValue.of(filter.instantBook())));
+        }
+        if (filter.minPrice() != null || filter.maxPrice() != null) {
+            filters.add(
+                RangeQuery.of(r -> {
+                    r.field("pricePerNight");
+                    if (filter.minPrice() != null) {
+                        r.gte(JsonData.of(filter.minPrice().doubleValue()));
+                    }
+                    if (filter.maxPrice() != null) {
+                        r.lte(JsonData.of(filter.maxPrice().doubleValue()));
+                    }
+                    return r;
+                })._toQuery()
+            );
+        }
+        return BoolQuery.of(b -> b.filter(filters))._toQuery();
+    }
+
+    private static Query term(String field, FieldValue value) {
+        return TermQuery.of(t -> t.field(field).value(value))._toQuery();
+    }
+
+    /**
+     * The buckets of a terms aggregation; an unmapped field, e.g. in an index built before the field was added, has none.
+     */
+    private static List<FacetCount> termCounts(Aggregate aggregate) {
+        List<FacetCount> counts = new ArrayList<>();
+        if (aggregate == null) {
+            return counts;
+        }
+        if (aggregate.isSterms()) {
+            aggregate.sterms().buckets().array().forEach(bucket -> counts.add(new FacetCount(bucket.key().stringValue(), bucket.docCount())));
+        } else if (aggregate.isLterms()) {
+            aggregate
+                .lterms()
+                .buckets()
+                .array()
+                .forEach(bucket ->
+                    counts.add(new FacetCount(bucket.keyAsString() != null ? bucket.keyAsString() : String.valueOf(bucket.key()), bucket.docCount()))
+                );
+        }
+        return counts;
+    }
+
+    private static Set<Long> idsOf(List<Long> ids) {
+        Set<Long> set = new HashSet<>(ids);
+        set.remove(null);
+        return set;
+    }
+
+    private PropertyFacetIndex getFacetIndex() {
+        PropertyFacetIndex index = facetIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = facetIndex;
+                if (index == null) {
+                    long loadGeneration = generation.get();
+                    index = load();
+                    LOG.debug("Loaded {} Properties in the facet index", index.size());
+                    facetIndex = index;
+                    // a property written while loading may be missing: serve the counts read, but reload on the next count
+                    if (generation.get() != loadGeneration) {
+                        facetIndex = null;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    private PropertyFacetIndex load() {
+        Map<Long, Set<Long>> amenityIds = new HashMap<>();
+        for (PropertyRepository.Relation relation : propertyRepository.findAllActiveAmenityRelations()) {
+            amenityIds.computeIfAbsent(relation.getPropertyId(), id -> new HashSet<>()).add(relation.getRelatedId());
+        }
+        Map<Long, Set<Long>> categoryIds = new HashMap<>();
+        for (PropertyRepository.Relation relation : propertyRepository.findAllActiveCategoryRelations()) {
+            categoryIds.computeIfAbsent(relation.getPropertyId(), id -> new HashSet<>()).add(relation.getRelatedId());
+        }
+        PropertyFacetIndex index = new PropertyFacetIndex(searchProperties.getFacetPriceInterval());
+        for (PropertyRepository.FacetValues values : propertyRepository.findAllActiveFacetValues()) {
+            index.put(
+                new PropertyFacetIndex.Entry(
+                    values.getId(),
+                    amenityIds.getOrDefault(values.getId(), Set.of()),
+                    categoryIds.getOrDefault(values.getId(), Set.of()),
+                    values.getCityId(),
+                    values.getPricePerNight(),
+                    Boolean.TRUE.equals(values.getInstantBook())
+                )
+            );
+        }
+        return index;
+    }
+}
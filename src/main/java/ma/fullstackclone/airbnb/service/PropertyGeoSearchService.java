@@ -0,0 +1,216 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.config.ApplicationProperties.Search.GeoEngine;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.repository.search.PropertySearchRepository;
+import ma.fullstackclone.airbnb.service.dto.PropertyDTO;
+import ma.fullstackclone.airbnb.service.mapper.PropertyMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service for map searches on {@link Property} entities: within a radius of a point, or inside a bounding box.
+ * <p>
+ * Searches are answered by the {@code location} {@code geo_point} of the {@code property} Elasticsearch index,
+ * or, when {@code application.search.geo-engine} is {@code memory}, by a {@link GeoGridIndex} loaded from the database
+ * on first use and kept up to date by the {@link Property} writes: right away for those of this node, and from the
+ * database for those of the other nodes, told by the {@link CacheInvalidationService}.
+ * In both cases results are sorted by distance.
+ */
+@Service
+@Transactional(readOnly = true)
+public class PropertyGeoSearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyGeoSearchService.class);
+
+    /**
+     * The name of the in-memory grid for the {@link CacheInvalidationService}, keyed by property id.
+     */
+    public static final String LOCATIONS_CACHE = "propertyLocations";
+
+    private final PropertyRepository propertyRepository;
+
+    private final PropertySearchRepository propertySearchRepository;
+
+    private final PropertyMapper propertyMapper;
+
+    private final ApplicationProperties.Search searchProperties;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private volatile GeoGridIndex gridIndex;
+
+    /**
+     * Incremented by each property written, so that a grid loaded meanwhile, which may miss it, is not kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public PropertyGeoSearchService(
+        PropertyRepository propertyRepository,
+        PropertySearchRepository propertySearchRepository,
+        PropertyMapper propertyMapper,
+        ApplicationProperties applicationProperties,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.propertySearchRepository = propertySearchRepository;
+        this.propertyMapper = propertyMapper;
+        this.searchProperties = applicationProperties.getSearch();
+        this.cacheInvalidationService = cacheInvalidationService;
+        cacheInvalidationService.register(LOCATIONS_CACHE, id -> reload(Long.valueOf(id)));
+    }
+
+    /**
+     * Find the properties located within {@code radiusKm} of a point, nearest first.
+     *
+     * @param latitude the latitude of the point.
+     * @param longitude the longitude of the point.
+     * @param radiusKm the radius, in kilometers.
+     * @param pageable the pagination information.
+     * @return the page of matching properties.
+     */
+    public Page<PropertyDTO> findWithinDistance(double latitude, double longitude, double radiusKm, Pageable pageable) {
+        LOG.debug("Request to get Properties within {} km of ({}, {})", radiusKm, latitude, longitude);
+        if (searchProperties.getGeoEngine() == GeoEngine.MEMORY) {
+            return toPage(getGridIndex().withinDistance(latitude, longitude, radiusKm), pageable);
+        }
+        return propertySearchRepository.searchWithinDistance(latitude, longitude, radiusKm, pageable).map(propertyMapper::toDto);
+    }
+
+    /**
+     * Find the properties located inside a bounding box, nearest to its center first.
+     *
+     * @param minLatitude the south edge of the box.
+     * @param minLongitude the west edge of the box.
+     * @param maxLatitude the north edge of the box.
+     * @param maxLongitude the east edge of the box.
+     * @param pageable the pagination information.
+     * @return the page of matching properties.
+     */
+    public Page<PropertyDTO> findWithinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, Pageable pageable) {
+        LOG.debug("Request to get Properties inside ({}, {}) - ({}, {})", minLatitude, minLongitude, maxLatitude, maxLongitude);
+        if (searchProperties.getGeoEngine() == GeoEngine.MEMORY) {
+            return toPage(getGridIndex().withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude), pageable);
+        }
+        return propertySearchRepository
+            .searchWithinBox(minLatitude, minLongitude, maxLatitude, maxLongitude, pageable)
+            .map(propertyMapper::toDto);
+    }
+
+    /**
+     * Reflect a saved property in the in-memory grid once the current transaction commits, on every node.
+     *
+     * @param property the saved property.
+     */
+    public void onPropertySaved(Property property) {
+        Long id = property.getId();
+        Double latitude = property.getLatitude() != null ? property.getLatitude().doubleValue() : null;
+        Double longitude = property.getLongitude() != null ? property.getLongitude().doubleValue() : null;
+        TransactionHooks.afterCommit(() -> {
+            GeoGridIndex index = written();
+            if (index == null) {
+                return;
+            }
+            if (latitude == null || longitude == null) {
+                index.remove(id);
+            } else {
+                index.put(id, latitude, longitude);
+            }
+        });
+        cacheInvalidationService.evictOnOtherNodes(LOCATIONS_CACHE, id);
+    }
+
+    /**
+     * Remove a deleted property from the in-memory grid once the current transaction commits, on every node.
+     *
+     * @param id the id of the deleted property.
+     */
+    public void onPropertyDeleted(Long id) {
+        TransactionHooks.afterCommit(() -> {
+            GeoGridIndex index = written();
+            if (index != null) {
+                index.remove(id);
+            }
+        });
+        cacheInvalidationService.evictOnOtherNodes(LOCATIONS_CACHE, id);
+    }
+
+    /**
+     * Reload the location of a property written by another node from the database.
+     *
+     * @param id the id of the property.
+     */
+    private void reload(Long id) {
+        GeoGridIndex index = written();
+        if (index == null) {
+            return;
+        }
+        propertyRepository
+            .findCoordinatesById(id)
+            .ifPresentOrElse(
+                coordinates -> index.put(id, coordinates.getLatitude().doubleValue(), coordinates.getLongitude().doubleValue()),
+                () -> index.remove(id)
+            );
+    }
+
+    /**
+     * Record a committed write of a property, before reading the grid to update: either the write sees the grid being
+     * loaded, or the load sees the write.
+     */
+    private GeoGridIndex written() {
+        generation.incrementAndGet();
+        return gridIndex;
+    }
+
+    private GeoGridIndex getGridIndex() {
+        GeoGridIndex index = gridIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = gridIndex;
+                if (index == null) {
+                    long loadGeneration = generation.get();
+                    index = new GeoGridIndex(searchProperties.getGeoGridCellDegrees());
+                    for (PropertyRepository.Coordinates coordinates : propertyRepository.findAllCoordinates()) {
+                        index.put(coordinates.getId(), coordinates.getLatitude().doubleValue(), coordinates.getLongitude().doubleValue());
+                    }
+                    LOG.debug("Loaded {} Properties in the geo grid index", index.size());
+                    gridIndex = index;
+                    // a property written while loading may be missing: serve the locations read, but reload on the next search
+                    if (generation.get() != loadGeneration) {
+                        gridIndex = null;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    private Page<PropertyDTO> toPage(List<GeoGridIndex.Hit> hits, Pageable pageable) {
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        List<GeoGridIndex.Hit> pageHits = hits.subList(from, to);
+        Map<Long, Integer> rankById = new HashMap<>();
+        for (int rank = 0; rank < pageHits.size(); rank++) {
+            rankById.put(pageHits.get(rank).id(), rank);
+        }
+        List<PropertyDTO> content = propertyRepository
+            .fetchBagRelationships(propertyRepository.findAllById(rankById.keySet()))
+            .stream()
+            .sorted(Comparator.comparing(property -> rankById.get(property.getId())))
+            .map(propertyMapper::toDto)
+            .toList();
+        return new PageImpl<>(content, pageable, hits.size());
+    }
+}
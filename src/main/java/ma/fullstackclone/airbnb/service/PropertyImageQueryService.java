@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,33 +32,64 @@ public class PropertyImageQueryService extends QueryService<PropertyImage> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PropertyImageQueryService.class);
 
+    private static final String ENDPOINT = "property-images";
+
     private final PropertyImageRepository propertyImageRepository;
 
     private final PropertyImageMapper propertyImageMapper;
 
     private final PropertyImageSearchRepository propertyImageSearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public PropertyImageQueryService(
         PropertyImageRepository propertyImageRepository,
         PropertyImageMapper propertyImageMapper,
-        PropertyImageSearchRepository propertyImageSearchRepository
+        PropertyImageSearchRepository propertyImageSearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.propertyImageRepository = propertyImageRepository;
         this.propertyImageMapper = propertyImageMapper;
         this.propertyImageSearchRepository = propertyImageSearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link PropertyImageDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link PropertyImageDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<PropertyImageDTO> findByCriteria(PropertyImageCriteria criteria, Pageable page) {
+    public Slice<PropertyImageDTO> findByCriteria(PropertyImageCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<PropertyImage> specification = createSpecification(criteria);
-        return propertyImageRepository.findAll(specification, page).map(propertyImageMapper::toDto);
+        return paginationService
+            .findAll(ENDPOINT, PropertyImage.class, propertyImageRepository, specification, criteria, page)
+            .map(propertyImageMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link PropertyImageDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<PropertyImageDTO> findByCriteria(PropertyImageCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<PropertyImage> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(PropertyImage.class, page.getSort(), after);
+        return propertyImageRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(propertyImageMapper::toDto);
     }
 
     /**
@@ -1,6 +1,12 @@
 package ma.fullstackclone.airbnb.service;
 
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import ma.fullstackclone.airbnb.domain.*; // for static metamodels
 import ma.fullstackclone.airbnb.domain.Property;
 import ma.fullstackclone.airbnb.repository.PropertyRepository;
@@ -12,6 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,33 +38,66 @@ public class PropertyQueryService extends QueryService<Property> {
 
     private static final Logger LOG = LoggerFactory.getLogger(PropertyQueryService.class);
 
+    private static final String ENDPOINT = "properties";
+
     private final PropertyRepository propertyRepository;
 
     private final PropertyMapper propertyMapper;
 
     private final PropertySearchRepository propertySearchRepository;
 
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
     public PropertyQueryService(
         PropertyRepository propertyRepository,
         PropertyMapper propertyMapper,
-        PropertySearchRepository propertySearchRepository
+        PropertySearchRepository propertySearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
     ) {
         this.propertyRepository = propertyRepository;
         this.propertyMapper = propertyMapper;
         this.propertySearchRepository = propertySearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link PropertyDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link PropertyDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<PropertyDTO> findByCriteria(PropertyCriteria criteria, Pageable page) {
+    public Slice<PropertyDTO> findByCriteria(PropertyCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Property> specification = createSpecification(criteria);
-        return propertyRepository.fetchBagRelationships(propertyRepository.findAll(specification, page)).map(propertyMapper::toDto);
+        Slice<Property> slice = paginationService.findAll(ENDPOINT, Property.class, propertyRepository, specification, criteria, page);
+        propertyRepository.fetchBagRelationships(slice.getContent());
+        return slice.map(propertyMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link PropertyDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<PropertyDTO> findByCriteria(PropertyCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Property> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(Property.class, page.getSort(), after);
+        Window<Property> window = propertyRepository.findBy(specification, query ->
+            query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position)
+        );
+        propertyRepository.fetchBagRelationships(window.getContent());
+        return window.map(propertyMapper::toDto);
     }
 
     /**
@@ -130,6 +172,12 @@ public class PropertyQueryService extends QueryService<Property> {
             if (criteria.getIsActive() != null) {
                 specification = specification.and(buildSpecification(criteria.getIsActive(), Property_.isActive));
             }
+            if (criteria.getReviewCount() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getReviewCount(), Property_.reviewCount));
+            }
+            if (criteria.getAverageRating() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getAverageRating(), Property_.averageRating));
+            }
             if (criteria.getHostId() != null) {
                 specification = specification.and(
                     buildSpecification(criteria.getHostId(), root -> root.join(Property_.host, JoinType.LEFT).get(User_.id))
@@ -152,7 +200,49 @@ public class PropertyQueryService extends QueryService<Property> {
                     )
                 );
             }
+            if (criteria.getAvailableFrom() != null || criteria.getAvailableTo() != null) {
+                Instant from = criteria.optionalAvailableFrom().orElseGet(() -> criteria.getAvailableTo().minus(1, ChronoUnit.DAYS));
+                Instant to = criteria.optionalAvailableTo().orElseGet(() -> from.plus(1, ChronoUnit.DAYS));
+                specification = specification.and(buildAvailableBetweenSpecification(from, to));
+            }
         }
         return specification;
     }
+
+    /**
+     * Build a {@link Specification} keeping the properties whose availability window covers {@code [from, to)}
+     * and which have no blocking booking overlapping it.
+     * The bookings are excluded through a correlated {@code NOT EXISTS}, served by the
+     * {@code (property_id, check_in_date, check_out_date)} index of the booking table.
+     * @param from the requested check-in (inclusive).
+     * @param to the requested check-out (exclusive).
+     * @return the matching {@link Specification} of the entity.
+     */
+    protected Specification<Property> buildAvailableBetweenSpecification(Instant from, Instant to) {
+        ZonedDateTime windowStart = from.atZone(ZoneOffset.UTC);
+        ZonedDateTime windowEnd = to.atZone(ZoneOffset.UTC);
+        return (root, query, builder) -> {
+            Subquery<Long> overlapping = query.subquery(Long.class);
+            Root<Booking> booking = overlapping.from(Booking.class);
+            overlapping
+                .select(booking.get(Booking_.id))
+                .where(
+                    builder.equal(booking.get(Booking_.property).get(Property_.id), root.get(Property_.id)),
+                    booking.get(Booking_.status).in(BookingAvailabilityService.BLOCKING_STATUSES),
+                    builder.lessThan(booking.get(Booking_.checkInDate), to),
+                    builder.greaterThan(booking.get(Booking_.checkOutDate), from)
+                );
+            return builder.and(
+                builder.or(
+                    builder.isNull(root.get(Property_.availabilityStart)),
+                    builder.lessThanOrEqualTo(root.get(Property_.availabilityStart), windowStart)
+                ),
+                builder.or(
+                    builder.isNull(root.get(Property_.availabilityEnd)),
+                    builder.greaterThanOrEqualTo(root.get(Property_.availabilityEnd), windowEnd)
+                ),
+                builder.not(builder.exists(overlapping))
+            );
+        };
+    }
 }
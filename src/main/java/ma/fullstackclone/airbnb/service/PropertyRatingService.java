@@ -0,0 +1,145 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service maintaining the rating aggregates of {@link Property}: number of reviews, sum
+ * and average of their ratings.
+ * <p>
+ * Each review write applies its difference to the row of its property in a single update, so concurrent reviews of a
+ * property are serialized by the row lock and the aggregates never need to read the reviews. The rebuild recomputes them
+ * from the reviews, by ranges of ids processed in parallel, each range in its own transaction, and only writes the
+ * properties whose aggregates changed.
+ * <p>
+ * The aggregates are part of the search document of the property, which is queued to the outbox whenever they change.
+ */
+@Service
+public class PropertyRatingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyRatingService.class);
+
+    private final PropertyRepository propertyRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final ApplicationProperties.Rating ratingProperties;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final OutboxService outboxService;
+
+    public PropertyRatingService(
+        PropertyRepository propertyRepository,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        ApplicationProperties applicationProperties,
+        CacheInvalidationService cacheInvalidationService,
+        OutboxService outboxService
+    ) {
+        this.propertyRepository = propertyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+        this.ratingProperties = applicationProperties.getRating();
+        this.cacheInvalidationService = cacheInvalidationService;
+        this.outboxService = outboxService;
+    }
+
+    /**
+     * Update the aggregates after a review was created, updated or deleted.
+     *
+     * @param previousPropertyId the property of the review before the change, {@code null} if it was just created.
+     * @param previousRating the rating of the review before the change, {@code null} if it was just created.
+     * @param propertyId the property of the review after the change, {@code null} if it was deleted.
+     * @param rating the rating of the review after the change, {@code null} if it was deleted.
+     */
+    @Transactional
+    public void ratingChanged(Long previousPropertyId, Integer previousRating, Long propertyId, Integer rating) {
+        boolean counted = previousPropertyId != null && previousRating != null;
+        boolean counts = propertyId != null && rating != null;
+        if (counted && counts && previousPropertyId.equals(propertyId)) {
+            if (!Objects.equals(previousRating, rating)) {
+                updateRatings(propertyId, 0, (long) rating - previousRating);
+            }
+            return;
+        }
+        if (counted) {
+            updateRatings(previousPropertyId, -1, -previousRating);
+        }
+        if (counts) {
+            updateRatings(propertyId, 1, rating);
+        }
+    }
+
+    private void updateRatings(Long propertyId, int countDelta, long ratingDelta) {
+        propertyRepository.updateRatings(propertyId, countDelta, ratingDelta);
+        cacheInvalidationService.bulkUpdated(Property.class, propertyId);
+        outboxService.saved(Property.class, propertyId);
+    }
+
+    /**
+     * Recompute the aggregates of all the properties from their reviews.
+     * <p>
+     * This is scheduled with {@code application.rating.rebuild-cron}.
+     *
+     * @return the number of properties whose aggregates changed.
+     */
+    @Scheduled(cron = "${application.rating.rebuild-cron:-}")
+    public long rebuildAll() {
+        PropertyRepository.IdRange idRange = propertyRepository.findIdRange();
+        if (idRange == null || idRange.getMinId() == null) {
+            return 0;
+        }
+        long maxId = idRange.getMaxId();
+        int batchSize = Math.max(1, ratingProperties.getRebuildBatchSize());
+        AtomicLong nextId = new AtomicLong(idRange.getMinId());
+        long start = System.currentTimeMillis();
+
+        List<CompletableFuture<Long>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, ratingProperties.getRebuildParallelism()); i++) {
+            workers.add(CompletableFuture.supplyAsync(() -> rebuildBatches(nextId, maxId, batchSize), taskExecutor));
+        }
+        long updated = workers.stream().mapToLong(CompletableFuture::join).sum();
+        if (updated > 0) {
+            cacheInvalidationService.bulkUpdated(Property.class);
+        }
+        LOG.info("Rebuilt the rating aggregates in {} ms: {} properties changed", System.currentTimeMillis() - start, updated);
+        return updated;
+    }
+
+    private long rebuildBatches(AtomicLong nextId, long maxId, int batchSize) {
+        long updated = 0;
+        for (long from = nextId.getAndAdd(batchSize); from <= maxId; from = nextId.getAndAdd(batchSize)) {
+            long fromId = from;
+            long toId = Math.min(maxId, from + batchSize - 1);
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Long> ids = propertyRepository.findIdsWithStaleRatings(fromId, toId);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int rebuilt = propertyRepository.rebuildRatings(ids);
+                ids.forEach(id -> outboxService.saved(Property.class, id));
+                return rebuilt;
+            });
+            updated += batch != null ? batch : 0;
+        }
+        return updated;
+    }
+}
@@ -1,6 +1,8 @@
 package ma.fullstackclone.airbnb.service;
 
 import java.util.Optional;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.repository.search.PropertySearchCriteria;
 import ma.fullstackclone.airbnb.service.dto.PropertyDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -18,18 +20,20 @@ public interface PropertyService {
     PropertyDTO save(PropertyDTO propertyDTO);
 
     /**
-     * Updates a property.
+     * Updates a property, if it is still at the version of the DTO when it has one.
      *
      * @param propertyDTO the entity to update.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version, or empty if it does not exist.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the property was updated since.
      */
-    PropertyDTO update(PropertyDTO propertyDTO);
+    Optional<PropertyDTO> update(PropertyDTO propertyDTO);
 
     /**
-     * Partially updates a property.
+     * Partially updates a property, if it is still at the version of the DTO when it has one.
      *
      * @param propertyDTO the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, with its new version, or empty if it does not exist.
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException if the property was updated since.
      */
     Optional<PropertyDTO> partialUpdate(PropertyDTO propertyDTO);
 
@@ -49,6 +53,30 @@ public interface PropertyService {
      */
     Optional<PropertyDTO> findOne(Long id);
 
+    /**
+     * Get the version of the "id" property, without loading it.
+     *
+     * @param id the id of the entity.
+     * @return its version, or empty if it does not exist.
+     */
+    Optional<Long> findVersion(Long id);
+
+    /**
+     * Get the version of the "id" property and the time of its last write, which changes with its rating too, without
+     * loading it.
+     *
+     * @param id the id of the entity.
+     * @return its stamp, or empty if it does not exist.
+     */
+    Optional<PropertyRepository.RepresentationStamp> findRepresentationStamp(Long id);
+
+    /**
+     * Get the number of committed transactions which wrote properties, which any write or delete increments.
+     *
+     * @return the modification count of the properties.
+     */
+    long findModificationCount();
+
     /**
      * Delete the "id" property.
      *
@@ -65,4 +93,13 @@ public interface PropertyService {
      * @return the list of entities.
      */
     Page<PropertyDTO> search(String query, Pageable pageable);
+
+    /**
+     * Listing search of the active properties, ranked by text relevance, rating and recency.
+     *
+     * @param criteria the criteria of the search.
+     * @param pageable the pagination information.
+     * @return the list of entities, the most relevant first.
+     */
+    Page<PropertyDTO> searchListings(PropertySearchCriteria criteria, Pageable pageable);
 }
@@ -0,0 +1,257 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.PropertyCategory;
+import ma.fullstackclone.airbnb.repository.AmenityRepository;
+import ma.fullstackclone.airbnb.repository.CityRepository;
+import ma.fullstackclone.airbnb.repository.CountryRepository;
+import ma.fullstackclone.airbnb.repository.PropertyCategoryRepository;
+import ma.fullstackclone.airbnb.service.dto.AmenityDTO;
+import ma.fullstackclone.airbnb.service.dto.CityDTO;
+import ma.fullstackclone.airbnb.service.dto.CountryDTO;
+import ma.fullstackclone.airbnb.service.dto.PropertyCategoryDTO;
+import ma.fullstackclone.airbnb.service.mapper.CityMapper;
+import ma.fullstackclone.airbnb.service.mapper.CountryMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service serving the reference tables read by every search form (countries, cities, amenities and property
+ * categories) from immutable in-memory {@link ReferenceTable} copies.
+ * <p>
+ * The tables are loaded when the application starts, then reloaded on the next read after a write through the
+ * services of any node, or once older than {@code application.reference-data.time-to-live}.
+ */
+@Service
+public class ReferenceDataService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceDataService.class);
+
+    /**
+     * The name of the reference tables for the {@link CacheInvalidationService}, keyed by {@link Table} name.
+     */
+    public static final String REFERENCE_DATA_CACHE = "referenceData";
+
+    /**
+     * The reference tables.
+     */
+    public enum Table {
+        COUNTRIES,
+        CITIES,
+        AMENITIES,
+        PROPERTY_CATEGORIES,
+    }
+
+    private final CountryRepository countryRepository;
+
+    private final CityRepository cityRepository;
+
+    private final AmenityRepository amenityRepository;
+
+    private final PropertyCategoryRepository propertyCategoryRepository;
+
+    private final CountryMapper countryMapper;
+
+    private final CityMapper cityMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private final Duration timeToLive;
+
+    private final Map<Table, Slot> slots = new EnumMap<>(Table.class);
+
+    public ReferenceDataService(
+        CountryRepository countryRepository,
+        CityRepository cityRepository,
+        AmenityRepository amenityRepository,
+        PropertyCategoryRepository propertyCategoryRepository,
+        CountryMapper countryMapper,
+        CityMapper cityMapper,
+        PlatformTransactionManager transactionManager,
+        CacheInvalidationService cacheInvalidationService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.countryRepository = countryRepository;
+        this.cityRepository = cityRepository;
+        this.amenityRepository = amenityRepository;
+        this.propertyCategoryRepository = propertyCategoryRepository;
+        this.countryMapper = countryMapper;
+        this.cityMapper = cityMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.timeToLive = applicationProperties.getReferenceData().getTimeToLive();
+        this.cacheInvalidationService = cacheInvalidationService;
+        for (Table table : Table.values()) {
+            slots.put(table, new Slot());
+        }
+        cacheInvalidationService.register(REFERENCE_DATA_CACHE, table -> invalidate(Table.valueOf(table)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getCountries();
+            getCities();
+            getAmenities();
+            getPropertyCategories();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not preload the reference data, it will be loaded on first use: {}", e.getMessage());
+        }
+    }
+
+    public ReferenceTable<CountryDTO> getCountries() {
+        return get(Table.COUNTRIES, () ->
+            new ReferenceTable<>(
+                "countries",
+                countryRepository.findAll().stream().map(countryMapper::toDto).toList(),
+                CountryDTO::getId,
+                CountryDTO::getName,
+                null,
+                country -> fields(country.getId(), country.getName(), country.getCode(), country.getPhoneCode())
+            )
+        );
+    }
+
+    /**
+     * The cities, grouped by country.
+     */
+    public ReferenceTable<CityDTO> getCities() {
+        return get(Table.CITIES, () ->
+            new ReferenceTable<>(
+                "cities",
+                cityRepository.findAll().stream().map(cityMapper::toDto).toList(),
+                CityDTO::getId,
+                CityDTO::getName,
+                city -> city.getCountry() != null ? city.getCountry().getId() : null,
+                city ->
+                    fields(
+                        city.getId(),
+                        city.getName(),
+                        city.getPostalCode(),
+                        city.getLatitude(),
+                        city.getLongitude(),
+                        city.getCountry() != null ? city.getCountry().getId() : null
+                    )
+            )
+        );
+    }
+
+    public ReferenceTable<AmenityDTO> getAmenities() {
+        return get(Table.AMENITIES, () ->
+            new ReferenceTable<>(
+                "amenities",
+                amenityRepository.findAll().stream().map(ReferenceDataService::toDto).toList(),
+                AmenityDTO::getId,
+                AmenityDTO::getName,
+                null,
+                amenity -> fields(amenity.getId(), amenity.getName(), amenity.getIconClass())
+            )
+        );
+    }
+
+    public ReferenceTable<PropertyCategoryDTO> getPropertyCategories() {
+        return get(Table.PROPERTY_CATEGORIES, () ->
+            new ReferenceTable<>(
+                "property-categories",
+                propertyCategoryRepository.findAll().stream().map(ReferenceDataService::toDto).toList(),
+                PropertyCategoryDTO::getId,
+                PropertyCategoryDTO::getName,
+                null,
+                category -> fields(category.getId(), category.getName(), category.getDescription())
+            )
+        );
+    }
+
+    /**
+     * Drop the in-memory copy of a table on every node once the current transaction commits: the next read reloads it.
+     *
+     * @param table the table written.
+     */
+    public void invalidateAfterCommit(Table table) {
+        TransactionHooks.afterCommit(() -> invalidate(table));
+        cacheInvalidationService.evictOnOtherNodes(REFERENCE_DATA_CACHE, table.name());
+    }
+
+    /**
+     * Drop the in-memory copy of a table on this node: the next read reloads it.
+     *
+     * @param table the table.
+     */
+    public void invalidate(Table table) {
+        LOG.debug("Invalidating the reference table {}", table);
+        Slot slot = slots.get(table);
+        slot.generation.incrementAndGet();
+        slot.table = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ReferenceTable<T> get(Table table, Supplier<ReferenceTable<T>> loader) {
+        Slot slot = slots.get(table);
+        ReferenceTable<?> current = slot.table;
+        if (current != null && isFresh(current)) {
+            return (ReferenceTable<T>) current;
+        }
+        synchronized (slot) {
+            current = slot.table;
+            if (current != null && isFresh(current)) {
+                return (ReferenceTable<T>) current;
+            }
+            long generation = slot.generation.get();
+            ReferenceTable<T> loaded = Objects.requireNonNull(transactionTemplate.execute(status -> loader.get()));
+            // a write committed while loading: serve the rows read, but reload on the next read
+            if (slot.generation.get() == generation) {
+                slot.table = loaded;
+            }
+            LOG.debug("Loaded the reference table {}: {} rows", table, loaded.findAll().size());
+            return loaded;
+        }
+    }
+
+    private boolean isFresh(ReferenceTable<?> table) {
+        return table.getLoadedAt().plus(timeToLive).isAfter(Instant.now());
+    }
+
+    private static String fields(Object... values) {
+        return Arrays.stream(values).map(String::valueOf).collect(Collectors.joining("|"));
+    }
+
+    private static AmenityDTO toDto(Amenity amenity) {
+        AmenityDTO amenityDTO = new AmenityDTO();
+        amenityDTO.setId(amenity.getId());
+        amenityDTO.setName(amenity.getName());
+        amenityDTO.setIconClass(amenity.getIconClass());
+        return amenityDTO;
+    }
+
+    private static PropertyCategoryDTO toDto(PropertyCategory propertyCategory) {
+        PropertyCategoryDTO propertyCategoryDTO = new PropertyCategoryDTO();
+        propertyCategoryDTO.setId(propertyCategory.getId());
+        propertyCategoryDTO.setName(propertyCategory.getName());
+        propertyCategoryDTO.setDescription(propertyCategory.getDescription());
+        return propertyCategoryDTO;
+    }
+
+    private static final class Slot {
+
+        private final AtomicLong generation = new AtomicLong();
+
+        private volatile ReferenceTable<?> table;
+    }
+}
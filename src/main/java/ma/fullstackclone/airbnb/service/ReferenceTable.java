@@ -0,0 +1,119 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Immutable in-memory copy of a small reference table, indexed by id, by name (case-insensitive) and by group
+ * (e.g. the country of a city).
+ * <p>
+ * The entity tag is computed from the content of the rows, so every node holding the same rows gives the same tag.
+ * The rows are shared by all the readers and must not be modified.
+ *
+ * @param <T> the type of the rows.
+ */
+public final class ReferenceTable<T> {
+
+    private final List<T> rows;
+
+    private final Map<Long, T> byId;
+
+    private final Map<String, List<T>> byName;
+
+    private final Map<Long, List<T>> byGroup;
+
+    private final String eTag;
+
+    private final Instant loadedAt;
+
+    /**
+     * @param name the name of the table, part of the entity tag.
+     * @param rows the rows, listed by name.
+     * @param id the id of a row.
+     * @param rowName the name of a row.
+     * @param group the group of a row, or {@code null} if the table is not grouped.
+     * @param fingerprint the values of a row that are part of the entity tag.
+     */
+    public ReferenceTable(
+        String name,
+        List<T> rows,
+        Function<T, Long> id,
+        Function<T, String> rowName,
+        Function<T, Long> group,
+        Function<T, String> fingerprint
+    ) {
+        this.rows = rows
+            .stream()
+            .sorted(Comparator.comparing(rowName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)).thenComparing(id))
+            .toList();
+        Map<Long, T> rowsById = new HashMap<>();
+        CRC32 crc = new CRC32();
+        for (T row : this.rows) {
+            rowsById.put(id.apply(row), row);
+            crc.update(fingerprint.apply(row).getBytes(StandardCharsets.UTF_8));
+            crc.update('\n');
+        }
+        this.byId = Map.copyOf(rowsById);
+        this.byName = this.rows
+            .stream()
+            .filter(row -> rowName.apply(row) != null)
+            .collect(Collectors.groupingBy(row -> normalize(rowName.apply(row)), Collectors.toUnmodifiableList()));
+        this.byGroup = group == null
+            ? Map.of()
+            : this.rows
+                .stream()
+                .filter(row -> group.apply(row) != null)
+                .collect(Collectors.groupingBy(group, Collectors.toUnmodifiableList()));
+        this.eTag = "\"" + name + "-" + this.rows.size() + "-" + Long.toHexString(crc.getValue()) + "\"";
+        this.loadedAt = Instant.now();
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * All the rows, by name.
+     */
+    public List<T> findAll() {
+        return rows;
+    }
+
+    public Optional<T> findById(Long id) {
+        return Optional.ofNullable(byId.get(id));
+    }
+
+    /**
+     * The rows named {@code name}, ignoring case.
+     */
+    public List<T> findByName(String name) {
+        return byName.getOrDefault(normalize(name), List.of());
+    }
+
+    /**
+     * The rows of a group, by name.
+     */
+    public List<T> findByGroup(Long group) {
+        return byGroup.getOrDefault(group, List.of());
+    }
+
+    /**
+     * The strong entity tag of the content of the table, quoted.
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+}
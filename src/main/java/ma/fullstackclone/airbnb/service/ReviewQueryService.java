@@ -12,6 +12,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -29,29 +32,62 @@ public class ReviewQueryService extends QueryService<Review> {
 
     private static final Logger LOG = LoggerFactory.getLogger(ReviewQueryService.class);
 
+    private static final String ENDPOINT = "reviews";
+
     private final ReviewRepository reviewRepository;
 
     private final ReviewMapper reviewMapper;
 
     private final ReviewSearchRepository reviewSearchRepository;
 
-    public ReviewQueryService(ReviewRepository reviewRepository, ReviewMapper reviewMapper, ReviewSearchRepository reviewSearchRepository) {
+    private final KeysetPaginationService keysetPaginationService;
+
+    private final PaginationService paginationService;
+
+    public ReviewQueryService(
+        ReviewRepository reviewRepository,
+        ReviewMapper reviewMapper,
+        ReviewSearchRepository reviewSearchRepository,
+        KeysetPaginationService keysetPaginationService,
+        PaginationService paginationService
+    ) {
         this.reviewRepository = reviewRepository;
         this.reviewMapper = reviewMapper;
         this.reviewSearchRepository = reviewSearchRepository;
+        this.keysetPaginationService = keysetPaginationService;
+        this.paginationService = paginationService;
     }
 
     /**
-     * Return a {@link Page} of {@link ReviewDTO} which matches the criteria from the database.
+     * Return a {@link Slice} of {@link ReviewDTO} which matches the criteria from the database.
+     * The slice is a {@link Page} unless the count strategy of the endpoint is {@code none}, see {@link PaginationService}.
      * @param criteria The object which holds all the filters, which the entities should match.
      * @param page The page, which should be returned.
      * @return the matching entities.
      */
     @Transactional(readOnly = true)
-    public Page<ReviewDTO> findByCriteria(ReviewCriteria criteria, Pageable page) {
+    public Slice<ReviewDTO> findByCriteria(ReviewCriteria criteria, Pageable page) {
         LOG.debug("find by criteria : {}, page: {}", criteria, page);
         final Specification<Review> specification = createSpecification(criteria);
-        return reviewRepository.findAll(specification, page).map(reviewMapper::toDto);
+        return paginationService.findAll(ENDPOINT, Review.class, reviewRepository, specification, criteria, page).map(reviewMapper::toDto);
+    }
+
+    /**
+     * Return a {@link Window} of {@link ReviewDTO} which matches the criteria from the database, read with keyset pagination.
+     * No count query is run, so every page costs the same.
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param after The cursor returned with the previous window, or an empty string for the first one.
+     * @param page The size and the sort of the window; the page number is ignored.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Window<ReviewDTO> findByCriteria(ReviewCriteria criteria, String after, Pageable page) {
+        LOG.debug("find by criteria : {}, after: {}, page: {}", criteria, after, page);
+        final Specification<Review> specification = createSpecification(criteria);
+        final ScrollPosition position = keysetPaginationService.positionAfter(Review.class, page.getSort(), after);
+        return reviewRepository
+            .findBy(specification, query -> query.sortBy(page.getSort()).limit(page.getPageSize()).scroll(position))
+            .map(reviewMapper::toDto);
     }
 
     /**
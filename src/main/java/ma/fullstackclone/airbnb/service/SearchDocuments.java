@@ -0,0 +1,185 @@
+package ma.fullstackclone.airbnb.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.EntityType;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.UnaryOperator;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.City;
+import ma.fullstackclone.airbnb.domain.Country;
+import ma.fullstackclone.airbnb.domain.Promotion;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.PropertyCategory;
+import ma.fullstackclone.airbnb.domain.PropertyImage;
+import ma.fullstackclone.airbnb.domain.Review;
+import ma.fullstackclone.airbnb.domain.User;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads the indexed entities from the database and converts them to Elasticsearch documents, by batches.
+ * <p>
+ * Entities are returned with the relationships their documents need (the amenities and categories of a property), and
+ * must be converted while they are still attached, as lazy associations may be part of the documents.
+ */
+@Component
+class SearchDocuments {
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final EntityManager entityManager;
+
+    private final Map<Class<?>, UnaryOperator<List<?>>> loaders = new LinkedHashMap<>();
+
+    SearchDocuments(ElasticsearchTemplate elasticsearchTemplate, EntityManager entityManager, PropertyRepository propertyRepository) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.entityManager = entityManager;
+        register(Amenity.class, UnaryOperator.identity());
+        register(Booking.class, UnaryOperator.identity());
+        register(City.class, UnaryOperator.identity());
+        register(Country.class, UnaryOperator.identity());
+        register(Promotion.class, UnaryOperator.identity());
+        register(Property.class, propertyRepository::fetchBagRelationships);
+        register(PropertyCategory.class, UnaryOperator.identity());
+        register(PropertyImage.class, UnaryOperator.identity());
+        register(Review.class, UnaryOperator.identity());
+        register(User.class, UnaryOperator.identity());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void register(Class<T> domainClass, UnaryOperator<List<T>> loader) {
+        loaders.put(domainClass, entities -> loader.apply((List<T>) entities));
+    }
+
+    Set<Class<?>> getDomainClasses() {
+        return loaders.keySet();
+    }
+
+    /**
+     * Get an indexed entity by its simple class name, as written in the outbox.
+     */
+    Optional<Class<?>> findDomainClass(String name) {
+        return loaders.keySet().stream().filter(domainClass -> domainClass.getSimpleName().equals(name)).findFirst();
+    }
+
+    /**
+     * Convert an id written as text to the type of the id of an entity.
+     */
+    Object parseId(Class<?> domainClass, String id) {
+        Class<?> idType = entityManager.getMetamodel().entity(domainClass).getIdType().getJavaType();
+        if (idType == Long.class) {
+            return Long.valueOf(id);
+        }
+        if (idType == Integer.class) {
+            return Integer.valueOf(id);
+        }
+        if (idType == UUID.class) {
+            return UUID.fromString(id);
+        }
+        return id;
+    }
+
+    /**
+     * Get the name of the index of an entity, which is an alias once the index has been rebuilt.
+     */
+    String indexName(Class<?> domainClass) {
+        return elasticsearchTemplate.getIndexCoordinatesFor(domainClass).getIndexName();
+    }
+
+    /**
+     * Read the time of the database, in microseconds, as the version of the documents of the rows read after it.
+     * <p>
+     * A row read later has a greater version, whichever node reads it, so indexing with external versions never replaces
+     * a document by the one of an older read of its row.
+     */
+    long readVersion() {
+        Object version = entityManager
+            .createNativeQuery("select cast(extract(epoch from clock_timestamp()) * 1000000 as bigint)")
+            .getSingleResult();
+        return ((Number) version).longValue();
+    }
+
+    long count(Class<?> domainClass) {
+        return entityManager.createQuery("select count(e) from " + entityName(domainClass) + " e", Long.class).getSingleResult();
+    }
+
+    /**
+     * Read the entities following an id, in id order.
+     */
+    <T> List<T> findAfter(Class<T> domainClass, Object lastId, int limit) {
+        String id = idName(domainClass);
+        String where = lastId != null ? " where e." + id + " > :lastId" : "";
+        TypedQuery<T> query = entityManager.createQuery(
+            "select e from " + entityName(domainClass) + " e" + where + " order by e." + id,
+            domainClass
+        );
+        if (lastId != null) {
+            query.setParameter("lastId", lastId);
+        }
+        return load(domainClass, query.setMaxResults(limit).getResultList());
+    }
+
+    /**
+     * Read the entities with the given ids, ignoring the ids which do not exist.
+     */
+    <T> List<T> findAllById(Class<T> domainClass, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<T> entities = entityManager
+            .createQuery("select e from " + entityName(domainClass) + " e where e." + idName(domainClass) + " in :ids", domainClass)
+            .setParameter("ids", ids)
+            .getResultList();
+        return load(domainClass, entities);
+    }
+
+    /**
+     * Read which of the given ids exist, without reading the entities.
+     */
+    List<Object> findExistingIds(Class<?> domainClass, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        String id = idName(domainClass);
+        return entityManager
+            .createQuery("select e." + id + " from " + entityName(domainClass) + " e where e." + id + " in :ids", Object.class)
+            .setParameter("ids", ids)
+            .getResultList();
+    }
+
+    Object identifier(Object entity) {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity);
+    }
+
+    IndexQuery toIndexQuery(Object entity) {
+        return new IndexQueryBuilder()
+            .withId(String.valueOf(identifier(entity)))
+            .withSource(elasticsearchTemplate.getElasticsearchConverter().mapObject(entity).toJson())
+            .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> load(Class<T> domainClass, List<T> entities) {
+        return entities.isEmpty() ? entities : (List<T>) loaders.get(domainClass).apply(entities);
+    }
+
+    private String entityName(Class<?> domainClass) {
+        return entityManager.getMetamodel().entity(domainClass).getName();
+    }
+
+    private String idName(Class<?> domainClass) {
+        EntityType<?> entityType = entityManager.getMetamodel().entity(domainClass);
+        return entityType.getId(entityType.getIdType().getJavaType()).getName();
+    }
+}
@@ -0,0 +1,182 @@
+package ma.fullstackclone.airbnb.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.enumeration.OutboxOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Queue of the search documents to write, fed by the {@link OutboxRelay} with the committed changes of the entities.
+ * <p>
+ * Changes are keyed by entity and id: the changes of an entity queued before the next flush, by any number of relayed
+ * batches, become a single write of its current row, and the last operation wins. The queue is flushed with
+ * {@code _bulk} requests by a dedicated thread, as soon as {@code batch-size} entities are queued or every
+ * {@code flush-interval}.
+ * <p>
+ * The queue does not retry: each change is completed once written, or failed, and its outbox events are then deleted or
+ * retried with a backoff by the relay. Changes still queued when the node stops are lost with it, their events being
+ * relayed again once their claim expires.
+ */
+@Component
+class SearchIndexQueue {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchIndexQueue.class);
+
+    public static final String DEPTH_METER_NAME = "search.indexing.queue.depth";
+    public static final String LAG_METER_NAME = "search.indexing.queue.lag";
+
+    private final SearchIndexWriter searchIndexWriter;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ApplicationProperties.Search.Indexing indexingProperties;
+
+    private final boolean enabled;
+
+    private final Map<Key, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private ScheduledExecutorService scheduler;
+
+    SearchIndexQueue(
+        SearchIndexWriter searchIndexWriter,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.searchIndexWriter = searchIndexWriter;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.indexingProperties = applicationProperties.getSearch().getIndexing();
+        this.enabled = applicationProperties.getOutbox().isEnabled();
+
+        Gauge.builder(DEPTH_METER_NAME, pending, Map::size)
+            .description("Number of entities waiting to be indexed")
+            .register(meterRegistry);
+        Gauge.builder(LAG_METER_NAME, this, SearchIndexQueue::lagSeconds)
+            .description("Time the oldest queued entity has been waiting to be indexed")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-indexing");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, indexingProperties.getFlushInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushDue, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Queue a change of an entity.
+     *
+     * @param domainClass the class of the entity.
+     * @param id the id of the entity.
+     * @param operation the operation, which replaces the queued one.
+     * @return completed once the entity is written, which may include later changes of it.
+     */
+    CompletableFuture<Void> enqueue(Class<?> domainClass, Object id, OutboxOperation operation) {
+        long now = System.currentTimeMillis();
+        Pending queued = pending.merge(
+            new Key(domainClass, id),
+            new Pending(operation, now, new CompletableFuture<>()),
+            (previous, next) -> new Pending(operation, previous.enqueuedAt(), previous.written())
+        );
+        if (pending.size() >= indexingProperties.getBatchSize() && scheduler != null && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushDue);
+        }
+        return queued.written();
+    }
+
+    /**
+     * Get the number of queued entities.
+     */
+    int size() {
+        return pending.size();
+    }
+
+    /**
+     * Write the queued entities, batch after batch, until the queue is drained.
+     */
+    void flushDue() {
+        flushRequested.set(false);
+        int batchSize = Math.max(1, indexingProperties.getBatchSize());
+        Map<Key, Pending> batch;
+        do {
+            batch = drain(batchSize);
+            Map<Class<?>, Map<Key, Pending>> byClass = new LinkedHashMap<>();
+            batch.forEach((key, value) -> byClass.computeIfAbsent(key.domainClass(), domainClass -> new LinkedHashMap<>()).put(key, value));
+            byClass.forEach(this::flush);
+        } while (batch.size() == batchSize);
+    }
+
+    private Map<Key, Pending> drain(int batchSize) {
+        Map<Key, Pending> batch = new LinkedHashMap<>();
+        for (Map.Entry<Key, Pending> entry : pending.entrySet()) {
+            if (batch.size() == batchSize) {
+                break;
+            }
+            // Not removed if changed again meanwhile, to be taken by the next batch
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return batch;
+    }
+
+    private void flush(Class<?> domainClass, Map<Key, Pending> entries) {
+        Map<Object, OutboxOperation> operations = new LinkedHashMap<>();
+        entries.forEach((key, value) -> operations.put(key.id(), value.operation()));
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> searchIndexWriter.write(domainClass, operations));
+        } catch (RuntimeException e) {
+            LOG.warn("Cannot index {} {} documents: {}", entries.size(), domainClass.getSimpleName(), e.getMessage());
+            entries.values().forEach(value -> value.written().completeExceptionally(e));
+            return;
+        }
+        entries.values().forEach(value -> value.written().complete(null));
+    }
+
+    private double lagSeconds() {
+        long oldest = pending.values().stream().mapToLong(Pending::enqueuedAt).min().orElse(System.currentTimeMillis());
+        return (System.currentTimeMillis() - oldest) / 1000.0;
+    }
+
+    private record Key(Class<?> domainClass, Object id) {}
+
+    /**
+     * @param enqueuedAt when the entity was first queued since its last flush, for the lag.
+     * @param written completed once the entity is written, shared by all its changes queued since its last flush.
+     */
+    private record Pending(OutboxOperation operation, long enqueuedAt, CompletableFuture<Void> written) {}
+}
@@ -0,0 +1,153 @@
+package ma.fullstackclone.airbnb.service;
+
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import ma.fullstackclone.airbnb.domain.enumeration.OutboxOperation;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the changes of entities to their Elasticsearch index, with one {@code _bulk} request for the saved entities and
+ * one for the deleted ones.
+ * <p>
+ * Saved entities are read from the database when written, so their documents are always the current state of the row,
+ * and an entity deleted since is removed from the index. Documents are written with an external version, the time of the
+ * database before the rows are read (see {@link SearchDocuments#readVersion()}): a write from an older read, relayed
+ * late by another node, is rejected by Elasticsearch and ignored. The changes are also written to the indices being
+ * rebuilt by the {@link SearchReindexService}, which are looked up before reading the rows: a rebuilt index then misses
+ * no change made after the rows were read for it.
+ */
+@Component
+class SearchIndexWriter {
+
+    public static final String DOCUMENTS_METER_NAME = "search.indexing.documents";
+
+    private final SearchDocuments searchDocuments;
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final Counter indexedCounter;
+
+    private final Counter deletedCounter;
+
+    SearchIndexWriter(SearchDocuments searchDocuments, ElasticsearchTemplate elasticsearchTemplate, MeterRegistry meterRegistry) {
+        this.searchDocuments = searchDocuments;
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.indexedCounter = documentsCounter(meterRegistry, OutboxOperation.SAVE);
+        this.deletedCounter = documentsCounter(meterRegistry, OutboxOperation.DELETE);
+    }
+
+    private static Counter documentsCounter(MeterRegistry meterRegistry, OutboxOperation operation) {
+        return Counter.builder(DOCUMENTS_METER_NAME)
+            .description("Number of documents written to the search indices")
+            .baseUnit("documents")
+            .tag("operation", operation.name().toLowerCase())
+            .register(meterRegistry);
+    }
+
+    /**
+     * Write the last change of each entity of a type.
+     * <p>
+     * Must be called in a transaction, the saved entities being converted while attached.
+     *
+     * @param domainClass the type of the entities.
+     * @param operations the last operation by entity id.
+     */
+    void write(Class<?> domainClass, Map<Object, OutboxOperation> operations) {
+        String alias = searchDocuments.indexName(domainClass);
+        List<IndexCoordinates> targets = new ArrayList<>();
+        targets.add(IndexCoordinates.of(alias));
+        SearchReindexService.findRebuiltIndices(elasticsearchTemplate, alias).forEach(index -> targets.add(IndexCoordinates.of(index)));
+
+        Set<Object> savedIds = new HashSet<>();
+        Set<String> deletedIds = new HashSet<>();
+        operations.forEach((id, operation) -> {
+            if (operation == OutboxOperation.SAVE) {
+                savedIds.add(id);
+            } else {
+                deletedIds.add(String.valueOf(id));
+            }
+        });
+
+        long version = searchDocuments.readVersion();
+        List<IndexQuery> queries = searchDocuments
+            .findAllById(domainClass, savedIds)
+            .stream()
+            .map(searchDocuments::toIndexQuery)
+            .toList();
+        queries.forEach(query -> query.setVersion(version));
+        if (queries.size() < savedIds.size()) {
+            // Deleted since they were saved
+            Set<String> foundIds = new HashSet<>();
+            queries.forEach(query -> foundIds.add(query.getId()));
+            savedIds.stream().map(String::valueOf).filter(id -> !foundIds.contains(id)).forEach(deletedIds::add);
+        }
+
+        for (IndexCoordinates coordinates : targets) {
+            if (!queries.isEmpty()) {
+                indexAll(elasticsearchTemplate, queries, coordinates);
+            }
+            if (!deletedIds.isEmpty()) {
+                deleteAll(deletedIds, version, coordinates);
+            }
+        }
+        indexedCounter.increment(queries.size());
+        deletedCounter.increment(deletedIds.size());
+    }
+
+    /**
+     * Index documents, ignoring the ones rejected because the index already has a more recent version of them.
+     *
+     * @param elasticsearchTemplate the template.
+     * @param queries the documents, with their external version.
+     * @param coordinates the index.
+     */
+    static void indexAll(ElasticsearchTemplate elasticsearchTemplate, List<IndexQuery> queries, IndexCoordinates coordinates) {
+        try {
+            elasticsearchTemplate.bulkIndex(queries, coordinates);
+        } catch (BulkFailureException e) {
+            boolean conflictsOnly = e
+                .getFailedDocuments()
+                .values()
+                .stream()
+                .allMatch(failure -> failure.status() != null && failure.status() == HttpStatus.CONFLICT.value());
+            if (!conflictsOnly) {
+                throw e;
+            }
+        }
+    }
+
+    private void deleteAll(Set<String> ids, long version, IndexCoordinates coordinates) {
+        String index = coordinates.getIndexName();
+        BulkRequest.Builder request = new BulkRequest.Builder();
+        ids.forEach(id ->
+            request.operations(operation ->
+                operation.delete(delete -> delete.index(index).id(id).version(version).versionType(VersionType.External))
+            )
+        );
+        BulkResponse response = elasticsearchTemplate.execute(client -> client.bulk(request.build()));
+        Map<String, BulkFailureException.FailureDetails> failures = new HashMap<>();
+        for (BulkResponseItem item : response.items()) {
+            if (item.error() != null && item.status() != HttpStatus.CONFLICT.value()) {
+                failures.put(item.id(), new BulkFailureException.FailureDetails(item.status(), item.error().reason()));
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new BulkFailureException("Bulk delete has failures: " + failures, failures);
+        }
+    }
+}
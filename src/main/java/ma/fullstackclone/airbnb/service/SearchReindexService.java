@@ -0,0 +1,385 @@
+package ma.fullstackclone.airbnb.service;
+
+import jakarta.persistence.EntityManager;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.management.SearchReindexMetersService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.DeleteQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilter;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service rebuilding the Elasticsearch indices from the database.
+ * <p>
+ * Each index is rebuilt into a new timestamped index ({@code property-20261018093000}), then the name of the index
+ * becomes an alias of the new index and the previous indices are deleted, in a single atomic alias update: searches keep
+ * using the previous index until the swap. Rows are read by chunks of consecutive ids in one read-only transaction,
+ * converted to documents, and sent with the {@code _bulk} API; up to {@code reindex-parallelism} bulk requests run while
+ * the next chunks are read.
+ * <p>
+ * Changes relayed from the outbox while a rebuild runs are written to the new index as well as to the previous one, by
+ * the relays of every node, which look the rebuilt indices up in Elasticsearch. The chunks are versioned like the relayed
+ * documents (see {@link SearchDocuments#readVersion()}), so they never replace a document written by a relay from a more
+ * recent read of its row, and once they are all sent, the documents of the rows deleted since are removed, as a relayed
+ * deletion may have come before the chunk of its row.
+ */
+@Service
+public class SearchReindexService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private static final DateTimeFormatter INDEX_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final ElasticsearchTemplate elasticsearchTemplate;
+
+    private final SearchDocuments searchDocuments;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Executor taskExecutor;
+
+    private final SearchReindexMetersService searchReindexMetersService;
+
+    private final ApplicationProperties.Search searchProperties;
+
+    private final Map<String, Class<?>> domainClasses = new LinkedHashMap<>();
+
+    private volatile Map<String, IndexJob> jobs = Map.of();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SearchReindexService(
+        ElasticsearchTemplate elasticsearchTemplate,
+        SearchDocuments searchDocuments,
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("taskExecutor") Executor taskExecutor,
+        SearchReindexMetersService searchReindexMetersService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.searchDocuments = searchDocuments;
+        this.entityManager = entityManager;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.searchReindexMetersService = searchReindexMetersService;
+        this.searchProperties = applicationProperties.getSearch();
+        searchDocuments.getDomainClasses().forEach(domainClass -> domainClasses.put(searchDocuments.indexName(domainClass), domainClass));
+    }
+
+    /**
+     * Get the names of the indices which can be rebuilt.
+     *
+     * @return the names, which are also the names of the aliases searched.
+     */
+    public Set<String> getIndices() {
+        return domainClasses.keySet();
+    }
+
+    /**
+     * Start rebuilding indices in the background.
+     *
+     * @param indices the names of the indices to rebuild, all of them if empty.
+     * @return {@code false} if a rebuild is already running, in which case nothing is started.
+     * @throws IllegalArgumentException if an index is unknown.
+     */
+    public boolean reindex(Collection<String> indices) {
+        List<String> selected = new ArrayList<>(indices.isEmpty() ? domainClasses.keySet() : indices);
+        for (String index : selected) {
+            if (!domainClasses.containsKey(index)) {
+                throw new IllegalArgumentException("Unknown index " + index);
+            }
+        }
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Map<String, IndexJob> selectedJobs = new LinkedHashMap<>();
+        selected.forEach(index -> selectedJobs.put(index, new IndexJob(index)));
+        jobs = selectedJobs;
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    selected.forEach(index -> reindex(index, domainClasses.get(index)));
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Get the progress of the last rebuild.
+     *
+     * @return the status of each index of the last rebuild, in rebuild order.
+     */
+    public List<IndexStatus> getStatus() {
+        return jobs.values().stream().map(IndexJob::toStatus).toList();
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    private void reindex(String alias, Class<?> domainClass) {
+        IndexJob job = jobs.get(alias);
+        long start = System.nanoTime();
+        String index = alias + "-" + INDEX_SUFFIX_FORMAT.format(Instant.now());
+        IndexOperations indexOperations = elasticsearchTemplate.indexOps(IndexCoordinates.of(index));
+        boolean success = false;
+        try {
+            indexOperations.create(indexOperations.createSettings(domainClass), indexOperations.createMapping(domainClass));
+            long total = readOnlyTransactionTemplate.execute(status -> searchDocuments.count(domainClass));
+            job.started(index, total);
+            searchReindexMetersService.trackStarted(alias, total);
+            LOG.info("Rebuilding the {} index into {}: {} documents", alias, index, total);
+
+            indexAll(alias, index, domainClass, job);
+            indexOperations.refresh();
+            removeDeleted(domainClass, IndexCoordinates.of(index));
+            indexOperations.refresh();
+            swapAlias(alias, index);
+            success = true;
+            job.finished(null);
+            long millis = Math.max(1, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            LOG.info("Rebuilt the {} index in {} ms ({} documents/s)", alias, millis, job.indexed.get() * 1000 / millis);
+        } catch (RuntimeException e) {
+            LOG.error("Rebuild of the {} index failed", alias, e);
+            job.finished(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+            if (indexOperations.exists()) {
+                indexOperations.delete();
+            }
+        } finally {
+            searchReindexMetersService.trackFinished(alias, Duration.ofNanos(System.nanoTime() - start), success);
+        }
+    }
+
+    private <T> void indexAll(String alias, String index, Class<T> domainClass, IndexJob job) {
+        int batchSize = Math.max(1, searchProperties.getReindexBatchSize());
+        int parallelism = Math.max(1, searchProperties.getReindexParallelism());
+        IndexCoordinates coordinates = IndexCoordinates.of(index);
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        ExecutorService bulkExecutor = Executors.newFixedThreadPool(parallelism);
+        try {
+            readOnlyTransactionTemplate.executeWithoutResult(status -> {
+                Object lastId = null;
+                List<T> chunk;
+                do {
+                    long version = searchDocuments.readVersion();
+                    chunk = searchDocuments.findAfter(domainClass, lastId, batchSize);
+                    if (chunk.isEmpty()) {
+                        break;
+                    }
+                    List<IndexQuery> queries = chunk.stream().map(searchDocuments::toIndexQuery).toList();
+                    queries.forEach(query -> query.setVersion(version));
+                    lastId = searchDocuments.identifier(chunk.get(chunk.size() - 1));
+                    entityManager.clear();
+
+                    inFlight.acquireUninterruptibly();
+                    if (failure.get() != null) {
+                        inFlight.release();
+                        break;
+                    }
+                    bulkExecutor.execute(() -> {
+                        try {
+                            SearchIndexWriter.indexAll(elasticsearchTemplate, queries, coordinates);
+                            job.indexed.addAndGet(queries.size());
+                            searchReindexMetersService.trackIndexed(alias, queries.size());
+                        } catch (RuntimeException e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                } while (chunk.size() == batchSize);
+            });
+            inFlight.acquireUninterruptibly(parallelism);
+        } finally {
+            bulkExecutor.shutdown();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Remove the documents of the rows which no longer exist, reading the ids of the index by chunks.
+     */
+    private <T> void removeDeleted(Class<T> domainClass, IndexCoordinates coordinates) {
+        int batchSize = Math.max(1, searchProperties.getReindexBatchSize());
+        Query query = NativeQuery.builder()
+            .withQuery(q -> q.matchAll(m -> m))
+            .withSourceFilter(new FetchSourceFilter(new String[0], new String[] { "*" }))
+            .withPageable(PageRequest.of(0, batchSize))
+            .build();
+        long removed = 0;
+        try (SearchHitsIterator<T> hits = elasticsearchTemplate.searchForStream(query, domainClass, coordinates)) {
+            List<String> ids = new ArrayList<>();
+            while (hits.hasNext()) {
+                ids.add(hits.next().getId());
+                if (ids.size() == batchSize || !hits.hasNext()) {
+                    removed += removeMissing(domainClass, ids, coordinates);
+                    ids.clear();
+                }
+            }
+        }
+        LOG.debug("Removed {} documents deleted during the rebuild from {}", removed, coordinates.getIndexName());
+    }
+
+    private int removeMissing(Class<?> domainClass, List<String> ids, IndexCoordinates coordinates) {
+        List<Object> existingIds = readOnlyTransactionTemplate.execute(status ->
+            searchDocuments.findExistingIds(domainClass, ids.stream().map(id -> searchDocuments.parseId(domainClass, id)).toList())
+        );
+        Set<String> existing = new HashSet<>();
+        existingIds.forEach(id -> existing.add(String.valueOf(id)));
+        List<String> missing = ids.stream().filter(id -> !existing.contains(id)).toList();
+        if (!missing.isEmpty()) {
+            NativeQuery idsQuery = NativeQuery.builder().withIds(missing).build();
+            elasticsearchTemplate.delete(DeleteQuery.builder(idsQuery).build(), domainClass, coordinates);
+        }
+        return missing.size();
+    }
+
+    /**
+     * Find the indices rebuilt for an alias which have not replaced its index yet.
+     *
+     * @param elasticsearchTemplate the template.
+     * @param alias the name of the index searched.
+     * @return the names of the rebuilt indices.
+     */
+    static List<String> findRebuiltIndices(ElasticsearchTemplate elasticsearchTemplate, String alias) {
+        Pattern rebuiltName = Pattern.compile(Pattern.quote(alias) + "-\\d{14}");
+        return elasticsearchTemplate
+            .indexOps(IndexCoordinates.of(alias + "-*"))
+            .getInformation()
+            .stream()
+            .filter(information -> rebuiltName.matcher(information.getName()).matches())
+            .filter(information -> information.getAliases().stream().noneMatch(aliasData -> alias.equals(aliasData.getAlias())))
+            .map(IndexInformation::getName)
+            .toList();
+    }
+
+    private void swapAlias(String alias, String index) {
+        IndexOperations aliasOperations = elasticsearchTemplate.indexOps(IndexCoordinates.of(alias));
+        List<AliasAction> actions = new ArrayList<>();
+        if (aliasOperations.exists()) {
+            // The alias name may still be a concrete index, created before the first rebuild
+            for (IndexInformation information : aliasOperations.getInformation()) {
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(information.getName()).build()));
+            }
+        }
+        // Left by a failed rebuild, or created again by a relay writing to it after it was deleted
+        for (String staleIndex : findRebuiltIndices(elasticsearchTemplate, alias)) {
+            if (!staleIndex.equals(index)) {
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(staleIndex).build()));
+            }
+        }
+        actions.add(new AliasAction.Add(AliasActionParameters.builder().withIndices(index).withAliases(alias).build()));
+        aliasOperations.alias(new AliasActions(actions.toArray(AliasAction[]::new)));
+    }
+
+    /**
+     * Progress of the rebuild of an index.
+     *
+     * @param index the name of the rebuilt index, which is the alias searched.
+     * @param state the state of the rebuild.
+     * @param targetIndex the new index the documents are written to.
+     * @param total the number of rows to index.
+     * @param indexed the number of documents indexed so far.
+     * @param startedAt when the rebuild of the index started.
+     * @param finishedAt when the rebuild of the index finished.
+     * @param error the cause of the failure of the rebuild.
+     */
+    public record IndexStatus(
+        String index,
+        State state,
+        String targetIndex,
+        long total,
+        long indexed,
+        Instant startedAt,
+        Instant finishedAt,
+        String error
+    ) {}
+
+    public enum State {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+    }
+
+    private static final class IndexJob {
+
+        private final String index;
+        private final AtomicLong indexed = new AtomicLong();
+        private volatile State state = State.PENDING;
+        private volatile String targetIndex;
+        private volatile long total;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private IndexJob(String index) {
+            this.index = index;
+        }
+
+        private void started(String targetIndex, long total) {
+            this.targetIndex = targetIndex;
+            this.total = total;
+            this.startedAt = Instant.now();
+            this.state = State.RUNNING;
+        }
+
+        private void finished(String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = error == null ? State.COMPLETED : State.FAILED;
+        }
+
+        private IndexStatus toStatus() {
+            return new IndexStatus(index, state, targetIndex, total, indexed.get(), startedAt, finishedAt, error);
+        }
+    }
+}
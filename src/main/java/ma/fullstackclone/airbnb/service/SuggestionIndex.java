@@ -0,0 +1,206 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO;
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO.Type;
+
+/**
+ * In-memory prefix index of the names suggested by the search box.
+ * <p>
+ * Names are normalized (lower case, without accents or punctuation) and indexed in a sorted map under the whole name
+ * and under each of its word starts, so {@code "york"} finds {@code "New York"}. The names starting with a prefix are
+ * then one contiguous range of the map, found in logarithmic time. Names starting with the prefix as a whole come
+ * first, then by {@link Type}, the shortest first.
+ * <p>
+ * The range of a prefix of one or two letters holds a large part of the names: the best suggestions of such a prefix are
+ * kept once ranked, until a name having a word starting with it is written.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class SuggestionIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Length up to which the best suggestions of a prefix are kept.
+     */
+    static final int SHORT_PREFIX_LENGTH = 2;
+
+    /**
+     * Number of suggestions kept for a short prefix, the largest limit served from them.
+     */
+    static final int SHORT_PREFIX_SUGGESTIONS = 20;
+
+    private final Map<Ref, Entry> entries = new HashMap<>();
+
+    private final NavigableMap<String, Set<Ref>> refsByTerm = new TreeMap<>();
+
+    /**
+     * The best suggestions of the short prefixes, ranked, each removed under the write lock when one of them may change.
+     */
+    private final Map<String, List<Entry>> bestByShortPrefix = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private record Ref(Type type, Long id) {}
+
+    private record Entry(Ref ref, String text, String name, Set<String> terms) {}
+
+    /**
+     * Index the name of an entity, in place of its previous one; a blank name removes it.
+     *
+     * @param type the type of the entity.
+     * @param id the id of the entity.
+     * @param text the name of the entity.
+     */
+    public void put(Type type, Long id, String text) {
+        Ref ref = new Ref(type, id);
+        String name = text != null ? normalize(text) : "";
+        if (name.isEmpty()) {
+            remove(type, id);
+            return;
+        }
+        Set<String> terms = new HashSet<>();
+        terms.add(name);
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+            terms.add(name.substring(i + 1));
+        }
+        Entry entry = new Entry(ref, text.strip(), name, terms);
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(ref);
+            entries.put(ref, entry);
+            terms.forEach(term -> refsByTerm.computeIfAbsent(term, key -> new HashSet<>()).add(ref));
+            evictShortPrefixes(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Type type, Long id) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(new Ref(type, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suggest the names having a word starting with a prefix, the most relevant first.
+     *
+     * @param prefix the prefix typed.
+     * @param limit the maximum number of suggestions.
+     * @return the suggestions.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        String normalized = prefix != null ? normalize(prefix) : "";
+        if (normalized.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<Entry> ranked;
+        lock.readLock().lock();
+        try {
+            // kept under the read lock, so no write can evict them before they are
+            ranked = normalized.length() <= SHORT_PREFIX_LENGTH && limit <= SHORT_PREFIX_SUGGESTIONS
+                ? bestByShortPrefix.computeIfAbsent(normalized, key -> rank(key, SHORT_PREFIX_SUGGESTIONS))
+                : rank(normalized, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranked
+            .stream()
+            .limit(limit)
+            .map(entry -> new SuggestionDTO(entry.ref().type(), entry.ref().id(), entry.text()))
+            .toList();
+    }
+
+    /**
+     * Rank the names having a word starting with a normalized prefix, under the read lock.
+     */
+    private List<Entry> rank(String normalized, int limit) {
+        Comparator<Entry> relevance = Comparator.<Entry, Boolean>comparing(entry -> !entry.name().startsWith(normalized))
+            .thenComparing(entry -> entry.ref().type())
+            .thenComparingInt(entry -> entry.name().length())
+            .thenComparing(Entry::name)
+            .thenComparing(entry -> entry.ref().id());
+        // the least relevant of the best entries found so far on top, to be replaced by a better one
+        PriorityQueue<Entry> best = new PriorityQueue<>(limit + 1, relevance.reversed());
+        Set<Ref> seen = new HashSet<>();
+        for (Set<Ref> refs : refsByTerm.subMap(normalized, true, normalized + Character.MAX_VALUE, false).values()) {
+            for (Ref ref : refs) {
+                if (seen.add(ref)) {
+                    best.add(entries.get(ref));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        List<Entry> ranked = new ArrayList<>(best);
+        ranked.sort(relevance);
+        return List.copyOf(ranked);
+    }
+
+    /**
+     * Forget the best suggestions of the short prefixes of the words of an entry, under the write lock.
+     */
+    private void evictShortPrefixes(Entry entry) {
+        for (String term : entry.terms()) {
+            for (int length = 1; length <= Math.min(SHORT_PREFIX_LENGTH, term.length()); length++) {
+                bestByShortPrefix.remove(term.substring(0, length));
+            }
+        }
+    }
+
+    private void removeUnlocked(Ref ref) {
+        Entry entry = entries.remove(ref);
+        if (entry == null) {
+            return;
+        }
+        evictShortPrefixes(entry);
+        for (String term : entry.terms()) {
+            Set<Ref> refs = refsByTerm.get(term);
+            if (refs != null) {
+                refs.remove(ref);
+                if (refs.isEmpty()) {
+                    refsByTerm.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower case, without accents, words separated by single spaces.
+     */
+    static String normalize(String text) {
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+}
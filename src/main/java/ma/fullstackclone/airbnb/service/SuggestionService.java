@@ -0,0 +1,197 @@
+package ma.fullstackclone.airbnb.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.domain.City;
+import ma.fullstackclone.airbnb.domain.Country;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.repository.CityRepository;
+import ma.fullstackclone.airbnb.repository.CountryRepository;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO;
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Service suggesting cities, countries and active properties to the search box, by the start of any word of their name
+ * or title, from a {@link SuggestionIndex}.
+ * <p>
+ * The index is loaded from the database when the application starts, then each entry is updated once the transaction
+ * writing its entity commits: right away on this node, and from the database on the other nodes, told by the
+ * {@link CacheInvalidationService}.
+ */
+@Service
+public class SuggestionService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SuggestionService.class);
+
+    /**
+     * The name of the suggestion index for the {@link CacheInvalidationService}, keyed by {@code TYPE:id}.
+     */
+    public static final String SUGGESTIONS_CACHE = "suggestions";
+
+    private final CityRepository cityRepository;
+
+    private final CountryRepository countryRepository;
+
+    private final PropertyRepository propertyRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
+    private volatile SuggestionIndex suggestionIndex;
+
+    /**
+     * Incremented by each entity written, so that an index loaded meanwhile, which may miss it, is not kept.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    public SuggestionService(
+        CityRepository cityRepository,
+        CountryRepository countryRepository,
+        PropertyRepository propertyRepository,
+        PlatformTransactionManager transactionManager,
+        CacheInvalidationService cacheInvalidationService
+    ) {
+        this.cityRepository = cityRepository;
+        this.countryRepository = countryRepository;
+        this.propertyRepository = propertyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.cacheInvalidationService = cacheInvalidationService;
+        cacheInvalidationService.register(SUGGESTIONS_CACHE, this::reload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getSuggestionIndex();
+        } catch (RuntimeException e) {
+            LOG.warn("Could not preload the suggestions, they will be loaded on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Suggest the cities, countries and properties having a word of their name starting with a prefix.
+     *
+     * @param prefix the prefix typed.
+     * @param limit the maximum number of suggestions.
+     * @return the suggestions, whole-name matches first, then cities, countries and properties, the shortest first.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        LOG.debug("Request to suggest {} names starting with {}", limit, prefix);
+        return getSuggestionIndex().suggest(prefix, limit);
+    }
+
+    public void onCitySaved(City city) {
+        onSaved(Type.CITY, city.getId(), city.getName());
+    }
+
+    public void onCityDeleted(Long id) {
+        onSaved(Type.CITY, id, null);
+    }
+
+    public void onCountrySaved(Country country) {
+        onSaved(Type.COUNTRY, country.getId(), country.getName());
+    }
+
+    public void onCountryDeleted(Long id) {
+        onSaved(Type.COUNTRY, id, null);
+    }
+
+    /**
+     * Reflect a saved property in the suggestions once the current transaction commits: only active properties are
+     * suggested.
+     *
+     * @param property the saved property.
+     */
+    public void onPropertySaved(Property property) {
+        onSaved(Type.PROPERTY, property.getId(), Boolean.TRUE.equals(property.getIsActive()) ? property.getTitle() : null);
+    }
+
+    public void onPropertyDeleted(Long id) {
+        onSaved(Type.PROPERTY, id, null);
+    }
+
+    /**
+     * Index the new name of an entity, or remove it when {@code null}, once the current transaction commits.
+     */
+    private void onSaved(Type type, Long id, String text) {
+        TransactionHooks.afterCommit(() -> {
+            SuggestionIndex index = written();
+            if (index != null) {
+                index.put(type, id, text);
+            }
+        });
+        cacheInvalidationService.evictOnOtherNodes(SUGGESTIONS_CACHE, type + ":" + id);
+    }
+
+    /**
+     * Reload an entry written by another node from the database.
+     *
+     * @param key the entry, as {@code TYPE:id}.
+     */
+    private void reload(String key) {
+        SuggestionIndex index = written();
+        if (index == null) {
+            return;
+        }
+        int separator = key.indexOf(':');
+        Type type = Type.valueOf(key.substring(0, separator));
+        Long id = Long.valueOf(key.substring(separator + 1));
+        // projections: the entity may still be in the second-level cache of this node
+        String text = transactionTemplate.execute(status ->
+            switch (type) {
+                case CITY -> cityRepository.findNameById(id).orElse(null);
+                case COUNTRY -> countryRepository.findNameById(id).orElse(null);
+                case PROPERTY -> propertyRepository.findActiveTitleById(id).orElse(null);
+            }
+        );
+        index.put(type, id, text);
+    }
+
+    /**
+     * Record a committed write of an entity, before reading the index to update: either the write sees the index being
+     * loaded, or the load sees the write.
+     */
+    private SuggestionIndex written() {
+        generation.incrementAndGet();
+        return suggestionIndex;
+    }
+
+    private SuggestionIndex getSuggestionIndex() {
+        SuggestionIndex index = suggestionIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = suggestionIndex;
+                if (index == null) {
+                    long loadGeneration = generation.get();
+                    index = Objects.requireNonNull(transactionTemplate.execute(status -> load()));
+                    LOG.debug("Loaded {} names in the suggestion index", index.size());
+                    suggestionIndex = index;
+                    // a name written while loading may be missing: serve the suggestions read, but reload on the next ones
+                    if (generation.get() != loadGeneration) {
+                        suggestionIndex = null;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    private SuggestionIndex load() {
+        SuggestionIndex index = new SuggestionIndex();
+        countryRepository.findAll().forEach(country -> index.put(Type.COUNTRY, country.getId(), country.getName()));
+        cityRepository.findAll().forEach(city -> index.put(Type.CITY, city.getId(), city.getName()));
+        propertyRepository.findAllActiveTitles().forEach(title -> index.put(Type.PROPERTY, title.getId(), title.getTitle()));
+        return index;
+    }
+}
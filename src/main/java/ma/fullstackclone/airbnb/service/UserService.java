@@ -9,7 +9,6 @@ import ma.fullstackclone.airbnb.domain.Authority;
 import ma.fullstackclone.airbnb.domain.User;
 import ma.fullstackclone.airbnb.repository.AuthorityRepository;
 import ma.fullstackclone.airbnb.repository.UserRepository;
-import ma.fullstackclone.airbnb.repository.search.UserSearchRepository;
 import ma.fullstackclone.airbnb.security.AuthoritiesConstants;
 import ma.fullstackclone.airbnb.security.SecurityUtils;
 import ma.fullstackclone.airbnb.service.dto.AdminUserDTO;
@@ -38,24 +37,30 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final UserSearchRepository userSearchRepository;
+    private final OutboxService outboxService;
 
     private final AuthorityRepository authorityRepository;
 
     private final CacheManager cacheManager;
 
+    private final CacheInvalidationService cacheInvalidationService;
+
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
-        UserSearchRepository userSearchRepository,
+        OutboxService outboxService,
         AuthorityRepository authorityRepository,
-        CacheManager cacheManager
+        CacheManager cacheManager,
+        CacheInvalidationService cacheInvalidationService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userSearchRepository = userSearchRepository;
+        this.outboxService = outboxService;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        cacheInvalidationService.register(UserRepository.USERS_BY_LOGIN_CACHE, login -> evict(UserRepository.USERS_BY_LOGIN_CACHE, login));
+        cacheInvalidationService.register(UserRepository.USERS_BY_EMAIL_CACHE, email -> evict(UserRepository.USERS_BY_EMAIL_CACHE, email));
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -66,7 +71,7 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                userSearchRepository.save(user);
+                outboxService.saved(User.class, user.getId());
                 this.clearUserCaches(user);
                 LOG.debug("Activated user: {}", user);
                 return user;
@@ -136,7 +141,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        outboxService.saved(User.class, newUser.getId());
         this.clearUserCaches(newUser);
         LOG.debug("Created Information for User: {}", newUser);
         return newUser;
@@ -182,7 +187,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
-        userSearchRepository.index(user);
+        outboxService.saved(User.class, user.getId());
         this.clearUserCaches(user);
         LOG.debug("Created Information for User: {}", user);
         return user;
@@ -219,7 +224,7 @@ public class UserService {
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
                 userRepository.save(user);
-                userSearchRepository.index(user);
+                outboxService.saved(User.class, user.getId());
                 this.clearUserCaches(user);
                 LOG.debug("Changed Information for User: {}", user);
                 return user;
@@ -232,7 +237,7 @@ public class UserService {
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
-                userSearchRepository.deleteFromIndex(user);
+                outboxService.deleted(User.class, user.getId());
                 this.clearUserCaches(user);
                 LOG.debug("Deleted User: {}", user);
             });
@@ -259,7 +264,7 @@ public class UserService {
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
                 userRepository.save(user);
-                userSearchRepository.index(user);
+                outboxService.saved(User.class, user.getId());
                 this.clearUserCaches(user);
                 LOG.debug("Changed Information for User: {}", user);
             });
@@ -313,7 +318,7 @@ public class UserService {
             .forEach(user -> {
                 LOG.debug("Deleting not activated user {}", user.getLogin());
                 userRepository.delete(user);
-                userSearchRepository.deleteFromIndex(user);
+                outboxService.deleted(User.class, user.getId());
                 this.clearUserCaches(user);
             });
     }
@@ -328,9 +333,15 @@ public class UserService {
     }
 
     private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        evict(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
+        cacheInvalidationService.evictOnOtherNodes(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
         if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            evict(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
+            cacheInvalidationService.evictOnOtherNodes(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
         }
     }
+
+    private void evict(String cacheName, String key) {
+        Objects.requireNonNull(cacheManager.getCache(cacheName)).evict(key);
+    }
 }
@@ -1,6 +1,7 @@
 package ma.fullstackclone.airbnb.service.criteria;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
 import org.springdoc.core.annotations.ParameterObject;
@@ -54,6 +55,10 @@ public class PropertyCriteria implements Serializable, Criteria {
 
     private BooleanFilter isActive;
 
+    private IntegerFilter reviewCount;
+
+    private BigDecimalFilter averageRating;
+
     private LongFilter hostId;
 
     private LongFilter cityId;
@@ -62,6 +67,10 @@ public class PropertyCriteria implements Serializable, Criteria {
 
     private LongFilter categoriesId;
 
+    private Instant availableFrom;
+
+    private Instant availableTo;
+
     private Boolean distinct;
 
     public PropertyCriteria() {}
@@ -83,10 +92,14 @@ public class PropertyCriteria implements Serializable, Criteria {
         this.minimumStay = other.optionalMinimumStay().map(IntegerFilter::copy).orElse(null);
         this.cancellationPolicy = other.optionalCancellationPolicy().map(StringFilter::copy).orElse(null);
         this.isActive = other.optionalIsActive().map(BooleanFilter::copy).orElse(null);
+        this.reviewCount = other.optionalReviewCount().map(IntegerFilter::copy).orElse(null);
+        this.averageRating = other.optionalAverageRating().map(BigDecimalFilter::copy).orElse(null);
         this.hostId = other.optionalHostId().map(LongFilter::copy).orElse(null);
         this.cityId = other.optionalCityId().map(LongFilter::copy).orElse(null);
         this.amenitiesId = other.optionalAmenitiesId().map(LongFilter::copy).orElse(null);
         this.categoriesId = other.optionalCategoriesId().map(LongFilter::copy).orElse(null);
+        this.availableFrom = other.availableFrom;
+        this.availableTo = other.availableTo;
         this.distinct = other.distinct;
     }
 
@@ -399,6 +412,44 @@ public class PropertyCriteria implements Serializable, Criteria {
         this.isActive = isActive;
     }
 
+    public IntegerFilter getReviewCount() {
+        return reviewCount;
+    }
+
+    public Optional<IntegerFilter> optionalReviewCount() {
+        return Optional.ofNullable(reviewCount);
+    }
+
+    public IntegerFilter reviewCount() {
+        if (reviewCount == null) {
+            setReviewCount(new IntegerFilter());
+        }
+        return reviewCount;
+    }
+
+    public void setReviewCount(IntegerFilter reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public BigDecimalFilter getAverageRating() {
+        return averageRating;
+    }
+
+    public Optional<BigDecimalFilter> optionalAverageRating() {
+        return Optional.ofNullable(averageRating);
+    }
+
+    public BigDecimalFilter averageRating() {
+        if (averageRating == null) {
+            setAverageRating(new BigDecimalFilter());
+        }
+        return averageRating;
+    }
+
+    public void setAverageRating(BigDecimalFilter averageRating) {
+        this.averageRating = averageRating;
+    }
+
     public LongFilter getHostId() {
         return hostId;
     }
@@ -475,6 +526,47 @@ public class PropertyCriteria implements Serializable, Criteria {
         this.categoriesId = categoriesId;
     }
 
+    /**
+     * Requested check-in: only properties without a pending or confirmed booking overlapping
+     * {@code [availableFrom, availableTo)} match.
+     */
+    public Instant getAvailableFrom() {
+        return availableFrom;
+    }
+
+    public Optional<Instant> optionalAvailableFrom() {
+        return Optional.ofNullable(availableFrom);
+    }
+
+    public PropertyCriteria availableFrom(Instant availableFrom) {
+        setAvailableFrom(availableFrom);
+        return this;
+    }
+
+    public void setAvailableFrom(Instant availableFrom) {
+        this.availableFrom = availableFrom;
+    }
+
+    /**
+     * Requested check-out (exclusive), see {@link #getAvailableFrom()}.
+     */
+    public Instant getAvailableTo() {
+        return availableTo;
+    }
+
+    public Optional<Instant> optionalAvailableTo() {
+        return Optional.ofNullable(availableTo);
+    }
+
+    public PropertyCriteria availableTo(Instant availableTo) {
+        setAvailableTo(availableTo);
+        return this;
+    }
+
+    public void setAvailableTo(Instant availableTo) {
+        this.availableTo = availableTo;
+    }
+
     public Boolean getDistinct() {
         return distinct;
     }
@@ -520,10 +612,14 @@ public class PropertyCriteria implements Serializable, Criteria {
             Objects.equals(minimumStay, that.minimumStay) &&
             Objects.equals(cancellationPolicy, that.cancellationPolicy) &&
             Objects.equals(isActive, that.isActive) &&
+            Objects.equals(reviewCount, that.reviewCount) &&
+            Objects.equals(averageRating, that.averageRating) &&
             Objects.equals(hostId, that.hostId) &&
             Objects.equals(cityId, that.cityId) &&
             Objects.equals(amenitiesId, that.amenitiesId) &&
             Objects.equals(categoriesId, that.categoriesId) &&
+            Objects.equals(availableFrom, that.availableFrom) &&
+            Objects.equals(availableTo, that.availableTo) &&
             Objects.equals(distinct, that.distinct)
         );
     }
@@ -547,10 +643,14 @@ public class PropertyCriteria implements Serializable, Criteria {
             minimumStay,
             cancellationPolicy,
             isActive,
+            reviewCount,
+            averageRating,
             hostId,
             cityId,
             amenitiesId,
             categoriesId,
+            availableFrom,
+            availableTo,
             distinct
         );
     }
@@ -575,10 +675,14 @@ public class PropertyCriteria implements Serializable, Criteria {
             optionalMinimumStay().map(f -> "minimumStay=" + f + ", ").orElse("") +
             optionalCancellationPolicy().map(f -> "cancellationPolicy=" + f + ", ").orElse("") +
             optionalIsActive().map(f -> "isActive=" + f + ", ").orElse("") +
+            optionalReviewCount().map(f -> "reviewCount=" + f + ", ").orElse("") +
+            optionalAverageRating().map(f -> "averageRating=" + f + ", ").orElse("") +
             optionalHostId().map(f -> "hostId=" + f + ", ").orElse("") +
             optionalCityId().map(f -> "cityId=" + f + ", ").orElse("") +
             optionalAmenitiesId().map(f -> "amenitiesId=" + f + ", ").orElse("") +
             optionalCategoriesId().map(f -> "categoriesId=" + f + ", ").orElse("") +
+            optionalAvailableFrom().map(f -> "availableFrom=" + f + ", ").orElse("") +
+            optionalAvailableTo().map(f -> "availableTo=" + f + ", ").orElse("") +
             optionalDistinct().map(f -> "distinct=" + f + ", ").orElse("") +
         "}";
     }
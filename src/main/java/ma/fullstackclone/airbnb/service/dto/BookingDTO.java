@@ -35,6 +35,17 @@ public class BookingDTO implements Serializable {
     @Lob
     private String specialRequests;
 
+    /**
+     * Promotion code to redeem when creating the booking, ignored by its updates.
+     */
+    private String promotionCode;
+
+    /**
+     * Version of the entity when it was read: an update carrying an older one is rejected, a replacement without any too,
+     * and a partial update without any is not checked. The {@code If-Match} header, when sent, takes precedence.
+     */
+    private Long version;
+
     private UserDTO guest;
 
     private PropertyDTO property;
@@ -95,6 +106,22 @@ public class BookingDTO implements Serializable {
         this.specialRequests = specialRequests;
     }
 
+    public String getPromotionCode() {
+        return promotionCode;
+    }
+
+    public void setPromotionCode(String promotionCode) {
+        this.promotionCode = promotionCode;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public UserDTO getGuest() {
         return guest;
     }
@@ -143,6 +170,8 @@ public class BookingDTO implements Serializable {
             ", bookingDate='" + getBookingDate() + "'" +
             ", status='" + getStatus() + "'" +
             ", specialRequests='" + getSpecialRequests() + "'" +
+            ", promotionCode='" + getPromotionCode() + "'" +
+            ", version=" + getVersion() +
             ", guest=" + getGuest() +
             ", property=" + getProperty() +
             "}";
@@ -0,0 +1,166 @@
+package ma.fullstackclone.airbnb.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A DTO for the price of a stay in a {@link ma.fullstackclone.airbnb.domain.Property}, night by night.
+ */
+public class BookingQuoteDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long propertyId;
+
+    private Instant checkInDate;
+
+    private Instant checkOutDate;
+
+    private int nights;
+
+    private List<NightPrice> nightPrices;
+
+    private BigDecimal subtotal;
+
+    private BigDecimal lengthOfStayDiscount;
+
+    private String promotionCode;
+
+    private BigDecimal promotionDiscount;
+
+    private BigDecimal totalPrice;
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public Instant getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(Instant checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public Instant getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(Instant checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public int getNights() {
+        return nights;
+    }
+
+    public void setNights(int nights) {
+        this.nights = nights;
+    }
+
+    public List<NightPrice> getNightPrices() {
+        return nightPrices;
+    }
+
+    public void setNightPrices(List<NightPrice> nightPrices) {
+        this.nightPrices = nightPrices;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getLengthOfStayDiscount() {
+        return lengthOfStayDiscount;
+    }
+
+    public void setLengthOfStayDiscount(BigDecimal lengthOfStayDiscount) {
+        this.lengthOfStayDiscount = lengthOfStayDiscount;
+    }
+
+    public String getPromotionCode() {
+        return promotionCode;
+    }
+
+    public void setPromotionCode(String promotionCode) {
+        this.promotionCode = promotionCode;
+    }
+
+    public BigDecimal getPromotionDiscount() {
+        return promotionDiscount;
+    }
+
+    public void setPromotionDiscount(BigDecimal promotionDiscount) {
+        this.promotionDiscount = promotionDiscount;
+    }
+
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BookingQuoteDTO{" +
+            "propertyId=" + getPropertyId() +
+            ", checkInDate='" + getCheckInDate() + "'" +
+            ", checkOutDate='" + getCheckOutDate() + "'" +
+            ", nights=" + getNights() +
+            ", subtotal=" + getSubtotal() +
+            ", lengthOfStayDiscount=" + getLengthOfStayDiscount() +
+            ", promotionCode='" + getPromotionCode() + "'" +
+            ", promotionDiscount=" + getPromotionDiscount() +
+            ", totalPrice=" + getTotalPrice() +
+            "}";
+    }
+
+    /**
+     * The price of one night.
+     */
+    public static class NightPrice implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate date;
+
+        private BigDecimal price;
+
+        public NightPrice() {}
+
+        public NightPrice(LocalDate date, BigDecimal price) {
+            this.date = date;
+            this.price = price;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
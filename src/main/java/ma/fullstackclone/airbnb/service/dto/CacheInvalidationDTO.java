@@ -0,0 +1,145 @@
+package ma.fullstackclone.airbnb.service.dto;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A DTO for the cache entries written by a transaction of a node, as sent to the other nodes so they evict them.
+ * <p>
+ * Only the names and keys are sent, never the state: a node reloads an evicted entry on its next read.
+ */
+public class CacheInvalidationDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String nodeId;
+
+    private long sequence;
+
+    private List<Eviction> evictions;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * The number of the message among those of its node, which identifies it with the id of the node.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public List<Eviction> getEvictions() {
+        return evictions;
+    }
+
+    public void setEvictions(List<Eviction> evictions) {
+        this.evictions = evictions;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CacheInvalidationDTO{" +
+            "nodeId='" + nodeId + '\'' +
+            ", sequence=" + sequence +
+            ", evictions=" + evictions +
+            '}';
+    }
+
+    /**
+     * The kinds of evictions, in the order a node applies them.
+     */
+    public enum Kind {
+        /**
+         * An entity in the Hibernate second-level cache: {@code name} is the entity name, {@code key} its id.
+         */
+        ENTITY,
+        /**
+         * A collection in the Hibernate second-level cache: {@code name} is the role, {@code key} the id of its owner.
+         */
+        COLLECTION,
+        /**
+         * All the entities of a type in the Hibernate second-level cache, after a bulk update: {@code name} is the entity
+         * name.
+         */
+        ENTITY_REGION,
+        /**
+         * An entry of an application cache: {@code name} is the cache name.
+         */
+        CACHE,
+    }
+
+    public static class Eviction implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Kind kind;
+
+        private String name;
+
+        private String key;
+
+        public Eviction() {}
+
+        public Eviction(Kind kind, String name, String key) {
+            this.kind = kind;
+            this.name = name;
+            this.key = key;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public void setKind(Kind kind) {
+            this.kind = kind;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Eviction eviction)) {
+                return false;
+            }
+            return kind == eviction.kind && Objects.equals(name, eviction.name) && Objects.equals(key, eviction.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(kind, name, key);
+        }
+
+        @Override
+        public String toString() {
+            return kind + ":" + name + (key != null ? "#" + key : "");
+        }
+    }
+}
@@ -36,6 +36,11 @@ public class PromotionDTO implements Serializable {
     @NotNull
     private Boolean isActive;
 
+    /**
+     * Read-only: the number of redemptions of the code.
+     */
+    private Integer uses;
+
     public Long getId() {
         return id;
     }
@@ -100,6 +105,14 @@ public class PromotionDTO implements Serializable {
         this.isActive = isActive;
     }
 
+    public Integer getUses() {
+        return uses;
+    }
+
+    public void setUses(Integer uses) {
+        this.uses = uses;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -133,6 +146,7 @@ public class PromotionDTO implements Serializable {
             ", validUntil='" + getValidUntil() + "'" +
             ", maxUses=" + getMaxUses() +
             ", isActive='" + getIsActive() + "'" +
+            ", uses=" + getUses() +
             "}";
     }
 }
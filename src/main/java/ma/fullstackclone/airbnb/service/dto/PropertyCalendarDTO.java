@@ -0,0 +1,124 @@
+package ma.fullstackclone.airbnb.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A DTO for the calendar of a {@link ma.fullstackclone.airbnb.domain.Property}, day by day.
+ */
+public class PropertyCalendarDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long propertyId;
+
+    private LocalDate start;
+
+    private LocalDate end;
+
+    private List<CalendarDay> days;
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    public List<CalendarDay> getDays() {
+        return days;
+    }
+
+    public void setDays(List<CalendarDay> days) {
+        this.days = days;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PropertyCalendarDTO{" +
+            "propertyId=" + getPropertyId() +
+            ", start='" + getStart() + "'" +
+            ", end='" + getEnd() + "'" +
+            "}";
+    }
+
+    /**
+     * The night of one day.
+     */
+    public static class CalendarDay implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private LocalDate date;
+
+        private boolean available;
+
+        private boolean booked;
+
+        private BigDecimal price;
+
+        public CalendarDay() {}
+
+        public CalendarDay(LocalDate date, boolean available, boolean booked, BigDecimal price) {
+            this.date = date;
+            this.available = available;
+            this.booked = booked;
+            this.price = price;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        /**
+         * Whether the night is in the availability window of the property and not booked.
+         */
+        public boolean isAvailable() {
+            return available;
+        }
+
+        public void setAvailable(boolean available) {
+            this.available = available;
+        }
+
+        public boolean isBooked() {
+            return booked;
+        }
+
+        public void setBooked(boolean booked) {
+            this.booked = booked;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
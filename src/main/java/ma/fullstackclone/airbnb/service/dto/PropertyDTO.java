@@ -32,8 +32,12 @@ public class PropertyDTO implements Serializable {
     @Size(max = 255)
     private String address;
 
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
     private BigDecimal latitude;
 
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
     private BigDecimal longitude;
 
     @NotNull
@@ -68,6 +72,22 @@ public class PropertyDTO implements Serializable {
     @NotNull
     private Boolean isActive;
 
+    /**
+     * Read-only: maintained from the reviews of the property.
+     */
+    private Integer reviewCount;
+
+    /**
+     * Read-only: maintained from the reviews of the property, {@code null} without reviews.
+     */
+    private BigDecimal averageRating;
+
+    /**
+     * Version of the entity when it was read: an update carrying an older one is rejected, a replacement without any too,
+     * and a partial update without any is not checked. The {@code If-Match} header, when sent, takes precedence.
+     */
+    private Long version;
+
     private UserDTO host;
 
     private CityDTO city;
@@ -220,6 +240,30 @@ public class PropertyDTO implements Serializable {
         this.isActive = isActive;
     }
 
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(Integer reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public BigDecimal getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(BigDecimal averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public UserDTO getHost() {
         return host;
     }
@@ -295,6 +339,9 @@ public class PropertyDTO implements Serializable {
             ", cancellationPolicy='" + getCancellationPolicy() + "'" +
             ", houseRules='" + getHouseRules() + "'" +
             ", isActive='" + getIsActive() + "'" +
+            ", reviewCount=" + getReviewCount() +
+            ", averageRating=" + getAverageRating() +
+            ", version=" + getVersion() +
             ", host=" + getHost() +
             ", city=" + getCity() +
             ", amenities=" + getAmenities() +
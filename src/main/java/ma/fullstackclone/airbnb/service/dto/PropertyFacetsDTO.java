@@ -0,0 +1,196 @@
+package ma.fullstackclone.airbnb.service.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A DTO for the facet counts of a search of {@link ma.fullstackclone.airbnb.domain.Property} entities: the number of
+ * matching properties per amenity, category, city, price bucket and instant booking.
+ */
+public class PropertyFacetsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+
+    private List<FacetCount> amenities;
+
+    private List<FacetCount> categories;
+
+    private List<FacetCount> cities;
+
+    private List<PriceBucket> prices;
+
+    private List<FacetCount> instantBook;
+
+    /**
+     * The number of matching properties.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    /**
+     * The counts per amenity id, the most frequent first.
+     */
+    public List<FacetCount> getAmenities() {
+        return amenities;
+    }
+
+    public void setAmenities(List<FacetCount> amenities) {
+        this.amenities = amenities;
+    }
+
+    /**
+     * The counts per category id, the most frequent first.
+     */
+    public List<FacetCount> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<FacetCount> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * The counts per city id, the most frequent first.
+     */
+    public List<FacetCount> getCities() {
+        return cities;
+    }
+
+    public void setCities(List<FacetCount> cities) {
+        this.cities = cities;
+    }
+
+    /**
+     * The counts per price per night bucket, the cheapest first; empty buckets are left out.
+     */
+    public List<PriceBucket> getPrices() {
+        return prices;
+    }
+
+    public void setPrices(List<PriceBucket> prices) {
+        this.prices = prices;
+    }
+
+    /**
+     * The counts per value of {@code instantBook}, {@code "true"} or {@code "false"}.
+     */
+    public List<FacetCount> getInstantBook() {
+        return instantBook;
+    }
+
+    public void setInstantBook(List<FacetCount> instantBook) {
+        this.instantBook = instantBook;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "PropertyFacetsDTO{" +
+            "total=" + getTotal() +
+            ", amenities=" + getAmenities() +
+            ", categories=" + getCategories() +
+            ", cities=" + getCities() +
+            ", prices=" + getPrices() +
+            ", instantBook=" + getInstantBook() +
+            "}";
+    }
+
+    /**
+     * The number of matching properties with one value of a facet.
+     */
+    public static class FacetCount implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private String value;
+
+        private long count;
+
+        public FacetCount() {}
+
+        public FacetCount(String value, long count) {
+            this.value = value;
+            this.count = count;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public void setValue(String value) {
+            this.value = value;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return value + "=" + count;
+        }
+    }
+
+    /**
+     * The number of matching properties with a price per night from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    public static class PriceBucket implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private BigDecimal from;
+
+        private BigDecimal to;
+
+        private long count;
+
+        public PriceBucket() {}
+
+        public PriceBucket(BigDecimal from, BigDecimal to, long count) {
+            this.from = from;
+            this.to = to;
+            this.count = count;
+        }
+
+        public BigDecimal getFrom() {
+            return from;
+        }
+
+        public void setFrom(BigDecimal from) {
+            this.from = from;
+        }
+
+        public BigDecimal getTo() {
+            return to;
+        }
+
+        public void setTo(BigDecimal to) {
+            this.to = to;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + from + ", " + to + ")=" + count;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package ma.fullstackclone.airbnb.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A DTO for a suggestion of the search box: a city, a country or a property, by name or title.
+ */
+public class SuggestionDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The kind of entity suggested, in the order suggestions of equal relevance are listed.
+     */
+    public enum Type {
+        CITY,
+        COUNTRY,
+        PROPERTY,
+    }
+
+    private Type type;
+
+    private Long id;
+
+    private String text;
+
+    public SuggestionDTO() {}
+
+    public SuggestionDTO(Type type, Long id, String text) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * The name of the city or country, or the title of the property.
+     */
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SuggestionDTO)) {
+            return false;
+        }
+
+        SuggestionDTO suggestionDTO = (SuggestionDTO) o;
+        return type == suggestionDTO.type && Objects.equals(id, suggestionDTO.id) && Objects.equals(text, suggestionDTO.text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id, text);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SuggestionDTO{" +
+            "type=" + getType() +
+            ", id=" + getId() +
+            ", text='" + getText() + "'" +
+            "}";
+    }
+}
@@ -5,6 +5,8 @@ import ma.fullstackclone.airbnb.domain.Amenity;
 import ma.fullstackclone.airbnb.repository.AmenityRepository;
 import ma.fullstackclone.airbnb.repository.search.AmenitySearchRepository;
 import ma.fullstackclone.airbnb.service.AmenityService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.ReferenceDataService;
 import ma.fullstackclone.airbnb.service.dto.AmenityDTO;
 import ma.fullstackclone.airbnb.service.mapper.AmenityMapper;
 import org.slf4j.Logger;
@@ -29,14 +31,22 @@ public class AmenityServiceImpl implements AmenityService {
 
     private final AmenitySearchRepository amenitySearchRepository;
 
+    private final OutboxService outboxService;
+
+    private final ReferenceDataService referenceDataService;
+
     public AmenityServiceImpl(
         AmenityRepository amenityRepository,
         AmenityMapper amenityMapper,
-        AmenitySearchRepository amenitySearchRepository
+        AmenitySearchRepository amenitySearchRepository,
+        OutboxService outboxService,
+        ReferenceDataService referenceDataService
     ) {
         this.amenityRepository = amenityRepository;
         this.amenityMapper = amenityMapper;
         this.amenitySearchRepository = amenitySearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
@@ -44,7 +54,8 @@ public class AmenityServiceImpl implements AmenityService {
         LOG.debug("Request to save Amenity : {}", amenityDTO);
         Amenity amenity = amenityMapper.toEntity(amenityDTO);
         amenity = amenityRepository.save(amenity);
-        amenitySearchRepository.index(amenity);
+        outboxService.saved(Amenity.class, amenity.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.AMENITIES);
         return amenityMapper.toDto(amenity);
     }
 
@@ -53,7 +64,8 @@ public class AmenityServiceImpl implements AmenityService {
         LOG.debug("Request to update Amenity : {}", amenityDTO);
         Amenity amenity = amenityMapper.toEntity(amenityDTO);
         amenity = amenityRepository.save(amenity);
-        amenitySearchRepository.index(amenity);
+        outboxService.saved(Amenity.class, amenity.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.AMENITIES);
         return amenityMapper.toDto(amenity);
     }
 
@@ -70,7 +82,8 @@ public class AmenityServiceImpl implements AmenityService {
             })
             .map(amenityRepository::save)
             .map(savedAmenity -> {
-                amenitySearchRepository.index(savedAmenity);
+                outboxService.saved(Amenity.class, savedAmenity.getId());
+                referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.AMENITIES);
                 return savedAmenity;
             })
             .map(amenityMapper::toDto);
@@ -87,7 +100,8 @@ public class AmenityServiceImpl implements AmenityService {
     public void delete(Long id) {
         LOG.debug("Request to delete Amenity : {}", id);
         amenityRepository.deleteById(id);
-        amenitySearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(Amenity.class, id);
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.AMENITIES);
     }
 
     @Override
@@ -2,15 +2,23 @@ package ma.fullstackclone.airbnb.service.impl;
 
 import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
 import ma.fullstackclone.airbnb.repository.BookingRepository;
 import ma.fullstackclone.airbnb.repository.search.BookingSearchRepository;
+import ma.fullstackclone.airbnb.service.BookingAvailabilityService;
 import ma.fullstackclone.airbnb.service.BookingService;
+import ma.fullstackclone.airbnb.service.DomainEventService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.PromotionService;
+import ma.fullstackclone.airbnb.service.PropertyCalendarService;
+import ma.fullstackclone.airbnb.service.PropertyCalendarService.Stay;
 import ma.fullstackclone.airbnb.service.dto.BookingDTO;
 import ma.fullstackclone.airbnb.service.mapper.BookingMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,32 +37,71 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingSearchRepository bookingSearchRepository;
 
+    private final OutboxService outboxService;
+
+    private final BookingAvailabilityService bookingAvailabilityService;
+
+    private final DomainEventService domainEventService;
+
+    private final PropertyCalendarService propertyCalendarService;
+
+    private final PromotionService promotionService;
+
     public BookingServiceImpl(
         BookingRepository bookingRepository,
         BookingMapper bookingMapper,
-        BookingSearchRepository bookingSearchRepository
+        BookingSearchRepository bookingSearchRepository,
+        OutboxService outboxService,
+        BookingAvailabilityService bookingAvailabilityService,
+        DomainEventService domainEventService,
+        PropertyCalendarService propertyCalendarService,
+        PromotionService promotionService
     ) {
         this.bookingRepository = bookingRepository;
         this.bookingMapper = bookingMapper;
         this.bookingSearchRepository = bookingSearchRepository;
+        this.outboxService = outboxService;
+        this.bookingAvailabilityService = bookingAvailabilityService;
+        this.domainEventService = domainEventService;
+        this.propertyCalendarService = propertyCalendarService;
+        this.promotionService = promotionService;
     }
 
     @Override
     public BookingDTO save(BookingDTO bookingDTO) {
         LOG.debug("Request to save Booking : {}", bookingDTO);
         Booking booking = bookingMapper.toEntity(bookingDTO);
+        bookingAvailabilityService.checkAndReserve(booking);
+        redeemPromotion(booking);
         booking = bookingRepository.save(booking);
-        bookingSearchRepository.index(booking);
+        bookingAvailabilityService.onBookingSaved(booking);
+        propertyCalendarService.onBookingChanged(null, Stay.of(booking));
+        domainEventService.bookingSaved(booking, null);
+        outboxService.saved(Booking.class, booking.getId());
         return bookingMapper.toDto(booking);
     }
 
     @Override
-    public BookingDTO update(BookingDTO bookingDTO) {
+    public Optional<BookingDTO> update(BookingDTO bookingDTO) {
         LOG.debug("Request to update Booking : {}", bookingDTO);
-        Booking booking = bookingMapper.toEntity(bookingDTO);
-        booking = bookingRepository.save(booking);
-        bookingSearchRepository.index(booking);
-        return bookingMapper.toDto(booking);
+        return bookingRepository
+            .findById(bookingDTO.getId())
+            .map(existingBooking -> {
+                checkVersion(existingBooking, bookingDTO.getVersion());
+                BookingStatus previousStatus = existingBooking.getStatus();
+                Stay previousStay = Stay.of(existingBooking);
+                Booking booking = bookingMapper.toEntity(bookingDTO);
+                booking.setVersion(existingBooking.getVersion());
+                booking.setPromotionCode(existingBooking.getPromotionCode());
+                bookingAvailabilityService.checkAndReserve(booking);
+                // flushed for the new version to be returned
+                booking = bookingRepository.saveAndFlush(booking);
+                bookingAvailabilityService.onBookingSaved(booking);
+                propertyCalendarService.onBookingChanged(previousStay, Stay.of(booking));
+                domainEventService.bookingSaved(booking, previousStatus);
+                outboxService.saved(Booking.class, booking.getId());
+                return bookingMapper.toDto(booking);
+            });
     }
 
     @Override
@@ -64,18 +111,48 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepository
             .findById(bookingDTO.getId())
             .map(existingBooking -> {
+                checkVersion(existingBooking, bookingDTO.getVersion());
+                BookingStatus previousStatus = existingBooking.getStatus();
+                Stay previousStay = Stay.of(existingBooking);
                 bookingMapper.partialUpdate(existingBooking, bookingDTO);
+                bookingAvailabilityService.checkAndReserve(existingBooking);
+                propertyCalendarService.onBookingChanged(previousStay, Stay.of(existingBooking));
+                domainEventService.bookingSaved(existingBooking, previousStatus);
 
                 return existingBooking;
             })
-            .map(bookingRepository::save)
+            .map(bookingRepository::saveAndFlush)
             .map(savedBooking -> {
-                bookingSearchRepository.index(savedBooking);
+                bookingAvailabilityService.onBookingSaved(savedBooking);
+                outboxService.saved(Booking.class, savedBooking.getId());
                 return savedBooking;
             })
             .map(bookingMapper::toDto);
     }
 
+    /**
+     * Redeem the promotion code of a new booking in its transaction: the code is used once per booking created, and not
+     * used if the booking fails.
+     */
+    private void redeemPromotion(Booking booking) {
+        String code = booking.getPromotionCode();
+        if (code == null || code.isBlank()) {
+            booking.setPromotionCode(null);
+            return;
+        }
+        promotionService.redeem(code);
+    }
+
+    /**
+     * Reject an update made from an older version than the current one. A concurrent update committed between this check
+     * and the flush is rejected by the version condition of the update statement.
+     */
+    private static void checkVersion(Booking existingBooking, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existingBooking.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Booking.class, existingBooking.getId());
+        }
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<BookingDTO> findOne(Long id) {
@@ -86,8 +163,11 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Booking : {}", id);
+        Stay stay = bookingRepository.findById(id).map(Stay::of).orElse(null);
         bookingRepository.deleteById(id);
-        bookingSearchRepository.deleteFromIndexById(id);
+        bookingAvailabilityService.onBookingDeleted(id);
+        propertyCalendarService.onBookingChanged(stay, null);
+        outboxService.deleted(Booking.class, id);
     }
 
     @Override
@@ -5,6 +5,9 @@ import ma.fullstackclone.airbnb.domain.City;
 import ma.fullstackclone.airbnb.repository.CityRepository;
 import ma.fullstackclone.airbnb.repository.search.CitySearchRepository;
 import ma.fullstackclone.airbnb.service.CityService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.ReferenceDataService;
+import ma.fullstackclone.airbnb.service.SuggestionService;
 import ma.fullstackclone.airbnb.service.dto.CityDTO;
 import ma.fullstackclone.airbnb.service.mapper.CityMapper;
 import org.slf4j.Logger;
@@ -29,10 +32,26 @@ public class CityServiceImpl implements CityService {
 
     private final CitySearchRepository citySearchRepository;
 
-    public CityServiceImpl(CityRepository cityRepository, CityMapper cityMapper, CitySearchRepository citySearchRepository) {
+    private final OutboxService outboxService;
+
+    private final ReferenceDataService referenceDataService;
+
+    private final SuggestionService suggestionService;
+
+    public CityServiceImpl(
+        CityRepository cityRepository,
+        CityMapper cityMapper,
+        CitySearchRepository citySearchRepository,
+        OutboxService outboxService,
+        ReferenceDataService referenceDataService,
+        SuggestionService suggestionService
+    ) {
         this.cityRepository = cityRepository;
         this.cityMapper = cityMapper;
         this.citySearchRepository = citySearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataService = referenceDataService;
+        this.suggestionService = suggestionService;
     }
 
     @Override
@@ -40,7 +59,9 @@ public class CityServiceImpl implements CityService {
         LOG.debug("Request to save City : {}", cityDTO);
         City city = cityMapper.toEntity(cityDTO);
         city = cityRepository.save(city);
-        citySearchRepository.index(city);
+        outboxService.saved(City.class, city.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.CITIES);
+        suggestionService.onCitySaved(city);
         return cityMapper.toDto(city);
     }
 
@@ -49,7 +70,9 @@ public class CityServiceImpl implements CityService {
         LOG.debug("Request to update City : {}", cityDTO);
         City city = cityMapper.toEntity(cityDTO);
         city = cityRepository.save(city);
-        citySearchRepository.index(city);
+        outboxService.saved(City.class, city.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.CITIES);
+        suggestionService.onCitySaved(city);
         return cityMapper.toDto(city);
     }
 
@@ -66,7 +89,9 @@ public class CityServiceImpl implements CityService {
             })
             .map(cityRepository::save)
             .map(savedCity -> {
-                citySearchRepository.index(savedCity);
+                outboxService.saved(City.class, savedCity.getId());
+                referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.CITIES);
+                suggestionService.onCitySaved(savedCity);
                 return savedCity;
             })
             .map(cityMapper::toDto);
@@ -83,7 +108,9 @@ public class CityServiceImpl implements CityService {
     public void delete(Long id) {
         LOG.debug("Request to delete City : {}", id);
         cityRepository.deleteById(id);
-        citySearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(City.class, id);
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.CITIES);
+        suggestionService.onCityDeleted(id);
     }
 
     @Override
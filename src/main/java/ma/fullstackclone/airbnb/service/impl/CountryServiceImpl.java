@@ -5,6 +5,9 @@ import ma.fullstackclone.airbnb.domain.Country;
 import ma.fullstackclone.airbnb.repository.CountryRepository;
 import ma.fullstackclone.airbnb.repository.search.CountrySearchRepository;
 import ma.fullstackclone.airbnb.service.CountryService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.ReferenceDataService;
+import ma.fullstackclone.airbnb.service.SuggestionService;
 import ma.fullstackclone.airbnb.service.dto.CountryDTO;
 import ma.fullstackclone.airbnb.service.mapper.CountryMapper;
 import org.slf4j.Logger;
@@ -29,14 +32,26 @@ public class CountryServiceImpl implements CountryService {
 
     private final CountrySearchRepository countrySearchRepository;
 
+    private final OutboxService outboxService;
+
+    private final ReferenceDataService referenceDataService;
+
+    private final SuggestionService suggestionService;
+
     public CountryServiceImpl(
         CountryRepository countryRepository,
         CountryMapper countryMapper,
-        CountrySearchRepository countrySearchRepository
+        CountrySearchRepository countrySearchRepository,
+        OutboxService outboxService,
+        ReferenceDataService referenceDataService,
+        SuggestionService suggestionService
     ) {
         this.countryRepository = countryRepository;
         this.countryMapper = countryMapper;
         this.countrySearchRepository = countrySearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataService = referenceDataService;
+        this.suggestionService = suggestionService;
     }
 
     @Override
@@ -44,7 +59,9 @@ public class CountryServiceImpl implements CountryService {
         LOG.debug("Request to save Country : {}", countryDTO);
         Country country = countryMapper.toEntity(countryDTO);
         country = countryRepository.save(country);
-        countrySearchRepository.index(country);
+        outboxService.saved(Country.class, country.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.COUNTRIES);
+        suggestionService.onCountrySaved(country);
         return countryMapper.toDto(country);
     }
 
@@ -53,7 +70,9 @@ public class CountryServiceImpl implements CountryService {
         LOG.debug("Request to update Country : {}", countryDTO);
         Country country = countryMapper.toEntity(countryDTO);
         country = countryRepository.save(country);
-        countrySearchRepository.index(country);
+        outboxService.saved(Country.class, country.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.COUNTRIES);
+        suggestionService.onCountrySaved(country);
         return countryMapper.toDto(country);
     }
 
@@ -70,7 +89,9 @@ public class CountryServiceImpl implements CountryService {
             })
             .map(countryRepository::save)
             .map(savedCountry -> {
-                countrySearchRepository.index(savedCountry);
+                outboxService.saved(Country.class, savedCountry.getId());
+                referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.COUNTRIES);
+                suggestionService.onCountrySaved(savedCountry);
                 return savedCountry;
             })
             .map(countryMapper::toDto);
@@ -87,7 +108,9 @@ public class CountryServiceImpl implements CountryService {
     public void delete(Long id) {
         LOG.debug("Request to delete Country : {}", id);
         countryRepository.deleteById(id);
-        countrySearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(Country.class, id);
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.COUNTRIES);
+        suggestionService.onCountryDeleted(id);
     }
 
     @Override
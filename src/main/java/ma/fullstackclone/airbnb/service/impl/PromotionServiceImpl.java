@@ -1,14 +1,21 @@
 package ma.fullstackclone.airbnb.service.impl;
 
+import java.time.Instant;
 import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Promotion;
 import ma.fullstackclone.airbnb.repository.PromotionRepository;
 import ma.fullstackclone.airbnb.repository.search.PromotionSearchRepository;
+import ma.fullstackclone.airbnb.service.CacheInvalidationService;
+import ma.fullstackclone.airbnb.service.InvalidPromotionException;
 import ma.fullstackclone.airbnb.service.PromotionService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.TransactionHooks;
 import ma.fullstackclone.airbnb.service.dto.PromotionDTO;
 import ma.fullstackclone.airbnb.service.mapper.PromotionMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -29,14 +36,27 @@ public class PromotionServiceImpl implements PromotionService {
 
     private final PromotionSearchRepository promotionSearchRepository;
 
+    private final OutboxService outboxService;
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationService cacheInvalidationService;
+
     public PromotionServiceImpl(
         PromotionRepository promotionRepository,
         PromotionMapper promotionMapper,
-        PromotionSearchRepository promotionSearchRepository
+        PromotionSearchRepository promotionSearchRepository,
+        OutboxService outboxService,
+        CacheManager cacheManager,
+        CacheInvalidationService cacheInvalidationService
     ) {
         this.promotionRepository = promotionRepository;
         this.promotionMapper = promotionMapper;
         this.promotionSearchRepository = promotionSearchRepository;
+        this.outboxService = outboxService;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationService = cacheInvalidationService;
+        cacheInvalidationService.register(PromotionRepository.PROMOTIONS_BY_CODE_CACHE, this::evictCodeLocally);
     }
 
     @Override
@@ -44,7 +64,8 @@ public class PromotionServiceImpl implements PromotionService {
         LOG.debug("Request to save Promotion : {}", promotionDTO);
         Promotion promotion = promotionMapper.toEntity(promotionDTO);
         promotion = promotionRepository.save(promotion);
-        promotionSearchRepository.index(promotion);
+        outboxService.saved(Promotion.class, promotion.getId());
+        evictCode(promotion.getCode());
         return promotionMapper.toDto(promotion);
     }
 
@@ -52,9 +73,17 @@ public class PromotionServiceImpl implements PromotionService {
     public PromotionDTO update(PromotionDTO promotionDTO) {
         LOG.debug("Request to update Promotion : {}", promotionDTO);
         Promotion promotion = promotionMapper.toEntity(promotionDTO);
-        promotion = promotionRepository.save(promotion);
-        promotionSearchRepository.index(promotion);
-        return promotionMapper.toDto(promotion);
+        promotionRepository
+            .findById(promotionDTO.getId())
+            .ifPresent(existingPromotion -> {
+                evictCode(existingPromotion.getCode());
+                // never written from the entity, but merged into the managed one, cached and indexed
+                promotion.setUses(existingPromotion.getUses());
+            });
+        Promotion savedPromotion = promotionRepository.save(promotion);
+        outboxService.saved(Promotion.class, savedPromotion.getId());
+        evictCode(savedPromotion.getCode());
+        return promotionMapper.toDto(savedPromotion);
     }
 
     @Override
@@ -64,13 +93,15 @@ public class PromotionServiceImpl implements PromotionService {
         return promotionRepository
             .findById(promotionDTO.getId())
             .map(existingPromotion -> {
+                evictCode(existingPromotion.getCode());
                 promotionMapper.partialUpdate(existingPromotion, promotionDTO);
 
                 return existingPromotion;
             })
             .map(promotionRepository::save)
             .map(savedPromotion -> {
-                promotionSearchRepository.index(savedPromotion);
+                outboxService.saved(Promotion.class, savedPromotion.getId());
+                evictCode(savedPromotion.getCode());
                 return savedPromotion;
             })
             .map(promotionMapper::toDto);
@@ -86,8 +117,22 @@ public class PromotionServiceImpl implements PromotionService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Promotion : {}", id);
+        promotionRepository.findCodeById(id).ifPresent(this::evictCode);
         promotionRepository.deleteById(id);
-        promotionSearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(Promotion.class, id);
+    }
+
+    @Override
+    public void redeem(String code) {
+        LOG.debug("Request to redeem Promotion : {}", code);
+        Long id = promotionRepository
+            .findOneByCode(code)
+            .map(Promotion::getId)
+            .orElseThrow(() -> new InvalidPromotionException("Unknown promotion code " + code));
+        if (promotionRepository.redeem(id, Instant.now()) == 0) {
+            throw new InvalidPromotionException("Promotion code " + code + " cannot be redeemed");
+        }
+        cacheInvalidationService.bulkUpdated(Promotion.class, id);
     }
 
     @Override
@@ -96,4 +141,22 @@ public class PromotionServiceImpl implements PromotionService {
         LOG.debug("Request to search for a page of Promotions for query {}", query);
         return promotionSearchRepository.search(query, pageable).map(promotionMapper::toDto);
     }
+
+    /**
+     * Drop the cached lookup of a code once the transaction commits, including a cached miss for a new code, on every node.
+     */
+    private void evictCode(String code) {
+        if (code == null) {
+            return;
+        }
+        TransactionHooks.afterCommit(() -> evictCodeLocally(code));
+        cacheInvalidationService.evictOnOtherNodes(PromotionRepository.PROMOTIONS_BY_CODE_CACHE, code);
+    }
+
+    private void evictCodeLocally(String code) {
+        Cache cache = cacheManager.getCache(PromotionRepository.PROMOTIONS_BY_CODE_CACHE);
+        if (cache != null) {
+            cache.evict(code);
+        }
+    }
 }
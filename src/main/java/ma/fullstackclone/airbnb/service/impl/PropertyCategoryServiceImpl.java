@@ -5,6 +5,8 @@ import ma.fullstackclone.airbnb.domain.PropertyCategory;
 import ma.fullstackclone.airbnb.repository.PropertyCategoryRepository;
 import ma.fullstackclone.airbnb.repository.search.PropertyCategorySearchRepository;
 import ma.fullstackclone.airbnb.service.PropertyCategoryService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.ReferenceDataService;
 import ma.fullstackclone.airbnb.service.dto.PropertyCategoryDTO;
 import ma.fullstackclone.airbnb.service.mapper.PropertyCategoryMapper;
 import org.slf4j.Logger;
@@ -29,14 +31,22 @@ public class PropertyCategoryServiceImpl implements PropertyCategoryService {
 
     private final PropertyCategorySearchRepository propertyCategorySearchRepository;
 
+    private final OutboxService outboxService;
+
+    private final ReferenceDataService referenceDataService;
+
     public PropertyCategoryServiceImpl(
         PropertyCategoryRepository propertyCategoryRepository,
         PropertyCategoryMapper propertyCategoryMapper,
-        PropertyCategorySearchRepository propertyCategorySearchRepository
+        PropertyCategorySearchRepository propertyCategorySearchRepository,
+        OutboxService outboxService,
+        ReferenceDataService referenceDataService
     ) {
         this.propertyCategoryRepository = propertyCategoryRepository;
         this.propertyCategoryMapper = propertyCategoryMapper;
         this.propertyCategorySearchRepository = propertyCategorySearchRepository;
+        this.outboxService = outboxService;
+        this.referenceDataService = referenceDataService;
     }
 
     @Override
@@ -44,7 +54,8 @@ public class PropertyCategoryServiceImpl implements PropertyCategoryService {
         LOG.debug("Request to save PropertyCategory : {}", propertyCategoryDTO);
         PropertyCategory propertyCategory = propertyCategoryMapper.toEntity(propertyCategoryDTO);
         propertyCategory = propertyCategoryRepository.save(propertyCategory);
-        propertyCategorySearchRepository.index(propertyCategory);
+        outboxService.saved(PropertyCategory.class, propertyCategory.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.PROPERTY_CATEGORIES);
         return propertyCategoryMapper.toDto(propertyCategory);
     }
 
@@ -53,7 +64,8 @@ public class PropertyCategoryServiceImpl implements PropertyCategoryService {
         LOG.debug("Request to update PropertyCategory : {}", propertyCategoryDTO);
         PropertyCategory propertyCategory = propertyCategoryMapper.toEntity(propertyCategoryDTO);
         propertyCategory = propertyCategoryRepository.save(propertyCategory);
-        propertyCategorySearchRepository.index(propertyCategory);
+        outboxService.saved(PropertyCategory.class, propertyCategory.getId());
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.PROPERTY_CATEGORIES);
         return propertyCategoryMapper.toDto(propertyCategory);
     }
 
@@ -70,7 +82,8 @@ public class PropertyCategoryServiceImpl implements PropertyCategoryService {
             })
             .map(propertyCategoryRepository::save)
             .map(savedPropertyCategory -> {
-                propertyCategorySearchRepository.index(savedPropertyCategory);
+                outboxService.saved(PropertyCategory.class, savedPropertyCategory.getId());
+                referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.PROPERTY_CATEGORIES);
                 return savedPropertyCategory;
             })
             .map(propertyCategoryMapper::toDto);
@@ -87,7 +100,8 @@ public class PropertyCategoryServiceImpl implements PropertyCategoryService {
     public void delete(Long id) {
         LOG.debug("Request to delete PropertyCategory : {}", id);
         propertyCategoryRepository.deleteById(id);
-        propertyCategorySearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(PropertyCategory.class, id);
+        referenceDataService.invalidateAfterCommit(ReferenceDataService.Table.PROPERTY_CATEGORIES);
     }
 
     @Override
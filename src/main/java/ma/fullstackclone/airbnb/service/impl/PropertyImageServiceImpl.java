@@ -5,6 +5,7 @@ import ma.fullstackclone.airbnb.domain.PropertyImage;
 import ma.fullstackclone.airbnb.repository.PropertyImageRepository;
 import ma.fullstackclone.airbnb.repository.search.PropertyImageSearchRepository;
 import ma.fullstackclone.airbnb.service.PropertyImageService;
+import ma.fullstackclone.airbnb.service.OutboxService;
 import ma.fullstackclone.airbnb.service.dto.PropertyImageDTO;
 import ma.fullstackclone.airbnb.service.mapper.PropertyImageMapper;
 import org.slf4j.Logger;
@@ -29,14 +30,18 @@ public class PropertyImageServiceImpl implements PropertyImageService {
 
     private final PropertyImageSearchRepository propertyImageSearchRepository;
 
+    private final OutboxService outboxService;
+
     public PropertyImageServiceImpl(
         PropertyImageRepository propertyImageRepository,
         PropertyImageMapper propertyImageMapper,
-        PropertyImageSearchRepository propertyImageSearchRepository
+        PropertyImageSearchRepository propertyImageSearchRepository,
+        OutboxService outboxService
     ) {
         this.propertyImageRepository = propertyImageRepository;
         this.propertyImageMapper = propertyImageMapper;
         this.propertyImageSearchRepository = propertyImageSearchRepository;
+        this.outboxService = outboxService;
     }
 
     @Override
@@ -44,7 +49,7 @@ public class PropertyImageServiceImpl implements PropertyImageService {
         LOG.debug("Request to save PropertyImage : {}", propertyImageDTO);
         PropertyImage propertyImage = propertyImageMapper.toEntity(propertyImageDTO);
         propertyImage = propertyImageRepository.save(propertyImage);
-        propertyImageSearchRepository.index(propertyImage);
+        outboxService.saved(PropertyImage.class, propertyImage.getId());
         return propertyImageMapper.toDto(propertyImage);
     }
 
@@ -53,7 +58,7 @@ public class PropertyImageServiceImpl implements PropertyImageService {
         LOG.debug("Request to update PropertyImage : {}", propertyImageDTO);
         PropertyImage propertyImage = propertyImageMapper.toEntity(propertyImageDTO);
         propertyImage = propertyImageRepository.save(propertyImage);
-        propertyImageSearchRepository.index(propertyImage);
+        outboxService.saved(PropertyImage.class, propertyImage.getId());
         return propertyImageMapper.toDto(propertyImage);
     }
 
@@ -70,7 +75,7 @@ public class PropertyImageServiceImpl implements PropertyImageService {
             })
             .map(propertyImageRepository::save)
             .map(savedPropertyImage -> {
-                propertyImageSearchRepository.index(savedPropertyImage);
+                outboxService.saved(PropertyImage.class, savedPropertyImage.getId());
                 return savedPropertyImage;
             })
             .map(propertyImageMapper::toDto);
@@ -87,7 +92,7 @@ public class PropertyImageServiceImpl implements PropertyImageService {
     public void delete(Long id) {
         LOG.debug("Request to delete PropertyImage : {}", id);
         propertyImageRepository.deleteById(id);
-        propertyImageSearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(PropertyImage.class, id);
     }
 
     @Override
@@ -1,16 +1,26 @@
 package ma.fullstackclone.airbnb.service.impl;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Property;
 import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.repository.search.PropertySearchCriteria;
 import ma.fullstackclone.airbnb.repository.search.PropertySearchRepository;
+import ma.fullstackclone.airbnb.service.DomainEventService;
+import ma.fullstackclone.airbnb.service.PropertyFacetService;
+import ma.fullstackclone.airbnb.service.PropertyGeoSearchService;
 import ma.fullstackclone.airbnb.service.PropertyService;
+import ma.fullstackclone.airbnb.service.OutboxService;
+import ma.fullstackclone.airbnb.service.PriceQuoteService;
+import ma.fullstackclone.airbnb.service.SuggestionService;
 import ma.fullstackclone.airbnb.service.dto.PropertyDTO;
 import ma.fullstackclone.airbnb.service.mapper.PropertyMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -29,14 +39,38 @@ public class PropertyServiceImpl implements PropertyService {
 
     private final PropertySearchRepository propertySearchRepository;
 
+    private final OutboxService outboxService;
+
+    private final PropertyGeoSearchService propertyGeoSearchService;
+
+    private final DomainEventService domainEventService;
+
+    private final PriceQuoteService priceQuoteService;
+
+    private final PropertyFacetService propertyFacetService;
+
+    private final SuggestionService suggestionService;
+
     public PropertyServiceImpl(
         PropertyRepository propertyRepository,
         PropertyMapper propertyMapper,
-        PropertySearchRepository propertySearchRepository
+        PropertySearchRepository propertySearchRepository,
+        OutboxService outboxService,
+        PropertyGeoSearchService propertyGeoSearchService,
+        DomainEventService domainEventService,
+        PriceQuoteService priceQuoteService,
+        PropertyFacetService propertyFacetService,
+        SuggestionService suggestionService
     ) {
         this.propertyRepository = propertyRepository;
         this.propertyMapper = propertyMapper;
         this.propertySearchRepository = propertySearchRepository;
+        this.outboxService = outboxService;
+        this.propertyGeoSearchService = propertyGeoSearchService;
+        this.domainEventService = domainEventService;
+        this.priceQuoteService = priceQuoteService;
+        this.propertyFacetService = propertyFacetService;
+        this.suggestionService = suggestionService;
     }
 
     @Override
@@ -44,17 +78,38 @@ public class PropertyServiceImpl implements PropertyService {
         LOG.debug("Request to save Property : {}", propertyDTO);
         Property property = propertyMapper.toEntity(propertyDTO);
         property = propertyRepository.save(property);
-        propertySearchRepository.index(property);
+        propertyGeoSearchService.onPropertySaved(property);
+        propertyFacetService.onPropertySaved(property);
+        suggestionService.onPropertySaved(property);
+        outboxService.saved(Property.class, property.getId());
         return propertyMapper.toDto(property);
     }
 
     @Override
-    public PropertyDTO update(PropertyDTO propertyDTO) {
+    public Optional<PropertyDTO> update(PropertyDTO propertyDTO) {
         LOG.debug("Request to update Property : {}", propertyDTO);
-        Property property = propertyMapper.toEntity(propertyDTO);
-        property = propertyRepository.save(property);
-        propertySearchRepository.index(property);
-        return propertyMapper.toDto(property);
+        // usually a hit of the second-level cache: the update statement itself checks the version
+        return propertyRepository
+            .findById(propertyDTO.getId())
+            .map(existingProperty -> {
+                checkVersion(existingProperty, propertyDTO.getVersion());
+                BigDecimal previousPrice = existingProperty.getPricePerNight();
+                Property property = propertyMapper.toEntity(propertyDTO);
+                property.setVersion(existingProperty.getVersion());
+                // never written from the entity, but merged into the managed one, cached and indexed
+                property.setReviewCount(existingProperty.getReviewCount());
+                property.setRatingTotal(existingProperty.getRatingTotal());
+                property.setAverageRating(existingProperty.getAverageRating());
+                // flushed for the new version to be returned
+                property = propertyRepository.saveAndFlush(property);
+                propertyGeoSearchService.onPropertySaved(property);
+                propertyFacetService.onPropertySaved(property);
+                suggestionService.onPropertySaved(property);
+                domainEventService.propertySaved(property, previousPrice);
+                outboxService.saved(Property.class, property.getId());
+                priceQuoteService.evictCalendarAfterCommit(property.getId());
+                return propertyMapper.toDto(property);
+            });
     }
 
     @Override
@@ -64,18 +119,38 @@ public class PropertyServiceImpl implements PropertyService {
         return propertyRepository
             .findById(propertyDTO.getId())
             .map(existingProperty -> {
+                checkVersion(existingProperty, propertyDTO.getVersion());
+                BigDecimal previousPrice = existingProperty.getPricePerNight();
                 propertyMapper.partialUpdate(existingProperty, propertyDTO);
+                // a change of amenities or categories alone does not write the row
+                existingProperty.setLastModifiedDate(Instant.now());
+                existingProperty.setListingUpdatedDate(existingProperty.getLastModifiedDate());
+                domainEventService.propertySaved(existingProperty, previousPrice);
 
                 return existingProperty;
             })
-            .map(propertyRepository::save)
+            .map(propertyRepository::saveAndFlush)
             .map(savedProperty -> {
-                propertySearchRepository.index(savedProperty);
+                propertyGeoSearchService.onPropertySaved(savedProperty);
+                propertyFacetService.onPropertySaved(savedProperty);
+                suggestionService.onPropertySaved(savedProperty);
+                outboxService.saved(Property.class, savedProperty.getId());
+                priceQuoteService.evictCalendarAfterCommit(savedProperty.getId());
                 return savedProperty;
             })
             .map(propertyMapper::toDto);
     }
 
+    /**
+     * Reject an update made from an older version than the current one. A concurrent update committed between this check
+     * and the flush is rejected by the version condition of the update statement.
+     */
+    private static void checkVersion(Property existingProperty, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(existingProperty.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Property.class, existingProperty.getId());
+        }
+    }
+
     public Page<PropertyDTO> findAllWithEagerRelationships(Pageable pageable) {
         return propertyRepository.findAllWithEagerRelationships(pageable).map(propertyMapper::toDto);
     }
@@ -87,11 +162,33 @@ public class PropertyServiceImpl implements PropertyService {
         return propertyRepository.findOneWithEagerRelationships(id).map(propertyMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersion(Long id) {
+        return propertyRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PropertyRepository.RepresentationStamp> findRepresentationStamp(Long id) {
+        return propertyRepository.findRepresentationStampById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long findModificationCount() {
+        return propertyRepository.findModificationCount();
+    }
+
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Property : {}", id);
         propertyRepository.deleteById(id);
-        propertySearchRepository.deleteFromIndexById(id);
+        propertyGeoSearchService.onPropertyDeleted(id);
+        propertyFacetService.onPropertyDeleted(id);
+        suggestionService.onPropertyDeleted(id);
+        outboxService.deleted(Property.class, id);
+        priceQuoteService.evictCalendarAfterCommit(id);
     }
 
     @Override
@@ -100,4 +197,11 @@ public class PropertyServiceImpl implements PropertyService {
         LOG.debug("Request to search for a page of Properties for query {}", query);
         return propertySearchRepository.search(query, pageable).map(propertyMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<PropertyDTO> searchListings(PropertySearchCriteria criteria, Pageable pageable) {
+        LOG.debug("Request to search for a page of Property listings for {}", criteria);
+        return propertySearchRepository.searchListings(criteria, pageable).map(propertyMapper::toDto);
+    }
 }
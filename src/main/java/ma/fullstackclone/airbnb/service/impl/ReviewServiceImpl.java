@@ -3,8 +3,12 @@ package ma.fullstackclone.airbnb.service.impl;
 import java.util.Optional;
 import ma.fullstackclone.airbnb.domain.Review;
 import ma.fullstackclone.airbnb.repository.ReviewRepository;
+import ma.fullstackclone.airbnb.repository.ReviewRepository.PropertyRating;
 import ma.fullstackclone.airbnb.repository.search.ReviewSearchRepository;
+import ma.fullstackclone.airbnb.service.PropertyRatingService;
 import ma.fullstackclone.airbnb.service.ReviewService;
+import ma.fullstackclone.airbnb.service.DomainEventService;
+import ma.fullstackclone.airbnb.service.OutboxService;
 import ma.fullstackclone.airbnb.service.dto.ReviewDTO;
 import ma.fullstackclone.airbnb.service.mapper.ReviewMapper;
 import org.slf4j.Logger;
@@ -29,10 +33,26 @@ public class ReviewServiceImpl implements ReviewService {
 
     private final ReviewSearchRepository reviewSearchRepository;
 
-    public ReviewServiceImpl(ReviewRepository reviewRepository, ReviewMapper reviewMapper, ReviewSearchRepository reviewSearchRepository) {
+    private final OutboxService outboxService;
+
+    private final PropertyRatingService propertyRatingService;
+
+    private final DomainEventService domainEventService;
+
+    public ReviewServiceImpl(
+        ReviewRepository reviewRepository,
+        ReviewMapper reviewMapper,
+        ReviewSearchRepository reviewSearchRepository,
+        OutboxService outboxService,
+        PropertyRatingService propertyRatingService,
+        DomainEventService domainEventService
+    ) {
         this.reviewRepository = reviewRepository;
         this.reviewMapper = reviewMapper;
         this.reviewSearchRepository = reviewSearchRepository;
+        this.outboxService = outboxService;
+        this.propertyRatingService = propertyRatingService;
+        this.domainEventService = domainEventService;
     }
 
     @Override
@@ -40,16 +60,25 @@ public class ReviewServiceImpl implements ReviewService {
         LOG.debug("Request to save Review : {}", reviewDTO);
         Review review = reviewMapper.toEntity(reviewDTO);
         review = reviewRepository.save(review);
-        reviewSearchRepository.index(review);
+        propertyRatingService.ratingChanged(null, null, propertyId(review), review.getRating());
+        domainEventService.reviewCreated(review);
+        outboxService.saved(Review.class, review.getId());
         return reviewMapper.toDto(review);
     }
 
     @Override
     public ReviewDTO update(ReviewDTO reviewDTO) {
         LOG.debug("Request to update Review : {}", reviewDTO);
+        Optional<PropertyRating> previous = reviewRepository.findPropertyRatingById(reviewDTO.getId());
         Review review = reviewMapper.toEntity(reviewDTO);
         review = reviewRepository.save(review);
-        reviewSearchRepository.index(review);
+        propertyRatingService.ratingChanged(
+            previous.map(PropertyRating::getPropertyId).orElse(null),
+            previous.map(PropertyRating::getRating).orElse(null),
+            propertyId(review),
+            review.getRating()
+        );
+        outboxService.saved(Review.class, review.getId());
         return reviewMapper.toDto(review);
     }
 
@@ -60,13 +89,16 @@ public class ReviewServiceImpl implements ReviewService {
         return reviewRepository
             .findById(reviewDTO.getId())
             .map(existingReview -> {
+                Long previousPropertyId = propertyId(existingReview);
+                Integer previousRating = existingReview.getRating();
                 reviewMapper.partialUpdate(existingReview, reviewDTO);
+                propertyRatingService.ratingChanged(previousPropertyId, previousRating, propertyId(existingReview), existingReview.getRating());
 
                 return existingReview;
             })
             .map(reviewRepository::save)
             .map(savedReview -> {
-                reviewSearchRepository.index(savedReview);
+                outboxService.saved(Review.class, savedReview.getId());
                 return savedReview;
             })
             .map(reviewMapper::toDto);
@@ -82,8 +114,11 @@ public class ReviewServiceImpl implements ReviewService {
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Review : {}", id);
+        reviewRepository
+            .findPropertyRatingById(id)
+            .ifPresent(previous -> propertyRatingService.ratingChanged(previous.getPropertyId(), previous.getRating(), null, null));
         reviewRepository.deleteById(id);
-        reviewSearchRepository.deleteFromIndexById(id);
+        outboxService.deleted(Review.class, id);
     }
 
     @Override
@@ -92,4 +127,8 @@ public class ReviewServiceImpl implements ReviewService {
         LOG.debug("Request to search for a page of Reviews for query {}", query);
         return reviewSearchRepository.search(query, pageable).map(reviewMapper::toDto);
     }
+
+    private static Long propertyId(Review review) {
+        return review.getProperty() != null ? review.getProperty().getId() : null;
+    }
 }
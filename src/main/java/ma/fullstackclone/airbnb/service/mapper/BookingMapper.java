@@ -17,6 +17,13 @@ public interface BookingMapper extends EntityMapper<BookingDTO, Booking> {
     @Mapping(target = "property", source = "property", qualifiedByName = "propertyId")
     BookingDTO toDto(Booking s);
 
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "promotionCode", ignore = true)
+    void partialUpdate(@MappingTarget Booking entity, BookingDTO dto);
+
     @Named("userId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -8,4 +8,13 @@ import org.mapstruct.*;
  * Mapper for the entity {@link Promotion} and its DTO {@link PromotionDTO}.
  */
 @Mapper(componentModel = "spring")
-public interface PromotionMapper extends EntityMapper<PromotionDTO, Promotion> {}
+public interface PromotionMapper extends EntityMapper<PromotionDTO, Promotion> {
+    @Mapping(target = "uses", ignore = true)
+    Promotion toEntity(PromotionDTO promotionDTO);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "uses", ignore = true)
+    void partialUpdate(@MappingTarget Promotion entity, PromotionDTO dto);
+}
@@ -27,8 +27,34 @@ public interface PropertyMapper extends EntityMapper<PropertyDTO, Property> {
 
     @Mapping(target = "removeAmenities", ignore = true)
     @Mapping(target = "removeCategories", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "reviewCount", ignore = true)
+    @Mapping(target = "ratingTotal", ignore = true)
+    @Mapping(target = "averageRating", ignore = true)
+    @Mapping(target = "lastModifiedDate", ignore = true)
+    @Mapping(target = "listingUpdatedDate", ignore = true)
+    @Mapping(target = "amenityIds", ignore = true)
+    @Mapping(target = "categoryIds", ignore = true)
+    @Mapping(target = "cityId", ignore = true)
     Property toEntity(PropertyDTO propertyDTO);
 
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "removeAmenities", ignore = true)
+    @Mapping(target = "removeCategories", ignore = true)
+    @Mapping(target = "location", ignore = true)
+    @Mapping(target = "reviewCount", ignore = true)
+    @Mapping(target = "ratingTotal", ignore = true)
+    @Mapping(target = "averageRating", ignore = true)
+    @Mapping(target = "lastModifiedDate", ignore = true)
+    @Mapping(target = "listingUpdatedDate", ignore = true)
+    @Mapping(target = "amenityIds", ignore = true)
+    @Mapping(target = "categoryIds", ignore = true)
+    @Mapping(target = "cityId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    void partialUpdate(@MappingTarget Property entity, PropertyDTO dto);
+
     @Named("userId")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -1,11 +1,22 @@
 package ma.fullstackclone.airbnb.web.rest;
 
 import java.security.Principal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import ma.fullstackclone.airbnb.broker.DomainEvent;
+import ma.fullstackclone.airbnb.broker.DomainEventConsumer;
+import ma.fullstackclone.airbnb.broker.KafkaBatchPublisher;
 import ma.fullstackclone.airbnb.broker.KafkaConsumer;
+import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 @RestController
@@ -14,13 +25,26 @@ public class AirbnbKafkaResource {
 
     private static final String PRODUCER_BINDING_NAME = "binding-out-0";
 
+    private static final String ENTITY_NAME = "airbnbKafka";
+
+    private static final int MAX_FOLLOWED_PROPERTIES = 100;
+
     private static final Logger LOG = LoggerFactory.getLogger(AirbnbKafkaResource.class);
     private final KafkaConsumer kafkaConsumer;
+    private final DomainEventConsumer domainEventConsumer;
+    private final KafkaBatchPublisher kafkaBatchPublisher;
     private final StreamBridge streamBridge;
 
-    public AirbnbKafkaResource(StreamBridge streamBridge, KafkaConsumer kafkaConsumer) {
+    public AirbnbKafkaResource(
+        StreamBridge streamBridge,
+        KafkaConsumer kafkaConsumer,
+        DomainEventConsumer domainEventConsumer,
+        KafkaBatchPublisher kafkaBatchPublisher
+    ) {
         this.streamBridge = streamBridge;
         this.kafkaConsumer = kafkaConsumer;
+        this.domainEventConsumer = domainEventConsumer;
+        this.kafkaBatchPublisher = kafkaBatchPublisher;
     }
 
     @PostMapping("/publish")
@@ -29,6 +53,37 @@ public class AirbnbKafkaResource {
         streamBridge.send(PRODUCER_BINDING_NAME, message);
     }
 
+    /**
+     * {@code POST /publish/batch} : publish messages, in order, and answer once Kafka has acknowledged all of them.
+     * <p>
+     * The request does not hold a servlet thread while waiting for the acknowledgements.
+     *
+     * @param messages the messages to publish.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} once the messages are acknowledged, with status
+     * {@code 400 (Bad Request)} if there are no or too many messages, or with status {@code 503 (Service Unavailable)}
+     * if they were not all acknowledged in time.
+     */
+    @PostMapping("/publish/batch")
+    public CompletableFuture<ResponseEntity<Void>> publishBatch(@RequestBody List<String> messages) {
+        LOG.debug("REST request to publish a batch of {} messages to Kafka", messages.size());
+        if (messages.isEmpty() || messages.size() > kafkaBatchPublisher.getMaxBatchMessages()) {
+            throw new BadRequestAlertException(
+                "A batch has from 1 to " + kafkaBatchPublisher.getMaxBatchMessages() + " messages",
+                ENTITY_NAME,
+                "invalidbatch"
+            );
+        }
+        return kafkaBatchPublisher
+            .publish(messages)
+            .handle((count, failure) -> {
+                if (failure != null) {
+                    LOG.warn("Batch of {} messages not acknowledged: {}", messages.size(), failure.getMessage());
+                    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Messages were not acknowledged", failure);
+                }
+                return ResponseEntity.ok().build();
+            });
+    }
+
     @GetMapping("/register")
     public ResponseBodyEmitter register(Principal principal) {
         return kafkaConsumer.register(principal.getName());
@@ -38,4 +93,38 @@ public class AirbnbKafkaResource {
     public void unregister(Principal principal) {
         kafkaConsumer.unregister(principal.getName());
     }
+
+    /**
+     * {@code GET /events} : stream the events of some properties and, with {@code hosting}, of the properties hosted by
+     * the current user, whose booking confirmations are only streamed to them.
+     *
+     * @param propertyIds the ids of the properties followed.
+     * @param hosting whether to follow the properties of the current user.
+     * @return the event stream.
+     */
+    @GetMapping("/events")
+    public ResponseBodyEmitter events(
+        @RequestParam(name = "propertyId", required = false) List<Long> propertyIds,
+        @RequestParam(name = "hosting", defaultValue = "false") boolean hosting,
+        Principal principal
+    ) {
+        Set<String> keys = new HashSet<>();
+        if (propertyIds != null) {
+            if (propertyIds.size() > MAX_FOLLOWED_PROPERTIES) {
+                throw new BadRequestAlertException(
+                    "At most " + MAX_FOLLOWED_PROPERTIES + " properties can be followed",
+                    ENTITY_NAME,
+                    "invalidsubscription"
+                );
+            }
+            propertyIds.forEach(propertyId -> keys.add(DomainEvent.propertyKey(propertyId)));
+        }
+        if (hosting) {
+            keys.add(DomainEvent.hostKey(principal.getName()));
+        }
+        if (keys.isEmpty()) {
+            throw new BadRequestAlertException("Follow at least one property, or your hosted properties", ENTITY_NAME, "invalidsubscription");
+        }
+        return domainEventConsumer.register(principal.getName(), keys);
+    }
 }
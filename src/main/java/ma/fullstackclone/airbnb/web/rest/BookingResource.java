@@ -7,18 +7,26 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import ma.fullstackclone.airbnb.repository.BookingRepository;
 import ma.fullstackclone.airbnb.service.BookingQueryService;
 import ma.fullstackclone.airbnb.service.BookingService;
+import ma.fullstackclone.airbnb.service.PriceQuoteService;
 import ma.fullstackclone.airbnb.service.criteria.BookingCriteria;
 import ma.fullstackclone.airbnb.service.dto.BookingDTO;
+import ma.fullstackclone.airbnb.service.dto.BookingQuoteDTO;
 import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
+import ma.fullstackclone.airbnb.web.rest.errors.VersionRequiredException;
 import ma.fullstackclone.airbnb.web.rest.errors.ElasticsearchExceptionMapper;
+import ma.fullstackclone.airbnb.web.rest.util.EntityTagUtil;
+import ma.fullstackclone.airbnb.web.rest.util.KeysetPaginationUtil;
+import ma.fullstackclone.airbnb.web.rest.util.SlicePaginationUtil;
+import ma.fullstackclone.airbnb.web.rest.vm.BookingQuoteVM;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -43,21 +51,27 @@ public class BookingResource {
 
     private final BookingService bookingService;
 
-    private final BookingRepository bookingRepository;
-
     private final BookingQueryService bookingQueryService;
 
-    public BookingResource(BookingService bookingService, BookingRepository bookingRepository, BookingQueryService bookingQueryService) {
+    private final PriceQuoteService priceQuoteService;
+
+    public BookingResource(
+        BookingService bookingService,
+        BookingQueryService bookingQueryService,
+        PriceQuoteService priceQuoteService
+    ) {
         this.bookingService = bookingService;
-        this.bookingRepository = bookingRepository;
         this.bookingQueryService = bookingQueryService;
+        this.priceQuoteService = priceQuoteService;
     }
 
     /**
      * {@code POST  /bookings} : Create a new booking.
      *
-     * @param bookingDTO the bookingDTO to create.
-     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new bookingDTO, or with status {@code 400 (Bad Request)} if the booking has already an ID.
+     * @param bookingDTO the bookingDTO to create, with the promotion code to redeem, if any.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new bookingDTO, or with status {@code 400 (Bad Request)} if the booking has already an ID,
+     * or with status {@code 400 (Bad Request)} if its promotion code is unknown, not valid anymore or used up,
+     * or with status {@code 409 (Conflict)} if its dates are already booked.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PostMapping("")
@@ -72,20 +86,43 @@ public class BookingResource {
             .body(bookingDTO);
     }
 
+    /**
+     * {@code POST  /bookings/_quote} : Price a stay, night by night, with the length-of-stay discount and the promotion code.
+     *
+     * @param quoteVM the property, the dates of the stay and the promotion code.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the quote,
+     * or with status {@code 400 (Bad Request)} if the stay or the promotion code is not valid,
+     * or with status {@code 404 (Not Found)} if the property does not exist.
+     */
+    @PostMapping("/_quote")
+    public ResponseEntity<BookingQuoteDTO> quoteBooking(@Valid @RequestBody BookingQuoteVM quoteVM) {
+        LOG.debug("REST request to quote Booking : {}", quoteVM);
+        if (!quoteVM.getCheckOutDate().isAfter(quoteVM.getCheckInDate())) {
+            throw new BadRequestAlertException("Check-out must be after check-in", ENTITY_NAME, "invalidstay");
+        }
+        return ResponseUtil.wrapOrNotFound(
+            priceQuoteService.quote(quoteVM.getPropertyId(), quoteVM.getCheckInDate(), quoteVM.getCheckOutDate(), quoteVM.getPromotionCode())
+        );
+    }
+
     /**
      * {@code PUT  /bookings/:id} : Updates an existing booking.
      *
      * @param id the id of the bookingDTO to save.
      * @param bookingDTO the bookingDTO to update.
+     * @param ifMatch the tag of the version the update is made from, over the version of the bookingDTO.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated bookingDTO,
      * or with status {@code 400 (Bad Request)} if the bookingDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the booking was updated since that version or its dates are already booked,
+     * or with status {@code 428 (Precondition Required)} if neither its version nor an {@code If-Match} header is sent,
      * or with status {@code 500 (Internal Server Error)} if the bookingDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<BookingDTO> updateBooking(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody BookingDTO bookingDTO
+        @Valid @RequestBody BookingDTO bookingDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Booking : {}, {}", id, bookingDTO);
         if (bookingDTO.getId() == null) {
@@ -94,14 +131,19 @@ public class BookingResource {
         if (!Objects.equals(id, bookingDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-
-        if (!bookingRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            bookingDTO.setVersion(EntityTagUtil.ifMatchVersion(ifMatch, ENTITY_NAME, id));
+        }
+        if (bookingDTO.getVersion() == null && bookingService.findOne(id).isPresent()) {
+            throw new VersionRequiredException(ENTITY_NAME);
         }
 
-        bookingDTO = bookingService.update(bookingDTO);
+        bookingDTO = bookingService
+            .update(bookingDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, bookingDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(ENTITY_NAME, bookingDTO.getId(), bookingDTO.getVersion()))
             .body(bookingDTO);
     }
 
@@ -110,16 +152,18 @@ public class BookingResource {
      *
      * @param id the id of the bookingDTO to save.
      * @param bookingDTO the bookingDTO to update.
+     * @param ifMatch the tag of the version the update is made from, over the version of the bookingDTO.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated bookingDTO,
-     * or with status {@code 400 (Bad Request)} if the bookingDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the bookingDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the bookingDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the booking was updated since that version or its dates are already booked,
      * or with status {@code 500 (Internal Server Error)} if the bookingDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<BookingDTO> partialUpdateBooking(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody BookingDTO bookingDTO
+        @NotNull @RequestBody BookingDTO bookingDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Booking partially : {}, {}", id, bookingDTO);
         if (bookingDTO.getId() == null) {
@@ -128,17 +172,17 @@ public class BookingResource {
         if (!Objects.equals(id, bookingDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-
-        if (!bookingRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            bookingDTO.setVersion(EntityTagUtil.ifMatchVersion(ifMatch, ENTITY_NAME, id));
         }
 
-        Optional<BookingDTO> result = bookingService.partialUpdate(bookingDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, bookingDTO.getId().toString())
-        );
+        BookingDTO result = bookingService
+            .partialUpdate(bookingDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(ENTITY_NAME, result.getId(), result.getVersion()))
+            .body(result);
     }
 
     /**
@@ -146,17 +190,28 @@ public class BookingResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned in the {@code Link} header of the previous page: when given (empty for the first page),
+     * the page is read with keyset pagination and no {@code X-Total-Count} header is sent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of bookings in body.
      */
     @GetMapping("")
     public ResponseEntity<List<BookingDTO>> getAllBookings(
         BookingCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable
     ) {
         LOG.debug("REST request to get Bookings by criteria: {}", criteria);
 
-        Page<BookingDTO> page = bookingQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        if (after != null) {
+            Window<BookingDTO> window = bookingQueryService.findByCriteria(criteria, after, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                window
+            );
+            return ResponseEntity.ok().headers(headers).body(window.getContent());
+        }
+        Slice<BookingDTO> page = bookingQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
@@ -176,13 +231,16 @@ public class BookingResource {
      * {@code GET  /bookings/:id} : get the "id" booking.
      *
      * @param id the id of the bookingDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bookingDTO, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the bookingDTO and its tag, for the
+     * {@code If-Match} header of its updates, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
     public ResponseEntity<BookingDTO> getBooking(@PathVariable("id") Long id) {
         LOG.debug("REST request to get Booking : {}", id);
         Optional<BookingDTO> bookingDTO = bookingService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(bookingDTO);
+        HttpHeaders headers = new HttpHeaders();
+        bookingDTO.ifPresent(booking -> headers.setETag(EntityTagUtil.entityTag(ENTITY_NAME, id, booking.getVersion())));
+        return ResponseUtil.wrapOrNotFound(bookingDTO, headers);
     }
 
     /**
@@ -14,11 +14,15 @@ import ma.fullstackclone.airbnb.service.criteria.PromotionCriteria;
 import ma.fullstackclone.airbnb.service.dto.PromotionDTO;
 import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
 import ma.fullstackclone.airbnb.web.rest.errors.ElasticsearchExceptionMapper;
+import ma.fullstackclone.airbnb.web.rest.util.KeysetPaginationUtil;
+import ma.fullstackclone.airbnb.web.rest.util.SlicePaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -150,17 +154,28 @@ public class PromotionResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned in the {@code Link} header of the previous page: when given (empty for the first page),
+     * the page is read with keyset pagination and no {@code X-Total-Count} header is sent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of promotions in body.
      */
     @GetMapping("")
     public ResponseEntity<List<PromotionDTO>> getAllPromotions(
         PromotionCriteria criteria,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
         @org.springdoc.core.annotations.ParameterObject Pageable pageable
     ) {
         LOG.debug("REST request to get Promotions by criteria: {}", criteria);
 
-        Page<PromotionDTO> page = promotionQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        if (after != null) {
+            Window<PromotionDTO> window = promotionQueryService.findByCriteria(criteria, after, pageable);
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                ServletUriComponentsBuilder.fromCurrentRequest(),
+                window
+            );
+            return ResponseEntity.ok().headers(headers).body(window.getContent());
+        }
+        Slice<PromotionDTO> page = promotionQueryService.findByCriteria(criteria, pageable);
+        HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
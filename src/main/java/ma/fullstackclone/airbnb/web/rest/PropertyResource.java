@@ -3,25 +3,42 @@ package ma.fullstackclone.airbnb.web.rest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
+import java.math.BigDecimal;
 import java.net.URISyntaxException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import java.util.Set;
+import ma.fullstackclone.airbnb.repository.search.PropertySearchCriteria;
+import ma.fullstackclone.airbnb.service.BookingAvailabilityService;
+import ma.fullstackclone.airbnb.service.PropertyCalendarService;
+import ma.fullstackclone.airbnb.service.PropertyFacetService;
+import ma.fullstackclone.airbnb.service.PropertyGeoSearchService;
 import ma.fullstackclone.airbnb.service.PropertyQueryService;
 import ma.fullstackclone.airbnb.service.PropertyService;
 import ma.fullstackclone.airbnb.service.criteria.PropertyCriteria;
+import ma.fullstackclone.airbnb.service.dto.PropertyCalendarDTO;
 import ma.fullstackclone.airbnb.service.dto.PropertyDTO;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO;
 import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
+import ma.fullstackclone.airbnb.web.rest.errors.VersionRequiredException;
 import ma.fullstackclone.airbnb.web.rest.errors.ElasticsearchExceptionMapper;
+import ma.fullstackclone.airbnb.web.rest.util.EntityTagUtil;
+import ma.fullstackclone.airbnb.web.rest.util.KeysetPaginationUtil;
+import ma.fullstackclone.airbnb.web.rest.util.SerializedResponseCache;
+import ma.fullstackclone.airbnb.web.rest.util.SlicePaginationUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
@@ -43,18 +60,34 @@ public class PropertyResource {
 
     private final PropertyService propertyService;
 
-    private final PropertyRepository propertyRepository;
-
     private final PropertyQueryService propertyQueryService;
 
+    private final BookingAvailabilityService bookingAvailabilityService;
+
+    private final PropertyGeoSearchService propertyGeoSearchService;
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    private final PropertyCalendarService propertyCalendarService;
+
+    private final PropertyFacetService propertyFacetService;
+
     public PropertyResource(
         PropertyService propertyService,
-        PropertyRepository propertyRepository,
-        PropertyQueryService propertyQueryService
+        PropertyQueryService propertyQueryService,
+        BookingAvailabilityService bookingAvailabilityService,
+        PropertyGeoSearchService propertyGeoSearchService,
+        SerializedResponseCache serializedResponseCache,
+        PropertyCalendarService propertyCalendarService,
+        PropertyFacetService propertyFacetService
     ) {
         this.propertyService = propertyService;
-        this.propertyRepository = propertyRepository;
         this.propertyQueryService = propertyQueryService;
+        this.bookingAvailabilityService = bookingAvailabilityService;
+        this.propertyGeoSearchService = propertyGeoSearchService;
+        this.serializedResponseCache = serializedResponseCache;
+        this.propertyCalendarService = propertyCalendarService;
+        this.propertyFacetService = propertyFacetService;
     }
 
     /**
@@ -81,15 +114,19 @@ public class PropertyResource {
      *
      * @param id the id of the propertyDTO to save.
      * @param propertyDTO the propertyDTO to update.
+     * @param ifMatch the tag of the version the update is made from, over the version of the propertyDTO.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated propertyDTO,
      * or with status {@code 400 (Bad Request)} if the propertyDTO is not valid,
+     * or with status {@code 409 (Conflict)} if the property was updated since that version,
+     * or with status {@code 428 (Precondition Required)} if neither its version nor an {@code If-Match} header is sent,
      * or with status {@code 500 (Internal Server Error)} if the propertyDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PutMapping("/{id}")
     public ResponseEntity<PropertyDTO> updateProperty(
         @PathVariable(value = "id", required = false) final Long id,
-        @Valid @RequestBody PropertyDTO propertyDTO
+        @Valid @RequestBody PropertyDTO propertyDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to update Property : {}, {}", id, propertyDTO);
         if (propertyDTO.getId() == null) {
@@ -98,14 +135,19 @@ public class PropertyResource {
         if (!Objects.equals(id, propertyDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-
-        if (!propertyRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            propertyDTO.setVersion(EntityTagUtil.ifMatchVersion(ifMatch, ENTITY_NAME, id));
+        }
+        if (propertyDTO.getVersion() == null && propertyService.findVersion(id).isPresent()) {
+            throw new VersionRequiredException(ENTITY_NAME);
         }
 
-        propertyDTO = propertyService.update(propertyDTO);
+        propertyDTO = propertyService
+            .update(propertyDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
         return ResponseEntity.ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, propertyDTO.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(ENTITY_NAME, propertyDTO.getId(), propertyDTO.getVersion()))
             .body(propertyDTO);
     }
 
@@ -114,16 +156,18 @@ public class PropertyResource {
      *
      * @param id the id of the propertyDTO to save.
      * @param propertyDTO the propertyDTO to update.
+     * @param ifMatch the tag of the version the update is made from, over the version of the propertyDTO.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated propertyDTO,
-     * or with status {@code 400 (Bad Request)} if the propertyDTO is not valid,
-     * or with status {@code 404 (Not Found)} if the propertyDTO is not found,
+     * or with status {@code 400 (Bad Request)} if the propertyDTO is not valid or not found,
+     * or with status {@code 409 (Conflict)} if the property was updated since that version,
      * or with status {@code 500 (Internal Server Error)} if the propertyDTO couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
     @PatchMapping(value = "/{id}", consumes = { "application/json", "application/merge-patch+json" })
     public ResponseEntity<PropertyDTO> partialUpdateProperty(
         @PathVariable(value = "id", required = false) final Long id,
-        @NotNull @RequestBody PropertyDTO propertyDTO
+        @NotNull @RequestBody PropertyDTO propertyDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) throws URISyntaxException {
         LOG.debug("REST request to partial update Property partially : {}, {}", id, propertyDTO);
         if (propertyDTO.getId() == null) {
@@ -132,17 +176,17 @@ public class PropertyResource {
         if (!Objects.equals(id, propertyDTO.getId())) {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
-
-        if (!propertyRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        if (ifMatch != null) {
+            propertyDTO.setVersion(EntityTagUtil.ifMatchVersion(ifMatch, ENTITY_NAME, id));
         }
 
-        Optional<PropertyDTO> result = propertyService.partialUpdate(propertyDTO);
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, propertyDTO.getId().toString())
-        );
+        PropertyDTO result = propertyService
+            .partialUpdate(propertyDTO)
+            .orElseThrow(() -> new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .eTag(EntityTagUtil.entityTag(ENTITY_NAME, result.getId(), result.getVersion()))
+            .body(result);
     }
 
     /**
@@ -150,18 +194,33 @@ public class PropertyResource {
      *
      * @param pageable the pagination information.
      * @param criteria the criteria which the requested entities should match.
+     * @param after the cursor returned in the {@code Link} header of the previous page: when given (empty for the first page),
+     * the page is read with keyset pagination and no {@code X-Total-Count} header is sent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of properties in body.
      */
     @GetMapping("")
-    public ResponseEntity<List<PropertyDTO>> getAllProperties(
+    public ResponseEntity<byte[]> getAllProperties(
         PropertyCriteria criteria,
-        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        NativeWebRequest request
     ) {
         LOG.debug("REST request to get Properties by criteria: {}", criteria);
-
-        Page<PropertyDTO> page = propertyQueryService.findByCriteria(criteria, pageable);
-        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        // the availability filters read the bookings, which the tag of the properties does not cover
+        String eTag = criteria.getAvailableFrom() == null && criteria.getAvailableTo() == null ? propertiesETag() : null;
+        return serializedResponseCache.get(request, eTag, () -> {
+            if (after != null) {
+                Window<PropertyDTO> window = propertyQueryService.findByCriteria(criteria, after, pageable);
+                HttpHeaders headers = KeysetPaginationUtil.generateKeysetPaginationHttpHeaders(
+                    ServletUriComponentsBuilder.fromCurrentRequest(),
+                    window
+                );
+                return ResponseEntity.ok().headers(headers).body(window.getContent());
+            }
+            Slice<PropertyDTO> page = propertyQueryService.findByCriteria(criteria, pageable);
+            HttpHeaders headers = SlicePaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        });
     }
 
     /**
@@ -180,13 +239,57 @@ public class PropertyResource {
      * {@code GET  /properties/:id} : get the "id" property.
      *
      * @param id the id of the propertyDTO to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the propertyDTO, or with status {@code 404 (Not Found)}.
+     * @param request the request, for its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the propertyDTO, or with status {@code 304 (Not Modified)},
+     * or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PropertyDTO> getProperty(@PathVariable("id") Long id) {
+    public ResponseEntity<byte[]> getProperty(@PathVariable("id") Long id, NativeWebRequest request) {
         LOG.debug("REST request to get Property : {}", id);
-        Optional<PropertyDTO> propertyDTO = propertyService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(propertyDTO);
+        // the rating of a property changes its representation, but not its version
+        String eTag = propertyService
+            .findRepresentationStamp(id)
+            .map(stamp -> EntityTagUtil.entityTag(ENTITY_NAME, id, stamp.getVersion(), stamp.getLastModifiedDate()))
+            .orElse(null);
+        return serializedResponseCache.get(request, eTag, () -> {
+            Optional<PropertyDTO> propertyDTO = propertyService.findOne(id);
+            return ResponseUtil.wrapOrNotFound(propertyDTO);
+        });
+    }
+
+    /**
+     * {@code GET  /properties/:id/availability} : check whether the "id" property is free for a stay.
+     *
+     * @param id the id of the property.
+     * @param checkIn the requested check-in (inclusive).
+     * @param checkOut the requested check-out (exclusive).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and {@code true} in body if no booking overlaps the stay,
+     * or with status {@code 400 (Bad Request)} if the stay is empty.
+     */
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Boolean> getPropertyAvailability(
+        @PathVariable("id") Long id,
+        @RequestParam("checkIn") Instant checkIn,
+        @RequestParam("checkOut") Instant checkOut
+    ) {
+        LOG.debug("REST request to get availability of Property : {} from {} to {}", id, checkIn, checkOut);
+        if (!checkOut.isAfter(checkIn)) {
+            throw new BadRequestAlertException("Check-out must be after check-in", ENTITY_NAME, "invalidstay");
+        }
+        return ResponseEntity.ok().body(bookingAvailabilityService.isAvailable(id, checkIn, checkOut));
+    }
+
+    /**
+     * {@code GET  /properties/:id/calendar} : get the calendar of the "id" property over the next 12 months.
+     *
+     * @param id the id of the property.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the availability, booking and price of
+     * each night, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/calendar")
+    public ResponseEntity<PropertyCalendarDTO> getPropertyCalendar(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get calendar of Property : {}", id);
+        return ResponseUtil.wrapOrNotFound(propertyCalendarService.findCalendar(id));
     }
 
     /**
@@ -226,4 +329,156 @@ public class PropertyResource {
             throw ElasticsearchExceptionMapper.mapException(e);
         }
     }
+
+    /**
+     * {@code GET  /properties/_listings} : listing search of the active properties, ranked by text relevance, rating
+     * and recency. The area is applied only when {@code lat}, {@code lon} and {@code radiusKm} are all given.
+     *
+     * @param text the free text, matched against the title, address and description.
+     * @param minPrice the minimum price per night (inclusive).
+     * @param maxPrice the maximum price per night (inclusive).
+     * @param guests the number of guests the properties must host.
+     * @param rooms the minimum number of rooms.
+     * @param cityId the id of the city of the properties.
+     * @param lat the latitude of the center of the search area.
+     * @param lon the longitude of the center of the search area.
+     * @param radiusKm the radius of the search area, in kilometers.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of properties in body, the most
+     * relevant first, or with status {@code 400 (Bad Request)} if the price range or the area is not valid.
+     */
+    @GetMapping("/_listings")
+    public ResponseEntity<List<PropertyDTO>> searchPropertyListings(
+        @RequestParam(value = "q", required = false) String text,
+        @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+        @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice,
+        @RequestParam(value = "guests", required = false) Integer guests,
+        @RequestParam(value = "rooms", required = false) Integer rooms,
+        @RequestParam(value = "cityId", required = false) Long cityId,
+        @RequestParam(value = "lat", required = false) Double lat,
+        @RequestParam(value = "lon", required = false) Double lon,
+        @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search for a page of Property listings for {}", text);
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestAlertException("Invalid price range", ENTITY_NAME, "invalidpricerange");
+        }
+        PropertySearchCriteria criteria = new PropertySearchCriteria(text, minPrice, maxPrice, guests, rooms, cityId, lat, lon, radiusKm);
+        if (criteria.hasArea() && (!isLatitude(lat) || !isLongitude(lon) || radiusKm <= 0)) {
+            throw new BadRequestAlertException("Invalid search area", ENTITY_NAME, "invalidgeoarea");
+        }
+        try {
+            Page<PropertyDTO> page = propertyService.searchListings(criteria, pageable);
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+    }
+
+    /**
+     * {@code GET  /properties/_facets} : count the properties per amenity, category, city, price bucket and instant
+     * booking, among those having the selected values.
+     *
+     * @param amenityIds the ids of the amenities the properties must all have.
+     * @param categoryIds the ids of the categories the properties must all have.
+     * @param cityId the id of the city of the properties.
+     * @param instantBook the instant booking of the properties.
+     * @param minPrice the minimum price per night (inclusive).
+     * @param maxPrice the maximum price per night (inclusive).
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the counts in body,
+     * or with status {@code 400 (Bad Request)} if the price range is not valid.
+     */
+    @GetMapping("/_facets")
+    public ResponseEntity<PropertyFacetsDTO> getPropertyFacets(
+        @RequestParam(value = "amenityId", required = false) Set<Long> amenityIds,
+        @RequestParam(value = "categoryId", required = false) Set<Long> categoryIds,
+        @RequestParam(value = "cityId", required = false) Long cityId,
+        @RequestParam(value = "instantBook", required = false) Boolean instantBook,
+        @RequestParam(value = "minPrice", required = false) BigDecimal minPrice,
+        @RequestParam(value = "maxPrice", required = false) BigDecimal maxPrice
+    ) {
+        LOG.debug("REST request to count the facets of Properties");
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new BadRequestAlertException("Invalid price range", ENTITY_NAME, "invalidpricerange");
+        }
+        try {
+            return ResponseEntity.ok(
+                propertyFacetService.countFacets(
+                    new PropertyFacetService.Filter(amenityIds, categoryIds, cityId, instantBook, minPrice, maxPrice)
+                )
+            );
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+    }
+
+    /**
+     * {@code GET  /properties/_geo} : map search of the properties, sorted by distance.
+     * Either {@code lat}, {@code lon} and {@code radiusKm} (radius search), or {@code minLat}, {@code minLon},
+     * {@code maxLat} and {@code maxLon} (bounding-box search) must be given.
+     *
+     * @param lat the latitude of the center of the radius search.
+     * @param lon the longitude of the center of the radius search.
+     * @param radiusKm the radius of the search, in kilometers.
+     * @param minLat the south edge of the bounding box.
+     * @param minLon the west edge of the bounding box.
+     * @param maxLat the north edge of the bounding box.
+     * @param maxLon the east edge of the bounding box.
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of properties in body,
+     * or with status {@code 400 (Bad Request)} if the area is not valid.
+     */
+    @GetMapping("/_geo")
+    public ResponseEntity<List<PropertyDTO>> searchPropertiesByLocation(
+        @RequestParam(value = "lat", required = false) Double lat,
+        @RequestParam(value = "lon", required = false) Double lon,
+        @RequestParam(value = "radiusKm", required = false) Double radiusKm,
+        @RequestParam(value = "minLat", required = false) Double minLat,
+        @RequestParam(value = "minLon", required = false) Double minLon,
+        @RequestParam(value = "maxLat", required = false) Double maxLat,
+        @RequestParam(value = "maxLon", required = false) Double maxLon,
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable
+    ) {
+        LOG.debug("REST request to search Properties by location");
+        Page<PropertyDTO> page;
+        try {
+            if (lat != null && lon != null && radiusKm != null) {
+                if (!isLatitude(lat) || !isLongitude(lon) || radiusKm <= 0) {
+                    throw new BadRequestAlertException("Invalid search area", ENTITY_NAME, "invalidgeoarea");
+                }
+                page = propertyGeoSearchService.findWithinDistance(lat, lon, radiusKm, pageable);
+            } else if (minLat != null && minLon != null && maxLat != null && maxLon != null) {
+                if (!isLatitude(minLat) || !isLatitude(maxLat) || !isLongitude(minLon) || !isLongitude(maxLon) || minLat > maxLat || minLon > maxLon) {
+                    throw new BadRequestAlertException("Invalid search area", ENTITY_NAME, "invalidgeoarea");
+                }
+                page = propertyGeoSearchService.findWithinBox(minLat, minLon, maxLat, maxLon, pageable);
+            } else {
+                throw new BadRequestAlertException("Invalid search area", ENTITY_NAME, "invalidgeoarea");
+            }
+        } catch (BadRequestAlertException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw ElasticsearchExceptionMapper.mapException(e);
+        }
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    private static boolean isLatitude(double value) {
+        return value >= -90 && value <= 90;
+    }
+
+    private static boolean isLongitude(double value) {
+        return value >= -180 && value <= 180;
+    }
+
+    /**
+     * The tag of the listings: the modification count of the properties, which the database increments when any insert,
+     * update or delete of a property or of its relationships commits. The DTOs only carry the ids of their relationships.
+     */
+    private String propertiesETag() {
+        return "\"properties-" + Long.toString(propertyService.findModificationCount(), 36) + "\"";
+    }
 }
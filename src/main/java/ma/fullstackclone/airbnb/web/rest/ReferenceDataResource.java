@@ -0,0 +1,122 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import java.util.List;
+import java.util.function.Supplier;
+import ma.fullstackclone.airbnb.service.ReferenceDataService;
+import ma.fullstackclone.airbnb.service.ReferenceTable;
+import ma.fullstackclone.airbnb.service.dto.AmenityDTO;
+import ma.fullstackclone.airbnb.service.dto.CityDTO;
+import ma.fullstackclone.airbnb.service.dto.CountryDTO;
+import ma.fullstackclone.airbnb.service.dto.PropertyCategoryDTO;
+import ma.fullstackclone.airbnb.web.rest.util.SerializedResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/**
+ * REST controller serving the reference data of the search forms from memory: countries, cities, amenities and
+ * property categories, each listed by name, without pages.
+ * <p>
+ * Responses carry the {@code ETag} of their table, and an {@code If-None-Match} request for an unchanged table is
+ * answered with {@code 304 (Not Modified)}; otherwise the JSON served last for the same URL and tag is reused, from the
+ * {@link SerializedResponseCache}. The entity endpoints ({@code /api/countries}...) still read the database,
+ * for their criteria, sorts and pages.
+ */
+@RestController
+@RequestMapping("/api/reference-data")
+public class ReferenceDataResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceDataResource.class);
+
+    private final ReferenceDataService referenceDataService;
+
+    private final SerializedResponseCache serializedResponseCache;
+
+    public ReferenceDataResource(ReferenceDataService referenceDataService, SerializedResponseCache serializedResponseCache) {
+        this.referenceDataService = referenceDataService;
+        this.serializedResponseCache = serializedResponseCache;
+    }
+
+    /**
+     * {@code GET  /reference-data/countries} : get all the countries, or those with a name.
+     *
+     * @param name the name of the countries, ignoring case.
+     * @param request the request, for its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of countries in body,
+     * or with status {@code 304 (Not Modified)}.
+     */
+    @GetMapping("/countries")
+    public ResponseEntity<byte[]> getCountries(@RequestParam(value = "name", required = false) String name, NativeWebRequest request) {
+        LOG.debug("REST request to get the reference Countries named {}", name);
+        ReferenceTable<CountryDTO> countries = referenceDataService.getCountries();
+        return conditional(countries, () -> name != null ? countries.findByName(name) : countries.findAll(), request);
+    }
+
+    /**
+     * {@code GET  /reference-data/cities} : get all the cities, or those of a country, or with a name.
+     *
+     * @param countryId the id of the country of the cities.
+     * @param name the name of the cities, ignoring case.
+     * @param request the request, for its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of cities in body,
+     * or with status {@code 304 (Not Modified)}.
+     */
+    @GetMapping("/cities")
+    public ResponseEntity<byte[]> getCities(
+        @RequestParam(value = "countryId", required = false) Long countryId,
+        @RequestParam(value = "name", required = false) String name,
+        NativeWebRequest request
+    ) {
+        LOG.debug("REST request to get the reference Cities of country {} named {}", countryId, name);
+        ReferenceTable<CityDTO> cities = referenceDataService.getCities();
+        return conditional(
+            cities,
+            () -> {
+                List<CityDTO> rows = countryId != null ? cities.findByGroup(countryId) : cities.findAll();
+                if (name != null) {
+                    List<CityDTO> named = cities.findByName(name);
+                    rows = rows.stream().filter(named::contains).toList();
+                }
+                return rows;
+            },
+            request
+        );
+    }
+
+    /**
+     * {@code GET  /reference-data/amenities} : get all the amenities.
+     *
+     * @param request the request, for its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of amenities in body,
+     * or with status {@code 304 (Not Modified)}.
+     */
+    @GetMapping("/amenities")
+    public ResponseEntity<byte[]> getAmenities(NativeWebRequest request) {
+        LOG.debug("REST request to get the reference Amenities");
+        ReferenceTable<AmenityDTO> amenities = referenceDataService.getAmenities();
+        return conditional(amenities, amenities::findAll, request);
+    }
+
+    /**
+     * {@code GET  /reference-data/property-categories} : get all the property categories.
+     *
+     * @param request the request, for its {@code If-None-Match} header.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of property categories in body,
+     * or with status {@code 304 (Not Modified)}.
+     */
+    @GetMapping("/property-categories")
+    public ResponseEntity<byte[]> getPropertyCategories(NativeWebRequest request) {
+        LOG.debug("REST request to get the reference PropertyCategories");
+        ReferenceTable<PropertyCategoryDTO> propertyCategories = referenceDataService.getPropertyCategories();
+        return conditional(propertyCategories, propertyCategories::findAll, request);
+    }
+
+    private <T> ResponseEntity<byte[]> conditional(ReferenceTable<T> table, Supplier<List<T>> rows, NativeWebRequest request) {
+        return serializedResponseCache.get(request, table.getETag(), () -> ResponseEntity.ok(rows.get()));
+    }
+}
@@ -0,0 +1,65 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import java.util.List;
+import ma.fullstackclone.airbnb.security.AuthoritiesConstants;
+import ma.fullstackclone.airbnb.service.SearchReindexService;
+import ma.fullstackclone.airbnb.service.SearchReindexService.IndexStatus;
+import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller rebuilding the Elasticsearch indices from the database.
+ */
+@RestController
+@RequestMapping("/api/admin/search")
+public class SearchReindexResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private static final String ENTITY_NAME = "searchReindex";
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /admin/search/_reindex} : Start rebuilding indices in the background.
+     *
+     * @param indices the names of the indices to rebuild, all of them if none.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and the progress of the rebuild in body,
+     * or with status {@code 409 (Conflict)} and the progress of the running rebuild if one is already running.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if an index is unknown.
+     */
+    @PostMapping("/_reindex")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<IndexStatus>> reindex(@RequestParam(value = "index", required = false) List<String> indices) {
+        LOG.debug("REST request to rebuild the search indices : {}", indices);
+        List<String> selected = indices != null ? indices : List.of();
+        for (String index : selected) {
+            if (!searchReindexService.getIndices().contains(index)) {
+                throw new BadRequestAlertException("Unknown index " + index, ENTITY_NAME, "unknownindex");
+            }
+        }
+        HttpStatus status = searchReindexService.reindex(selected) ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(searchReindexService.getStatus());
+    }
+
+    /**
+     * {@code GET  /admin/search/_reindex} : Get the progress of the last rebuild.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the progress of each index in body.
+     */
+    @GetMapping("/_reindex")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public List<IndexStatus> getReindexStatus() {
+        LOG.debug("REST request to get the progress of the search indices rebuild");
+        return searchReindexService.getStatus();
+    }
+}
@@ -0,0 +1,48 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import java.util.List;
+import ma.fullstackclone.airbnb.service.SuggestionService;
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller suggesting cities, countries and properties to the search box as the user types, from memory.
+ */
+@RestController
+@RequestMapping("/api")
+public class SuggestionResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SuggestionResource.class);
+
+    private static final int MAX_SIZE = 20;
+
+    private final SuggestionService suggestionService;
+
+    public SuggestionResource(SuggestionService suggestionService) {
+        this.suggestionService = suggestionService;
+    }
+
+    /**
+     * {@code GET  /_suggest?q=:q} : suggest the cities, countries and properties having a word of their name or title
+     * starting with a prefix.
+     *
+     * @param q the prefix typed, ignoring case and accents.
+     * @param size the maximum number of suggestions, at most {@value #MAX_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of suggestions in body, the most
+     * relevant first.
+     */
+    @GetMapping("/_suggest")
+    public ResponseEntity<List<SuggestionDTO>> suggest(
+        @RequestParam("q") String q,
+        @RequestParam(value = "size", defaultValue = "10") int size
+    ) {
+        LOG.debug("REST request to suggest names starting with {}", q);
+        return ResponseEntity.ok(suggestionService.suggest(q, Math.min(size, MAX_SIZE)));
+    }
+}
@@ -0,0 +1,28 @@
+package ma.fullstackclone.airbnb.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * The dates of a booking are taken by another one: answered with {@code 409 (Conflict)}, like a concurrent update.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class BookingConflictException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public BookingConflictException() {
+        super(
+            HttpStatus.CONFLICT,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.CONFLICT.value())
+                .withType(ErrorConstants.BOOKING_CONFLICT_TYPE)
+                .withTitle("The property is already booked for these dates!")
+                .withProperty("message", "error.bookingconflict")
+                .withProperty("params", "booking")
+                .build(),
+            null
+        );
+    }
+}
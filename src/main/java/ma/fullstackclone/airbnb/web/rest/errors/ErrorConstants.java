@@ -12,6 +12,11 @@ public final class ErrorConstants {
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI BOOKING_CONFLICT_TYPE = URI.create(PROBLEM_BASE_URL + "/booking-conflict");
+    public static final URI INVALID_CURSOR_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-cursor");
+    public static final URI INVALID_STAY_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-stay");
+    public static final URI INVALID_PROMOTION_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-promotion");
+    public static final URI VERSION_REQUIRED_TYPE = URI.create(PROBLEM_BASE_URL + "/version-required");
 
     private ErrorConstants() {}
 }
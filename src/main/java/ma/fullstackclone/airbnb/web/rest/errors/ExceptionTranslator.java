@@ -90,6 +90,18 @@ public class ExceptionTranslator extends ResponseEntityExceptionHandler {
         if (
             ex instanceof ma.fullstackclone.airbnb.service.InvalidPasswordException
         ) return (ProblemDetailWithCause) new InvalidPasswordException().getBody();
+        if (
+            ex instanceof ma.fullstackclone.airbnb.service.BookingConflictException
+        ) return (ProblemDetailWithCause) new BookingConflictException().getBody();
+        if (
+            ex instanceof ma.fullstackclone.airbnb.service.InvalidCursorException
+        ) return (ProblemDetailWithCause) new InvalidCursorException().getBody();
+        if (
+            ex instanceof ma.fullstackclone.airbnb.service.InvalidStayException
+        ) return (ProblemDetailWithCause) new InvalidStayException().getBody();
+        if (
+            ex instanceof ma.fullstackclone.airbnb.service.InvalidPromotionException
+        ) return (ProblemDetailWithCause) new InvalidPromotionException().getBody();
 
         if (
             ex instanceof ErrorResponseException exp && exp.getBody() instanceof ProblemDetailWithCause problemDetailWithCause
@@ -0,0 +1,11 @@
+package ma.fullstackclone.airbnb.web.rest.errors;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class InvalidCursorException extends BadRequestAlertException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidCursorException() {
+        super(ErrorConstants.INVALID_CURSOR_TYPE, "Invalid pagination cursor!", "pagination", "invalidcursor");
+    }
+}
@@ -0,0 +1,11 @@
+package ma.fullstackclone.airbnb.web.rest.errors;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class InvalidPromotionException extends BadRequestAlertException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidPromotionException() {
+        super(ErrorConstants.INVALID_PROMOTION_TYPE, "Invalid promotion code!", "booking", "invalidpromotion");
+    }
+}
@@ -0,0 +1,11 @@
+package ma.fullstackclone.airbnb.web.rest.errors;
+
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class InvalidStayException extends BadRequestAlertException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidStayException() {
+        super(ErrorConstants.INVALID_STAY_TYPE, "Invalid stay!", "booking", "invalidstay");
+    }
+}
@@ -0,0 +1,29 @@
+package ma.fullstackclone.airbnb.web.rest.errors;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import tech.jhipster.web.rest.errors.ProblemDetailWithCause.ProblemDetailWithCauseBuilder;
+
+/**
+ * A replacement of an entity sent without the version it was made from, which could silently undo a concurrent update:
+ * answered with {@code 428 (Precondition Required)}.
+ */
+@SuppressWarnings("java:S110") // Inheritance tree of classes should not be too deep
+public class VersionRequiredException extends ErrorResponseException {
+
+    private static final long serialVersionUID = 1L;
+
+    public VersionRequiredException(String entityName) {
+        super(
+            HttpStatus.PRECONDITION_REQUIRED,
+            ProblemDetailWithCauseBuilder.instance()
+                .withStatus(HttpStatus.PRECONDITION_REQUIRED.value())
+                .withType(ErrorConstants.VERSION_REQUIRED_TYPE)
+                .withTitle("Send the version of the " + entityName + " or an If-Match header!")
+                .withProperty("message", "error.versionrequired")
+                .withProperty("params", entityName)
+                .build(),
+            null
+        );
+    }
+}
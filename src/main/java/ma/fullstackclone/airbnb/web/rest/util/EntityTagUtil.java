@@ -0,0 +1,76 @@
+package ma.fullstackclone.airbnb.web.rest.util;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Utility class for the entity tags of versioned entities.
+ * <p>
+ * The tag of an entity is {@code "<entity name>-<id>-<version>"}: it is sent in the {@code ETag} header of its
+ * representations, and sent back in the {@code If-Match} header of an update made from it, which is then rejected if
+ * the entity was updated since.
+ * <p>
+ * The representation of an entity may also change without a new version, e.g. with a derived field updated in bulk: its
+ * tag then ends with the time of its last write, {@code "<entity name>-<id>-<version>-<modification>"}, which changes
+ * the validator of its conditional GETs but not the version its updates are checked against.
+ */
+public final class EntityTagUtil {
+
+    private static final String ANY = "*";
+
+    private static final Pattern TAG = Pattern.compile("\"([a-zA-Z]+)-(\\d{1,18})-(\\d{1,18})(?:-[0-9a-z]{1,13})?\"");
+
+    private EntityTagUtil() {}
+
+    /**
+     * Generate the entity tag of a version of an entity.
+     *
+     * @param entityName the name of the entity.
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @return the quoted tag.
+     */
+    public static String entityTag(String entityName, Long id, Long version) {
+        return "\"" + entityName + "-" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Generate the entity tag of a version of an entity, as last written at the given time.
+     *
+     * @param entityName the name of the entity.
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @param lastModifiedDate the time of the last write of the entity, if known.
+     * @return the quoted tag.
+     */
+    public static String entityTag(String entityName, Long id, Long version, Instant lastModifiedDate) {
+        if (lastModifiedDate == null) {
+            return entityTag(entityName, id, version);
+        }
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, lastModifiedDate);
+        return "\"" + entityName + "-" + id + "-" + version + "-" + Long.toString(micros, 36) + "\"";
+    }
+
+    /**
+     * Get the version an update is made from, out of its {@code If-Match} header.
+     *
+     * @param ifMatch the {@code If-Match} header, if any.
+     * @param entityName the name of the updated entity.
+     * @param id the id of the updated entity.
+     * @return the version, or {@code null} if the update is not conditional ({@code *} or no header).
+     * @throws BadRequestAlertException if the header is not the tag of a version of the entity.
+     */
+    public static Long ifMatchVersion(String ifMatch, String entityName, Long id) {
+        if (ifMatch == null || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        Matcher matcher = TAG.matcher(ifMatch.trim());
+        if (!matcher.matches() || !matcher.group(1).equals(entityName) || !matcher.group(2).equals(String.valueOf(id))) {
+            throw new BadRequestAlertException("Invalid If-Match header", entityName, "ifmatchinvalid");
+        }
+        return Long.valueOf(matcher.group(3));
+    }
+}
@@ -0,0 +1,52 @@
+package ma.fullstackclone.airbnb.web.rest.util;
+
+import java.text.MessageFormat;
+import ma.fullstackclone.airbnb.service.KeysetCursor;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Utility class for handling keyset pagination.
+ * <p>
+ * Unlike {@link tech.jhipster.web.util.PaginationUtil}, no {@code X-Total-Count} header is sent: the {@code Link} header
+ * only holds the {@code first} page and, unless the last page was reached, the {@code next} one.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Generate pagination headers for a window of entities read from a keyset position.
+     *
+     * @param uriBuilder The URI builder of the current request.
+     * @param window The window.
+     * @param <T> The type of object.
+     * @return http header.
+     */
+    public static <T> HttpHeaders generateKeysetPaginationHttpHeaders(UriComponentsBuilder uriBuilder, Window<T> window) {
+        uriBuilder.replaceQueryParam("page");
+        StringBuilder link = new StringBuilder();
+        String next = KeysetCursor.next(window);
+        if (next != null) {
+            link.append(prepareLink(uriBuilder, next, "next")).append(",");
+        }
+        link.append(prepareLink(uriBuilder, "", "first"));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String after, String relType) {
+        return MessageFormat.format(HEADER_LINK_FORMAT, preparePageUri(uriBuilder, after), relType);
+    }
+
+    private static String preparePageUri(UriComponentsBuilder uriBuilder, String after) {
+        return uriBuilder.replaceQueryParam(AFTER_PARAMETER, after).toUriString().replace(",", "%2C").replace(";", "%3B");
+    }
+}
@@ -0,0 +1,128 @@
+package ma.fullstackclone.airbnb.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.Serializable;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+
+/**
+ * Conditional GETs of read endpoints, and cache of their serialized JSON responses.
+ * <p>
+ * The endpoint computes the entity tag of the current state of its data with a cheap query, then an
+ * {@code If-None-Match} request with that tag is answered with {@code 304 (Not Modified)}. Otherwise the bytes served
+ * last for the same URL (host, path and query, with the parameters sorted by name) are reused if they were built for the
+ * same tag. Only a miss loads the data, maps it and serializes it, and that response replaces the cached one. A stale
+ * entry is never served: a changed tag makes every entry built before it a miss, and as the tag is computed before the
+ * data is loaded, the bytes cached under a tag are never older than it.
+ */
+@Component
+public class SerializedResponseCache {
+
+    public static final String SERIALIZED_RESPONSES_CACHE = "serializedResponses";
+
+    private final CacheManager cacheManager;
+
+    private final ObjectMapper objectMapper;
+
+    public SerializedResponseCache(CacheManager cacheManager, ObjectMapper objectMapper) {
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Answer a GET request conditionally.
+     *
+     * @param request the request, for its URL and {@code If-None-Match} header.
+     * @param eTag the quoted entity tag of the current state of the data, or {@code null} if there is none (e.g. not
+     * found): the response is then neither conditional nor cached.
+     * @param response builds the response, with the body to serialize, on a miss.
+     * @return the {@link ResponseEntity} with status {@code 304 (Not Modified)}, or the JSON bytes of the response.
+     */
+    public ResponseEntity<byte[]> get(NativeWebRequest request, String eTag, Supplier<? extends ResponseEntity<?>> response) {
+        if (eTag == null) {
+            ResponseEntity<?> built = response.get();
+            return toResponse(built.getStatusCode().value(), built.getHeaders(), built.hasBody() ? serialize(built.getBody()) : null, null);
+        }
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+        }
+        String key = key(request);
+        Cache cache = cacheManager.getCache(SERIALIZED_RESPONSES_CACHE);
+        CachedResponse cached = cache != null ? cache.get(key, CachedResponse.class) : null;
+        if (cached == null || !cached.eTag().equals(eTag)) {
+            ResponseEntity<?> built = response.get();
+            if (!built.getStatusCode().is2xxSuccessful() || !built.hasBody()) {
+                return toResponse(built.getStatusCode().value(), built.getHeaders(), built.hasBody() ? serialize(built.getBody()) : null, null);
+            }
+            Map<String, List<String>> headers = new LinkedHashMap<>();
+            built.getHeaders().forEach((name, values) -> headers.put(name, List.copyOf(values)));
+            cached = new CachedResponse(eTag, serialize(built.getBody()), headers);
+            if (cache != null) {
+                cache.put(key, cached);
+            }
+        }
+        return toResponse(HttpStatus.OK.value(), cached.headers(), cached.body(), eTag);
+    }
+
+    private static ResponseEntity<byte[]> toResponse(int status, Map<String, List<String>> headers, byte[] body, String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        headers.forEach((name, values) -> builder.header(name, values.toArray(String[]::new)));
+        if (eTag != null) {
+            builder.eTag(eTag).cacheControl(CacheControl.noCache());
+        }
+        if (body == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private byte[] serialize(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response", e);
+        }
+    }
+
+    /**
+     * The URL of the request, its parameters sorted by name, each with its values in their order.
+     */
+    static String key(NativeWebRequest request) {
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        String url = servletRequest != null
+            ? servletRequest.getServerName() + ":" + servletRequest.getServerPort() + servletRequest.getRequestURI()
+            : request.getDescription(false);
+        String query = new TreeMap<>(request.getParameterMap())
+            .entrySet()
+            .stream()
+            .flatMap(parameter -> Arrays.stream(parameter.getValue()).map(value -> encode(parameter.getKey()) + "=" + encode(value)))
+            .collect(Collectors.joining("&"));
+        return query.isEmpty() ? url : url + "?" + query;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A serialized response and the headers sent with it.
+     */
+    record CachedResponse(String eTag, byte[] body, Map<String, List<String>> headers) implements Serializable {}
+}
@@ -0,0 +1,4 @@
+/**
+ * Rest layer utilities.
+ */
+package ma.fullstackclone.airbnb.web.rest.util;
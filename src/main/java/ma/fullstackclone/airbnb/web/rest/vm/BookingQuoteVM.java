@@ -0,0 +1,64 @@
+package ma.fullstackclone.airbnb.web.rest.vm;
+
+import jakarta.validation.constraints.NotNull;
+import java.time.Instant;
+
+/**
+ * View Model object for the stay to price.
+ */
+public class BookingQuoteVM {
+
+    @NotNull
+    private Long propertyId;
+
+    @NotNull
+    private Instant checkInDate;
+
+    @NotNull
+    private Instant checkOutDate;
+
+    private String promotionCode;
+
+    public Long getPropertyId() {
+        return propertyId;
+    }
+
+    public void setPropertyId(Long propertyId) {
+        this.propertyId = propertyId;
+    }
+
+    public Instant getCheckInDate() {
+        return checkInDate;
+    }
+
+    public void setCheckInDate(Instant checkInDate) {
+        this.checkInDate = checkInDate;
+    }
+
+    public Instant getCheckOutDate() {
+        return checkOutDate;
+    }
+
+    public void setCheckOutDate(Instant checkOutDate) {
+        this.checkOutDate = checkOutDate;
+    }
+
+    public String getPromotionCode() {
+        return promotionCode;
+    }
+
+    public void setPromotionCode(String promotionCode) {
+        this.promotionCode = promotionCode;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "BookingQuoteVM{" +
+            "propertyId=" + propertyId +
+            ", checkInDate=" + checkInDate +
+            ", checkOutDate=" + checkOutDate +
+            ", promotionCode='" + promotionCode + "'" +
+            "}";
+    }
+}
@@ -9,7 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationListener;
 import org.springframework.messaging.handler.annotation.*;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
@@ -19,28 +18,28 @@ public class ActivityService implements ApplicationListener<SessionDisconnectEve
 
     private static final Logger LOG = LoggerFactory.getLogger(ActivityService.class);
 
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final ActivityTracker activityTracker;
 
-    public ActivityService(SimpMessageSendingOperations messagingTemplate) {
-        this.messagingTemplate = messagingTemplate;
+    public ActivityService(ActivityTracker activityTracker) {
+        this.activityTracker = activityTracker;
     }
 
+    /**
+     * Record the page of a session; the administrators receive the activity of all the sessions from
+     * {@link ActivityTracker}, once per snapshot interval.
+     */
     @MessageMapping("/topic/activity")
-    @SendTo("/topic/tracker")
-    public ActivityDTO sendActivity(@Payload ActivityDTO activityDTO, StompHeaderAccessor stompHeaderAccessor, Principal principal) {
+    public void sendActivity(@Payload ActivityDTO activityDTO, StompHeaderAccessor stompHeaderAccessor, Principal principal) {
         activityDTO.setUserLogin(principal.getName());
         activityDTO.setSessionId(stompHeaderAccessor.getSessionId());
         activityDTO.setIpAddress(stompHeaderAccessor.getSessionAttributes().get(IP_ADDRESS).toString());
         activityDTO.setTime(Instant.now());
-        LOG.debug("Sending user tracking data {}", activityDTO);
-        return activityDTO;
+        LOG.debug("Tracking user activity {}", activityDTO);
+        activityTracker.activity(activityDTO);
     }
 
     @Override
     public void onApplicationEvent(SessionDisconnectEvent event) {
-        ActivityDTO activityDTO = new ActivityDTO();
-        activityDTO.setSessionId(event.getSessionId());
-        activityDTO.setPage("logout");
-        messagingTemplate.convertAndSend("/topic/tracker", activityDTO);
+        activityTracker.disconnected(event.getSessionId());
     }
 }
@@ -0,0 +1,204 @@
+package ma.fullstackclone.airbnb.web.websocket;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.web.websocket.dto.ActivityDTO;
+import ma.fullstackclone.airbnb.web.websocket.dto.TrackerNodeSnapshotDTO;
+import ma.fullstackclone.airbnb.web.websocket.dto.TrackerSnapshotDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aggregates the activity of the websocket sessions into snapshots sent to {@code /topic/tracker}.
+ * <p>
+ * Page views only update the session they come from; every {@code application.tracker.snapshot-interval}, a snapshot
+ * of the active sessions and of their number per page is sent to the administrators, if anything changed. In
+ * {@link ApplicationProperties.Tracker.Mode#KAFKA KAFKA} mode, each node also sends its own sessions to the other nodes
+ * through the {@code tracker-snapshots} topic, and its snapshots cover the sessions of all the nodes heard from during the
+ * last three intervals.
+ */
+@Component
+public class ActivityTracker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActivityTracker.class);
+
+    public static final String TRACKER_DESTINATION = "/topic/tracker";
+
+    public static final String BINDING_NAME = "trackerSnapshot-out-0";
+
+    public static final String SESSIONS_METER_NAME = "tracker.sessions";
+
+    private static final int NODE_TIMEOUT_INTERVALS = 3;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, ActivityDTO> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final Map<String, NodeSnapshot> nodeSnapshots = new ConcurrentHashMap<>();
+
+    private final SimpMessageSendingOperations messagingTemplate;
+
+    private final StreamBridge streamBridge;
+
+    private final ApplicationProperties.Tracker trackerProperties;
+
+    private Map<String, Long> lastSentVersions;
+
+    private ScheduledExecutorService scheduler;
+
+    public ActivityTracker(
+        SimpMessageSendingOperations messagingTemplate,
+        StreamBridge streamBridge,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.streamBridge = streamBridge;
+        this.trackerProperties = applicationProperties.getTracker();
+        Gauge.builder(SESSIONS_METER_NAME, sessions, Map::size)
+            .description("Number of websocket sessions tracked by this node")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "activity-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, trackerProperties.getSnapshotInterval().toMillis());
+        scheduler.scheduleAtFixedRate(
+            () -> {
+                try {
+                    snapshot(Instant.now());
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not send the activity snapshot: {}", e.getMessage());
+                }
+            },
+            interval,
+            interval,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Record the page a session is on.
+     */
+    public void activity(ActivityDTO activityDTO) {
+        sessions.put(activityDTO.getSessionId(), activityDTO);
+        version.incrementAndGet();
+    }
+
+    /**
+     * Forget a closed session.
+     */
+    public void disconnected(String sessionId) {
+        if (sessions.remove(sessionId) != null) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record the sessions of another node.
+     */
+    public void nodeSnapshot(TrackerNodeSnapshotDTO nodeSnapshot) {
+        if (trackerProperties.getMode() != ApplicationProperties.Tracker.Mode.KAFKA || nodeId.equals(nodeSnapshot.getNodeId())) {
+            return;
+        }
+        nodeSnapshots.put(nodeSnapshot.getNodeId(), new NodeSnapshot(nodeSnapshot, Instant.now()));
+    }
+
+    /**
+     * Send the sessions of this node to the other nodes, and the snapshot of all the sessions to the administrators if it
+     * changed since the last one.
+     */
+    synchronized void snapshot(Instant now) {
+        List<ActivityDTO> localSessions = new ArrayList<>(sessions.values());
+        long localVersion = version.get();
+        if (trackerProperties.getMode() == ApplicationProperties.Tracker.Mode.KAFKA) {
+            publish(localSessions, localVersion, now);
+        }
+
+        Instant expiry = now.minus(nodeTimeout());
+        nodeSnapshots.values().removeIf(nodeSnapshot -> nodeSnapshot.receivedAt().isBefore(expiry));
+
+        Map<String, Long> versions = new TreeMap<>();
+        versions.put(nodeId, localVersion);
+        List<ActivityDTO> allSessions = new ArrayList<>(localSessions);
+        nodeSnapshots.forEach((node, nodeSnapshot) -> {
+            versions.put(node, nodeSnapshot.snapshot().getVersion());
+            if (nodeSnapshot.snapshot().getSessions() != null) {
+                allSessions.addAll(nodeSnapshot.snapshot().getSessions());
+            }
+        });
+        if (versions.equals(lastSentVersions)) {
+            return;
+        }
+        lastSentVersions = versions;
+        messagingTemplate.convertAndSend(TRACKER_DESTINATION, toSnapshot(allSessions, now));
+    }
+
+    private TrackerSnapshotDTO toSnapshot(List<ActivityDTO> allSessions, Instant now) {
+        Map<String, Integer> pages = new TreeMap<>();
+        allSessions.forEach(session -> pages.merge(String.valueOf(session.getPage()), 1, Integer::sum));
+        TrackerSnapshotDTO snapshot = new TrackerSnapshotDTO();
+        snapshot.setTime(now);
+        snapshot.setSessionCount(allSessions.size());
+        snapshot.setPages(pages);
+        snapshot.setSessions(
+            allSessions
+                .stream()
+                .sorted(Comparator.comparing(ActivityDTO::getTime, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(Math.max(0, trackerProperties.getMaxSessions()))
+                .toList()
+        );
+        return snapshot;
+    }
+
+    private void publish(List<ActivityDTO> localSessions, long localVersion, Instant now) {
+        TrackerNodeSnapshotDTO nodeSnapshot = new TrackerNodeSnapshotDTO();
+        nodeSnapshot.setNodeId(nodeId);
+        nodeSnapshot.setVersion(localVersion);
+        nodeSnapshot.setTime(now);
+        nodeSnapshot.setSessions(localSessions);
+        if (!streamBridge.send(BINDING_NAME, nodeSnapshot)) {
+            LOG.debug("Tracker snapshot of node {} was not sent", nodeId);
+        }
+    }
+
+    private Duration nodeTimeout() {
+        return trackerProperties.getSnapshotInterval().multipliedBy(NODE_TIMEOUT_INTERVALS);
+    }
+
+    private record NodeSnapshot(TrackerNodeSnapshotDTO snapshot, Instant receivedAt) {}
+}
@@ -0,0 +1,23 @@
+package ma.fullstackclone.airbnb.web.websocket;
+
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.web.websocket.dto.TrackerNodeSnapshotDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * Receives the sessions of the other nodes from the {@code tracker-snapshots} topic.
+ */
+@Component
+public class TrackerSnapshotConsumer implements Consumer<TrackerNodeSnapshotDTO> {
+
+    private final ActivityTracker activityTracker;
+
+    public TrackerSnapshotConsumer(ActivityTracker activityTracker) {
+        this.activityTracker = activityTracker;
+    }
+
+    @Override
+    public void accept(TrackerNodeSnapshotDTO nodeSnapshot) {
+        activityTracker.nodeSnapshot(nodeSnapshot);
+    }
+}
@@ -0,0 +1,61 @@
+package ma.fullstackclone.airbnb.web.websocket.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO for the sessions connected to one node, as exchanged between the nodes.
+ */
+public class TrackerNodeSnapshotDTO {
+
+    private String nodeId;
+
+    private long version;
+
+    private Instant time;
+
+    private List<ActivityDTO> sessions;
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    public void setTime(Instant time) {
+        this.time = time;
+    }
+
+    public List<ActivityDTO> getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(List<ActivityDTO> sessions) {
+        this.sessions = sessions;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TrackerNodeSnapshotDTO{" +
+            "nodeId='" + nodeId + '\'' +
+            ", version=" + version +
+            ", time='" + time + '\'' +
+            ", sessions=" + (sessions != null ? sessions.size() : 0) +
+            '}';
+    }
+}
@@ -0,0 +1,61 @@
+package ma.fullstackclone.airbnb.web.websocket.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for the activity of all the tracked sessions at a point in time, as sent to the administrators.
+ */
+public class TrackerSnapshotDTO {
+
+    private Instant time;
+
+    private int sessionCount;
+
+    private Map<String, Integer> pages;
+
+    private List<ActivityDTO> sessions;
+
+    public Instant getTime() {
+        return time;
+    }
+
+    public void setTime(Instant time) {
+        this.time = time;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public void setSessionCount(int sessionCount) {
+        this.sessionCount = sessionCount;
+    }
+
+    public Map<String, Integer> getPages() {
+        return pages;
+    }
+
+    public void setPages(Map<String, Integer> pages) {
+        this.pages = pages;
+    }
+
+    public List<ActivityDTO> getSessions() {
+        return sessions;
+    }
+
+    public void setSessions(List<ActivityDTO> sessions) {
+        this.sessions = sessions;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TrackerSnapshotDTO{" +
+            "time='" + time + '\'' +
+            ", sessionCount=" + sessionCount +
+            ", pages=" + pages +
+            '}';
+    }
+}
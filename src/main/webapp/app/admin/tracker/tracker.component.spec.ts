@@ -62,45 +62,36 @@ describe('JhiTracker', () => {
     expect(subscriptionSpy.calledOnce).toBeTruthy();
   });
 
-  it('should add new activity', () => {
+  it('should show the sessions of a snapshot', () => {
     // GIVEN
-    const activity1 = { time: '2020-01-01', page: 'login', sessionId: '123' };
-    trackerView.activities = [activity1];
-
-    // WHEN
-    const activity2 = { time: '2020-01-01', page: 'login', sessionId: '456' };
-    subject.next(activity2);
-
-    // THEN
-    expect(trackerView.activities).toEqual([activity1, activity2]);
-  });
+    trackerView.activities = [{ time: '2020-01-01', page: 'login', sessionId: '123' }];
 
-  it('should not add logout activity', () => {
     // WHEN
-    subject.next({ time: '2020-01-01', page: 'logout', sessionId: '123' });
+    const session = { time: '2020-01-01', page: 'home', sessionId: '456' };
+    subject.next({ time: '2020-01-01', sessionCount: 1, pages: { home: 1 }, sessions: [session] });
 
     // THEN
-    expect(trackerView.activities).toEqual([]);
+    expect(trackerView.activities).toEqual([session]);
+    expect(trackerView.sessionCount).toEqual(1);
   });
 
-  it('should update user activity', () => {
-    // GIVEN
-    trackerView.activities = [{ time: '2020-01-01', page: 'login', sessionId: '123' }];
-
+  it('should list the pages by number of sessions', () => {
     // WHEN
-    const activity = { time: '2020-01-01', page: 'login', sessionId: '123' };
-    subject.next(activity);
+    subject.next({ time: '2020-01-01', sessionCount: 3, pages: { login: 1, home: 2 }, sessions: [] });
 
     // THEN
-    expect(trackerView.activities).toEqual([activity]);
+    expect(trackerView.pages).toEqual([
+      { page: 'home', count: 2 },
+      { page: 'login', count: 1 },
+    ]);
   });
 
-  it('should remove user activity', () => {
+  it('should clear the sessions of an empty snapshot', () => {
     // GIVEN
     trackerView.activities = [{ time: '2020-01-01', page: 'login', sessionId: '123' }];
 
     // WHEN
-    subject.next({ time: '2020-01-01', page: 'logout', sessionId: '123' });
+    subject.next({ time: '2020-01-01', sessionCount: 0, pages: {}, sessions: [] });
 
     // THEN
     expect(trackerView.activities).toEqual([]);
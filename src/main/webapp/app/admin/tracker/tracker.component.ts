@@ -13,30 +13,22 @@ export default defineComponent({
     const { formatDateShort: formatDate } = useDateFormat();
     const trackerService = inject<TrackerService>('trackerService');
     const activities: Ref<any[]> = ref([]);
+    const pages: Ref<{ page: string; count: number }[]> = ref([]);
+    const sessionCount = ref(0);
     const route = useRoute();
     let subscription: Subscription;
 
-    const showActivity = (activity: any) => {
-      let existingActivity = false;
-      for (let index = 0; index < activities.value.length; index++) {
-        if (activities.value[index].sessionId === activity.sessionId) {
-          existingActivity = true;
-          if (activity.page === 'logout') {
-            activities.value.splice(index, 1);
-          } else {
-            activities.value.splice(index, 1);
-            activities.value.push(activity);
-          }
-        }
-      }
-      if (!existingActivity && activity.page !== 'logout') {
-        activities.value.push(activity);
-      }
+    const showSnapshot = (snapshot: any) => {
+      activities.value = snapshot.sessions ?? [];
+      pages.value = Object.entries<number>(snapshot.pages ?? {})
+        .map(([page, count]) => ({ page, count }))
+        .sort((a, b) => b.count - a.count);
+      sessionCount.value = snapshot.sessionCount ?? activities.value.length;
     };
 
     onMounted(() => {
-      subscription = trackerService.subscribe(activity => {
-        showActivity(activity);
+      subscription = trackerService.subscribe(snapshot => {
+        showSnapshot(snapshot);
       });
       // Make sure current session shows on the list
       trackerService.sendActivity(route.fullPath);
@@ -51,6 +43,8 @@ export default defineComponent({
 
     return {
       activities,
+      pages,
+      sessionCount,
       formatDate,
       t$: useI18n().t,
     };
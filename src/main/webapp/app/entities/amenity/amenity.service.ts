@@ -6,6 +6,7 @@ import { type IAmenity } from '@/shared/model/amenity.model';
 
 const baseApiUrl = 'api/amenities';
 const baseSearchApiUrl = 'api/amenities/_search?query=';
+const baseReferenceDataApiUrl = 'api/reference-data/amenities';
 
 export default class AmenityService {
   public search(query, paginationQuery): Promise<any> {
@@ -47,6 +48,19 @@ export default class AmenityService {
     });
   }
 
+  public retrieveReferenceData(): Promise<any> {
+    return new Promise<any>((resolve, reject) => {
+      axios
+        .get(baseReferenceDataApiUrl)
+        .then(res => {
+          resolve(res);
+        })
+        .catch(err => {
+          reject(err);
+        });
+    });
+  }
+
   public delete(id: number): Promise<any> {
     return new Promise<any>((resolve, reject) => {
       axios
@@ -90,6 +90,7 @@ export default defineComponent({
         required: validations.required(t$('entity.validation.required').toString()),
       },
       specialRequests: {},
+      promotionCode: {},
       guest: {},
       property: {},
     };
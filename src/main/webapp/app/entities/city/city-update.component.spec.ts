@@ -56,6 +56,7 @@ describe('Component Tests', () => {
           countryService: () =>
             sinon.createStubInstance<CountryService>(CountryService, {
               retrieve: sinon.stub().resolves({}),
+              retrieveReferenceData: sinon.stub().resolves({}),
             } as any),
         },
       };
@@ -46,7 +46,7 @@ export default defineComponent({
 
     const initRelationships = () => {
       countryService()
-        .retrieve()
+        .retrieveReferenceData()
         .then(res => {
           countries.value = res.data;
         });
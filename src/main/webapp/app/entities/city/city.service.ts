@@ -6,6 +6,7 @@ import { type ICity } from '@/shared/model/city.model';
 
 const baseApiUrl = 'api/cities';
 const baseSearchApiUrl = 'api/cities/_search?query=';
+const baseReferenceDataApiUrl = 'api/reference-data/cities';
 
 export default class CityService {
   public search(query, paginationQuery): Promise<any> {
@@ -47,6 +48,19 @@ export default class CityService {
     });
   }
 
+  public retrieveReferenceData(): Promise<any> {
+    return new Promise<any>((resolve, reject) => {
+      axios
+        .get(baseReferenceDataApiUrl)
+        .then(res => {
+          resolve(res);
+        })
+        .catch(err => {
+          reject(err);
+        });
+    });
+  }
+
   public delete(id: number): Promise<any> {
     return new Promise<any>((resolve, reject) => {
       axios
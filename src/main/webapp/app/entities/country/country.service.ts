@@ -6,6 +6,7 @@ import { type ICountry } from '@/shared/model/country.model';
 
 const baseApiUrl = 'api/countries';
 const baseSearchApiUrl = 'api/countries/_search?query=';
+const baseReferenceDataApiUrl = 'api/reference-data/countries';
 
 export default class CountryService {
   public search(query, paginationQuery): Promise<any> {
@@ -47,6 +48,19 @@ export default class CountryService {
     });
   }
 
+  public retrieveReferenceData(): Promise<any> {
+    return new Promise<any>((resolve, reject) => {
+      axios
+        .get(baseReferenceDataApiUrl)
+        .then(res => {
+          resolve(res);
+        })
+        .catch(err => {
+          reject(err);
+        });
+    });
+  }
+
   public delete(id: number): Promise<any> {
     return new Promise<any>((resolve, reject) => {
       axios
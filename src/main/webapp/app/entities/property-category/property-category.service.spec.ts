@@ -138,6 +138,14 @@ describe('Service Tests', () => {
           });
       });
 
+      it('should return the reference list of PropertyCategory', async () => {
+        axiosStub.get.resolves({ data: [elemDefault] });
+        return service.retrieveReferenceData().then(res => {
+          expect(axiosStub.get.calledWith('api/reference-data/property-categories')).toBeTruthy();
+          expect(res.data).toContainEqual(elemDefault);
+        });
+      });
+
       it('should delete a PropertyCategory', async () => {
         axiosStub.delete.resolves({ ok: true });
         return service.delete(123).then(res => {
@@ -6,6 +6,7 @@ import { type IPropertyCategory } from '@/shared/model/property-category.model';
 
 const baseApiUrl = 'api/property-categories';
 const baseSearchApiUrl = 'api/property-categories/_search?query=';
+const baseReferenceDataApiUrl = 'api/reference-data/property-categories';
 
 export default class PropertyCategoryService {
   public search(query, paginationQuery): Promise<any> {
@@ -47,6 +48,19 @@ export default class PropertyCategoryService {
     });
   }
 
+  public retrieveReferenceData(): Promise<any> {
+    return new Promise<any>((resolve, reject) => {
+      axios
+        .get(baseReferenceDataApiUrl)
+        .then(res => {
+          resolve(res);
+        })
+        .catch(err => {
+          reject(err);
+        });
+    });
+  }
+
   public delete(id: number): Promise<any> {
     return new Promise<any>((resolve, reject) => {
       axios
@@ -66,14 +66,17 @@ describe('Component Tests', () => {
           cityService: () =>
             sinon.createStubInstance<CityService>(CityService, {
               retrieve: sinon.stub().resolves({}),
+              retrieveReferenceData: sinon.stub().resolves({}),
             } as any),
           amenityService: () =>
             sinon.createStubInstance<AmenityService>(AmenityService, {
               retrieve: sinon.stub().resolves({}),
+              retrieveReferenceData: sinon.stub().resolves({}),
             } as any),
           propertyCategoryService: () =>
             sinon.createStubInstance<PropertyCategoryService>(PropertyCategoryService, {
               retrieve: sinon.stub().resolves({}),
+              retrieveReferenceData: sinon.stub().resolves({}),
             } as any),
         },
       };
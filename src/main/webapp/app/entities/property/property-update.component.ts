@@ -69,17 +69,17 @@ export default defineComponent({
           users.value = res.data;
         });
       cityService()
-        .retrieve()
+        .retrieveReferenceData()
         .then(res => {
           cities.value = res.data;
         });
       amenityService()
-        .retrieve()
+        .retrieveReferenceData()
         .then(res => {
           amenities.value = res.data;
         });
       propertyCategoryService()
-        .retrieve()
+        .retrieveReferenceData()
         .then(res => {
           propertyCategories.value = res.data;
         });
@@ -10,6 +10,8 @@ export interface IBooking {
   bookingDate?: Date;
   status?: keyof typeof BookingStatus;
   specialRequests?: string | null;
+  promotionCode?: string | null;
+  version?: number | null;
   guest?: IUser | null;
   property?: IProperty | null;
 }
@@ -23,6 +25,8 @@ export class Booking implements IBooking {
     public bookingDate?: Date,
     public status?: keyof typeof BookingStatus,
     public specialRequests?: string | null,
+    public promotionCode?: string | null,
+    public version?: number | null,
     public guest?: IUser | null,
     public property?: IProperty | null,
   ) {}
@@ -7,6 +7,7 @@ export interface IPromotion {
   validFrom?: Date;
   validUntil?: Date;
   maxUses?: number | null;
+  uses?: number;
   isActive?: boolean;
 }
 
@@ -22,6 +22,9 @@ export interface IProperty {
   cancellationPolicy?: string;
   houseRules?: string | null;
   isActive?: boolean;
+  reviewCount?: number;
+  averageRating?: number | null;
+  version?: number | null;
   host?: IUser | null;
   city?: ICity | null;
   amenities?: IAmenity[] | null;
@@ -48,6 +51,7 @@ export class Property implements IProperty {
     public cancellationPolicy?: string,
     public houseRules?: string | null,
     public isActive?: boolean,
+    public version?: number | null,
     public host?: IUser | null,
     public city?: ICity | null,
     public amenities?: IAmenity[] | null,
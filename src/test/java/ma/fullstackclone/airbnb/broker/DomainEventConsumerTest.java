@@ -0,0 +1,91 @@
+package ma.fullstackclone.airbnb.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class DomainEventConsumerTest {
+
+    private final List<Runnable> dispatchTasks = new ArrayList<>();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+        .findAndRegisterModules()
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private DomainEventConsumer domainEventConsumer;
+
+    @BeforeEach
+    void setUp() {
+        dispatchTasks.clear();
+        // each subscription with queued messages schedules one dispatch task, which is never run here
+        SseDispatcher sseDispatcher = new SseDispatcher(dispatchTasks::add, new ApplicationProperties(), new SimpleMeterRegistry());
+        domainEventConsumer = new DomainEventConsumer(sseDispatcher, objectMapper);
+    }
+
+    private void accept(DomainEvent event) throws Exception {
+        domainEventConsumer.accept(objectMapper.writeValueAsString(event));
+    }
+
+    @Test
+    void eventIsRoutedToFollowersOnlyTest() throws Exception {
+        domainEventConsumer.register("guest", Set.of(DomainEvent.propertyKey(1L)));
+        domainEventConsumer.register("other", Set.of(DomainEvent.propertyKey(2L)));
+        domainEventConsumer.register("host", Set.of(DomainEvent.hostKey("host")));
+
+        accept(new DomainEvent.PropertyPriceChanged(1L, "host", BigDecimal.ONE, BigDecimal.TEN, Instant.now()));
+
+        assertThat(dispatchTasks).hasSize(2);
+    }
+
+    @Test
+    void bookingIsRoutedToHostOnlyTest() throws Exception {
+        domainEventConsumer.register("guest", Set.of(DomainEvent.propertyKey(1L)));
+        domainEventConsumer.register("host", Set.of(DomainEvent.hostKey("host")));
+
+        accept(new DomainEvent.BookingConfirmed(3L, 1L, "host", "guest", Instant.now(), Instant.now(), Instant.now()));
+
+        assertThat(dispatchTasks).hasSize(1);
+    }
+
+    @Test
+    void subscriberFollowingSeveralKeysReceivesEventOnceTest() throws Exception {
+        domainEventConsumer.register("host", Set.of(DomainEvent.propertyKey(1L), DomainEvent.hostKey("host")));
+
+        accept(new DomainEvent.ReviewCreated(4L, 1L, "host", "guest", 5, Instant.now()));
+
+        assertThat(dispatchTasks).hasSize(1);
+    }
+
+    @Test
+    void closedSubscriptionIsRemovedFromIndexTest() throws Exception {
+        SseEmitter emitter = domainEventConsumer.register("guest", Set.of(DomainEvent.propertyKey(1L), DomainEvent.propertyKey(2L)));
+        domainEventConsumer.register("other", Set.of(DomainEvent.propertyKey(1L)));
+
+        emitter.complete();
+        accept(new DomainEvent.ReviewCreated(4L, 1L, "host", "guest", 5, Instant.now()));
+        dispatchTasks.forEach(Runnable::run);
+
+        assertThat(domainEventConsumer.getSubscriptionCount(DomainEvent.propertyKey(1L))).isEqualTo(1);
+        assertThat(domainEventConsumer.getSubscriptionCount(DomainEvent.propertyKey(2L))).isZero();
+    }
+
+    @Test
+    void unreadableEventIsIgnoredTest() {
+        domainEventConsumer.register("guest", Set.of(DomainEvent.propertyKey(1L)));
+
+        domainEventConsumer.accept("{\"type\":\"unknown\"}");
+
+        assertThat(dispatchTasks).isEmpty();
+    }
+}
@@ -0,0 +1,88 @@
+package ma.fullstackclone.airbnb.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+
+class KafkaBatchPublisherTest {
+
+    @Test
+    void producerBatchesAndCompressesTest() {
+        ApplicationProperties.Publisher publisherProperties = new ApplicationProperties().getPublisher();
+        publisherProperties.setLinger(Duration.ofMillis(20));
+        publisherProperties.setBatchSize(128 * 1024);
+        publisherProperties.setCompressionType("zstd");
+
+        Map<String, Object> configuration = KafkaBatchPublisher.producerConfiguration(publisherProperties);
+
+        assertThat(configuration)
+            .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 20)
+            .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 128 * 1024)
+            .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "zstd")
+            .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true)
+            .containsEntry(ProducerConfig.ACKS_CONFIG, "all");
+        assertProducerAccepts(configuration);
+    }
+
+    @Test
+    void nonIdempotentProducerWaitsForLeaderOnlyTest() {
+        ApplicationProperties.Publisher publisherProperties = new ApplicationProperties().getPublisher();
+        publisherProperties.setIdempotence(false);
+
+        Map<String, Object> configuration = KafkaBatchPublisher.producerConfiguration(publisherProperties);
+
+        assertThat(configuration)
+            .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false)
+            .containsEntry(ProducerConfig.ACKS_CONFIG, "1");
+        assertProducerAccepts(configuration);
+    }
+
+    @Test
+    void producerBlocksForMaxBlockOnlyTest() {
+        ApplicationProperties.Publisher publisherProperties = new ApplicationProperties().getPublisher();
+        publisherProperties.setMaxBlock(Duration.ofMillis(200));
+
+        Map<String, Object> configuration = KafkaBatchPublisher.producerConfiguration(publisherProperties);
+
+        assertThat(configuration).containsEntry(ProducerConfig.MAX_BLOCK_MS_CONFIG, 200L);
+        assertProducerAccepts(configuration);
+    }
+
+    @Test
+    void unreachableBrokerFailsThePublishTest() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getPublisher().setBootstrapServers("localhost:1");
+        applicationProperties.getPublisher().setMaxBlock(Duration.ofMillis(100));
+        KafkaBatchPublisher publisher = new KafkaBatchPublisher(applicationProperties, new SimpleMeterRegistry());
+        try {
+            assertThat(publisher.publish(List.of("message"))).failsWithin(Duration.ofSeconds(10));
+        } finally {
+            publisher.destroy();
+        }
+    }
+
+    @Test
+    void deliveryTimeoutCoversLingerAndRequestTest() {
+        ApplicationProperties.Publisher publisherProperties = new ApplicationProperties().getPublisher();
+        assertProducerAccepts(KafkaBatchPublisher.producerConfiguration(publisherProperties));
+
+        publisherProperties.setLinger(Duration.ofMillis(50));
+        publisherProperties.setAckTimeout(Duration.ofMillis(10));
+        assertProducerAccepts(KafkaBatchPublisher.producerConfiguration(publisherProperties));
+    }
+
+    /**
+     * The producer validates its configuration on construction, without connecting to the brokers.
+     */
+    private static void assertProducerAccepts(Map<String, Object> configuration) {
+        assertThatCode(() -> new KafkaProducer<String, String>(configuration).close(Duration.ZERO)).doesNotThrowAnyException();
+    }
+}
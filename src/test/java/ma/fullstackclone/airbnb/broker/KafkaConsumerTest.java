@@ -0,0 +1,149 @@
+package ma.fullstackclone.airbnb.broker;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.broker.SseDispatcher.Subscription;
+import ma.fullstackclone.airbnb.config.ApplicationProperties.Sse.OverflowPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class KafkaConsumerTest {
+
+    private final List<Runnable> dispatchTasks = new ArrayList<>();
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        dispatchTasks.clear();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getSse().setQueueCapacity(2);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private KafkaConsumer createConsumer(OverflowPolicy overflowPolicy) {
+        applicationProperties.getSse().setOverflowPolicy(overflowPolicy);
+        // Dispatch tasks only run when the test says so, as if the subscribers were slow
+        return new KafkaConsumer(new SseDispatcher(dispatchTasks::add, applicationProperties, meterRegistry));
+    }
+
+    private void dispatch() {
+        while (!dispatchTasks.isEmpty()) {
+            dispatchTasks.remove(0).run();
+        }
+    }
+
+    private double dropped() {
+        return meterRegistry.get(SseDispatcher.DROPPED_METER_NAME).counter().count();
+    }
+
+    @Test
+    void userCanHaveSeveralSubscriptionsTest() {
+        KafkaConsumer kafkaConsumer = createConsumer(OverflowPolicy.DROP_OLDEST);
+        kafkaConsumer.register("user");
+        kafkaConsumer.register("user");
+        kafkaConsumer.register("admin");
+
+        assertThat(meterRegistry.get(SseDispatcher.SUBSCRIBERS_METER_NAME).gauge().value()).isEqualTo(3.0);
+
+        kafkaConsumer.unregister("user");
+
+        assertThat(kafkaConsumer.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eachSubscriberIsDrainedByOneTaskTest() {
+        KafkaConsumer kafkaConsumer = createConsumer(OverflowPolicy.DROP_OLDEST);
+        kafkaConsumer.register("user");
+        kafkaConsumer.register("admin");
+
+        kafkaConsumer.accept("first");
+        kafkaConsumer.accept("second");
+
+        assertThat(dispatchTasks).hasSize(2);
+        dispatch();
+        assertThat(dropped()).isZero();
+        assertThat(kafkaConsumer.getSubscriberCount()).isEqualTo(2);
+    }
+
+    @Test
+    void fullQueueDropsOldestMessageTest() {
+        KafkaConsumer kafkaConsumer = createConsumer(OverflowPolicy.DROP_OLDEST);
+        kafkaConsumer.register("user");
+
+        kafkaConsumer.accept("first");
+        kafkaConsumer.accept("second");
+        kafkaConsumer.accept("third");
+
+        assertThat(dropped()).isEqualTo(1.0);
+        assertThat(kafkaConsumer.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullQueueDropsNewestMessageTest() {
+        KafkaConsumer kafkaConsumer = createConsumer(OverflowPolicy.DROP_NEWEST);
+        kafkaConsumer.register("user");
+
+        kafkaConsumer.accept("first");
+        kafkaConsumer.accept("second");
+        kafkaConsumer.accept("third");
+        kafkaConsumer.accept("fourth");
+
+        assertThat(dropped()).isEqualTo(2.0);
+    }
+
+    @Test
+    void fullQueueDisconnectsSlowSubscriberTest() {
+        KafkaConsumer kafkaConsumer = createConsumer(OverflowPolicy.DISCONNECT);
+        kafkaConsumer.register("slow");
+
+        kafkaConsumer.accept("first");
+        kafkaConsumer.accept("second");
+        kafkaConsumer.accept("third");
+
+        assertThat(kafkaConsumer.getSubscriberCount()).isZero();
+        assertThat(dropped()).isEqualTo(3.0);
+        assertThat(meterRegistry.get(SseDispatcher.DISCONNECTED_METER_NAME).counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedEmitterIsRemovedTest() {
+        KafkaConsumer kafkaConsumer = createConsumer(OverflowPolicy.DROP_OLDEST);
+        SseEmitter emitter = kafkaConsumer.register("user");
+        kafkaConsumer.register("user");
+        emitter.complete();
+
+        kafkaConsumer.accept("message");
+        dispatch();
+
+        assertThat(kafkaConsumer.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void subscriptionClosedWhileRegisteringIsRemovedTest() {
+        applicationProperties.getSse().setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+        // The client disconnects between the opening of its subscription and its registration
+        SseDispatcher sseDispatcher = new SseDispatcher(dispatchTasks::add, applicationProperties, meterRegistry) {
+            @Override
+            public Subscription open(String user, Consumer<Subscription> onClose) {
+                Subscription subscription = super.open(user, onClose);
+                close(subscription);
+                return subscription;
+            }
+        };
+        KafkaConsumer kafkaConsumer = new KafkaConsumer(sseDispatcher);
+
+        kafkaConsumer.register("user");
+
+        assertThat(kafkaConsumer.getSubscriberCount()).isZero();
+    }
+}
@@ -0,0 +1,93 @@
+package ma.fullstackclone.airbnb.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import ma.fullstackclone.airbnb.domain.Country;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.Review;
+import org.ehcache.config.CacheRuntimeConfiguration;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.ehcache.config.units.EntryUnit;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import tech.jhipster.config.JHipsterProperties;
+
+class CacheConfigurationTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region property = new ApplicationProperties.Cache.Region();
+        property.setHeapEntries(10000L);
+        property.setOffHeap(DataSize.ofMegabytes(16));
+        ApplicationProperties.Cache.Region country = new ApplicationProperties.Cache.Region();
+        country.setTimeToLive(Duration.ofHours(24));
+        applicationProperties.getCache().getRegions().put("Property", property);
+        applicationProperties.getCache().getRegions().put(Country.class.getName(), country);
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getCache().getEhcache().setMaxEntries(100);
+        cacheManager = Caching.getCachingProvider("org.ehcache.jsr107.EhcacheCachingProvider").getCacheManager();
+        new CacheConfiguration(jHipsterProperties, applicationProperties).cacheManagerCustomizer().customize(cacheManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cacheManager.close();
+    }
+
+    private CacheRuntimeConfiguration<?, ?> runtimeConfiguration(String cacheName) {
+        @SuppressWarnings("unchecked")
+        Eh107Configuration<Object, Object> configuration = cacheManager
+            .getCache(cacheName)
+            .getConfiguration(Eh107Configuration.class);
+        return configuration.unwrap(CacheRuntimeConfiguration.class);
+    }
+
+    @Test
+    void regionsOverrideTheDefaultSizingTest() {
+        CacheRuntimeConfiguration<?, ?> property = runtimeConfiguration(Property.class.getName());
+        SizedResourcePool heap = property.getResourcePools().getPoolForResource(ResourceType.Core.HEAP);
+        SizedResourcePool offHeap = property.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP);
+        assertThat(heap.getSize()).isEqualTo(10000);
+        assertThat(heap.getUnit()).isEqualTo(EntryUnit.ENTRIES);
+        assertThat(offHeap.getSize()).isEqualTo(16);
+        assertThat(offHeap.getUnit()).isEqualTo(MemoryUnit.MB);
+
+        CacheRuntimeConfiguration<?, ?> review = runtimeConfiguration(Review.class.getName());
+        assertThat(review.getResourcePools().getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(review.getResourcePools().getPoolForResource(ResourceType.Core.OFFHEAP)).isNull();
+    }
+
+    @Test
+    void cacheStatisticsAreExposedAsMetricsTest() {
+        Cache<Object, Object> cache = cacheManager.getCache(Country.class.getName());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        new JCacheMetrics<>(cache, List.of()).bindTo(meterRegistry);
+
+        cache.put(1L, "Morocco");
+        cache.get(1L);
+        cache.get(2L);
+
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.puts").functionCounter().count()).isEqualTo(1);
+    }
+}
@@ -74,4 +74,20 @@ class PropertyTest {
         property.setCategories(new HashSet<>());
         assertThat(property.getCategories()).doesNotContain(propertyCategoryBack);
     }
+
+    @Test
+    void searchIdsTest() {
+        Property property = getPropertyRandomSampleGenerator();
+        Amenity amenityBack = getAmenityRandomSampleGenerator();
+        PropertyCategory propertyCategoryBack = getPropertyCategoryRandomSampleGenerator();
+        City cityBack = getCityRandomSampleGenerator();
+
+        assertThat(property.getAmenityIds()).isEmpty();
+        assertThat(property.getCityId()).isNull();
+
+        property.addAmenities(amenityBack).addCategories(propertyCategoryBack).city(cityBack);
+        assertThat(property.getAmenityIds()).containsOnly(String.valueOf(amenityBack.getId()));
+        assertThat(property.getCategoryIds()).containsOnly(String.valueOf(propertyCategoryBack.getId()));
+        assertThat(property.getCityId()).isEqualTo(String.valueOf(cityBack.getId()));
+    }
 }
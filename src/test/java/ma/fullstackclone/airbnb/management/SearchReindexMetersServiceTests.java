@@ -0,0 +1,55 @@
+package ma.fullstackclone.airbnb.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SearchReindexMetersServiceTests {
+
+    private MeterRegistry meterRegistry;
+
+    private SearchReindexMetersService searchReindexMetersService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        searchReindexMetersService = new SearchReindexMetersService(meterRegistry);
+    }
+
+    @Test
+    void testProgressIsTrackedByIndex() {
+        searchReindexMetersService.trackStarted("property", 4);
+        searchReindexMetersService.trackIndexed("property", 1);
+
+        assertThat(meterRegistry.get("search.reindex.progress").tag("index", "property").gauge().value()).isEqualTo(0.25);
+
+        searchReindexMetersService.trackIndexed("property", 3);
+
+        assertThat(meterRegistry.get("search.reindex.progress").tag("index", "property").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("search.reindex.documents").tag("index", "property").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void testRestartResetsProgressButNotDocuments() {
+        searchReindexMetersService.trackStarted("city", 2);
+        searchReindexMetersService.trackIndexed("city", 2);
+        searchReindexMetersService.trackStarted("city", 2);
+
+        assertThat(meterRegistry.get("search.reindex.progress").tag("index", "city").gauge().value()).isZero();
+        assertThat(meterRegistry.get("search.reindex.documents").tag("index", "city").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testDurationIsTrackedByOutcome() {
+        searchReindexMetersService.trackFinished("city", Duration.ofSeconds(2), true);
+        searchReindexMetersService.trackFinished("city", Duration.ofSeconds(1), false);
+
+        assertThat(meterRegistry.get("search.reindex.duration").tag("index", "city").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("search.reindex.duration").tag("index", "city").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+}
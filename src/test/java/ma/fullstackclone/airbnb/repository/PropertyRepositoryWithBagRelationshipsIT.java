@@ -0,0 +1,173 @@
+package ma.fullstackclone.airbnb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.domain.PropertyCategory;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Integration tests for {@link PropertyRepositoryWithBagRelationshipsImpl}, counting the statements and the entity loads
+ * needed to fill a page of properties.
+ */
+@IntegrationTest
+@Transactional
+class PropertyRepositoryWithBagRelationshipsIT {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    private Statistics statistics;
+
+    private final List<Long> propertyIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        List<Amenity> amenities = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Amenity amenity = new Amenity().name("bag-amenity-" + i);
+            em.persist(amenity);
+            amenities.add(amenity);
+        }
+        List<PropertyCategory> categories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            PropertyCategory category = new PropertyCategory().name("bag-category-" + i);
+            em.persist(category);
+            categories.add(category);
+        }
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Property property = new Property()
+                .title("bag-property-" + i)
+                .description("description")
+                .pricePerNight(BigDecimal.TEN)
+                .address("address")
+                .numberOfRooms(1)
+                .instantBook(false)
+                .cancellationPolicy("FLEXIBLE")
+                .isActive(true);
+            for (int j = 0; j <= i % amenities.size(); j++) {
+                property.addAmenities(amenities.get(j));
+            }
+            if (i % 2 == 0) {
+                property.addCategories(categories.get(i % categories.size()));
+            }
+            em.persist(property);
+            propertyIds.add(property.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void fetchPageInOneStatementWithoutReloadingPropertiesTest() {
+        em.unwrap(Session.class).setDefaultReadOnly(true);
+        Page<Property> page = propertyRepository.findAll(PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "id")));
+        statistics.clear();
+
+        propertyRepository.fetchBagRelationships(page);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(Property.class.getName()).getLoadCount()).isZero();
+        assertThat(page.getContent()).allSatisfy(property -> {
+            assertThat(Hibernate.isInitialized(property.getAmenities())).isTrue();
+            assertThat(Hibernate.isInitialized(property.getCategories())).isTrue();
+        });
+        for (Property property : page.getContent()) {
+            int i = propertyIds.indexOf(property.getId());
+            if (i >= 0) {
+                assertThat(property.getAmenities()).hasSize(i % 5 + 1);
+                assertThat(property.getCategories()).hasSize(i % 2 == 0 ? 1 : 0);
+            }
+        }
+    }
+
+    @Test
+    void fetchPageUsesFewerStatementsThanFetchJoinsTest() {
+        em.unwrap(Session.class).setDefaultReadOnly(true);
+        List<Property> page = propertyRepository.findAllById(propertyIds);
+        statistics.clear();
+        em
+            .createQuery("select property from Property property left join fetch property.amenities where property in :properties", Property.class)
+            .setParameter("properties", page)
+            .getResultList();
+        em
+            .createQuery("select property from Property property left join fetch property.categories where property in :properties", Property.class)
+            .setParameter("properties", page)
+            .getResultList();
+        long fetchJoinStatements = statistics.getPrepareStatementCount();
+        em.clear();
+
+        page = propertyRepository.findAllById(propertyIds);
+        statistics.clear();
+        propertyRepository.fetchBagRelationships(page);
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(fetchJoinStatements);
+    }
+
+    @Test
+    void fetchSingleLoadedPropertyIsNoOpTest() {
+        Property property = propertyRepository.findById(propertyIds.get(0)).orElseThrow();
+        propertyRepository.fetchBagRelationships(List.of(property));
+        statistics.clear();
+
+        assertThat(propertyRepository.fetchBagRelationships(Optional.of(property))).containsSame(property);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(property.getAmenities()).hasSize(1);
+        assertThat(property.getCategories()).hasSize(1);
+    }
+
+    @Test
+    void fetchPageInWritableSessionDoesNotDirtyPropertiesTest() {
+        List<Property> page = propertyRepository.findAllById(propertyIds);
+        List<Long> versions = page.stream().map(Property::getVersion).toList();
+        List<Instant> lastModifiedDates = page.stream().map(Property::getLastModifiedDate).toList();
+        statistics.clear();
+
+        propertyRepository.fetchBagRelationships(page);
+        em.flush();
+
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        assertThat(statistics.getCollectionUpdateCount()).isZero();
+        assertThat(statistics.getCollectionRecreateCount()).isZero();
+        assertThat(page).extracting(Property::getVersion).containsExactlyElementsOf(versions);
+        assertThat(page).extracting(Property::getLastModifiedDate).containsExactlyElementsOf(lastModifiedDates);
+        for (Property property : page) {
+            int i = propertyIds.indexOf(property.getId());
+            assertThat(Hibernate.isInitialized(property.getAmenities())).isTrue();
+            assertThat(property.getAmenities()).hasSize(i % 5 + 1);
+            assertThat(property.getCategories()).hasSize(i % 2 == 0 ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package ma.fullstackclone.airbnb.repository.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class PropertySearchQueryBuilderTest {
+
+    private static final PropertySearchCriteria NONE = new PropertySearchCriteria(null, null, null, null, null, null, null, null, null);
+
+    @Test
+    void rankedByRatingAndRecencyTest() {
+        Query query = PropertySearchQueryBuilder.build(NONE);
+
+        assertThat(query.isFunctionScore()).isTrue();
+        FunctionScoreQuery functionScore = query.functionScore();
+        assertThat(functionScore.functions()).hasSize(2);
+        assertThat(functionScore.functions().get(0).fieldValueFactor().field()).isEqualTo(PropertySearchQueryBuilder.RATING_FIELD);
+        assertThat(functionScore.functions().get(1).gauss().field()).isEqualTo(PropertySearchQueryBuilder.RECENCY_FIELD);
+    }
+
+    @Test
+    void withoutCriteriaMatchesAllActivePropertiesTest() {
+        BoolQuery bool = PropertySearchQueryBuilder.build(NONE).functionScore().query().bool();
+
+        assertThat(bool.must()).singleElement().satisfies(must -> assertThat(must.isMatchAll()).isTrue());
+        assertThat(bool.filter()).singleElement().satisfies(filter -> assertThat(filter.term().field()).isEqualTo("isActive"));
+    }
+
+    @Test
+    void textIsMatchedWithBoostsWithoutParsingTest() {
+        BoolQuery bool = PropertySearchQueryBuilder.build(
+            new PropertySearchCriteria("  sea view (AND) *  ", null, null, null, null, null, null, null, null)
+        )
+            .functionScore()
+            .query()
+            .bool();
+
+        assertThat(bool.must()).singleElement().satisfies(must -> {
+            assertThat(must.multiMatch().query()).isEqualTo("sea view (AND) *");
+            assertThat(must.multiMatch().fields()).containsExactly("title^3", "address^2", "description");
+        });
+    }
+
+    @Test
+    void everyCriterionIsAFilterTest() {
+        BoolQuery bool = PropertySearchQueryBuilder.build(
+            new PropertySearchCriteria(null, BigDecimal.valueOf(50), BigDecimal.valueOf(150), 4, 2, 7L, 48.85, 2.35, 10.0)
+        )
+            .functionScore()
+            .query()
+            .bool();
+
+        assertThat(bool.filter())
+            .extracting(Query::_kind)
+            .containsExactly(
+                Query.Kind.Term,
+                Query.Kind.Range,
+                Query.Kind.Range,
+                Query.Kind.Range,
+                Query.Kind.Term,
+                Query.Kind.GeoDistance
+            );
+        assertThat(bool.filter().get(5).geoDistance().distance()).isEqualTo("10.0km");
+    }
+
+    @Test
+    void partialAreaIsNotAppliedTest() {
+        PropertySearchCriteria criteria = new PropertySearchCriteria(null, null, null, null, null, null, 48.85, null, 10.0);
+
+        assertThat(criteria.hasArea()).isFalse();
+        assertThat(PropertySearchQueryBuilder.build(criteria).functionScore().query().bool().filter()).hasSize(1);
+    }
+}
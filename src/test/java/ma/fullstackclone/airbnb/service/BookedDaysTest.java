@@ -0,0 +1,87 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class BookedDaysTest {
+
+    private static LocalDate day(int year, int month, int dayOfMonth) {
+        return LocalDate.of(year, month, dayOfMonth);
+    }
+
+    @Test
+    void bookedNightsAreCheckInToCheckOutExclusiveTest() {
+        BookedDays days = new BookedDays(2026);
+        days.book(day(2026, 7, 1), day(2026, 7, 4));
+
+        assertThat(days.isBooked(day(2026, 6, 30))).isFalse();
+        assertThat(days.isBooked(day(2026, 7, 1))).isTrue();
+        assertThat(days.isBooked(day(2026, 7, 3))).isTrue();
+        assertThat(days.isBooked(day(2026, 7, 4))).isFalse();
+    }
+
+    @Test
+    void packedDaysAreReadBackTest() {
+        BookedDays days = new BookedDays(2026);
+        days.book(day(2026, 12, 30), day(2027, 1, 2));
+
+        byte[] packed = days.toBytes();
+        BookedDays read = new BookedDays(2026, packed);
+
+        assertThat(packed).hasSize(2 * BookedDays.BYTES_PER_YEAR);
+        assertThat(read.isBooked(day(2026, 12, 31))).isTrue();
+        assertThat(read.isBooked(day(2027, 1, 1))).isTrue();
+        assertThat(read.isBooked(day(2027, 1, 2))).isFalse();
+    }
+
+    @Test
+    void leapDayHasItsOwnBitTest() {
+        BookedDays days = new BookedDays(2028);
+        days.book(day(2028, 12, 31), day(2029, 1, 1));
+
+        assertThat(days.toBytes()).hasSize(BookedDays.BYTES_PER_YEAR);
+        assertThat(days.isBooked(day(2028, 12, 31))).isTrue();
+        assertThat(days.isBooked(day(2028, 12, 30))).isFalse();
+    }
+
+    @Test
+    void releasedNightsAreFreeAgainTest() {
+        BookedDays days = new BookedDays(2026);
+        days.book(day(2026, 7, 1), day(2026, 7, 4));
+        days.book(day(2026, 7, 4), day(2026, 7, 6));
+        days.release(day(2026, 7, 1), day(2026, 7, 4));
+
+        assertThat(days.isBooked(day(2026, 7, 2))).isFalse();
+        assertThat(days.isBooked(day(2026, 7, 4))).isTrue();
+    }
+
+    @Test
+    void nightsBeforeTheFirstYearAreIgnoredTest() {
+        BookedDays days = new BookedDays(2026);
+        days.book(day(2025, 12, 30), day(2026, 1, 2));
+
+        assertThat(days.isBooked(day(2025, 12, 31))).isFalse();
+        assertThat(days.isBooked(day(2026, 1, 1))).isTrue();
+    }
+
+    @Test
+    void droppedYearsAreForgottenTest() {
+        BookedDays days = new BookedDays(2026);
+        days.book(day(2026, 3, 1), day(2026, 3, 2));
+        days.book(day(2027, 3, 1), day(2027, 3, 2));
+        days.dropYearsBefore(2027);
+
+        assertThat(days.getFirstYear()).isEqualTo(2027);
+        assertThat(days.toBytes()).hasSize(BookedDays.BYTES_PER_YEAR);
+        assertThat(days.isBooked(day(2026, 3, 1))).isFalse();
+        assertThat(days.isBooked(day(2027, 3, 1))).isTrue();
+    }
+
+    @Test
+    void partialYearIsRejectedTest() {
+        assertThatThrownBy(() -> new BookedDays(2026, new byte[10])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.Test;
+
+class BookingIntervalIndexTest {
+
+    private static final Instant DAY_0 = Instant.parse("2026-07-01T14:00:00Z");
+
+    private static Instant day(int offset) {
+        return DAY_0.plus(offset, ChronoUnit.DAYS);
+    }
+
+    @Test
+    void emptyIndexIsAlwaysFreeTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+
+        assertThat(index.isFree(day(0), day(3))).isTrue();
+    }
+
+    @Test
+    void overlappingRangesAreNotFreeTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(1L, day(2), day(5));
+
+        assertThat(index.isFree(day(0), day(3))).isFalse();
+        assertThat(index.isFree(day(3), day(4))).isFalse();
+        assertThat(index.isFree(day(4), day(8))).isFalse();
+        assertThat(index.isFree(day(1), day(6))).isFalse();
+    }
+
+    @Test
+    void adjacentRangesAreFreeTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(1L, day(2), day(5));
+
+        assertThat(index.isFree(day(0), day(2))).isTrue();
+        assertThat(index.isFree(day(5), day(7))).isTrue();
+    }
+
+    @Test
+    void longStayStartingLongBeforeIsDetectedTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(1L, day(0), day(60));
+        index.put(2L, day(70), day(72));
+
+        assertThat(index.isFree(day(58), day(59))).isFalse();
+        assertThat(index.isFree(day(60), day(70))).isTrue();
+    }
+
+    @Test
+    void removeAndMoveBookingTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(1L, day(2), day(5));
+        index.put(1L, day(10), day(12));
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.isFree(day(2), day(5))).isTrue();
+        assertThat(index.isFree(day(11), day(13))).isFalse();
+
+        assertThat(index.remove(1L)).isTrue();
+        assertThat(index.remove(1L)).isFalse();
+        assertThat(index.isFree(day(11), day(13))).isTrue();
+    }
+
+    @Test
+    void emptyRangesAreIgnoredTest() {
+        BookingIntervalIndex index = new BookingIntervalIndex();
+        index.put(1L, day(2), day(2));
+
+        assertThat(index.size()).isZero();
+        assertThat(index.isFree(day(1), day(3))).isTrue();
+    }
+}
@@ -0,0 +1,106 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.domain.Country;
+import ma.fullstackclone.airbnb.repository.CountryRepository;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO.Eviction;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for the {@link CacheInvalidationService} and the Hibernate second-level cache.
+ */
+@IntegrationTest
+class CacheInvalidationServiceIT {
+
+    private static final List<CacheInvalidationDTO> sent = new CopyOnWriteArrayList<>();
+
+    private static boolean subscribed;
+
+    @Autowired
+    private CacheInvalidationChannel cacheInvalidationChannel;
+
+    @Autowired
+    private CacheInvalidationService cacheInvalidationService;
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private Country country;
+
+    @BeforeEach
+    void init() {
+        if (!subscribed && cacheInvalidationChannel instanceof LocalCacheInvalidationChannel local) {
+            local.subscribe(sent::add);
+            subscribed = true;
+        }
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        country = transactionTemplate.execute(status -> countryRepository.save(new Country().name("Cacheland").code("CL")));
+        sent.clear();
+    }
+
+    @AfterEach
+    void cleanup() {
+        transactionTemplate.executeWithoutResult(status -> countryRepository.deleteById(country.getId()));
+    }
+
+    @Test
+    void committedUpdateIsSentToTheOtherNodes() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Country updated = countryRepository.findById(country.getId()).orElseThrow();
+            updated.setName("Cacheland 2");
+            countryRepository.flush();
+            updated.setCode("C2");
+        });
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).getNodeId()).isEqualTo(cacheInvalidationService.getNodeId());
+        assertThat(sent.get(0).getEvictions()).containsExactly(
+            new Eviction(Kind.ENTITY, Country.class.getName(), String.valueOf(country.getId()))
+        );
+    }
+
+    @Test
+    void rolledBackUpdateIsNotSent() {
+        transactionTemplate.executeWithoutResult(status -> {
+            countryRepository.findById(country.getId()).orElseThrow().setName("Cacheland 2");
+            countryRepository.flush();
+            status.setRollbackOnly();
+        });
+
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void updateOfAnotherNodeIsEvicted() {
+        transactionTemplate.executeWithoutResult(status -> countryRepository.findById(country.getId()));
+        assertThat(entityManagerFactory.getCache().contains(Country.class, country.getId())).isTrue();
+
+        CacheInvalidationDTO invalidation = new CacheInvalidationDTO();
+        invalidation.setNodeId("another-node");
+        invalidation.setSequence(1);
+        invalidation.setEvictions(List.of(new Eviction(Kind.ENTITY, Country.class.getName(), String.valueOf(country.getId()))));
+        cacheInvalidationService.receive(invalidation);
+
+        assertThat(entityManagerFactory.getCache().contains(Country.class, country.getId())).isFalse();
+    }
+}
@@ -0,0 +1,156 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO.Eviction;
+import ma.fullstackclone.airbnb.service.dto.CacheInvalidationDTO.Kind;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class CacheInvalidationServiceTest {
+
+    private static final String CACHE = "usersByLogin";
+
+    private LocalCacheInvalidationChannel channel;
+
+    private CacheInvalidationService node1;
+
+    private CacheInvalidationService node2;
+
+    private final List<CacheInvalidationDTO> sent = new ArrayList<>();
+
+    private final List<String> evictedOnNode1 = new ArrayList<>();
+
+    private final List<String> evictedOnNode2 = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        channel = new LocalCacheInvalidationChannel();
+        node1 = createNode();
+        node2 = createNode();
+        node1.register(CACHE, evictedOnNode1::add);
+        node2.register(CACHE, evictedOnNode2::add);
+        channel.subscribe(sent::add);
+        channel.subscribe(node1::receive);
+        channel.subscribe(node2::receive);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private CacheInvalidationService createNode() {
+        return new CacheInvalidationService(channel, mock(EntityManagerFactory.class), new ApplicationProperties());
+    }
+
+    private static void complete(boolean committed) {
+        if (committed) {
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        }
+        TransactionSynchronizationUtils.triggerAfterCompletion(
+            committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK
+        );
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void evictionsOfATransactionAreSentOnceItCommitsTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        node1.evictOnOtherNodes(CACHE, "alice");
+        node1.bulkUpdated(Property.class, 7L);
+        node1.evictOnOtherNodes(CACHE, "alice");
+
+        assertThat(sent).isEmpty();
+
+        complete(true);
+
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0).getNodeId()).isEqualTo(node1.getNodeId());
+        assertThat(sent.get(0).getEvictions()).containsExactly(
+            new Eviction(Kind.CACHE, CACHE, "alice"),
+            new Eviction(Kind.ENTITY, Property.class.getName(), "7")
+        );
+        assertThat(evictedOnNode2).containsExactly("alice");
+        assertThat(evictedOnNode1).isEmpty();
+    }
+
+    @Test
+    void evictionsOfARolledBackTransactionAreNotSentTest() {
+        TransactionSynchronizationManager.initSynchronization();
+        node1.evictOnOtherNodes(CACHE, "alice");
+        complete(false);
+
+        TransactionSynchronizationManager.initSynchronization();
+        node1.evictOnOtherNodes(CACHE, "bob");
+        complete(true);
+
+        assertThat(sent).hasSize(1);
+        assertThat(evictedOnNode2).containsExactly("bob");
+    }
+
+    @Test
+    void evictionsOutsideOfATransactionAreSentRightAwayTest() {
+        node2.evictOnOtherNodes(CACHE, "alice");
+
+        assertThat(sent).hasSize(1);
+        assertThat(evictedOnNode1).containsExactly("alice");
+        assertThat(evictedOnNode2).isEmpty();
+    }
+
+    @Test
+    void messagesReceivedTwiceAreAppliedOnceTest() {
+        node1.evictOnOtherNodes(CACHE, "alice");
+        node2.receive(sent.get(0));
+        node1.evictOnOtherNodes(CACHE, "alice");
+
+        assertThat(sent).hasSize(2);
+        assertThat(sent.get(1).getSequence()).isGreaterThan(sent.get(0).getSequence());
+        assertThat(evictedOnNode2).containsExactly("alice", "alice");
+    }
+
+    @Test
+    void unknownCachesAreIgnoredTest() {
+        node1.evictOnOtherNodes("unknown", "alice");
+        node1.evictOnOtherNodes(CACHE, "bob");
+
+        assertThat(evictedOnNode2).containsExactly("bob");
+    }
+
+    @Test
+    void secondLevelCacheIsEvictedBeforeApplicationCachesTest() {
+        List<String> evicted = new ArrayList<>();
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenAnswer(invocation -> {
+            evicted.add("entity");
+            throw new IllegalStateException("no second-level cache");
+        });
+        CacheInvalidationService node3 = new CacheInvalidationService(channel, entityManagerFactory, new ApplicationProperties());
+        node3.register(CACHE, key -> evicted.add("cache:" + key));
+        CacheInvalidationDTO invalidation = new CacheInvalidationDTO();
+        invalidation.setNodeId(node1.getNodeId());
+        invalidation.setSequence(1L);
+        invalidation.setEvictions(
+            List.of(new Eviction(Kind.CACHE, CACHE, "alice"), new Eviction(Kind.ENTITY, Property.class.getName(), "7"))
+        );
+
+        node3.receive(invalidation);
+
+        assertThat(evicted).containsExactly("entity", "cache:alice");
+    }
+}
@@ -0,0 +1,76 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import org.junit.jupiter.api.Test;
+
+class GeoGridIndexTest {
+
+    private static final double[] CASABLANCA = { 33.5731, -7.5898 };
+    private static final double[] RABAT = { 34.0209, -6.8416 };
+    private static final double[] MARRAKECH = { 31.6295, -7.9811 };
+
+    private static GeoGridIndex moroccoIndex(double cellSizeDegrees) {
+        GeoGridIndex index = new GeoGridIndex(cellSizeDegrees);
+        index.put(1L, CASABLANCA[0], CASABLANCA[1]);
+        index.put(2L, RABAT[0], RABAT[1]);
+        index.put(3L, MARRAKECH[0], MARRAKECH[1]);
+        return index;
+    }
+
+    @Test
+    void haversineDistanceTest() {
+        assertThat(GeoGridIndex.haversineKm(CASABLANCA[0], CASABLANCA[1], RABAT[0], RABAT[1])).isCloseTo(85.2, within(0.5));
+        assertThat(GeoGridIndex.haversineKm(RABAT[0], RABAT[1], RABAT[0], RABAT[1])).isZero();
+    }
+
+    @Test
+    void withinDistanceIsSortedByDistanceTest() {
+        GeoGridIndex index = moroccoIndex(0.1);
+
+        assertThat(index.withinDistance(CASABLANCA[0], CASABLANCA[1], 10)).extracting(GeoGridIndex.Hit::id).containsExactly(1L);
+        assertThat(index.withinDistance(CASABLANCA[0], CASABLANCA[1], 100)).extracting(GeoGridIndex.Hit::id).containsExactly(1L, 2L);
+        assertThat(index.withinDistance(RABAT[0], RABAT[1], 1000)).extracting(GeoGridIndex.Hit::id).containsExactly(2L, 1L, 3L);
+    }
+
+    @Test
+    void cellSizeDoesNotChangeResultsTest() {
+        for (double cellSize : new double[] { 0.01, 0.1, 1, 10 }) {
+            GeoGridIndex index = moroccoIndex(cellSize);
+
+            assertThat(index.withinDistance(CASABLANCA[0], CASABLANCA[1], 100)).extracting(GeoGridIndex.Hit::id).containsExactly(1L, 2L);
+            assertThat(index.withinBox(31, -8, 34, -7)).extracting(GeoGridIndex.Hit::id).containsExactlyInAnyOrder(1L, 3L);
+        }
+    }
+
+    @Test
+    void withinBoxTest() {
+        GeoGridIndex index = moroccoIndex(0.1);
+
+        assertThat(index.withinBox(33, -8, 35, -6)).extracting(GeoGridIndex.Hit::id).containsExactly(2L, 1L);
+        assertThat(index.withinBox(0, 0, 10, 10)).isEmpty();
+    }
+
+    @Test
+    void moveAndRemovePointTest() {
+        GeoGridIndex index = moroccoIndex(0.1);
+        index.put(3L, RABAT[0] + 0.01, RABAT[1]);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.withinDistance(MARRAKECH[0], MARRAKECH[1], 50)).isEmpty();
+        assertThat(index.withinDistance(RABAT[0], RABAT[1], 5)).extracting(GeoGridIndex.Hit::id).containsExactly(2L, 3L);
+
+        index.remove(2L);
+        index.remove(2L);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.withinDistance(RABAT[0], RABAT[1], 5)).extracting(GeoGridIndex.Hit::id).containsExactly(3L);
+    }
+
+    @Test
+    void invalidCellSizeTest() {
+        assertThatThrownBy(() -> new GeoGridIndex(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
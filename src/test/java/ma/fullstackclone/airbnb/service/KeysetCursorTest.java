@@ -0,0 +1,71 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+class KeysetCursorTest {
+
+    private static Map<String, Class<?>> keyTypes() {
+        Map<String, Class<?>> keyTypes = new LinkedHashMap<>();
+        keyTypes.put("checkInDate", Instant.class);
+        keyTypes.put("totalPrice", BigDecimal.class);
+        keyTypes.put("status", BookingStatus.class);
+        keyTypes.put("id", Long.class);
+        return keyTypes;
+    }
+
+    @Test
+    void encodeDecodeRoundTripTest() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("checkInDate", Instant.parse("2026-07-01T14:00:00.123456Z"));
+        keys.put("totalPrice", new BigDecimal("1234.50"));
+        keys.put("status", BookingStatus.CONFIRMED);
+        keys.put("id", 42L);
+
+        String cursor = KeysetCursor.encode(keys);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+        assertThat(KeysetCursor.decode(cursor, keyTypes())).containsExactlyEntriesOf(keys);
+    }
+
+    @Test
+    void nextCursorOfWindowTest() {
+        Window<String> window = Window.from(List.of("a", "b"), index -> ScrollPosition.forward(Map.of("id", (long) index)), true);
+
+        assertThat(KeysetCursor.decode(KeysetCursor.next(window), Map.of("id", Long.class))).containsEntry("id", 1L);
+    }
+
+    @Test
+    void lastWindowHasNoNextCursorTest() {
+        Window<String> window = Window.from(List.of("a", "b"), index -> ScrollPosition.forward(Map.of("id", (long) index)), false);
+
+        assertThat(KeysetCursor.next(window)).isNull();
+    }
+
+    @Test
+    void cursorOfAnotherSortIsRejectedTest() {
+        String cursor = KeysetCursor.encode(Map.of("title", "Riad", "id", 42L));
+
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, keyTypes())).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, Map.of("id", Long.class))).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(cursor, Map.of("title", Instant.class, "id", Long.class))).isInstanceOf(
+            InvalidCursorException.class
+        );
+    }
+
+    @Test
+    void malformedCursorIsRejectedTest() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!", keyTypes())).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(KeysetCursor.encode(Map.of()), keyTypes())).isInstanceOf(InvalidCursorException.class);
+    }
+}
@@ -0,0 +1,188 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.OutboxEvent;
+import ma.fullstackclone.airbnb.domain.enumeration.OutboxOperation;
+import ma.fullstackclone.airbnb.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class OutboxRelayTest {
+
+    private OutboxEventRepository outboxEventRepository;
+
+    private SearchIndexWriter searchIndexWriter;
+
+    private StreamBridge streamBridge;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private SearchIndexQueue searchIndexQueue;
+
+    private List<OutboxEvent> events;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository = mock(OutboxEventRepository.class);
+        searchIndexWriter = mock(SearchIndexWriter.class);
+        streamBridge = mock(StreamBridge.class);
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        searchIndexQueue = new SearchIndexQueue(
+            searchIndexWriter,
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            meterRegistry
+        );
+
+        Instant now = Instant.now();
+        events = new ArrayList<>();
+        events.add(event(1L, 1L, OutboxOperation.SAVE, now));
+        events.add(event(2L, 2L, OutboxOperation.SAVE, now));
+        events.add(event(3L, 1L, OutboxOperation.DELETE, now));
+        when(outboxEventRepository.lockAvailable(any(), anyInt())).thenReturn(events, List.of());
+        when(outboxEventRepository.findAllById(any())).thenReturn(events);
+        when(streamBridge.send(anyString(), any())).thenReturn(true);
+    }
+
+    private static OutboxEvent event(Long id, Long aggregateId, OutboxOperation operation, Instant now) {
+        return new OutboxEvent()
+            .id(id)
+            .aggregateType("Amenity")
+            .aggregateId(String.valueOf(aggregateId))
+            .operation(operation)
+            .createdDate(now)
+            .availableAt(now);
+    }
+
+    private OutboxRelay createRelay() {
+        SearchDocuments searchDocuments = mock(SearchDocuments.class);
+        when(searchDocuments.findDomainClass("Amenity")).thenReturn(Optional.<Class<?>>of(Amenity.class));
+        when(searchDocuments.parseId(eq(Amenity.class), anyString())).thenAnswer(invocation ->
+            Long.valueOf(invocation.<String>getArgument(1))
+        );
+        return new OutboxRelay(
+            outboxEventRepository,
+            searchDocuments,
+            searchIndexQueue,
+            streamBridge,
+            new ObjectMapper(),
+            mock(PlatformTransactionManager.class),
+            applicationProperties,
+            meterRegistry
+        );
+    }
+
+    @Test
+    void batchIsIndexedPublishedAndDeletedTest() {
+        createRelay().relayAll();
+        searchIndexQueue.flushDue();
+
+        verify(searchIndexWriter).write(Amenity.class, Map.of(1L, OutboxOperation.DELETE, 2L, OutboxOperation.SAVE));
+        verify(streamBridge, times(3)).send(eq("outboxEvent-out-0"), anyString());
+        verify(streamBridge).send("outboxEvent-out-0", "{\"type\":\"Amenity\",\"id\":\"2\",\"operation\":\"SAVE\",\"createdDate\":\"" + events.get(1).getCreatedDate() + "\"}");
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        assertThat(meterRegistry.get(OutboxRelay.EVENTS_METER_NAME).tag("outcome", "relayed").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void eventsAreDeletedOnceWrittenTest() {
+        createRelay().relayAll();
+
+        verify(streamBridge, times(3)).send(eq("outboxEvent-out-0"), anyString());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(searchIndexQueue.size()).isEqualTo(2);
+
+        searchIndexQueue.flushDue();
+
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void fullQueueStopsTheClaimsTest() {
+        applicationProperties.getOutbox().setBatchSize(3);
+        applicationProperties.getSearch().getIndexing().setCapacity(2);
+        when(outboxEventRepository.lockAvailable(any(), anyInt())).thenReturn(events, events);
+
+        createRelay().relayAll();
+
+        verify(outboxEventRepository, times(1)).lockAvailable(any(), anyInt());
+    }
+
+    @Test
+    void claimedEventsArePostponedForTheOtherRelaysTest() {
+        Instant before = Instant.now();
+
+        createRelay().relayAll();
+        searchIndexQueue.flushDue();
+
+        ArgumentCaptor<Instant> until = ArgumentCaptor.forClass(Instant.class);
+        verify(outboxEventRepository).postpone(eq(List.of(1L, 2L, 3L)), until.capture());
+        assertThat(until.getValue()).isAfterOrEqualTo(before.plus(applicationProperties.getOutbox().getClaimTimeout()));
+    }
+
+    @Test
+    void failedBatchIsRetriedAfterBackoffTest() {
+        doThrow(new IllegalStateException("unavailable")).when(searchIndexWriter).write(any(), any());
+        Instant before = Instant.now();
+
+        createRelay().relayAll();
+        searchIndexQueue.flushDue();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(events).allSatisfy(event -> {
+            assertThat(event.getAttempts()).isEqualTo(1);
+            assertThat(event.getAvailableAt()).isAfterOrEqualTo(before.plusSeconds(1));
+        });
+        assertThat(meterRegistry.get(OutboxRelay.EVENTS_METER_NAME).tag("outcome", "retried").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void unsentEventFailsItsBatchTest() {
+        when(streamBridge.send(anyString(), any())).thenReturn(false);
+
+        createRelay().relayAll();
+        searchIndexQueue.flushDue();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(events).extracting(OutboxEvent::getAttempts).containsOnly(1);
+    }
+
+    @Test
+    void eventIsDroppedAfterMaxAttemptsTest() {
+        applicationProperties.getOutbox().setMaxAttempts(1);
+        doThrow(new IllegalStateException("unavailable")).when(searchIndexWriter).write(any(), any());
+
+        createRelay().relayAll();
+        searchIndexQueue.flushDue();
+
+        events.forEach(event -> verify(outboxEventRepository).delete(event));
+        assertThat(meterRegistry.get(OutboxRelay.EVENTS_METER_NAME).tag("outcome", "dropped").counter().count()).isEqualTo(3.0);
+    }
+}
@@ -0,0 +1,174 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.config.ApplicationProperties.Pagination.CountStrategy;
+import ma.fullstackclone.airbnb.domain.City;
+import ma.fullstackclone.airbnb.repository.CityRepository;
+import ma.fullstackclone.airbnb.repository.TableStatisticsRepository;
+import ma.fullstackclone.airbnb.service.criteria.CityCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.repository.query.FluentQuery.FetchableFluentQuery;
+
+class PaginationServiceTest {
+
+    private static final String ENDPOINT = "cities";
+
+    private final Specification<City> specification = (root, query, builder) -> null;
+
+    private CityRepository cityRepository;
+
+    private TableStatisticsRepository tableStatisticsRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private PaginationService paginationService;
+
+    @BeforeEach
+    void setUp() {
+        cityRepository = mock(CityRepository.class);
+        tableStatisticsRepository = mock(TableStatisticsRepository.class);
+        applicationProperties = new ApplicationProperties();
+        paginationService = new PaginationService(
+            tableStatisticsRepository,
+            new ConcurrentMapCacheManager(PaginationService.ESTIMATED_COUNTS_CACHE),
+            applicationProperties
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockWindow(List<City> content, boolean hasNext) {
+        FetchableFluentQuery<City> query = mock(FetchableFluentQuery.class, RETURNS_SELF);
+        when(query.scroll(any(ScrollPosition.class))).thenReturn(
+            Window.from(content, index -> ScrollPosition.offset(index), hasNext)
+        );
+        when(cityRepository.findBy(any(Specification.class), any(Function.class))).thenAnswer(invocation ->
+            invocation.<Function<FetchableFluentQuery<City>, Window<City>>>getArgument(1).apply(query)
+        );
+    }
+
+    private static CityCriteria filteredCriteria() {
+        CityCriteria criteria = new CityCriteria();
+        criteria.name().setContains("Casa");
+        return criteria;
+    }
+
+    @Test
+    void exactStrategyCountsEveryPageTest() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(cityRepository.findAll(specification, pageable)).thenReturn(new PageImpl<>(List.of(new City()), pageable, 7));
+
+        Slice<City> slice = paginationService.findAll(ENDPOINT, City.class, cityRepository, specification, new CityCriteria(), pageable);
+
+        assertThat(slice).isInstanceOf(Page.class);
+        assertThat(((Page<City>) slice).getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    void noneStrategyReturnsSliceWithoutCountTest() {
+        applicationProperties.getPagination().getCountStrategies().put(ENDPOINT, CountStrategy.NONE);
+        mockWindow(List.of(new City(), new City()), true);
+
+        Slice<City> slice = paginationService.findAll(
+            ENDPOINT,
+            City.class,
+            cityRepository,
+            specification,
+            filteredCriteria(),
+            PageRequest.of(1, 2)
+        );
+
+        assertThat(slice).isNotInstanceOf(Page.class);
+        assertThat(slice.getContent()).hasSize(2);
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.hasPrevious()).isTrue();
+        verify(cityRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void estimatedStrategyUsesStatisticsWithoutFiltersTest() {
+        applicationProperties.getPagination().setCountStrategy(CountStrategy.ESTIMATED);
+        when(tableStatisticsRepository.estimateRowCount(City.class)).thenReturn(OptionalLong.of(1000));
+        mockWindow(List.of(new City(), new City()), true);
+
+        Slice<City> slice = paginationService.findAll(
+            ENDPOINT,
+            City.class,
+            cityRepository,
+            specification,
+            new CityCriteria(),
+            PageRequest.of(0, 2)
+        );
+
+        assertThat(((Page<City>) slice).getTotalElements()).isEqualTo(1000);
+        verify(cityRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    void estimatedStrategyCachesCountOfFiltersTest() {
+        applicationProperties.getPagination().setCountStrategy(CountStrategy.ESTIMATED);
+        when(cityRepository.count(specification)).thenReturn(42L);
+        mockWindow(List.of(new City(), new City()), true);
+
+        Slice<City> first = paginationService.findAll(
+            ENDPOINT,
+            City.class,
+            cityRepository,
+            specification,
+            filteredCriteria(),
+            PageRequest.of(0, 2)
+        );
+        Slice<City> second = paginationService.findAll(
+            ENDPOINT,
+            City.class,
+            cityRepository,
+            specification,
+            filteredCriteria(),
+            PageRequest.of(1, 2)
+        );
+
+        assertThat(((Page<City>) first).getTotalElements()).isEqualTo(42);
+        assertThat(((Page<City>) second).getTotalElements()).isEqualTo(42);
+        verify(cityRepository, times(1)).count(specification);
+        verify(tableStatisticsRepository, never()).estimateRowCount(any());
+    }
+
+    @Test
+    void estimatedStrategyCountsLastPageExactlyTest() {
+        applicationProperties.getPagination().setCountStrategy(CountStrategy.ESTIMATED);
+        mockWindow(List.of(new City()), false);
+
+        Slice<City> slice = paginationService.findAll(
+            ENDPOINT,
+            City.class,
+            cityRepository,
+            specification,
+            filteredCriteria(),
+            PageRequest.of(2, 2)
+        );
+
+        assertThat(((Page<City>) slice).getTotalElements()).isEqualTo(5);
+        verify(cityRepository, never()).count(any(Specification.class));
+    }
+}
@@ -0,0 +1,231 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Optional;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Promotion;
+import ma.fullstackclone.airbnb.domain.enumeration.DiscountType;
+import ma.fullstackclone.airbnb.repository.PromotionRepository;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.service.dto.BookingQuoteDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+class PriceQuoteServiceTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PriceQuoteServiceTest.class);
+
+    private static final Long PROPERTY_ID = 1L;
+
+    private PropertyRepository propertyRepository;
+
+    private PromotionRepository promotionRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private PriceQuoteService priceQuoteService;
+
+    private final LocalDate monday = LocalDate.now(ZoneOffset.UTC).plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository = mock(PropertyRepository.class);
+        promotionRepository = mock(PromotionRepository.class);
+        when(propertyRepository.findNightlyPricingById(PROPERTY_ID)).thenReturn(Optional.of(pricing(new BigDecimal("100.00"), 2)));
+        when(propertyRepository.findNightlyPricingById(2L)).thenReturn(Optional.empty());
+        applicationProperties = new ApplicationProperties();
+        priceQuoteService = createService();
+    }
+
+    private PriceQuoteService createService() {
+        return new PriceQuoteService(
+            propertyRepository,
+            promotionRepository,
+            new ConcurrentMapCacheManager(PriceQuoteService.PRICE_CALENDARS_CACHE),
+            mock(CacheInvalidationService.class),
+            applicationProperties
+        );
+    }
+
+    private static PropertyRepository.NightlyPricing pricing(BigDecimal pricePerNight, Integer minimumStay) {
+        return new PropertyRepository.NightlyPricing() {
+            @Override
+            public BigDecimal getPricePerNight() {
+                return pricePerNight;
+            }
+
+            @Override
+            public Integer getMinimumStay() {
+                return minimumStay;
+            }
+        };
+    }
+
+    private static Instant instant(LocalDate date) {
+        return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private Optional<BookingQuoteDTO> quote(Long propertyId, int nights, String promotionCode) {
+        return priceQuoteService.quote(propertyId, instant(monday), instant(monday.plusDays(nights)), promotionCode);
+    }
+
+    private Promotion promotion(DiscountType discountType, String discountValue) {
+        Promotion promotion = new Promotion()
+            .code("SUMMER")
+            .discountType(discountType)
+            .discountValue(new BigDecimal(discountValue))
+            .validFrom(Instant.now().minus(1, ChronoUnit.DAYS))
+            .validUntil(Instant.now().plus(1, ChronoUnit.DAYS))
+            .isActive(true);
+        when(promotionRepository.findOneByCode("SUMMER")).thenReturn(Optional.of(promotion));
+        return promotion;
+    }
+
+    @Test
+    void weekNightsArePricedWithWeekendAndLengthOfStayRulesTest() {
+        BookingQuoteDTO quote = quote(PROPERTY_ID, 7, null).orElseThrow();
+
+        assertThat(quote.getNights()).isEqualTo(7);
+        assertThat(quote.getNightPrices())
+            .extracting(BookingQuoteDTO.NightPrice::getPrice)
+            .containsExactly(
+                new BigDecimal("100.00"),
+                new BigDecimal("100.00"),
+                new BigDecimal("100.00"),
+                new BigDecimal("100.00"),
+                new BigDecimal("115.00"),
+                new BigDecimal("115.00"),
+                new BigDecimal("100.00")
+            );
+        assertThat(quote.getSubtotal()).isEqualByComparingTo("730.00");
+        assertThat(quote.getLengthOfStayDiscount()).isEqualByComparingTo("73.00");
+        assertThat(quote.getPromotionDiscount()).isEqualByComparingTo("0");
+        assertThat(quote.getTotalPrice()).isEqualByComparingTo("657.00");
+    }
+
+    @Test
+    void seasonMultipliesTheNightPriceTest() {
+        ApplicationProperties.Pricing.Season season = new ApplicationProperties.Pricing.Season();
+        season.setFrom("12-01");
+        season.setUntil("11-30");
+        season.setMultiplier(new BigDecimal("1.5"));
+        applicationProperties.getPricing().setSeasons(List.of(season));
+        priceQuoteService = createService();
+
+        BookingQuoteDTO quote = quote(PROPERTY_ID, 4, null).orElseThrow();
+
+        assertThat(quote.getSubtotal()).isEqualByComparingTo("600.00");
+        assertThat(quote.getTotalPrice()).isEqualByComparingTo("600.00");
+    }
+
+    @Test
+    void percentagePromotionAppliesAfterLengthOfStayDiscountTest() {
+        promotion(DiscountType.PERCENTAGE, "10");
+
+        BookingQuoteDTO quote = quote(PROPERTY_ID, 7, "SUMMER").orElseThrow();
+
+        assertThat(quote.getPromotionDiscount()).isEqualByComparingTo("65.70");
+        assertThat(quote.getTotalPrice()).isEqualByComparingTo("591.30");
+    }
+
+    @Test
+    void fixedAmountPromotionIsCappedAtThePriceTest() {
+        promotion(DiscountType.FIXED_AMOUNT, "1000");
+
+        BookingQuoteDTO quote = quote(PROPERTY_ID, 4, "SUMMER").orElseThrow();
+
+        assertThat(quote.getPromotionDiscount()).isEqualByComparingTo("400.00");
+        assertThat(quote.getTotalPrice()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void expiredInactiveOrUsedUpPromotionIsRejectedTest() {
+        Promotion promotion = promotion(DiscountType.PERCENTAGE, "10").validUntil(Instant.now().minus(1, ChronoUnit.HOURS));
+
+        assertThatThrownBy(() -> quote(PROPERTY_ID, 4, "SUMMER")).isInstanceOf(InvalidPromotionException.class);
+
+        promotion.validUntil(null).isActive(false);
+
+        assertThatThrownBy(() -> quote(PROPERTY_ID, 4, "SUMMER")).isInstanceOf(InvalidPromotionException.class);
+        assertThatThrownBy(() -> quote(PROPERTY_ID, 4, "UNKNOWN")).isInstanceOf(InvalidPromotionException.class);
+
+        promotion.isActive(true).maxUses(10).uses(10);
+
+        assertThatThrownBy(() -> quote(PROPERTY_ID, 4, "SUMMER")).isInstanceOf(InvalidPromotionException.class);
+    }
+
+    @Test
+    void invalidStaysAreRejectedTest() {
+        assertThatThrownBy(() -> quote(PROPERTY_ID, 1, null)).isInstanceOf(InvalidStayException.class);
+        assertThatThrownBy(() -> quote(PROPERTY_ID, 366, null)).isInstanceOf(InvalidStayException.class);
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        assertThatThrownBy(() ->
+            priceQuoteService.quote(PROPERTY_ID, instant(yesterday), instant(yesterday.plusDays(3)), null)
+        ).isInstanceOf(InvalidStayException.class);
+    }
+
+    @Test
+    void unknownPropertyHasNoQuoteTest() {
+        assertThat(quote(2L, 4, null)).isEmpty();
+    }
+
+    @Test
+    void calendarIsCachedUntilEvictedTest() {
+        quote(PROPERTY_ID, 4, null);
+        quote(PROPERTY_ID, 5, null);
+
+        verify(propertyRepository, times(1)).findNightlyPricingById(anyLong());
+
+        when(propertyRepository.findNightlyPricingById(PROPERTY_ID)).thenReturn(Optional.of(pricing(new BigDecimal("80.00"), 2)));
+        priceQuoteService.evictCalendar(PROPERTY_ID);
+
+        assertThat(quote(PROPERTY_ID, 4, null).orElseThrow().getSubtotal()).isEqualByComparingTo("320.00");
+        verify(propertyRepository, times(2)).findNightlyPricingById(anyLong());
+    }
+
+    @Test
+    void stayBeyondTheCalendarIsPricedOnItsOwnTest() {
+        LocalDate checkIn = LocalDate.now(ZoneOffset.UTC).plusDays(400).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        BookingQuoteDTO quote = priceQuoteService.quote(PROPERTY_ID, instant(checkIn), instant(checkIn.plusDays(4)), null).orElseThrow();
+
+        assertThat(quote.getSubtotal()).isEqualByComparingTo("400.00");
+    }
+
+    @Test
+    void thirtyNightQuotesUseTheCachedCalendarTest() {
+        promotion(DiscountType.PERCENTAGE, "5");
+        for (int i = 0; i < 2_000; i++) {
+            quote(PROPERTY_ID, 30, "SUMMER");
+        }
+
+        int quotes = 20_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < quotes; i++) {
+            quote(PROPERTY_ID, 30, "SUMMER");
+        }
+        long averageNanos = (System.nanoTime() - start) / quotes;
+
+        // logged only: a timing bound would depend on the machine running the build
+        LOG.info("Priced {} thirty-night stays: {} ns per quote", quotes, averageNanos);
+        verify(propertyRepository, times(1)).findNightlyPricingById(anyLong());
+    }
+}
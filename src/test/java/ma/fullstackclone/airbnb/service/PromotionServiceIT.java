@@ -0,0 +1,120 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.domain.Promotion;
+import ma.fullstackclone.airbnb.domain.enumeration.DiscountType;
+import ma.fullstackclone.airbnb.repository.PromotionRepository;
+import ma.fullstackclone.airbnb.service.dto.PromotionDTO;
+import ma.fullstackclone.airbnb.service.mapper.PromotionMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the redemptions of {@link PromotionService}, committed by concurrent threads.
+ */
+@IntegrationTest
+class PromotionServiceIT {
+
+    private static final String CODE = "FLASHSALE";
+
+    private static final int MAX_USES = 50;
+
+    private static final int THREADS = 16;
+
+    private static final int ATTEMPTS = 400;
+
+    @Autowired
+    private PromotionRepository promotionRepository;
+
+    @Autowired
+    private PromotionService promotionService;
+
+    @Autowired
+    private PromotionMapper promotionMapper;
+
+    private Promotion promotion;
+
+    @BeforeEach
+    void init() {
+        promotion = promotionRepository.saveAndFlush(
+            new Promotion()
+                .code(CODE)
+                .discountType(DiscountType.PERCENTAGE)
+                .discountValue(BigDecimal.TEN)
+                .validFrom(Instant.now().minus(1, ChronoUnit.DAYS))
+                .validUntil(Instant.now().plus(1, ChronoUnit.DAYS))
+                .maxUses(MAX_USES)
+                .isActive(true)
+        );
+    }
+
+    @AfterEach
+    void cleanup() {
+        promotionService.delete(promotion.getId());
+    }
+
+    @Test
+    void concurrentRedemptionsNeverExceedMaxUses() throws Exception {
+        AtomicInteger redeemed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                futures.add(
+                    executor.submit(() -> {
+                        start.await();
+                        try {
+                            promotionService.redeem(CODE);
+                            redeemed.incrementAndGet();
+                        } catch (InvalidPromotionException e) {
+                            rejected.incrementAndGet();
+                        }
+                        return null;
+                    })
+                );
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(redeemed.get()).isEqualTo(MAX_USES);
+        assertThat(rejected.get()).isEqualTo(ATTEMPTS - MAX_USES);
+        assertThat(promotionRepository.findById(promotion.getId()).orElseThrow().getUses()).isEqualTo(MAX_USES);
+    }
+
+    @Test
+    void inactivePromotionIsNotRedeemedOnceUpdated() {
+        promotionService.redeem(CODE);
+
+        PromotionDTO promotionDTO = promotionMapper.toDto(promotionRepository.findById(promotion.getId()).orElseThrow());
+        promotionDTO.setIsActive(false);
+        promotionDTO.setUses(0);
+        assertThat(promotionService.update(promotionDTO).getUses()).isEqualTo(1);
+
+        assertThat(promotionRepository.findOneByCode(CODE).orElseThrow().getIsActive()).isFalse();
+        assertThat(promotionRepository.findById(promotion.getId()).orElseThrow().getUses()).isEqualTo(1);
+        assertThatThrownBy(() -> promotionService.redeem(CODE)).isInstanceOf(InvalidPromotionException.class);
+    }
+}
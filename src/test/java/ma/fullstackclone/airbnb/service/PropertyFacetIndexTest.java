@@ -0,0 +1,84 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import ma.fullstackclone.airbnb.service.dto.PropertyFacetsDTO;
+import org.junit.jupiter.api.Test;
+
+class PropertyFacetIndexTest {
+
+    private static final PropertyFacetService.Filter ALL = new PropertyFacetService.Filter(null, null, null, null, null, null);
+
+    private static PropertyFacetIndex.Entry entry(long id, Set<Long> amenityIds, Long cityId, int price, boolean instantBook) {
+        return new PropertyFacetIndex.Entry(id, amenityIds, Set.of(), cityId, BigDecimal.valueOf(price), instantBook);
+    }
+
+    private static PropertyFacetIndex index() {
+        PropertyFacetIndex index = new PropertyFacetIndex(50);
+        index.put(entry(1L, Set.of(10L, 11L), 100L, 40, true));
+        index.put(entry(2L, Set.of(10L), 100L, 80, false));
+        index.put(entry(3L, Set.of(11L, 12L), 200L, 95, true));
+        return index;
+    }
+
+    @Test
+    void countsAllPropertiesWithoutFilterTest() {
+        PropertyFacetsDTO facets = index().count(ALL, 10);
+
+        assertThat(facets.getTotal()).isEqualTo(3);
+        assertThat(facets.getAmenities()).extracting(PropertyFacetsDTO.FacetCount::getValue).containsExactly("10", "11", "12");
+        assertThat(facets.getAmenities()).extracting(PropertyFacetsDTO.FacetCount::getCount).containsExactly(2L, 2L, 1L);
+        assertThat(facets.getCities()).extracting(PropertyFacetsDTO.FacetCount::getValue).containsExactly("100", "200");
+        assertThat(facets.getInstantBook()).extracting(PropertyFacetsDTO.FacetCount::toString).containsExactly("true=2", "false=1");
+        assertThat(facets.getPrices()).extracting(PropertyFacetsDTO.PriceBucket::toString).containsExactly("[0.0, 50.0)=1", "[50.0, 100.0)=2");
+    }
+
+    @Test
+    void filterIsTheIntersectionOfTheSelectedValuesTest() {
+        PropertyFacetIndex index = index();
+
+        PropertyFacetsDTO facets = index.count(new PropertyFacetService.Filter(Set.of(10L, 11L), null, null, null, null, null), 10);
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getCities()).extracting(PropertyFacetsDTO.FacetCount::toString).containsExactly("100=1");
+
+        facets = index.count(new PropertyFacetService.Filter(null, null, 100L, false, null, null), 10);
+        assertThat(facets.getTotal()).isEqualTo(1);
+        assertThat(facets.getAmenities()).extracting(PropertyFacetsDTO.FacetCount::toString).containsExactly("10=1");
+
+        facets = index.count(new PropertyFacetService.Filter(null, null, null, null, BigDecimal.valueOf(50), BigDecimal.valueOf(95)), 10);
+        assertThat(facets.getTotal()).isEqualTo(2);
+
+        facets = index.count(new PropertyFacetService.Filter(Set.of(99L), null, null, null, null, null), 10);
+        assertThat(facets.getTotal()).isZero();
+        assertThat(facets.getAmenities()).isEmpty();
+        assertThat(facets.getInstantBook()).isEmpty();
+    }
+
+    @Test
+    void facetSizeKeepsTheMostFrequentValuesTest() {
+        assertThat(index().count(ALL, 1).getAmenities()).extracting(PropertyFacetsDTO.FacetCount::getValue).containsExactly("10");
+    }
+
+    @Test
+    void updatedAndRemovedPropertiesAreRecountedTest() {
+        PropertyFacetIndex index = index();
+        index.put(entry(2L, Set.of(12L), 200L, 80, true));
+        index.remove(3L);
+        index.put(entry(4L, Set.of(), null, 300, false));
+
+        PropertyFacetsDTO facets = index.count(ALL, 10);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(facets.getAmenities()).extracting(PropertyFacetsDTO.FacetCount::toString).containsExactly("10=1", "11=1", "12=1");
+        assertThat(facets.getCities()).extracting(PropertyFacetsDTO.FacetCount::toString).containsExactly("100=1", "200=1");
+        assertThat(facets.getInstantBook()).extracting(PropertyFacetsDTO.FacetCount::toString).containsExactly("true=2", "false=1");
+    }
+
+    @Test
+    void invalidPriceIntervalTest() {
+        assertThatThrownBy(() -> new PropertyFacetIndex(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,130 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class PropertyRatingServiceTest {
+
+    private PropertyRepository propertyRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private OutboxService outboxService;
+
+    private PropertyRatingService propertyRatingService;
+
+    @BeforeEach
+    void setUp() {
+        propertyRepository = mock(PropertyRepository.class);
+        applicationProperties = new ApplicationProperties();
+        outboxService = mock(OutboxService.class);
+        propertyRatingService = new PropertyRatingService(
+            propertyRepository,
+            mock(PlatformTransactionManager.class),
+            Runnable::run,
+            applicationProperties,
+            mock(CacheInvalidationService.class),
+            outboxService
+        );
+    }
+
+    @Test
+    void createdReviewIsAddedTest() {
+        propertyRatingService.ratingChanged(null, null, 1L, 4);
+
+        verify(propertyRepository).updateRatings(1L, 1, 4L);
+        verify(outboxService).saved(Property.class, 1L);
+    }
+
+    @Test
+    void deletedReviewIsRemovedTest() {
+        propertyRatingService.ratingChanged(1L, 4, null, null);
+
+        verify(propertyRepository).updateRatings(1L, -1, -4L);
+    }
+
+    @Test
+    void changedRatingOnlyUpdatesTotalTest() {
+        propertyRatingService.ratingChanged(1L, 4, 1L, 2);
+
+        verify(propertyRepository).updateRatings(1L, 0, -2L);
+    }
+
+    @Test
+    void unchangedRatingIsIgnoredTest() {
+        propertyRatingService.ratingChanged(1L, 4, 1L, 4);
+        propertyRatingService.ratingChanged(null, null, null, 4);
+
+        verifyNoInteractions(propertyRepository, outboxService);
+    }
+
+    @Test
+    void movedReviewUpdatesBothPropertiesTest() {
+        propertyRatingService.ratingChanged(1L, 4, 2L, 5);
+
+        verify(propertyRepository).updateRatings(1L, -1, -4L);
+        verify(propertyRepository).updateRatings(2L, 1, 5L);
+        verify(outboxService).saved(Property.class, 1L);
+        verify(outboxService).saved(Property.class, 2L);
+    }
+
+    @Test
+    void rebuildCoversIdRangeInBatchesTest() {
+        applicationProperties.getRating().setRebuildBatchSize(10);
+        applicationProperties.getRating().setRebuildParallelism(2);
+        when(propertyRepository.findIdRange()).thenReturn(idRange(5L, 27L));
+        when(propertyRepository.findIdsWithStaleRatings(5L, 14L)).thenReturn(List.of(6L, 9L));
+        when(propertyRepository.findIdsWithStaleRatings(15L, 24L)).thenReturn(List.of());
+        when(propertyRepository.findIdsWithStaleRatings(25L, 27L)).thenReturn(List.of(27L));
+        when(propertyRepository.rebuildRatings(List.of(6L, 9L))).thenReturn(2);
+        when(propertyRepository.rebuildRatings(List.of(27L))).thenReturn(1);
+
+        assertThat(propertyRatingService.rebuildAll()).isEqualTo(3);
+        verify(propertyRepository, never()).rebuildRatings(List.of());
+        verify(outboxService).saved(Property.class, 6L);
+        verify(outboxService).saved(Property.class, 9L);
+        verify(outboxService).saved(Property.class, 27L);
+        verify(outboxService, times(3)).saved(any(), any());
+    }
+
+    @Test
+    void rebuildWithoutPropertiesDoesNothingTest() {
+        when(propertyRepository.findIdRange()).thenReturn(idRange(null, null));
+
+        assertThat(propertyRatingService.rebuildAll()).isZero();
+        verify(propertyRepository, never()).findIdsWithStaleRatings(anyLong(), anyLong());
+        verify(propertyRepository, never()).rebuildRatings(anyCollection());
+        verify(propertyRepository, never()).updateRatings(anyLong(), anyInt(), anyLong());
+    }
+
+    private static PropertyRepository.IdRange idRange(Long minId, Long maxId) {
+        return new PropertyRepository.IdRange() {
+            @Override
+            public Long getMinId() {
+                return minId;
+            }
+
+            @Override
+            public Long getMaxId() {
+                return maxId;
+            }
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.City;
+import ma.fullstackclone.airbnb.domain.Country;
+import ma.fullstackclone.airbnb.repository.AmenityRepository;
+import ma.fullstackclone.airbnb.repository.CityRepository;
+import ma.fullstackclone.airbnb.repository.CountryRepository;
+import ma.fullstackclone.airbnb.repository.PropertyCategoryRepository;
+import ma.fullstackclone.airbnb.service.dto.AmenityDTO;
+import ma.fullstackclone.airbnb.service.dto.CityDTO;
+import ma.fullstackclone.airbnb.service.dto.CountryDTO;
+import ma.fullstackclone.airbnb.service.mapper.CityMapperImpl;
+import ma.fullstackclone.airbnb.service.mapper.CountryMapperImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ReferenceDataServiceTest {
+
+    private final Country morocco = new Country().id(1L).name("Morocco").code("MA");
+
+    private final Country france = new Country().id(2L).name("France").code("FR");
+
+    private CountryRepository countryRepository;
+
+    private CityRepository cityRepository;
+
+    private AmenityRepository amenityRepository;
+
+    private ApplicationProperties applicationProperties;
+
+    private ReferenceDataService referenceDataService;
+
+    @BeforeEach
+    void setUp() {
+        countryRepository = mock(CountryRepository.class);
+        cityRepository = mock(CityRepository.class);
+        amenityRepository = mock(AmenityRepository.class);
+        when(countryRepository.findAll()).thenReturn(List.of(morocco, france));
+        when(cityRepository.findAll()).thenReturn(
+            List.of(
+                new City().id(10L).name("Rabat").country(morocco),
+                new City().id(11L).name("Casablanca").country(morocco),
+                new City().id(12L).name("Paris").country(france)
+            )
+        );
+        applicationProperties = new ApplicationProperties();
+        referenceDataService = createService();
+    }
+
+    private ReferenceDataService createService() {
+        return new ReferenceDataService(
+            countryRepository,
+            cityRepository,
+            amenityRepository,
+            mock(PropertyCategoryRepository.class),
+            new CountryMapperImpl(),
+            new CityMapperImpl(),
+            mock(PlatformTransactionManager.class),
+            mock(CacheInvalidationService.class),
+            applicationProperties
+        );
+    }
+
+    @Test
+    void tablesAreIndexedByIdNameAndGroupTest() {
+        ReferenceTable<CountryDTO> countries = referenceDataService.getCountries();
+        ReferenceTable<CityDTO> cities = referenceDataService.getCities();
+
+        assertThat(countries.findAll()).extracting(CountryDTO::getName).containsExactly("France", "Morocco");
+        assertThat(countries.findById(1L)).map(CountryDTO::getCode).contains("MA");
+        assertThat(countries.findByName(" morocco ")).extracting(CountryDTO::getId).containsExactly(1L);
+        assertThat(cities.findByGroup(1L)).extracting(CityDTO::getName).containsExactly("Casablanca", "Rabat");
+        assertThat(cities.findByGroup(3L)).isEmpty();
+    }
+
+    @Test
+    void tablesAreLoadedOnceUntilInvalidatedTest() {
+        String eTag = referenceDataService.getCountries().getETag();
+        referenceDataService.getCountries();
+
+        verify(countryRepository, times(1)).findAll();
+
+        referenceDataService.invalidate(ReferenceDataService.Table.COUNTRIES);
+
+        assertThat(referenceDataService.getCountries().getETag()).isEqualTo(eTag);
+        verify(countryRepository, times(2)).findAll();
+        verify(cityRepository, times(0)).findAll();
+    }
+
+    @Test
+    void eTagChangesWithTheContentTest() {
+        String eTag = referenceDataService.getCountries().getETag();
+        assertThat(createService().getCountries().getETag()).isEqualTo(eTag);
+
+        morocco.setPhoneCode("+212");
+        referenceDataService.invalidate(ReferenceDataService.Table.COUNTRIES);
+
+        assertThat(referenceDataService.getCountries().getETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void expiredTableIsReloadedTest() {
+        applicationProperties.getReferenceData().setTimeToLive(Duration.ZERO);
+        referenceDataService = createService();
+
+        referenceDataService.getCountries();
+        referenceDataService.getCountries();
+
+        verify(countryRepository, times(2)).findAll();
+    }
+
+    @Test
+    void amenitiesAreLoadedWithoutTheirPropertiesTest() {
+        Amenity amenity = mock(Amenity.class);
+        when(amenity.getId()).thenReturn(5L);
+        when(amenity.getName()).thenReturn("Wifi");
+        when(amenity.getProperties()).thenThrow(new IllegalStateException("lazy"));
+        when(amenityRepository.findAll()).thenReturn(List.of(amenity));
+
+        assertThat(referenceDataService.getAmenities().findAll()).extracting(AmenityDTO::getName).containsExactly("Wifi");
+        assertThat(referenceDataService.getAmenities().findById(5L).orElseThrow().getProperties()).isEmpty();
+    }
+}
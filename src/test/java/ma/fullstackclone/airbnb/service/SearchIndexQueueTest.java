@@ -0,0 +1,97 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.City;
+import ma.fullstackclone.airbnb.domain.enumeration.OutboxOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class SearchIndexQueueTest {
+
+    private SearchIndexWriter searchIndexWriter;
+
+    private ApplicationProperties applicationProperties;
+
+    private MeterRegistry meterRegistry;
+
+    private SearchIndexQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        searchIndexWriter = mock(SearchIndexWriter.class);
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        queue = new SearchIndexQueue(searchIndexWriter, mock(PlatformTransactionManager.class), applicationProperties, meterRegistry);
+    }
+
+    @Test
+    void changesAreCoalescedByEntityTest() {
+        CompletableFuture<Void> first = queue.enqueue(Amenity.class, 1L, OutboxOperation.SAVE);
+        CompletableFuture<Void> second = queue.enqueue(Amenity.class, 1L, OutboxOperation.DELETE);
+        queue.enqueue(Amenity.class, 2L, OutboxOperation.SAVE);
+
+        assertThat(second).isSameAs(first);
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(meterRegistry.get(SearchIndexQueue.DEPTH_METER_NAME).gauge().value()).isEqualTo(2.0);
+
+        queue.flushDue();
+
+        verify(searchIndexWriter).write(Amenity.class, Map.of(1L, OutboxOperation.DELETE, 2L, OutboxOperation.SAVE));
+        assertThat(first).isCompleted();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void entitiesAreWrittenByTypeAndBatchTest() {
+        applicationProperties.getSearch().getIndexing().setBatchSize(2);
+        queue.enqueue(Amenity.class, 1L, OutboxOperation.SAVE);
+        queue.enqueue(Amenity.class, 2L, OutboxOperation.SAVE);
+        queue.enqueue(Amenity.class, 3L, OutboxOperation.SAVE);
+        queue.enqueue(City.class, 1L, OutboxOperation.SAVE);
+
+        queue.flushDue();
+
+        verify(searchIndexWriter, times(2)).write(eq(Amenity.class), any());
+        verify(searchIndexWriter).write(City.class, Map.of(1L, OutboxOperation.SAVE));
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void failedWriteFailsItsChangesTest() {
+        doThrow(new IllegalStateException("unavailable")).when(searchIndexWriter).write(eq(Amenity.class), any());
+        CompletableFuture<Void> amenity = queue.enqueue(Amenity.class, 1L, OutboxOperation.SAVE);
+        CompletableFuture<Void> city = queue.enqueue(City.class, 1L, OutboxOperation.SAVE);
+
+        queue.flushDue();
+
+        assertThat(amenity).isCompletedExceptionally();
+        assertThat(city).isCompleted();
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void changeAfterFlushIsWrittenAgainTest() {
+        CompletableFuture<Void> first = queue.enqueue(Amenity.class, 1L, OutboxOperation.SAVE);
+        queue.flushDue();
+
+        CompletableFuture<Void> second = queue.enqueue(Amenity.class, 1L, OutboxOperation.SAVE);
+
+        assertThat(second).isNotSameAs(first).isNotDone();
+        queue.flushDue();
+        verify(searchIndexWriter, times(2)).write(Amenity.class, Map.of(1L, OutboxOperation.SAVE));
+    }
+}
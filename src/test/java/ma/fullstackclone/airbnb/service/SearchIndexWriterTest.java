@@ -0,0 +1,194 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.VersionType;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.DeleteOperation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.enumeration.OutboxOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.BulkFailureException;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+
+class SearchIndexWriterTest {
+
+    private static final long VERSION = 1_792_310_400_000_000L;
+
+    private SearchDocuments searchDocuments;
+
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    private MeterRegistry meterRegistry;
+
+    private IndexOperations indexOperations;
+
+    private SearchIndexWriter searchIndexWriter;
+
+    private final List<BulkRequest> deleteRequests = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        searchDocuments = mock(SearchDocuments.class);
+        elasticsearchTemplate = mock(ElasticsearchTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        indexOperations = mock(IndexOperations.class);
+        searchIndexWriter = new SearchIndexWriter(searchDocuments, elasticsearchTemplate, meterRegistry);
+
+        when(searchDocuments.indexName(Amenity.class)).thenReturn("amenity");
+        when(searchDocuments.readVersion()).thenReturn(VERSION);
+        when(elasticsearchTemplate.indexOps(IndexCoordinates.of("amenity-*"))).thenReturn(indexOperations);
+        when(indexOperations.getInformation()).thenReturn(List.of());
+        // ids from 100 do not exist
+        when(searchDocuments.findAllById(eq(Amenity.class), anyCollection())).thenAnswer(invocation ->
+            invocation
+                .<Collection<?>>getArgument(1)
+                .stream()
+                .filter(id -> (Long) id < 100)
+                .map(id -> new Amenity().id((Long) id))
+                .toList()
+        );
+        when(searchDocuments.toIndexQuery(any())).thenAnswer(invocation ->
+            new IndexQueryBuilder().withId(String.valueOf(invocation.<Amenity>getArgument(0).getId())).build()
+        );
+        when(elasticsearchTemplate.execute(any())).thenAnswer(invocation -> {
+            ElasticsearchClient client = mock(ElasticsearchClient.class);
+            when(client.bulk(any(BulkRequest.class))).thenAnswer(bulk -> {
+                deleteRequests.add(bulk.getArgument(0));
+                return BulkResponse.of(response -> response.errors(false).items(List.of()).took(1));
+            });
+            return invocation.<ElasticsearchTemplate.ClientCallback<?>>getArgument(0).doWithClient(client);
+        });
+    }
+
+    private List<DeleteOperation> deletedFrom(String index) {
+        return deleteRequests
+            .stream()
+            .flatMap(request -> request.operations().stream())
+            .map(BulkOperation::delete)
+            .filter(delete -> delete.index().equals(index))
+            .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IndexQuery> captureIndexed() {
+        ArgumentCaptor<List<IndexQuery>> queries = ArgumentCaptor.forClass(List.class);
+        verify(elasticsearchTemplate).bulkIndex(queries.capture(), eq(IndexCoordinates.of("amenity")));
+        return queries.getValue();
+    }
+
+    @Test
+    void savedAndDeletedEntitiesAreWrittenByBatchTest() {
+        Map<Object, OutboxOperation> operations = new LinkedHashMap<>();
+        operations.put(1L, OutboxOperation.SAVE);
+        operations.put(2L, OutboxOperation.SAVE);
+        operations.put(3L, OutboxOperation.DELETE);
+
+        searchIndexWriter.write(Amenity.class, operations);
+
+        assertThat(captureIndexed()).extracting(IndexQuery::getId).containsExactlyInAnyOrder("1", "2");
+        assertThat(deletedFrom("amenity")).extracting(DeleteOperation::id).containsExactly("3");
+        assertThat(meterRegistry.get(SearchIndexWriter.DOCUMENTS_METER_NAME).tag("operation", "save").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get(SearchIndexWriter.DOCUMENTS_METER_NAME).tag("operation", "delete").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void deletedEntityIsRemovedFromIndexTest() {
+        searchIndexWriter.write(Amenity.class, Map.of(1L, OutboxOperation.DELETE));
+
+        verify(elasticsearchTemplate, never()).bulkIndex(anyList(), any(IndexCoordinates.class));
+        assertThat(deletedFrom("amenity")).hasSize(1);
+    }
+
+    @Test
+    void missingEntityIsRemovedFromIndexTest() {
+        searchIndexWriter.write(Amenity.class, Map.of(100L, OutboxOperation.SAVE));
+
+        verify(elasticsearchTemplate, never()).bulkIndex(anyList(), any(IndexCoordinates.class));
+        assertThat(deletedFrom("amenity")).hasSize(1);
+        assertThat(meterRegistry.get(SearchIndexWriter.DOCUMENTS_METER_NAME).tag("operation", "delete").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void documentsAreWrittenWithExternalVersionTest() {
+        searchIndexWriter.write(Amenity.class, Map.of(1L, OutboxOperation.SAVE, 3L, OutboxOperation.DELETE));
+
+        assertThat(captureIndexed()).extracting(IndexQuery::getVersion).containsExactly(VERSION);
+        assertThat(deletedFrom("amenity")).allSatisfy(delete -> {
+            assertThat(delete.version()).isEqualTo(VERSION);
+            assertThat(delete.versionType()).isEqualTo(VersionType.External);
+        });
+    }
+
+    @Test
+    void outdatedDocumentsAreIgnoredTest() {
+        when(elasticsearchTemplate.bulkIndex(anyList(), any(IndexCoordinates.class))).thenThrow(
+            new BulkFailureException(
+                "Bulk operation has failures",
+                Map.of("1", new BulkFailureException.FailureDetails(409, "version conflict"))
+            )
+        );
+
+        searchIndexWriter.write(Amenity.class, Map.of(1L, OutboxOperation.SAVE));
+
+        assertThat(meterRegistry.get(SearchIndexWriter.DOCUMENTS_METER_NAME).tag("operation", "save").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void failedDocumentsFailTheWriteTest() {
+        when(elasticsearchTemplate.bulkIndex(anyList(), any(IndexCoordinates.class))).thenThrow(
+            new BulkFailureException("Bulk operation has failures", Map.of("1", new BulkFailureException.FailureDetails(429, "rejected")))
+        );
+
+        assertThatThrownBy(() -> searchIndexWriter.write(Amenity.class, Map.of(1L, OutboxOperation.SAVE))).isInstanceOf(
+            BulkFailureException.class
+        );
+    }
+
+    @Test
+    void rebuiltIndexIsWrittenTooTest() {
+        when(indexOperations.getInformation()).thenReturn(
+            List.of(
+                IndexInformation.of("amenity-20261018080000", null, null, List.of(AliasData.of("amenity", null, null, null, null, null))),
+                IndexInformation.of("amenity-20261018093000", null, null, List.of()),
+                IndexInformation.of("amenity-backup", null, null, List.of())
+            )
+        );
+
+        searchIndexWriter.write(Amenity.class, Map.of(1L, OutboxOperation.SAVE, 3L, OutboxOperation.DELETE));
+
+        verify(elasticsearchTemplate).bulkIndex(anyList(), eq(IndexCoordinates.of("amenity")));
+        verify(elasticsearchTemplate).bulkIndex(anyList(), eq(IndexCoordinates.of("amenity-20261018093000")));
+        assertThat(deletedFrom("amenity-20261018093000")).extracting(DeleteOperation::id).containsExactly("3");
+        verify(elasticsearchTemplate, never()).bulkIndex(anyList(), eq(IndexCoordinates.of("amenity-20261018080000")));
+        verify(elasticsearchTemplate, never()).bulkIndex(anyList(), eq(IndexCoordinates.of("amenity-backup")));
+        assertThat(meterRegistry.get(SearchIndexWriter.DOCUMENTS_METER_NAME).tag("operation", "save").counter().count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,72 @@
+package ma.fullstackclone.airbnb.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO;
+import ma.fullstackclone.airbnb.service.dto.SuggestionDTO.Type;
+import org.junit.jupiter.api.Test;
+
+class SuggestionIndexTest {
+
+    private static SuggestionIndex index() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.put(Type.CITY, 1L, "Paris");
+        index.put(Type.CITY, 2L, "New York");
+        index.put(Type.COUNTRY, 3L, "Paraguay");
+        index.put(Type.PROPERTY, 4L, "Loft near Parc Monceau");
+        index.put(Type.PROPERTY, 5L, "Paris rooftop studio");
+        index.put(Type.CITY, 6L, "Québec");
+        return index;
+    }
+
+    @Test
+    void wholeNameMatchesFirstThenByTypeAndLengthTest() {
+        assertThat(index().suggest("par", 10))
+            .extracting(SuggestionDTO::getText)
+            .containsExactly("Paris", "Paraguay", "Paris rooftop studio", "Loft near Parc Monceau");
+    }
+
+    @Test
+    void anyWordStartMatchesIgnoringCaseAndAccentsTest() {
+        SuggestionIndex index = index();
+
+        assertThat(index.suggest("YORK", 10)).containsExactly(new SuggestionDTO(Type.CITY, 2L, "New York"));
+        assertThat(index.suggest("queb", 10)).extracting(SuggestionDTO::getId).containsExactly(6L);
+        assertThat(index.suggest("new y", 10)).extracting(SuggestionDTO::getId).containsExactly(2L);
+        assertThat(index.suggest("ork", 10)).isEmpty();
+        assertThat(index.suggest(" - ", 10)).isEmpty();
+    }
+
+    @Test
+    void limitKeepsTheMostRelevantTest() {
+        assertThat(index().suggest("p", 2)).extracting(SuggestionDTO::getText).containsExactly("Paris", "Paraguay");
+    }
+
+    @Test
+    void shortPrefixSuggestionsFollowTheWritesTest() {
+        SuggestionIndex index = index();
+        assertThat(index.suggest("p", 2)).extracting(SuggestionDTO::getText).containsExactly("Paris", "Paraguay");
+        assertThat(index.suggest("l", 10)).extracting(SuggestionDTO::getId).containsExactly(4L);
+
+        index.put(Type.CITY, 7L, "Pau");
+        assertThat(index.suggest("p", 2)).extracting(SuggestionDTO::getText).containsExactly("Pau", "Paris");
+
+        index.remove(Type.CITY, 7L);
+        index.put(Type.CITY, 1L, "Lyon");
+        assertThat(index.suggest("p", 2)).extracting(SuggestionDTO::getText).containsExactly("Paraguay", "Paris rooftop studio");
+        assertThat(index.suggest("l", 10)).extracting(SuggestionDTO::getId).containsExactly(1L, 4L);
+        assertThat(index.suggest("pa", SuggestionIndex.SHORT_PREFIX_SUGGESTIONS + 1)).hasSize(3);
+    }
+
+    @Test
+    void renamedAndRemovedEntriesAreReindexedTest() {
+        SuggestionIndex index = index();
+        index.put(Type.CITY, 1L, "Lyon");
+        index.remove(Type.COUNTRY, 3L);
+        index.put(Type.PROPERTY, 5L, null);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.suggest("par", 10)).extracting(SuggestionDTO::getId).containsExactly(4L);
+        assertThat(index.suggest("ly", 10)).extracting(SuggestionDTO::getId).containsExactly(1L);
+    }
+}
@@ -15,7 +15,6 @@ import java.util.Optional;
 import ma.fullstackclone.airbnb.IntegrationTest;
 import ma.fullstackclone.airbnb.domain.User;
 import ma.fullstackclone.airbnb.repository.UserRepository;
-import ma.fullstackclone.airbnb.repository.search.UserSearchRepository;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,13 +57,8 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
-    /**
-     * This repository is mocked in the ma.fullstackclone.airbnb.repository.search test package.
-     *
-     * @see ma.fullstackclone.airbnb.repository.search.UserSearchRepositoryMockConfiguration
-     */
     @SpyBean
-    private UserSearchRepository spiedUserSearchRepository;
+    private OutboxService spiedOutboxService;
 
     @Autowired
     private AuditingHandler auditingHandler;
@@ -202,7 +196,7 @@ class UserServiceIT {
         assertThat(users).isEmpty();
 
         // Verify Elasticsearch mock
-        verify(spiedUserSearchRepository, times(1)).deleteFromIndex(user);
+        verify(spiedOutboxService, times(1)).deleted(User.class, user.getId());
     }
 
     @Test
@@ -222,6 +216,6 @@ class UserServiceIT {
         assertThat(maybeDbUser).contains(dbUser);
 
         // Verify Elasticsearch mock
-        verify(spiedUserSearchRepository, never()).deleteFromIndex(user);
+        verify(spiedOutboxService, never()).deleted(User.class, user.getId());
     }
 }
@@ -2,6 +2,8 @@ package ma.fullstackclone.airbnb.service.criteria;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.time.Instant;
+import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import org.assertj.core.api.Condition;
@@ -90,10 +92,14 @@ class PropertyCriteriaTest {
         propertyCriteria.minimumStay();
         propertyCriteria.cancellationPolicy();
         propertyCriteria.isActive();
+        propertyCriteria.reviewCount();
+        propertyCriteria.averageRating();
         propertyCriteria.hostId();
         propertyCriteria.cityId();
         propertyCriteria.amenitiesId();
         propertyCriteria.categoriesId();
+        propertyCriteria.availableFrom(Instant.ofEpochSecond(0L));
+        propertyCriteria.availableTo(Instant.ofEpochSecond(86400L));
         propertyCriteria.distinct();
     }
 
@@ -116,10 +122,14 @@ class PropertyCriteriaTest {
                 condition.apply(criteria.getMinimumStay()) &&
                 condition.apply(criteria.getCancellationPolicy()) &&
                 condition.apply(criteria.getIsActive()) &&
+                condition.apply(criteria.getReviewCount()) &&
+                condition.apply(criteria.getAverageRating()) &&
                 condition.apply(criteria.getHostId()) &&
                 condition.apply(criteria.getCityId()) &&
                 condition.apply(criteria.getAmenitiesId()) &&
                 condition.apply(criteria.getCategoriesId()) &&
+                condition.apply(criteria.getAvailableFrom()) &&
+                condition.apply(criteria.getAvailableTo()) &&
                 condition.apply(criteria.getDistinct()),
             "every filter matches"
         );
@@ -144,10 +154,14 @@ class PropertyCriteriaTest {
                 condition.apply(criteria.getMinimumStay(), copy.getMinimumStay()) &&
                 condition.apply(criteria.getCancellationPolicy(), copy.getCancellationPolicy()) &&
                 condition.apply(criteria.getIsActive(), copy.getIsActive()) &&
+                condition.apply(criteria.getReviewCount(), copy.getReviewCount()) &&
+                condition.apply(criteria.getAverageRating(), copy.getAverageRating()) &&
                 condition.apply(criteria.getHostId(), copy.getHostId()) &&
                 condition.apply(criteria.getCityId(), copy.getCityId()) &&
                 condition.apply(criteria.getAmenitiesId(), copy.getAmenitiesId()) &&
                 condition.apply(criteria.getCategoriesId(), copy.getCategoriesId()) &&
+                Objects.equals(criteria.getAvailableFrom(), copy.getAvailableFrom()) &&
+                Objects.equals(criteria.getAvailableTo(), copy.getAvailableTo()) &&
                 condition.apply(criteria.getDistinct(), copy.getDistinct()),
             "every filter matches"
         );
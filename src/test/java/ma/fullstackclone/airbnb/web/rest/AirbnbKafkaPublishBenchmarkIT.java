@@ -0,0 +1,136 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.config.EmbeddedKafka;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Compares the throughput of the batch publish endpoint with the one of the per-message endpoint, against a real broker.
+ * <p>
+ * The throughputs are logged, not asserted. Not part of the default build: run with {@code ./mvnw verify -Pbenchmark}.
+ */
+@Tag("benchmark")
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@EmbeddedKafka
+class AirbnbKafkaPublishBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AirbnbKafkaPublishBenchmarkIT.class);
+
+    private static final int MESSAGES = 5_000;
+
+    private static final int BATCH_SIZE = 250;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Test
+    void batchAndPerMessagePublishThroughput() throws Exception {
+        // warm up the producers and the topic metadata
+        restMockMvc.perform(post("/api/airbnb-kafka/publish?message=warm-up")).andExpect(status().isOk());
+        awaitAll(List.of(publishBatch(List.of("warm-up"))));
+
+        long offsetBefore = endOffset();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            restMockMvc.perform(post("/api/airbnb-kafka/publish?message=single-" + i)).andExpect(status().isOk());
+        }
+        long singleNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<MvcResult> batches = new ArrayList<>();
+        for (int from = 0; from < MESSAGES; from += BATCH_SIZE) {
+            batches.add(
+                publishBatch(IntStream.range(from, from + BATCH_SIZE).mapToObj(i -> "batch-" + i).collect(Collectors.toList()))
+            );
+        }
+        awaitAll(batches);
+        long batchNanos = System.nanoTime() - start;
+
+        LOG.info(
+            "Published {} messages: {} msg/s one by one, {} msg/s by batches of {}",
+            MESSAGES,
+            perSecond(singleNanos),
+            perSecond(batchNanos),
+            BATCH_SIZE
+        );
+        // every acknowledged message is on the topic
+        assertThat(endOffset() - offsetBefore).isGreaterThanOrEqualTo(MESSAGES * 2L);
+    }
+
+    private MvcResult publishBatch(List<String> messages) throws Exception {
+        return restMockMvc
+            .perform(
+                post("/api/airbnb-kafka/publish/batch").contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsBytes(messages))
+            )
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    }
+
+    private void awaitAll(List<MvcResult> results) throws Exception {
+        for (MvcResult result : results) {
+            result.getAsyncResult(applicationProperties.getPublisher().getAckTimeout().toMillis());
+            restMockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        }
+    }
+
+    private long endOffset() throws Exception {
+        String topic = applicationProperties.getPublisher().getTopic();
+        try (Admin admin = Admin.create(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, applicationProperties.getPublisher().getBootstrapServers()))) {
+            Map<TopicPartition, OffsetSpec> partitions = admin
+                .describeTopics(List.of(topic))
+                .allTopicNames()
+                .get()
+                .get(topic)
+                .partitions()
+                .stream()
+                .collect(Collectors.toMap(partition -> new TopicPartition(topic, partition.partition()), partition -> OffsetSpec.latest()));
+            return admin
+                .listOffsets(partitions)
+                .all()
+                .get()
+                .values()
+                .stream()
+                .mapToLong(info -> info.offset())
+                .sum();
+        }
+    }
+
+    private static long perSecond(long nanos) {
+        return MESSAGES * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
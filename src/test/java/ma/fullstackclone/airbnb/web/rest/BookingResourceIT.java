@@ -14,6 +14,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Random;
@@ -21,6 +23,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 import ma.fullstackclone.airbnb.IntegrationTest;
 import ma.fullstackclone.airbnb.domain.Booking;
+import ma.fullstackclone.airbnb.domain.Promotion;
 import ma.fullstackclone.airbnb.domain.Property;
 import ma.fullstackclone.airbnb.domain.User;
 import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
@@ -29,6 +32,7 @@ import ma.fullstackclone.airbnb.repository.UserRepository;
 import ma.fullstackclone.airbnb.repository.search.BookingSearchRepository;
 import ma.fullstackclone.airbnb.service.dto.BookingDTO;
 import ma.fullstackclone.airbnb.service.mapper.BookingMapper;
+import ma.fullstackclone.airbnb.web.rest.vm.BookingQuoteVM;
 import org.assertj.core.util.IterableUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +40,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -178,6 +183,56 @@ class BookingResourceIT {
         insertedBooking = returnedBooking;
     }
 
+    @Test
+    @Transactional
+    void createOverlappingBookingIsConflict() throws Exception {
+        Property property = PropertyResourceIT.createEntity();
+        em.persist(property);
+        em.persist(createEntity().property(property).status(BookingStatus.CONFIRMED));
+        em.flush();
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        BookingDTO bookingDTO = bookingMapper.toDto(booking.property(property));
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(bookingDTO)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value("error.bookingconflict"));
+
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    void createBookingRedeemsItsPromotionCode() throws Exception {
+        Promotion promotion = PromotionResourceIT.createEntity()
+            .validFrom(Instant.now().minus(1, ChronoUnit.DAYS))
+            .validUntil(Instant.now().plus(1, ChronoUnit.DAYS))
+            .maxUses(1)
+            .isActive(true);
+        em.persist(promotion);
+        em.flush();
+        long databaseSizeBeforeCreate = getRepositoryCount();
+
+        BookingDTO bookingDTO = bookingMapper.toDto(booking);
+        bookingDTO.setPromotionCode(promotion.getCode());
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(bookingDTO)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.promotionCode").value(promotion.getCode()));
+
+        // used up: the second booking is rejected, and not created
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(bookingDTO)))
+            .andExpect(status().isBadRequest());
+
+        assertIncrementedRepositoryCount(databaseSizeBeforeCreate);
+        Integer uses = em
+            .createQuery("select promotion.uses from Promotion promotion where promotion.id = :id", Integer.class)
+            .setParameter("id", promotion.getId())
+            .getSingleResult();
+        assertThat(uses).isEqualTo(1);
+    }
+
     @Test
     @Transactional
     void createBookingWithExistingId() throws Exception {
@@ -304,6 +359,94 @@ class BookingResourceIT {
         assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore);
     }
 
+    @Test
+    @Transactional
+    void quoteBooking() throws Exception {
+        Property property = PropertyResourceIT.createEntity();
+        em.persist(property);
+        em.flush();
+        Instant checkIn = Instant.now().plus(10, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS);
+        BookingQuoteVM quoteVM = quoteVM(property.getId(), checkIn, checkIn.plus(3, ChronoUnit.DAYS));
+
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL + "/_quote").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(quoteVM)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.propertyId").value(property.getId().intValue()))
+            .andExpect(jsonPath("$.nights").value(3))
+            .andExpect(jsonPath("$.nightPrices.length()").value(3))
+            .andExpect(jsonPath("$.totalPrice").exists());
+    }
+
+    @Test
+    @Transactional
+    void quoteBookingWithCheckOutBeforeCheckIn() throws Exception {
+        Instant checkIn = Instant.now().plus(10, ChronoUnit.DAYS);
+        BookingQuoteVM quoteVM = quoteVM(Long.MAX_VALUE, checkIn, checkIn.minus(1, ChronoUnit.DAYS));
+
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL + "/_quote").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(quoteVM)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void quoteBookingOfUnknownProperty() throws Exception {
+        Instant checkIn = Instant.now().plus(10, ChronoUnit.DAYS);
+        BookingQuoteVM quoteVM = quoteVM(Long.MAX_VALUE, checkIn, checkIn.plus(3, ChronoUnit.DAYS));
+
+        restBookingMockMvc
+            .perform(post(ENTITY_API_URL + "/_quote").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(quoteVM)))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void bookedNightsAreInThePropertyCalendar() throws Exception {
+        Property property = PropertyResourceIT.createEntity();
+        em.persist(property);
+        em.flush();
+        Instant checkIn = LocalDate.now(ZoneOffset.UTC).plusDays(10).atStartOfDay(ZoneOffset.UTC).toInstant().plus(14, ChronoUnit.HOURS);
+        booking.checkInDate(checkIn).checkOutDate(checkIn.plus(3, ChronoUnit.DAYS)).property(property);
+
+        BookingDTO bookingDTO = om.readValue(
+            restBookingMockMvc
+                .perform(
+                    post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(bookingMapper.toDto(booking)))
+                )
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            BookingDTO.class
+        );
+
+        restBookingMockMvc
+            .perform(get("/api/properties/{id}/calendar", property.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.propertyId").value(property.getId().intValue()))
+            .andExpect(jsonPath("$.days[9].booked").value(false))
+            .andExpect(jsonPath("$.days[10].booked").value(true))
+            .andExpect(jsonPath("$.days[10].available").value(false))
+            .andExpect(jsonPath("$.days[12].booked").value(true))
+            .andExpect(jsonPath("$.days[13].booked").value(false))
+            .andExpect(jsonPath("$.days[10].price").exists());
+
+        restBookingMockMvc.perform(delete(ENTITY_API_URL_ID, bookingDTO.getId())).andExpect(status().isNoContent());
+
+        restBookingMockMvc
+            .perform(get("/api/properties/{id}/calendar", property.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.days[10].booked").value(false));
+    }
+
+    private static BookingQuoteVM quoteVM(Long propertyId, Instant checkIn, Instant checkOut) {
+        BookingQuoteVM quoteVM = new BookingQuoteVM();
+        quoteVM.setPropertyId(propertyId);
+        quoteVM.setCheckInDate(checkIn);
+        quoteVM.setCheckOutDate(checkOut);
+        return quoteVM;
+    }
+
     @Test
     @Transactional
     void getAllBookings() throws Exception {
@@ -705,6 +848,28 @@ class BookingResourceIT {
             });
     }
 
+    @Test
+    @Transactional
+    void putBookingWithoutVersionIsPreconditionRequired() throws Exception {
+        // Initialize the database
+        insertedBooking = bookingRepository.saveAndFlush(booking);
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        BookingDTO bookingDTO = bookingMapper.toDto(booking);
+        bookingDTO.setSpecialRequests(UPDATED_SPECIAL_REQUESTS);
+        bookingDTO.setVersion(null);
+
+        restBookingMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, bookingDTO.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(bookingDTO))
+            )
+            .andExpect(status().isPreconditionRequired())
+            .andExpect(jsonPath("$.message").value("error.versionrequired"));
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getSpecialRequests()).isEqualTo(DEFAULT_SPECIAL_REQUESTS);
+    }
+
     @Test
     @Transactional
     void putNonExistingBooking() throws Exception {
@@ -802,6 +967,39 @@ class BookingResourceIT {
         assertBookingUpdatableFieldsEquals(createUpdateProxyForBean(partialUpdatedBooking, booking), getPersistedBooking(booking));
     }
 
+    @Test
+    @Transactional
+    void partialUpdateBookingFromAStaleVersionIsConflict() throws Exception {
+        // Initialize the database
+        insertedBooking = bookingRepository.saveAndFlush(booking);
+        long version = booking.getVersion();
+
+        BookingDTO partialUpdatedBookingDTO = new BookingDTO();
+        partialUpdatedBookingDTO.setId(booking.getId());
+        partialUpdatedBookingDTO.setVersion(version);
+        partialUpdatedBookingDTO.setSpecialRequests(UPDATED_SPECIAL_REQUESTS);
+
+        restBookingMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, booking.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedBookingDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"booking-" + booking.getId() + "-" + (version + 1) + "\""));
+
+        partialUpdatedBookingDTO.setSpecialRequests(DEFAULT_SPECIAL_REQUESTS);
+        restBookingMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, booking.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedBookingDTO))
+            )
+            .andExpect(status().isConflict());
+
+        assertThat(getPersistedBooking(booking).getSpecialRequests()).isEqualTo(UPDATED_SPECIAL_REQUESTS);
+    }
+
     @Test
     @Transactional
     void fullUpdateBookingWithPatch() throws Exception {
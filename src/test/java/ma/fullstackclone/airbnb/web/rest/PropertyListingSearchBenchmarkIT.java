@@ -0,0 +1,161 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.repository.search.PropertySearchRepository;
+import ma.fullstackclone.airbnb.service.dto.PropertyDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Measures the latency percentiles of listing searches mixing free text, price, guests and area criteria over an index of
+ * a few thousand properties, and checks that every hit matches the filters of its search.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class PropertyListingSearchBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyListingSearchBenchmarkIT.class);
+
+    private static final int PROPERTIES = 2_000;
+
+    private static final long FIRST_ID = 9_000_000L;
+
+    private static final int WARMUP_SEARCHES = 100;
+
+    private static final int SEARCHES = 1_000;
+
+    private static final String[] WORDS = { "loft", "villa", "studio", "cabin", "sea", "view", "garden", "pool", "quiet", "central" };
+
+    private static final String ENTITY_SEARCH_API_URL = "/api/properties/_listings";
+
+    @Autowired
+    private MockMvc restPropertyMockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private PropertySearchRepository propertySearchRepository;
+
+    private final Random random = new Random(42);
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void initTest() {
+        List<Property> properties = new ArrayList<>();
+        for (int i = 0; i < PROPERTIES; i++) {
+            Property property = PropertyResourceIT.createEntity()
+                .title(word() + " " + word() + " " + word())
+                .description(word() + " " + word() + " " + word() + " " + word() + " " + word())
+                .address(i + " " + word() + " street")
+                .pricePerNight(BigDecimal.valueOf(20 + random.nextInt(480)))
+                .maxGuests(1 + random.nextInt(10))
+                .numberOfRooms(1 + random.nextInt(5))
+                .latitude(BigDecimal.valueOf(48 + random.nextDouble()))
+                .longitude(BigDecimal.valueOf(2 + random.nextDouble()))
+                .averageRating(random.nextBoolean() ? BigDecimal.valueOf(1 + random.nextInt(400) / 100.0) : null)
+                .isActive(true);
+            property.setId(FIRST_ID + i);
+            property.setListingUpdatedDate(Instant.now().minus(random.nextInt(365), ChronoUnit.DAYS));
+            properties.add(property);
+            ids.add(property.getId());
+        }
+        propertySearchRepository.saveAll(properties);
+    }
+
+    @AfterEach
+    void cleanup() {
+        propertySearchRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void listingSearchLatency() throws Exception {
+        for (int i = 0; i < WARMUP_SEARCHES; i++) {
+            search();
+        }
+
+        long[] latencies = new long[SEARCHES];
+        long hits = 0;
+        for (int i = 0; i < SEARCHES; i++) {
+            long start = System.nanoTime();
+            hits += search();
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+
+        assertThat(hits).isPositive();
+        LOG.info(
+            "{} listing searches over {} properties: p50 {} ms, p99 {} ms, max {} ms ({} hits)",
+            SEARCHES,
+            PROPERTIES,
+            millis(percentile(latencies, 50)),
+            millis(percentile(latencies, 99)),
+            millis(latencies[SEARCHES - 1]),
+            hits
+        );
+    }
+
+    /**
+     * Run a search with random criteria and check its hits against them.
+     *
+     * @return the number of hits of the first page.
+     */
+    private int search() throws Exception {
+        int guests = 1 + random.nextInt(6);
+        int maxPrice = 100 + random.nextInt(400);
+        MockHttpServletRequestBuilder request = get(ENTITY_SEARCH_API_URL)
+            .with(user("guest"))
+            .param("q", word() + " " + word())
+            .param("guests", String.valueOf(guests))
+            .param("maxPrice", String.valueOf(maxPrice))
+            .param("size", "20");
+        if (random.nextBoolean()) {
+            request.param("lat", "48.5").param("lon", "2.5").param("radiusKm", "30");
+        }
+        MockHttpServletResponse response = restPropertyMockMvc.perform(request).andReturn().getResponse();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        List<PropertyDTO> properties = om.readValue(response.getContentAsByteArray(), new TypeReference<>() {});
+        assertThat(properties).allSatisfy(property -> {
+            assertThat(property.getMaxGuests()).isGreaterThanOrEqualTo(guests);
+            assertThat(property.getPricePerNight()).isLessThanOrEqualTo(BigDecimal.valueOf(maxPrice));
+        });
+        return properties.size();
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static long percentile(long[] sorted, int percentile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * percentile / 100.0) - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
@@ -6,7 +6,10 @@ import static ma.fullstackclone.airbnb.web.rest.TestUtil.sameInstant;
 import static ma.fullstackclone.airbnb.web.rest.TestUtil.sameNumber;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -14,6 +17,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
@@ -23,12 +27,16 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import ma.fullstackclone.airbnb.IntegrationTest;
 import ma.fullstackclone.airbnb.domain.Amenity;
+import ma.fullstackclone.airbnb.domain.Booking;
 import ma.fullstackclone.airbnb.domain.City;
 import ma.fullstackclone.airbnb.domain.Property;
 import ma.fullstackclone.airbnb.domain.PropertyCategory;
 import ma.fullstackclone.airbnb.domain.User;
+import ma.fullstackclone.airbnb.domain.enumeration.BookingStatus;
 import ma.fullstackclone.airbnb.repository.PropertyRepository;
 import ma.fullstackclone.airbnb.repository.UserRepository;
 import ma.fullstackclone.airbnb.repository.search.PropertySearchRepository;
@@ -47,6 +55,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Streamable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -507,6 +516,159 @@ class PropertyResourceIT {
             .andExpect(jsonPath("$.isActive").value(DEFAULT_IS_ACTIVE.booleanValue()));
     }
 
+    @Test
+    @Transactional
+    void getUnchangedPropertyIsNotModified() throws Exception {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+
+        String eTag = restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        PropertyDTO partialUpdatedPropertyDTO = new PropertyDTO();
+        partialUpdatedPropertyDTO.setId(property.getId());
+        partialUpdatedPropertyDTO.setTitle(UPDATED_TITLE);
+        restPropertyMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, property.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedPropertyDTO))
+            )
+            .andExpect(status().isOk());
+
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.title").value(UPDATED_TITLE));
+    }
+
+    @Test
+    @Transactional
+    void ratingChangeIsModifiedButKeepsTheVersion() throws Exception {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        long version = property.getVersion();
+
+        String eTag = restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        propertyRepository.updateRatings(property.getId(), 1, 5L);
+        em.clear();
+
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.reviewCount").value(1))
+            .andExpect(jsonPath("$.version").value(version));
+
+        // a review is not an edit: the host edit made from the previous representation is accepted
+        PropertyDTO partialUpdatedPropertyDTO = new PropertyDTO();
+        partialUpdatedPropertyDTO.setId(property.getId());
+        partialUpdatedPropertyDTO.setTitle(UPDATED_TITLE);
+        restPropertyMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, property.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedPropertyDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(version + 1));
+    }
+
+    @Test
+    @Transactional
+    void patchPropertyFromAStaleVersionIsConflict() throws Exception {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        long version = property.getVersion();
+        PropertyDTO staleDTO = propertyMapper.toDto(property);
+
+        String eTag = restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        PropertyDTO partialUpdatedPropertyDTO = new PropertyDTO();
+        partialUpdatedPropertyDTO.setId(property.getId());
+        partialUpdatedPropertyDTO.setTitle(UPDATED_TITLE);
+        String newETag = restPropertyMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, property.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedPropertyDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(version + 1))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+
+        // a second edit made from the first representation would overwrite the first one
+        partialUpdatedPropertyDTO.setTitle(DEFAULT_TITLE);
+        restPropertyMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, property.getId())
+                    .header(HttpHeaders.IF_MATCH, eTag)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedPropertyDTO))
+            )
+            .andExpect(status().isConflict());
+
+        restPropertyMockMvc
+            .perform(put(ENTITY_API_URL_ID, property.getId()).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(staleDTO)))
+            .andExpect(status().isConflict());
+
+        assertThat(propertyRepository.findById(property.getId()).orElseThrow().getTitle()).isEqualTo(UPDATED_TITLE);
+    }
+
+    @Test
+    @Transactional
+    void getAllPropertiesIsNotModifiedUntilAPropertyIsCreated() throws Exception {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+
+        String eTag = restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified());
+
+        propertyRepository.saveAndFlush(createUpdatedEntity());
+        // the modification count is incremented when the transaction commits
+        em.createNativeQuery("set constraints all immediate").executeUpdate();
+
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].title").value(hasItem(UPDATED_TITLE)));
+    }
+
     @Test
     @Transactional
     void getPropertiesByIdFiltering() throws Exception {
@@ -1634,6 +1796,70 @@ class PropertyResourceIT {
         defaultPropertyShouldNotBeFound("categoriesId.equals=" + (categoriesId + 1));
     }
 
+    @Test
+    @Transactional
+    void getAllPropertiesByAvailableBetween() throws Exception {
+        property.availabilityStart(null).availabilityEnd(null);
+        propertyRepository.saveAndFlush(property);
+        Booking booking = BookingResourceIT.createEntity()
+            .checkInDate(Instant.parse("2026-07-10T14:00:00Z"))
+            .checkOutDate(Instant.parse("2026-07-15T10:00:00Z"))
+            .status(BookingStatus.CONFIRMED)
+            .property(property);
+        em.persist(booking);
+        em.flush();
+
+        // Stay ending on the check-in day of the booking
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?availableFrom=2026-07-01T14:00:00Z&availableTo=2026-07-10T10:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(property.getId().intValue())));
+
+        // Stay overlapping the booking
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?availableFrom=2026-07-12T14:00:00Z&availableTo=2026-07-20T10:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(property.getId().intValue()))));
+
+        // Cancelled bookings do not block their dates
+        booking.setStatus(BookingStatus.CANCELLED);
+        em.flush();
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?availableFrom=2026-07-12T14:00:00Z&availableTo=2026-07-20T10:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(property.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllPropertiesWithCursor() throws Exception {
+        propertyRepository.saveAndFlush(property);
+        Property otherProperty = propertyRepository.saveAndFlush(createUpdatedEntity());
+        String filter = "&id.in=" + property.getId() + "," + otherProperty.getId();
+
+        // First page: no total count, a link to the next page
+        String link = restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "?after=&size=1&sort=title,asc" + filter))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.[*].id").value(contains(property.getId().intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.LINK);
+        Matcher next = Pattern.compile("<([^>]*)>; rel=\"next\"").matcher(link);
+        assertThat(next.find()).isTrue();
+
+        // Last page: no link to a next page
+        restPropertyMockMvc
+            .perform(get(URI.create(next.group(1))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(otherProperty.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+
+        // Cursors cannot be used with a nullable sort
+        restPropertyMockMvc.perform(get(ENTITY_API_URL + "?after=&sort=latitude,asc" + filter)).andExpect(status().isBadRequest());
+    }
+
     private void defaultPropertyFiltering(String shouldBeFound, String shouldNotBeFound) throws Exception {
         defaultPropertyShouldBeFound(shouldBeFound);
         defaultPropertyShouldNotBeFound(shouldNotBeFound);
@@ -1758,6 +1984,75 @@ class PropertyResourceIT {
             });
     }
 
+    @Test
+    @Transactional
+    void ratingChangeKeepsTheListingUpdatedDate() {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        em.clear();
+        Property edited = propertyRepository.findById(property.getId()).orElseThrow();
+
+        propertyRepository.updateRatings(property.getId(), 1, 5L);
+        em.clear();
+
+        Property rated = propertyRepository.findById(property.getId()).orElseThrow();
+        assertThat(rated.getListingUpdatedDate()).isEqualTo(edited.getListingUpdatedDate());
+    }
+
+    @Test
+    @Transactional
+    void putExistingPropertyKeepsRatings() throws Exception {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        propertyRepository.updateRatings(property.getId(), 2, 9L);
+        em.clear();
+
+        PropertyDTO propertyDTO = propertyMapper.toDto(propertyRepository.findById(property.getId()).orElseThrow());
+        propertyDTO.setTitle(UPDATED_TITLE);
+        propertyDTO.setReviewCount(null);
+        propertyDTO.setAverageRating(null);
+
+        restPropertyMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, propertyDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(propertyDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value(UPDATED_TITLE))
+            .andExpect(jsonPath("$.reviewCount").value(2))
+            .andExpect(jsonPath("$.averageRating").value(4.5));
+
+        Property updatedProperty = propertyRepository.findById(property.getId()).orElseThrow();
+        assertThat(updatedProperty.getReviewCount()).isEqualTo(2);
+        assertThat(updatedProperty.getRatingTotal()).isEqualTo(9L);
+        assertThat(updatedProperty.getAverageRating()).isEqualByComparingTo("4.5");
+    }
+
+    @Test
+    @Transactional
+    void putPropertyWithoutVersionIsPreconditionRequired() throws Exception {
+        // Initialize the database
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        long databaseSizeBeforeUpdate = getRepositoryCount();
+
+        PropertyDTO propertyDTO = propertyMapper.toDto(property);
+        propertyDTO.setTitle(UPDATED_TITLE);
+        propertyDTO.setVersion(null);
+
+        restPropertyMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, propertyDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(propertyDTO))
+            )
+            .andExpect(status().isPreconditionRequired())
+            .andExpect(jsonPath("$.message").value("error.versionrequired"));
+
+        assertSameRepositoryCount(databaseSizeBeforeUpdate);
+        assertThat(propertyRepository.findById(property.getId()).orElseThrow().getTitle()).isEqualTo(DEFAULT_TITLE);
+    }
+
     @Test
     @Transactional
     void putNonExistingProperty() throws Exception {
@@ -2036,6 +2331,87 @@ class PropertyResourceIT {
             .andExpect(jsonPath("$.[*].isActive").value(hasItem(DEFAULT_IS_ACTIVE.booleanValue())));
     }
 
+    @Test
+    @Transactional
+    void getPropertyFacets() throws Exception {
+        // Initialize the database, only active properties being counted
+        property.setIsActive(true);
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        propertySearchRepository.save(property);
+
+        // Count the facets of the properties at the price of the property
+        restPropertyMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/_facets")
+                    .param("instantBook", DEFAULT_INSTANT_BOOK.toString())
+                    .param("minPrice", DEFAULT_PRICE_PER_NIGHT.toString())
+                    .param("maxPrice", DEFAULT_PRICE_PER_NIGHT.toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.instantBook.[*].value").value(hasItem(DEFAULT_INSTANT_BOOK.toString())))
+            .andExpect(jsonPath("$.prices.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    void getPropertyFacetsIgnoresInactiveProperties() throws Exception {
+        // Initialize the database
+        BigDecimal price = new BigDecimal("987654");
+        property.setIsActive(false);
+        property.setPricePerNight(price);
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        propertySearchRepository.save(property);
+
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "/_facets").param("minPrice", price.toString()).param("maxPrice", price.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.prices.length()").value(0));
+    }
+
+    @Test
+    @Transactional
+    void getPropertyFacetsWithInvalidPriceRange() throws Exception {
+        restPropertyMockMvc.perform(get(ENTITY_API_URL + "/_facets?minPrice=100&maxPrice=50")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void searchPropertyListings() throws Exception {
+        // Initialize the database
+        property.setIsActive(true);
+        insertedProperty = propertyRepository.saveAndFlush(property);
+        propertySearchRepository.save(property);
+
+        // Search the property by its title, with filters it matches
+        restPropertyMockMvc
+            .perform(
+                get(ENTITY_API_URL + "/_listings")
+                    .param("q", DEFAULT_TITLE)
+                    .param("guests", DEFAULT_MAX_GUESTS.toString())
+                    .param("rooms", DEFAULT_NUMBER_OF_ROOMS.toString())
+                    .param("maxPrice", DEFAULT_PRICE_PER_NIGHT.toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(property.getId().intValue())));
+
+        // Too many guests for the property
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "/_listings").param("q", DEFAULT_TITLE).param("guests", String.valueOf(DEFAULT_MAX_GUESTS + 1)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(property.getId().intValue()))));
+    }
+
+    @Test
+    @Transactional
+    void searchPropertyListingsWithInvalidArea() throws Exception {
+        restPropertyMockMvc
+            .perform(get(ENTITY_API_URL + "/_listings?lat=95&lon=2&radiusKm=10"))
+            .andExpect(status().isBadRequest());
+        restPropertyMockMvc.perform(get(ENTITY_API_URL + "/_listings?minPrice=100&maxPrice=50")).andExpect(status().isBadRequest());
+    }
+
     protected long getRepositoryCount() {
         return propertyRepository.count();
     }
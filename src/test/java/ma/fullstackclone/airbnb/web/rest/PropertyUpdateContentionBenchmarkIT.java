@@ -0,0 +1,165 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.domain.Property;
+import ma.fullstackclone.airbnb.repository.PropertyRepository;
+import ma.fullstackclone.airbnb.service.dto.PropertyDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Measures the throughput of parallel host edits of the same property, each a read-modify-write of its number of rooms,
+ * with and without {@code If-Match}: conditional edits retry on {@code 409 (Conflict)} and none is lost.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+class PropertyUpdateContentionBenchmarkIT {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropertyUpdateContentionBenchmarkIT.class);
+
+    private static final int HOSTS = 8;
+
+    private static final int EDITS_PER_HOST = 50;
+
+    private static final String ENTITY_API_URL_ID = "/api/properties/{id}";
+
+    @Autowired
+    private MockMvc restPropertyMockMvc;
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    private Property property;
+
+    @BeforeEach
+    void initTest() {
+        property = propertyRepository.saveAndFlush(PropertyResourceIT.createEntity());
+    }
+
+    @AfterEach
+    void cleanup() {
+        propertyRepository.deleteById(property.getId());
+    }
+
+    @Test
+    void conditionalEditsAreNeverLost() throws Exception {
+        // warm up the caches and the connection pool
+        edit(false);
+        int roomsBefore = rooms();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        long start = System.nanoTime();
+        runHosts(() -> {
+            for (int i = 0; i < EDITS_PER_HOST; i++) {
+                while (!edit(true)) {
+                    conflicts.incrementAndGet();
+                }
+            }
+            return null;
+        });
+        long conditionalNanos = System.nanoTime() - start;
+
+        assertThat(rooms() - roomsBefore).isEqualTo(HOSTS * EDITS_PER_HOST);
+
+        // without If-Match, only the edits racing to the same version are rejected: those made from a stale read are not
+        int roomsBeforeBlind = rooms();
+        AtomicInteger applied = new AtomicInteger();
+        start = System.nanoTime();
+        runHosts(() -> {
+            for (int i = 0; i < EDITS_PER_HOST; i++) {
+                if (edit(false)) {
+                    applied.incrementAndGet();
+                }
+            }
+            return null;
+        });
+        long blindNanos = System.nanoTime() - start;
+        int lost = applied.get() - (rooms() - roomsBeforeBlind);
+
+        LOG.info(
+            "{} hosts x {} edits: {} edits/s with If-Match ({} conflicts retried, none lost), {} edits/s without ({} rejected, {} lost)",
+            HOSTS,
+            EDITS_PER_HOST,
+            perSecond(conditionalNanos),
+            conflicts.get(),
+            perSecond(blindNanos),
+            HOSTS * EDITS_PER_HOST - applied.get(),
+            lost
+        );
+    }
+
+    /**
+     * Read the property, then write it back with one more room.
+     *
+     * @return {@code false} if a conditional edit was rejected as the property changed since it was read.
+     */
+    private boolean edit(boolean conditional) throws Exception {
+        MockHttpServletResponse read = restPropertyMockMvc
+            .perform(get(ENTITY_API_URL_ID, property.getId()).with(user("host")))
+            .andReturn()
+            .getResponse();
+        PropertyDTO propertyDTO = om.readValue(read.getContentAsByteArray(), PropertyDTO.class);
+
+        PropertyDTO partialUpdatedPropertyDTO = new PropertyDTO();
+        partialUpdatedPropertyDTO.setId(property.getId());
+        partialUpdatedPropertyDTO.setNumberOfRooms(propertyDTO.getNumberOfRooms() + 1);
+        var request = patch(ENTITY_API_URL_ID, property.getId())
+            .with(user("host"))
+            .contentType("application/merge-patch+json")
+            .content(om.writeValueAsBytes(partialUpdatedPropertyDTO));
+        if (conditional) {
+            request.header(HttpHeaders.IF_MATCH, read.getHeader(HttpHeaders.ETAG));
+        }
+        int status = restPropertyMockMvc.perform(request).andReturn().getResponse().getStatus();
+        assertThat(status).isIn(HttpStatus.OK.value(), HttpStatus.CONFLICT.value());
+        return status == HttpStatus.OK.value();
+    }
+
+    private void runHosts(Callable<Void> host) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(HOSTS);
+        try {
+            List<Future<Void>> hosts = new ArrayList<>();
+            for (int i = 0; i < HOSTS; i++) {
+                hosts.add(executor.submit(host));
+            }
+            for (Future<Void> future : hosts) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int rooms() {
+        return propertyRepository.findById(property.getId()).orElseThrow().getNumberOfRooms();
+    }
+
+    private static long perSecond(long nanos) {
+        return HOSTS * EDITS_PER_HOST * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
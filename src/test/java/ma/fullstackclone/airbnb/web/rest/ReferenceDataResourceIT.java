@@ -0,0 +1,89 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.service.dto.CountryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link ReferenceDataResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReferenceDataResourceIT {
+
+    private static final String COUNTRIES_API_URL = "/api/reference-data/countries";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restReferenceDataMockMvc;
+
+    private Long insertedCountryId;
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        if (insertedCountryId != null) {
+            restReferenceDataMockMvc.perform(delete("/api/countries/{id}", insertedCountryId)).andExpect(status().isNoContent());
+            insertedCountryId = null;
+        }
+    }
+
+    @Test
+    void getUnchangedCountriesIsNotModified() throws Exception {
+        String eTag = restReferenceDataMockMvc
+            .perform(get(COUNTRIES_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restReferenceDataMockMvc
+            .perform(get(COUNTRIES_API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    void createdCountryIsServedWithANewETag() throws Exception {
+        String eTag = restReferenceDataMockMvc.perform(get(COUNTRIES_API_URL)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        CountryDTO countryDTO = new CountryDTO();
+        countryDTO.setName("Reference Country");
+        countryDTO.setCode("RC");
+        CountryDTO created = om.readValue(
+            restReferenceDataMockMvc
+                .perform(post("/api/countries").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(countryDTO)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            CountryDTO.class
+        );
+        insertedCountryId = created.getId();
+
+        String newETag = restReferenceDataMockMvc
+            .perform(get(COUNTRIES_API_URL + "?name=reference country").header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(insertedCountryId.intValue())))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+        assertThat(newETag).isNotEqualTo(eTag);
+    }
+}
@@ -720,6 +720,55 @@ class ReviewResourceIT {
         assertThat(searchDatabaseSizeAfter).isEqualTo(searchDatabaseSizeBefore - 1);
     }
 
+    @Test
+    @Transactional
+    void reviewWritesMaintainPropertyRatings() throws Exception {
+        Property property = PropertyResourceIT.createEntity();
+        em.persist(property);
+        em.flush();
+
+        ReviewDTO reviewDTO = reviewMapper.toDto(createEntity().rating(4).property(property));
+        ReviewDTO createdReviewDTO = om.readValue(
+            restReviewMockMvc
+                .perform(post(ENTITY_API_URL).contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(reviewDTO)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            ReviewDTO.class
+        );
+        restReviewMockMvc
+            .perform(
+                post(ENTITY_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(reviewMapper.toDto(createEntity().rating(5).property(property))))
+            )
+            .andExpect(status().isCreated());
+        assertPropertyRatings(property, 2, 9L, "4.50");
+
+        createdReviewDTO.setRating(2);
+        restReviewMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, createdReviewDTO.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(om.writeValueAsBytes(createdReviewDTO))
+            )
+            .andExpect(status().isOk());
+        assertPropertyRatings(property, 2, 7L, "3.50");
+
+        restReviewMockMvc.perform(delete(ENTITY_API_URL_ID, createdReviewDTO.getId())).andExpect(status().isNoContent());
+        assertPropertyRatings(property, 1, 5L, "5.00");
+    }
+
+    private void assertPropertyRatings(Property property, int reviewCount, long ratingTotal, String averageRating) {
+        em.flush();
+        em.clear();
+        Property persistedProperty = em.find(Property.class, property.getId());
+        assertThat(persistedProperty.getReviewCount()).isEqualTo(reviewCount);
+        assertThat(persistedProperty.getRatingTotal()).isEqualTo(ratingTotal);
+        assertThat(persistedProperty.getAverageRating()).isEqualByComparingTo(averageRating);
+    }
+
     @Test
     @Transactional
     void searchReview() throws Exception {
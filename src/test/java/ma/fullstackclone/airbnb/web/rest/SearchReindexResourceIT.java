@@ -0,0 +1,97 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.concurrent.TimeUnit;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.domain.Country;
+import ma.fullstackclone.airbnb.repository.CountryRepository;
+import ma.fullstackclone.airbnb.repository.search.CountrySearchRepository;
+import ma.fullstackclone.airbnb.security.AuthoritiesConstants;
+import ma.fullstackclone.airbnb.service.SearchReindexService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.core.IndexInformation;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SearchReindexResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class SearchReindexResourceIT {
+
+    private static final String REINDEX_API_URL = "/api/admin/search/_reindex";
+
+    @Autowired
+    private CountryRepository countryRepository;
+
+    @Autowired
+    private CountrySearchRepository countrySearchRepository;
+
+    @Autowired
+    private SearchReindexService searchReindexService;
+
+    @Autowired
+    private ElasticsearchTemplate elasticsearchTemplate;
+
+    @Autowired
+    private MockMvc restSearchReindexMockMvc;
+
+    private Country insertedCountry;
+
+    @AfterEach
+    public void cleanup() {
+        if (insertedCountry != null) {
+            countryRepository.delete(insertedCountry);
+            countrySearchRepository.delete(insertedCountry);
+            insertedCountry = null;
+        }
+    }
+
+    @Test
+    void reindexBuildsNewIndexBehindAlias() throws Exception {
+        // Only in the database: the rebuild must find it
+        insertedCountry = countryRepository.saveAndFlush(CountryResourceIT.createEntity());
+
+        restSearchReindexMockMvc
+            .perform(post(REINDEX_API_URL + "?index=country"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.[*].index").value(hasItem("country")));
+
+        await().atMost(30, TimeUnit.SECONDS).until(() -> !searchReindexService.isRunning());
+        restSearchReindexMockMvc
+            .perform(get(REINDEX_API_URL))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].state").value(SearchReindexService.State.COMPLETED.toString()))
+            .andExpect(jsonPath("$.[0].targetIndex").value(org.hamcrest.Matchers.startsWith("country-")));
+
+        assertThat(elasticsearchTemplate.indexOps(IndexCoordinates.of("country")).getInformation())
+            .extracting(IndexInformation::getName)
+            .singleElement()
+            .asString()
+            .startsWith("country-");
+        assertThat(countrySearchRepository.findById(insertedCountry.getId())).isPresent();
+    }
+
+    @Test
+    void reindexRejectsUnknownIndex() throws Exception {
+        restSearchReindexMockMvc.perform(post(REINDEX_API_URL + "?index=unknown")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void reindexRequiresAdmin() throws Exception {
+        restSearchReindexMockMvc.perform(post(REINDEX_API_URL)).andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,102 @@
+package ma.fullstackclone.airbnb.web.rest;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ma.fullstackclone.airbnb.IntegrationTest;
+import ma.fullstackclone.airbnb.service.dto.CountryDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Integration tests for the {@link SuggestionResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class SuggestionResourceIT {
+
+    private static final String SUGGEST_API_URL = "/api/_suggest";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private MockMvc restSuggestionMockMvc;
+
+    private Long insertedCountryId;
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        if (insertedCountryId != null) {
+            restSuggestionMockMvc.perform(delete("/api/countries/{id}", insertedCountryId)).andExpect(status().isNoContent());
+            insertedCountryId = null;
+        }
+    }
+
+    @Test
+    void writtenCountriesAreSuggested() throws Exception {
+        CountryDTO countryDTO = new CountryDTO();
+        countryDTO.setName("Suggéstia Major");
+        countryDTO.setCode("SG");
+        CountryDTO created = om.readValue(
+            restSuggestionMockMvc
+                .perform(post("/api/countries").contentType(MediaType.APPLICATION_JSON).content(om.writeValueAsBytes(countryDTO)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(),
+            CountryDTO.class
+        );
+        insertedCountryId = created.getId();
+
+        // any word start, ignoring case and accents
+        restSuggestionMockMvc
+            .perform(get(SUGGEST_API_URL + "?q=SUGGEST"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(insertedCountryId.intValue())))
+            .andExpect(jsonPath("$.[*].text").value(hasItem("Suggéstia Major")))
+            .andExpect(jsonPath("$.[*].type").value(hasItem("COUNTRY")));
+        restSuggestionMockMvc
+            .perform(get(SUGGEST_API_URL + "?q=maj"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(insertedCountryId.intValue())));
+
+        // renamed
+        CountryDTO partialUpdatedCountryDTO = new CountryDTO();
+        partialUpdatedCountryDTO.setId(insertedCountryId);
+        partialUpdatedCountryDTO.setName("Renamed Suggestland");
+        restSuggestionMockMvc
+            .perform(
+                patch("/api/countries/{id}", insertedCountryId)
+                    .contentType("application/merge-patch+json")
+                    .content(om.writeValueAsBytes(partialUpdatedCountryDTO))
+            )
+            .andExpect(status().isOk());
+        restSuggestionMockMvc
+            .perform(get(SUGGEST_API_URL + "?q=maj"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(insertedCountryId.intValue()))));
+        restSuggestionMockMvc
+            .perform(get(SUGGEST_API_URL + "?q=suggestl"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].text").value(hasItem("Renamed Suggestland")));
+
+        // deleted
+        restSuggestionMockMvc.perform(delete("/api/countries/{id}", insertedCountryId)).andExpect(status().isNoContent());
+        restSuggestionMockMvc
+            .perform(get(SUGGEST_API_URL + "?q=suggestl"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(not(hasItem(insertedCountryId.intValue()))));
+        insertedCountryId = null;
+    }
+}
@@ -0,0 +1,53 @@
+package ma.fullstackclone.airbnb.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import ma.fullstackclone.airbnb.web.rest.errors.BadRequestAlertException;
+import org.junit.jupiter.api.Test;
+
+class EntityTagUtilTest {
+
+    @Test
+    void tagOfAVersionIsReadBackTest() {
+        String tag = EntityTagUtil.entityTag("property", 12L, 3L);
+
+        assertThat(tag).isEqualTo("\"property-12-3\"");
+        assertThat(EntityTagUtil.ifMatchVersion(tag, "property", 12L)).isEqualTo(3L);
+        assertThat(EntityTagUtil.ifMatchVersion(" " + tag + " ", "property", 12L)).isEqualTo(3L);
+    }
+
+    @Test
+    void tagOfAWriteIsReadBackAsItsVersionTest() {
+        Instant lastModifiedDate = Instant.parse("2026-10-18T09:00:00.123456Z");
+        String tag = EntityTagUtil.entityTag("property", 12L, 3L, lastModifiedDate);
+
+        assertThat(tag).startsWith("\"property-12-3-").isNotEqualTo(EntityTagUtil.entityTag("property", 12L, 3L));
+        assertThat(tag).isNotEqualTo(EntityTagUtil.entityTag("property", 12L, 3L, lastModifiedDate.plusMillis(1)));
+        assertThat(EntityTagUtil.ifMatchVersion(tag, "property", 12L)).isEqualTo(3L);
+        assertThat(EntityTagUtil.entityTag("property", 12L, 3L, null)).isEqualTo("\"property-12-3\"");
+    }
+
+    @Test
+    void anyOrNoTagIsUnconditionalTest() {
+        assertThat(EntityTagUtil.ifMatchVersion(null, "property", 12L)).isNull();
+        assertThat(EntityTagUtil.ifMatchVersion("*", "property", 12L)).isNull();
+    }
+
+    @Test
+    void tagOfAnotherEntityOrMalformedIsRejectedTest() {
+        assertThatThrownBy(() -> EntityTagUtil.ifMatchVersion("\"property-13-3\"", "property", 12L)).isInstanceOf(
+            BadRequestAlertException.class
+        );
+        assertThatThrownBy(() -> EntityTagUtil.ifMatchVersion("\"booking-12-3\"", "property", 12L)).isInstanceOf(
+            BadRequestAlertException.class
+        );
+        assertThatThrownBy(() -> EntityTagUtil.ifMatchVersion("W/\"property-12-3\"", "property", 12L)).isInstanceOf(
+            BadRequestAlertException.class
+        );
+        assertThatThrownBy(() -> EntityTagUtil.ifMatchVersion("\"property-12-99999999999999999999\"", "property", 12L)).isInstanceOf(
+            BadRequestAlertException.class
+        );
+    }
+}
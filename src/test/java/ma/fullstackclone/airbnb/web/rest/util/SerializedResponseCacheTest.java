@@ -0,0 +1,109 @@
+package ma.fullstackclone.airbnb.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+class SerializedResponseCacheTest {
+
+    private static final String ETAG = "\"properties-2-1\"";
+
+    private SerializedResponseCache serializedResponseCache;
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        serializedResponseCache = new SerializedResponseCache(
+            new ConcurrentMapCacheManager(SerializedResponseCache.SERIALIZED_RESPONSES_CACHE),
+            new ObjectMapper()
+        );
+    }
+
+    private static NativeWebRequest request(String query, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/properties");
+        if (query != null) {
+            request.setQueryString(query);
+            for (String parameter : query.split("&")) {
+                String[] nameAndValue = parameter.split("=");
+                request.addParameter(nameAndValue[0], nameAndValue[1]);
+            }
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+
+    private Supplier<ResponseEntity<List<String>>> rows(String... rows) {
+        return () -> {
+            builds.incrementAndGet();
+            return ResponseEntity.ok().header("X-Has-Next-Page", "false").body(List.of(rows));
+        };
+    }
+
+    @Test
+    void matchingTagIsNotModifiedTest() {
+        ResponseEntity<byte[]> response = serializedResponseCache.get(request(null, ETAG), ETAG, rows("a"));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(builds).hasValue(0);
+    }
+
+    @Test
+    void sameUrlAndTagIsServedFromTheCacheTest() {
+        serializedResponseCache.get(request("page=0&size=20", null), ETAG, rows("a", "b"));
+        ResponseEntity<byte[]> response = serializedResponseCache.get(request("size=20&page=0", "\"other\""), ETAG, rows("c"));
+
+        assertThat(builds).hasValue(1);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"a\",\"b\"]");
+        assertThat(response.getHeaders().getFirst("X-Has-Next-Page")).isEqualTo("false");
+        assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+    }
+
+    @Test
+    void changedTagOrOtherUrlIsRebuiltTest() {
+        serializedResponseCache.get(request("page=0", null), ETAG, rows("a"));
+        ResponseEntity<byte[]> response = serializedResponseCache.get(request("page=0", null), "\"properties-3-2\"", rows("a", "b"));
+        serializedResponseCache.get(request("page=1", null), "\"properties-3-2\"", rows("c"));
+
+        assertThat(builds).hasValue(3);
+        assertThat(new String(response.getBody(), StandardCharsets.UTF_8)).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    void errorsAndUntaggedResponsesAreNotCachedTest() {
+        ResponseEntity<byte[]> notFound = serializedResponseCache.get(request(null, null), ETAG, () -> ResponseEntity.notFound().build());
+        serializedResponseCache.get(request(null, null), null, rows("a"));
+        serializedResponseCache.get(request(null, null), null, rows("a"));
+
+        assertThat(notFound.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(builds).hasValue(2);
+    }
+
+    @Test
+    void keySortsTheParametersAndKeepsTheirValuesApartTest() {
+        assertThat(SerializedResponseCache.key(request("sort=a,asc&sort=b&page=0", null))).isEqualTo(
+            "localhost:80/api/properties?page=0&sort=a%2Casc&sort=b"
+        );
+        assertThat(SerializedResponseCache.key(request("sort=a&sort=asc,b", null))).isNotEqualTo(
+            SerializedResponseCache.key(request("sort=a,asc&sort=b", null))
+        );
+    }
+}
@@ -0,0 +1,126 @@
+package ma.fullstackclone.airbnb.web.websocket;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import ma.fullstackclone.airbnb.config.ApplicationProperties;
+import ma.fullstackclone.airbnb.web.websocket.dto.ActivityDTO;
+import ma.fullstackclone.airbnb.web.websocket.dto.TrackerNodeSnapshotDTO;
+import ma.fullstackclone.airbnb.web.websocket.dto.TrackerSnapshotDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.stream.function.StreamBridge;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+
+class ActivityTrackerTest {
+
+    private SimpMessageSendingOperations messagingTemplate;
+
+    private StreamBridge streamBridge;
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    void setUp() {
+        messagingTemplate = mock(SimpMessageSendingOperations.class);
+        streamBridge = mock(StreamBridge.class);
+        when(streamBridge.send(anyString(), any())).thenReturn(true);
+        applicationProperties = new ApplicationProperties();
+    }
+
+    private ActivityTracker createTracker(ApplicationProperties.Tracker.Mode mode) {
+        applicationProperties.getTracker().setMode(mode);
+        return new ActivityTracker(messagingTemplate, streamBridge, applicationProperties, new SimpleMeterRegistry());
+    }
+
+    private static ActivityDTO activity(String sessionId, String page) {
+        ActivityDTO activityDTO = new ActivityDTO();
+        activityDTO.setSessionId(sessionId);
+        activityDTO.setUserLogin("user");
+        activityDTO.setPage(page);
+        activityDTO.setTime(Instant.now());
+        return activityDTO;
+    }
+
+    private TrackerSnapshotDTO lastSnapshot(int count) {
+        ArgumentCaptor<TrackerSnapshotDTO> snapshots = ArgumentCaptor.forClass(TrackerSnapshotDTO.class);
+        verify(messagingTemplate, times(count)).convertAndSend(eq(ActivityTracker.TRACKER_DESTINATION), snapshots.capture());
+        return snapshots.getValue();
+    }
+
+    @Test
+    void activitiesAreAggregatedInOneSnapshotTest() {
+        ActivityTracker activityTracker = createTracker(ApplicationProperties.Tracker.Mode.SIMPLE);
+        activityTracker.activity(activity("1", "/home"));
+        activityTracker.activity(activity("2", "/home"));
+        activityTracker.activity(activity("1", "/admin"));
+        activityTracker.activity(activity("3", "/home"));
+        activityTracker.disconnected("3");
+
+        activityTracker.snapshot(Instant.now());
+
+        TrackerSnapshotDTO snapshot = lastSnapshot(1);
+        assertThat(snapshot.getSessionCount()).isEqualTo(2);
+        assertThat(snapshot.getPages()).isEqualTo(Map.of("/home", 1, "/admin", 1));
+        verify(streamBridge, never()).send(anyString(), any());
+    }
+
+    @Test
+    void unchangedActivityIsNotSentAgainTest() {
+        ActivityTracker activityTracker = createTracker(ApplicationProperties.Tracker.Mode.SIMPLE);
+        activityTracker.activity(activity("1", "/home"));
+
+        activityTracker.snapshot(Instant.now());
+        activityTracker.snapshot(Instant.now());
+
+        lastSnapshot(1);
+    }
+
+    @Test
+    void sessionsOfOtherNodesAreMergedUntilTheyExpireTest() {
+        ActivityTracker activityTracker = createTracker(ApplicationProperties.Tracker.Mode.KAFKA);
+        activityTracker.activity(activity("1", "/home"));
+        TrackerNodeSnapshotDTO nodeSnapshot = new TrackerNodeSnapshotDTO();
+        nodeSnapshot.setNodeId("other");
+        nodeSnapshot.setVersion(1);
+        nodeSnapshot.setSessions(List.of(activity("2", "/home"), activity("3", "/search")));
+        activityTracker.nodeSnapshot(nodeSnapshot);
+
+        activityTracker.snapshot(Instant.now());
+
+        verify(streamBridge).send(eq(ActivityTracker.BINDING_NAME), any(TrackerNodeSnapshotDTO.class));
+        assertThat(lastSnapshot(1).getPages()).isEqualTo(Map.of("/home", 2, "/search", 1));
+
+        activityTracker.snapshot(Instant.now().plusSeconds(10));
+
+        assertThat(lastSnapshot(2).getSessionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void snapshotListsMostRecentSessionsTest() {
+        applicationProperties.getTracker().setMaxSessions(1);
+        ActivityTracker activityTracker = createTracker(ApplicationProperties.Tracker.Mode.SIMPLE);
+        ActivityDTO older = activity("1", "/home");
+        older.setTime(Instant.now().minusSeconds(60));
+        activityTracker.activity(older);
+        activityTracker.activity(activity("2", "/search"));
+
+        activityTracker.snapshot(Instant.now());
+
+        TrackerSnapshotDTO snapshot = lastSnapshot(1);
+        assertThat(snapshot.getSessionCount()).isEqualTo(2);
+        assertThat(snapshot.getSessions()).extracting(ActivityDTO::getSessionId).containsExactly("2");
+    }
+}